@@ -19,6 +19,7 @@ public class Messages extends NLS {
     public static String OpenGCAction_gcov_error;
     public static String OpenGCAction_file_dne_run;
     public static String OpenGCAction_file_dne_compile;
+    public static String OpenGCAction_parsing_job;
 
     static {
         // initialize resource bundle
@@ -28,7 +28,9 @@ import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jface.dialogs.IDialogSettings;
 import org.eclipse.jface.dialogs.MessageDialog;
 import org.eclipse.jface.window.Window;
@@ -127,14 +129,15 @@ public class OpenGCAction implements IEditorLauncher {
         if (d.open() != Window.OK) {
             return;
         }
-        // start a thread so we can return control from UI thread until needed
-        Thread t = new Thread(() -> {
-        	displayCoverage(file, d.getBinaryFile(), pair.gcda, d.isCompleteCoverageResultWanted());
+        // start a job so we can return control from UI thread until needed
+        Job job = Job.create(Messages.OpenGCAction_parsing_job, monitor -> {
+        	displayCoverage(file, d.getBinaryFile(), pair.gcda, d.isCompleteCoverageResultWanted(), monitor);
         });
-        t.start();
+        job.schedule();
     }
 
-    private void displayCoverage(IPath file, String binaryPath, File gcda, boolean isCompleteCoverageResultWanted)
+    private void displayCoverage(IPath file, String binaryPath, File gcda, boolean isCompleteCoverageResultWanted,
+            IProgressMonitor monitor)
     {
     	//FIXME EK-LINUXTOOLS: IProject project = ResourcesPlugin.getWorkspace().getRoot().getFileForLocation(file).getProject();
     	IProject project = STSymbolManager.sharedInstance.getProjectFromFile(file);
@@ -146,9 +149,9 @@ public class OpenGCAction implements IEditorLauncher {
         });
 
         if (isCompleteCoverageResultWanted) {
-            CovView.displayCovResults(binaryPath, gcda.getAbsolutePath());
+            CovView.displayCovResults(binaryPath, gcda.getAbsolutePath(), monitor);
         } else {
-            CovView.displayCovDetailedResult(binaryPath, gcda.getAbsolutePath());
+            CovView.displayCovDetailedResult(binaryPath, gcda.getAbsolutePath(), monitor);
         }
     }
 
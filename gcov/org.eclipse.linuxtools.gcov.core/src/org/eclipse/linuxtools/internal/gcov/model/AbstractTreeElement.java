@@ -23,9 +23,9 @@ public abstract class AbstractTreeElement implements TreeElement{
     private final TreeElement parent;
     private final LinkedList<TreeElement> children = new LinkedList<>();
     private final String name;
-    private final int totalLines;
-    private final int executedLines;
-    private final int instrumentedLines;
+    private int totalLines;
+    private int executedLines;
+    private int instrumentedLines;
 
     public AbstractTreeElement(TreeElement parent, String name, int totalLines,
             int executedLines, int instrumentedLines) {
@@ -82,6 +82,18 @@ public abstract class AbstractTreeElement implements TreeElement{
         else return 0;
     }
 
+    /**
+     * Updates the counts of this element, when coverage data has been refreshed.
+     * @param totalLines
+     * @param executedLines
+     * @param instrumentedLines
+     */
+    public void setCounts(int totalLines, int executedLines, int instrumentedLines) {
+        this.totalLines = totalLines;
+        this.executedLines = executedLines;
+        this.instrumentedLines = instrumentedLines;
+    }
+
     public void addChild(TreeElement child){
         children.add(child);
     }
@@ -143,4 +143,23 @@ public class Arc implements Serializable{
     public boolean isCountValid() {
         return countValid;
     }
+
+    /**
+     * Resets the state computed from a data file, keeping the state read from the note file.
+     */
+    public void resetCounts() {
+        count = 0;
+        countValid = false;
+        isUnconditionnal = false;
+    }
+
+    /**
+     * Copies the state computed from a data file by an arc of the same graph, parsed from the same note file.
+     * @param other
+     */
+    public void copyCounts(Arc other) {
+        count = other.count;
+        countValid = other.countValid;
+        isUnconditionnal = other.isUnconditionnal;
+    }
 }
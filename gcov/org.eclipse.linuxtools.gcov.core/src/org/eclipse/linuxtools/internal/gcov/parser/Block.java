@@ -19,7 +19,8 @@ public class Block implements Serializable{
 
     private static final long serialVersionUID = -7665287885679756014L;
     private final ArrayList<Arc> entryArcs = new ArrayList<>();
-    private ArrayList<Arc> exitArcs = new ArrayList<>();
+    private final ArrayList<Arc> exitArcs = new ArrayList<>();
+    private ArrayList<Arc> sortedExitArcs = null;
     private final long flag;
     private long numSuccs = 0;
     private long  numPreds = 0;
@@ -49,12 +50,22 @@ public class Block implements Serializable{
         return entryArcs;
     }
 
+    /**
+     * @return the exit arcs, sorted by destination block if they have been read out of order
+     */
     public ArrayList<Arc> getExitArcs() {
+        return sortedExitArcs != null ? sortedExitArcs : exitArcs;
+    }
+
+    /**
+     * @return the exit arcs in the order of the note file, which is the order of the arc counters of a data file
+     */
+    public ArrayList<Arc> getNoteExitArcs() {
         return exitArcs;
     }
 
-    public void setExitArcs(ArrayList<Arc> exitArcs) {
-        this.exitArcs = exitArcs;
+    public void setSortedExitArcs(ArrayList<Arc> sortedExitArcs) {
+        this.sortedExitArcs = sortedExitArcs;
     }
 
     public boolean isCallSite() {
@@ -153,6 +164,49 @@ public class Block implements Serializable{
         this.numPreds = numPreds;
     }
 
+    /**
+     * Resets the state computed from a data file, keeping the state read from the note file.
+     */
+    public void resetCounts() {
+        numSuccs = exitArcs.size();
+        numPreds = entryArcs.size();
+        count = 0;
+        countValid = false;
+        validChain = false;
+        invalidChain = false;
+        isCallReturn = false;
+        sortedExitArcs = null;
+        for (Arc a : exitArcs) {
+            a.resetCounts();
+        }
+    }
+
+    /**
+     * Copies the state computed from a data file by a block of the same graph, parsed from the same note file.
+     * @param other
+     */
+    public void copyCounts(Block other) {
+        numSuccs = other.numSuccs;
+        numPreds = other.numPreds;
+        count = other.count;
+        countValid = other.countValid;
+        validChain = other.validChain;
+        invalidChain = other.invalidChain;
+        isCallReturn = other.isCallReturn;
+        for (int i = 0; i < exitArcs.size(); i++) {
+            exitArcs.get(i).copyCounts(other.exitArcs.get(i));
+        }
+        if (other.sortedExitArcs == null) {
+            sortedExitArcs = null;
+        } else {
+            // same permutation of the arcs of this block
+            sortedExitArcs = new ArrayList<>(exitArcs.size());
+            for (Arc a : other.sortedExitArcs) {
+                sortedExitArcs.add(exitArcs.get(other.exitArcs.indexOf(a)));
+            }
+        }
+    }
+
     public long[] getEncoding() {
         return blkline.encoding;
     }
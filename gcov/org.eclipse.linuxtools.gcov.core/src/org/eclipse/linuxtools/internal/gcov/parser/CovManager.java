@@ -15,7 +15,6 @@ package org.eclipse.linuxtools.internal.gcov.parser;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedReader;
-import java.io.DataInput;
 import java.io.DataInputStream;
 import java.io.File;
 import java.io.FileInputStream;
@@ -25,27 +24,39 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.LineNumberReader;
 import java.io.Serializable;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import org.eclipse.cdt.core.IBinaryParser.IBinaryObject;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.jface.dialogs.MessageDialog;
 import org.eclipse.linuxtools.binutils.utils.STStrings;
 import org.eclipse.linuxtools.binutils.utils.STSymbolManager;
+import org.eclipse.linuxtools.internal.gcov.model.AbstractTreeElement;
 import org.eclipse.linuxtools.internal.gcov.model.CovFileTreeElement;
 import org.eclipse.linuxtools.internal.gcov.model.CovFolderTreeElement;
 import org.eclipse.linuxtools.internal.gcov.model.CovFunctionTreeElement;
 import org.eclipse.linuxtools.internal.gcov.model.CovRootTreeElement;
+import org.eclipse.linuxtools.internal.gcov.model.TreeElement;
 import org.eclipse.osgi.util.NLS;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.widgets.Display;
@@ -74,6 +85,12 @@ public class CovManager implements Serializable {
     private final ArrayList<GcnoFunction> allFnctns = new ArrayList<>();
     private final HashMap<String, SourceFile> sourceMap = new HashMap<>();
     private long nbrPgmRuns = 0;
+    // for incremental refresh
+    private List<String> gcdaPaths = new ArrayList<>();
+    private transient List<CovFile> covFiles;
+    private transient Map<GcnoFunction, Set<SourceFile>> fnctnSources;
+    private transient Map<SourceFile, List<GcnoFunction>> sourceFnctns;
+    private transient volatile Map<CovFile, CovFile> refreshedFiles;
     // for view
     private CovRootTreeElement rootNode;
 	//FIXME EK-LINUXTOOLS: private final IProject project;
@@ -104,14 +121,17 @@ public class CovManager implements Serializable {
 
     /**
      * parse coverage files, execute resolve graph algorithm, process counts for functions, lines and folders.
-     * @param List of coverage files paths
-     * @throws CoreException, IOException, InterruptedException
+     * Coverage files are parsed concurrently, and merged in the order of the given list.
+     * @param covFilesPaths List of coverage files paths
+     * @param initialGcda
+     * @param monitor progress monitor, one unit of work per coverage file, may be null
+     * @throws CoreException, IOException
+     * @throws OperationCanceledException if the monitor is canceled
      */
-
-    public void processCovFiles(List<String> covFilesPaths, String initialGcda) throws CoreException, IOException {
-        GcdaRecordsParser daRcrd = null;
-        DataInput traceFile;
-
+    public void processCovFiles(List<String> covFilesPaths, String initialGcda, IProgressMonitor monitor)
+            throws CoreException, IOException {
+        SubMonitor progress = SubMonitor.convert(monitor, covFilesPaths.size());
+        gcdaPaths = covFilesPaths;
         Map<File, File> sourcePath = new HashMap<>();
 
         if (initialGcda != null) {
@@ -131,89 +151,101 @@ public class CovManager implements Serializable {
             }
         }
 
+        // locate all the files first: this may ask the user, and updates sourcePath.
+        List<File[]> traceFiles = new ArrayList<>(covFilesPaths.size());
         for (String gcdaPath : covFilesPaths) {
             String gcnoPath = gcdaPath.replace(".gcda", ".gcno"); //$NON-NLS-1$ //$NON-NLS-2$
-            // parse GCNO file
-            traceFile = openTraceFileStream(gcnoPath, ".gcno", sourcePath); //$NON-NLS-1$
-            if (traceFile == null) {
+            File gcno = findTraceFile(gcnoPath, ".gcno", sourcePath); //$NON-NLS-1$
+            if (gcno == null) {
                 return;
             }
-            GcnoRecordsParser noRcrd = new GcnoRecordsParser(sourceMap, allSrcs);
-            noRcrd.parseData(traceFile);
-
-            // add new functions parsed to AllSrcs array
-            for (GcnoFunction f : noRcrd.getFnctns()) {
-                allFnctns.add(f);
+            File gcda = findTraceFile(gcdaPath, ".gcda", sourcePath); //$NON-NLS-1$
+            if (gcda == null) {
+                return;
             }
+            traceFiles.add(new File[] { gcno, gcda });
+        }
 
-            // close the input stream
-            if (traceFile.getClass() == DataInputStream.class) {
-                ((DataInputStream) traceFile).close();
-            }
+        // parse GCNO/GCDA pairs concurrently, each one into its own sources
+        List<CompletableFuture<CovFile>> futures = new ArrayList<>(traceFiles.size());
+        for (File[] files : traceFiles) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return parseCovFile(files[0], files[1]);
+                } catch (CoreException | IOException e) {
+                    throw new CompletionException(e);
+                }
+            }));
+        }
 
-            // parse GCDA file
-            traceFile = openTraceFileStream(gcdaPath, ".gcda", sourcePath); //$NON-NLS-1$
-            if (traceFile == null) {
-                return;
+        // merge the results in the order of the files, while the next ones are parsed
+        List<CovFile> parsedFiles = new ArrayList<>(futures.size());
+        try {
+            for (CompletableFuture<CovFile> future : futures) {
+                if (progress.isCanceled()) {
+                    throw new OperationCanceledException();
+                }
+                CovFile parsed = future.join();
+                merge(parsed);
+                parsedFiles.add(parsed);
+                progress.worked(1);
             }
-            if (noRcrd.getFnctns().isEmpty()) {
-                String message = NLS.bind(Messages.CovManager_No_Funcs_Error, gcnoPath);
-				IStatus status = Status.error(message);
-                throw new CoreException(status);
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof CoreException) {
+                throw (CoreException) cause;
+            } else if (cause instanceof IOException) {
+                throw (IOException) cause;
             }
-            daRcrd = new GcdaRecordsParser(noRcrd.getFnctns());
-            daRcrd.parseGcdaRecord(traceFile);
-
-            // close the input stream
-            if (traceFile.getClass() == DataInputStream.class) {
-                ((DataInputStream) traceFile).close();
+            throw e;
+        } finally {
+            for (CompletableFuture<CovFile> future : futures) {
+                future.cancel(false);
             }
         }
+        covFiles = parsedFiles;
 
         // to fill the view title
-        if (daRcrd != null) {
-            nbrPgmRuns = daRcrd.getPgmSmryNbrPgmRuns();
+        if (!parsedFiles.isEmpty()) {
+            nbrPgmRuns = parsedFiles.get(parsedFiles.size() - 1).nbrPgmRuns;
         }
 
         /* process counts from data parsed */
 
         // solve graph for each function
-        for (GcnoFunction gf : allFnctns) {
-            gf.solveGraphFnctn();
-        }
+        allFnctns.parallelStream().forEach(GcnoFunction::solveGraphFnctn);
 
         // allocate lines
         for (SourceFile sourceFile : allSrcs) {
 			sourceFile.createLines(allSrcs);
         }
+        // the lines of a source get blocks from the functions of any source, so their blocks are only indexed now
+        for (SourceFile sourceFile : allSrcs) {
+            sourceFile.indexBlocks();
+        }
 
-        // add line counts
+        // add line counts (a function may have lines in several sources)
         for (GcnoFunction gf : allFnctns) {
             gf.addLineCounts(allSrcs);
         }
 
         // accumulate lines
-        for (SourceFile sf : allSrcs) {
-            sf.accumulateLineCounts();
-        }
+        allSrcs.parallelStream().forEach(SourceFile::accumulateLineCounts);
 
         /* compute counts by folder */
 
         // make the folders list
+        Map<String, Folder> folderMap = new HashMap<>();
         for (SourceFile sf : allSrcs) {
             File srcFile = new File(sf.getName());
             String folderName = srcFile.getParent();
             if (folderName == null) {
                 folderName = "?"; //$NON-NLS-1$
             }
-            Folder folder = null;
-            for (Folder f : allFolders) {
-                if (f.getPath().equals(folderName)) {
-                    folder = f;
-                }
-            }
+            Folder folder = folderMap.get(folderName);
             if (folder == null) {
                 folder = new Folder(folderName);
+                folderMap.put(folderName, folder);
                 allFolders.add(folder);
             }
             folder.addSrcFiles(sf);
@@ -225,6 +257,368 @@ public class CovManager implements Serializable {
         }
     }
 
+    /**
+     * A parsed GCNO/GCDA pair. Sources are local to the pair until it is merged into the results. The state of the
+     * files when they have been parsed is kept, for incremental refresh.
+     */
+    private static final class CovFile {
+        private final File gcno;
+        private final File gcda;
+        private long gcnoModified;
+        private long gcnoLength;
+        private long gcdaModified;
+        private long gcdaLength;
+        private final long stamp;
+        private final long checksum;
+        private ArrayList<SourceFile> srcs;
+        private final ArrayList<GcnoFunction> fnctns;
+        private long nbrPgmRuns;
+        // graphs parsed again by the last refresh, into which the next GCDA file is parsed if the GCNO file is unchanged
+        private CovFile spare;
+
+        private CovFile(File gcno, File gcda, GcnoRecordsParser noRcrd, ArrayList<SourceFile> srcs) {
+            this.gcno = gcno;
+            this.gcda = gcda;
+            this.gcnoModified = gcno.lastModified();
+            this.gcnoLength = gcno.length();
+            this.stamp = noRcrd.getStamp();
+            this.checksum = noRcrd.getChecksum();
+            this.srcs = srcs;
+            this.fnctns = noRcrd.getFnctns();
+        }
+
+        private boolean isGcnoModified() {
+            return gcno.lastModified() != gcnoModified || gcno.length() != gcnoLength;
+        }
+
+        private boolean isGcdaModified() {
+            return gcda.lastModified() != gcdaModified || gcda.length() != gcdaLength;
+        }
+
+        /**
+         * Parses the GCDA file into the functions of this pair.
+         */
+        private void parseGcda() throws CoreException, IOException {
+            gcdaModified = gcda.lastModified();
+            gcdaLength = gcda.length();
+            GcdaRecordsParser daRcrd = new GcdaRecordsParser(fnctns);
+            try (DataInputStream traceFile = openTraceFileStream(gcda)) {
+                daRcrd.parseGcdaRecord(traceFile);
+            }
+            nbrPgmRuns = daRcrd.getPgmSmryNbrPgmRuns();
+        }
+
+        /**
+         * Parses the GCDA file again into the graphs of the previous refresh, if the GCNO file has not changed since
+         * they have been parsed. The graphs are no longer available to other refreshes until the counts are applied.
+         * @return the pair with the new counts, or null if the GCNO file must be parsed again
+         * @throws CoreException, IOException
+         */
+        private CovFile parseGcdaAgain() throws CoreException, IOException {
+            CovFile cached = spare;
+            spare = null;
+            if (cached == null || cached.stamp != stamp || cached.checksum != checksum || cached.isGcnoModified()) {
+                return null;
+            }
+            for (GcnoFunction f : cached.fnctns) {
+                f.resetCounts();
+            }
+            cached.parseGcda();
+            return cached;
+        }
+
+        /**
+         * Checks whether a pair parsed again from the same files still has the same function graphs.
+         * @param other
+         * @return true if the functions parsed before can be kept
+         */
+        private boolean hasSameFnctns(CovFile other) {
+            if (other.stamp != stamp || other.checksum != checksum || other.fnctns.size() != fnctns.size()) {
+                return false;
+            }
+            for (int i = 0; i < fnctns.size(); i++) {
+                GcnoFunction f = fnctns.get(i);
+                GcnoFunction o = other.fnctns.get(i);
+                if (f.getIdent() != o.getIdent() || f.getCheksum() != o.getCheksum()
+                        || f.getFunctionBlocks().size() != o.getFunctionBlocks().size()) {
+                    return false;
+                }
+                for (int j = 0; j < f.getFunctionBlocks().size(); j++) {
+                    List<Arc> arcs = f.getFunctionBlock(j).getNoteExitArcs();
+                    List<Arc> otherArcs = o.getFunctionBlock(j).getNoteExitArcs();
+                    if (arcs.size() != otherArcs.size()) {
+                        return false;
+                    }
+                    for (int k = 0; k < arcs.size(); k++) {
+                        if (arcs.get(k).getDstnatnBlockIndice() != otherArcs.get(k).getDstnatnBlockIndice()) {
+                            return false;
+                        }
+                    }
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Copies the counts and the state of the files of a pair parsed again, which has the same function graphs.
+         * @param other
+         */
+        private void copyCounts(CovFile other) {
+            for (int i = 0; i < fnctns.size(); i++) {
+                ArrayList<Block> blocks = fnctns.get(i).getFunctionBlocks();
+                ArrayList<Block> otherBlocks = other.fnctns.get(i).getFunctionBlocks();
+                for (int j = 0; j < blocks.size(); j++) {
+                    blocks.get(j).copyCounts(otherBlocks.get(j));
+                }
+            }
+            gcnoModified = other.gcnoModified;
+            gcnoLength = other.gcnoLength;
+            gcdaModified = other.gcdaModified;
+            gcdaLength = other.gcdaLength;
+            nbrPgmRuns = other.nbrPgmRuns;
+            other.srcs = null;
+            spare = other;
+        }
+    }
+
+    private static CovFile parseCovFile(File gcno, File gcda) throws CoreException, IOException {
+        HashMap<String, SourceFile> localSourceMap = new HashMap<>();
+        ArrayList<SourceFile> localSrcs = new ArrayList<>();
+        // parse GCNO file
+        GcnoRecordsParser noRcrd = new GcnoRecordsParser(localSourceMap, localSrcs);
+        try (DataInputStream traceFile = openTraceFileStream(gcno)) {
+            noRcrd.parseData(traceFile);
+        }
+        if (noRcrd.getFnctns().isEmpty()) {
+            String message = NLS.bind(Messages.CovManager_No_Funcs_Error, gcno.getPath());
+            IStatus status = Status.error(message);
+            throw new CoreException(status);
+        }
+        // parse GCDA file
+        CovFile ret = new CovFile(gcno, gcda, noRcrd, localSrcs);
+        ret.parseGcda();
+        return ret;
+    }
+
+    /**
+     * Merges the sources and functions of a parsed GCNO/GCDA pair into the results.
+     * @param parsed
+     */
+    private void merge(CovFile parsed) {
+        SourceFile[] mapping = new SourceFile[parsed.srcs.size()];
+        for (SourceFile local : parsed.srcs) {
+            SourceFile global = sourceMap.get(local.getName());
+            if (global == null) {
+                global = new SourceFile(local.getName(), allSrcs.size() + 1);
+                allSrcs.add(global);
+                sourceMap.put(local.getName(), global);
+            }
+            if (local.getNumLines() > global.getNumLines()) {
+                global.setNumLines(local.getNumLines());
+            }
+            for (GcnoFunction f : local.getFnctns()) {
+                global.addFnctn(f);
+            }
+            mapping[local.getIndex() - 1] = global;
+        }
+        // block encodings refer to sources by index: translate local indexes to global ones
+        for (GcnoFunction f : parsed.fnctns) {
+            for (Block b : f.getFunctionBlocks()) {
+                long[] enc = b.getEncoding();
+                if (enc == null) {
+                    continue;
+                }
+                for (int k = 0; k < b.getLineNum() - 1; k++) {
+                    if (enc[k] == 0) {
+                        k++;
+                        if (enc[k] != 0) {
+                            enc[k] = mapping[(int) enc[k] - 1].getIndex();
+                        }
+                    }
+                }
+            }
+            allFnctns.add(f);
+        }
+        // local sources are no longer needed
+        parsed.srcs = null;
+    }
+
+    /**
+     * Parses again the GCNO/GCDA pairs whose files have changed since they have been parsed, into other function
+     * graphs: the results are left unchanged until the new counts are applied by {@link #updateGcovView()}, which
+     * must be run in the UI thread as the results may be displayed.
+     * Only the GCDA file is parsed when the GCNO file is unchanged, into the graphs of the previous refresh. GCNO
+     * files written again are accepted as long as their stamp, checksum and function graphs do not change.
+     * @param gcdaPaths the GCDA files of the binary, as returned by {@link #getGCDALocations()}
+     * @param monitor progress monitor, one unit of work per changed pair, may be null
+     * @return false if the results cannot be updated in place (e.g. a pair has been added or removed, or a GCNO
+     *         file has changed), and must be computed again from scratch
+     * @throws CoreException, IOException
+     * @throws OperationCanceledException if the monitor is canceled
+     */
+    public boolean refresh(List<String> gcdaPaths, IProgressMonitor monitor) throws CoreException, IOException {
+        List<CovFile> files = covFiles;
+        if (files == null || !new HashSet<>(gcdaPaths).equals(new HashSet<>(this.gcdaPaths))) {
+            return false;
+        }
+        List<CovFile> changedFiles = new ArrayList<>();
+        for (CovFile covFile : files) {
+            if (!covFile.gcno.isFile() || !covFile.gcda.isFile()) {
+                return false;
+            }
+            if (covFile.isGcnoModified() || covFile.isGcdaModified()) {
+                changedFiles.add(covFile);
+            }
+        }
+        if (changedFiles.isEmpty()) {
+            return true;
+        }
+
+        // parse the changed pairs again concurrently, each one into its own graphs
+        SubMonitor progress = SubMonitor.convert(monitor, changedFiles.size());
+        List<CompletableFuture<CovFile>> futures = new ArrayList<>(changedFiles.size());
+        for (CovFile covFile : changedFiles) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    CovFile parsed = covFile.isGcnoModified() ? null : covFile.parseGcdaAgain();
+                    if (parsed == null) {
+                        parsed = parseCovFile(covFile.gcno, covFile.gcda);
+                    }
+                    for (GcnoFunction f : parsed.fnctns) {
+                        f.solveGraphFnctn();
+                    }
+                    return parsed;
+                } catch (CoreException | IOException e) {
+                    throw new CompletionException(e);
+                }
+            }));
+        }
+        Map<CovFile, CovFile> refreshed = new LinkedHashMap<>();
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                if (progress.isCanceled()) {
+                    throw new OperationCanceledException();
+                }
+                CovFile parsed = futures.get(i).join();
+                if (!changedFiles.get(i).hasSameFnctns(parsed)) {
+                    return false;
+                }
+                refreshed.put(changedFiles.get(i), parsed);
+                progress.worked(1);
+            }
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof CoreException) {
+                throw (CoreException) cause;
+            } else if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw e;
+        } finally {
+            for (CompletableFuture<CovFile> future : futures) {
+                future.cancel(false);
+            }
+        }
+        refreshedFiles = refreshed;
+        return true;
+    }
+
+    /**
+     * Applies the counts parsed by {@link #refresh(IProgressMonitor)} to the results.
+     */
+    private void applyRefresh() {
+        Map<CovFile, CovFile> refreshed = refreshedFiles;
+        if (refreshed == null) {
+            return;
+        }
+        refreshedFiles = null;
+        for (Map.Entry<CovFile, CovFile> e : refreshed.entrySet()) {
+            e.getKey().copyCounts(e.getValue());
+        }
+        nbrPgmRuns = covFiles.get(covFiles.size() - 1).nbrPgmRuns;
+
+        // Line counts of a source depend on all the functions having lines in it, and the counts of a function on
+        // all the sources it has lines in: collect the closure of the changed functions.
+        indexSources();
+        Set<GcnoFunction> fnctns = new HashSet<>();
+        Set<SourceFile> srcs = new HashSet<>();
+        ArrayDeque<GcnoFunction> todo = new ArrayDeque<>();
+        for (CovFile covFile : refreshed.keySet()) {
+            for (GcnoFunction f : covFile.fnctns) {
+                if (fnctns.add(f)) {
+                    todo.add(f);
+                }
+            }
+        }
+        while (!todo.isEmpty()) {
+            for (SourceFile sf : fnctnSources.get(todo.poll())) {
+                if (srcs.add(sf)) {
+                    for (GcnoFunction f : sourceFnctns.get(sf)) {
+                        if (fnctns.add(f)) {
+                            todo.add(f);
+                        }
+                    }
+                }
+            }
+        }
+
+        // compute their counts again, in the same order as the whole computation
+        for (SourceFile sf : srcs) {
+            sf.resetLineCounts();
+        }
+        for (GcnoFunction gf : allFnctns) {
+            if (fnctns.contains(gf)) {
+                gf.resetLineCounts();
+                gf.addLineCounts(allSrcs);
+            }
+        }
+        srcs.parallelStream().forEach(SourceFile::accumulateLineCounts);
+        for (Folder f : allFolders) {
+            for (SourceFile sf : f.getSrcFiles()) {
+                if (srcs.contains(sf)) {
+                    f.accumulateSourcesCounts();
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Indexes the sources each function has lines in, and the functions having lines in each source.
+     */
+    private void indexSources() {
+        if (fnctnSources != null) {
+            return;
+        }
+        fnctnSources = new HashMap<>();
+        sourceFnctns = new HashMap<>();
+        for (SourceFile sf : allSrcs) {
+            sourceFnctns.put(sf, new ArrayList<>());
+        }
+        for (GcnoFunction f : allFnctns) {
+            Set<SourceFile> srcs = new HashSet<>();
+            for (Block b : f.getFunctionBlocks()) {
+                long[] enc = b.getEncoding();
+                if (enc == null) {
+                    continue;
+                }
+                for (int k = 0; k < b.getLineNum() - 1; k++) {
+                    if (enc[k] == 0) {
+                        k++;
+                        int srcn = (int) enc[k];
+                        if (srcn > 0 && srcn <= allSrcs.size()) {
+                            srcs.add(allSrcs.get(srcn - 1));
+                        }
+                    }
+                }
+            }
+            fnctnSources.put(f, srcs);
+            for (SourceFile sf : srcs) {
+                sourceFnctns.get(sf).add(f);
+            }
+        }
+    }
+
     /**
      * fill the model by count results
      * @throws CoreException, IOException, InterruptedException
@@ -243,6 +637,20 @@ public class CovManager implements Serializable {
         rootNode = new CovRootTreeElement(Messages.CovManager_Summary, summaryTotal, summaryExecuted,
                 summaryInstrumented);
         IBinaryObject binaryObject = STSymbolManager.sharedInstance.getBinaryObject(new Path(binaryPath));
+        // demangle the names of all the functions at once
+        List<String> names = new ArrayList<>();
+        for (Folder fldr : allFolders) {
+            for (SourceFile src : fldr.getSrcFiles()) {
+                for (GcnoFunction fnctn : src.getFnctns()) {
+                    names.add(fnctn.getName());
+                }
+            }
+        }
+        String[] demangled = names.toArray(new String[names.size()]);
+        if (binaryObject != null) {
+            demangled = STSymbolManager.sharedInstance.demangle(binaryObject, demangled, project);
+        }
+        int fnctnIndex = 0;
 
         for (Folder fldr : allFolders) {
             String folderLocation = fldr.getPath();
@@ -256,8 +664,7 @@ public class CovManager implements Serializable {
                 fldrTreeElem.addChild(srcTreeElem);
 
                 for (GcnoFunction fnctn : src.getFnctns()) {
-                    String name = fnctn.getName();
-                    name = STSymbolManager.sharedInstance.demangle(binaryObject, name, project);
+                    String name = demangled[fnctnIndex++];
                     srcTreeElem.addChild(new CovFunctionTreeElement(srcTreeElem, name, fnctn.getSrcFile(), fnctn
                             .getFirstLineNmbr(), fnctn.getCvrge().getLinesExecuted(), fnctn.getCvrge()
                             .getLinesInstrumented()));
@@ -266,6 +673,42 @@ public class CovManager implements Serializable {
         }
     }
 
+    /**
+     * Applies the counts parsed by {@link #refresh(IProgressMonitor)}, and updates the counts of the model filled by
+     * {@link #fillGcovView()}.
+     * Must be run in UI thread when the results are displayed
+     */
+    public void updateGcovView() {
+        applyRefresh();
+        if (rootNode == null) {
+            fillGcovView();
+            return;
+        }
+        int summaryTotal = 0, summaryInstrumented = 0, summaryExecuted = 0;
+        Iterator<? extends TreeElement> fldrElems = rootNode.getChildren().iterator();
+        for (Folder fldr : allFolders) {
+            summaryTotal += fldr.getNumLines();
+            summaryInstrumented += fldr.getLinesInstrumented();
+            summaryExecuted += fldr.getLinesExecuted();
+            AbstractTreeElement fldrTreeElem = (AbstractTreeElement) fldrElems.next();
+            fldrTreeElem.setCounts(fldr.getNumLines(), fldr.getLinesExecuted(), fldr.getLinesInstrumented());
+
+            Iterator<? extends TreeElement> srcElems = fldrTreeElem.getChildren().iterator();
+            for (SourceFile src : fldr.getSrcFiles()) {
+                AbstractTreeElement srcTreeElem = (AbstractTreeElement) srcElems.next();
+                srcTreeElem.setCounts(src.getNumLines(), src.getLinesExecuted(), src.getLinesInstrumented());
+
+                Iterator<? extends TreeElement> fnctnElems = srcTreeElem.getChildren().iterator();
+                for (GcnoFunction fnctn : src.getFnctns()) {
+                    AbstractTreeElement fnctnTreeElem = (AbstractTreeElement) fnctnElems.next();
+                    fnctnTreeElem.setCounts(-1, fnctn.getCvrge().getLinesExecuted(),
+                            fnctn.getCvrge().getLinesInstrumented());
+                }
+            }
+        }
+        rootNode.setCounts(summaryTotal, summaryExecuted, summaryInstrumented);
+    }
+
     // Get the Windows OS Type.  We might have to change a path over to Windows format
     // and this is different on Cygwin vs MingW.
     private String getWinOSType() {
@@ -314,17 +757,20 @@ public class CovManager implements Serializable {
 		}
 	}
 
-    private DataInput openTraceFileStream(String filePath, String extension, Map<File, File> sourcePath)
-            throws FileNotFoundException {
+    private static DataInputStream openTraceFileStream(File f) throws FileNotFoundException {
+        FileInputStream fis = new FileInputStream(f);
+        InputStream inputStream = new BufferedInputStream(fis);
+        return new DataInputStream(inputStream);
+    }
+
+    private File findTraceFile(String filePath, String extension, Map<File, File> sourcePath) {
         Path p = new Path(filePath);
         // get the file path transformed to work on local OS (e.g. Windows)
         filePath = getTransformedPathString(p);
         File f = new File(filePath).getAbsoluteFile();
         String filename = f.getName();
         if (f.isFile() && f.canRead()) {
-            FileInputStream fis = new FileInputStream(f);
-            InputStream inputStream = new BufferedInputStream(fis);
-            return new DataInputStream(inputStream);
+            return f;
         } else {
             String postfix = ""; //$NON-NLS-1$
             File dir = null;
@@ -345,7 +791,7 @@ public class CovManager implements Serializable {
             if (dir != null) {
                 f = new File(dir, postfix);
                 if (f.isFile() && f.canRead()) {
-                    return openTraceFileStream(f.getAbsolutePath(), extension, sourcePath);
+                    return findTraceFile(f.getAbsolutePath(), extension, sourcePath);
                 }
             }
 
@@ -361,7 +807,6 @@ public class CovManager implements Serializable {
 				String s = fg.open();
 				holder.setString(s);
 			});
-			// transform String path to stream
 			String s = holder.getString();
             if (s == null) {
 				return null;
@@ -369,9 +814,7 @@ public class CovManager implements Serializable {
 				f = new File(s).getAbsoluteFile();
 				addSourceLookup(sourcePath, f, new File(filePath).getAbsoluteFile());
 				if (f.isFile() && f.canRead()) {
-					FileInputStream fis = new FileInputStream(f);
-					InputStream inputStream = new BufferedInputStream(fis);
-					return new DataInputStream(inputStream);
+					return f;
 				}
             }
         }
@@ -398,6 +841,13 @@ public class CovManager implements Serializable {
         return sourceMap.get(sourcePath);
     }
 
+    /**
+     * @return the paths of the GCDA files processed by {@link #processCovFiles(List, String, IProgressMonitor)}
+     */
+    public List<String> getGcdaPaths() {
+        return gcdaPaths;
+    }
+
     public long getNbrPgmRuns() {
         return nbrPgmRuns;
     }
@@ -172,7 +172,8 @@ public class GcdaRecordsParser {
 						int prevBlockIndice = 0;
 						boolean outOfOrder = false;
 
-                        ArrayList<Arc> arcsExit = b.getExitArcs();
+                        // counters are in the order of the note file, even if the arcs have been sorted by a previous parse
+                        ArrayList<Arc> arcsExit = b.getNoteExitArcs();
                         for (Arc extArc : arcsExit) {
                             if (!extArc.isFake()) {
                                 nonFakeExit++;
@@ -221,7 +222,7 @@ public class GcdaRecordsParser {
                         if (outOfOrder == true) {
                             ArrayList<Arc> sordtedExitArcs = (ArrayList<Arc>) arcsExit.stream().sorted(Comparator.comparing(Arc::getDstnatnBlockIndice))
                                     .collect(Collectors.toList());
-                            b.setExitArcs(sordtedExitArcs);
+                            b.setSortedExitArcs(sordtedExitArcs);
                         }
                     }
 
@@ -66,11 +66,9 @@ public class GcnoFunction implements Serializable, Comparable<GcnoFunction> {
             for (int j = 0, k = 0; j != blk.getLineNum(); j++, k++) {
                 if (enc[k] == 0) {
                     int srcn = (int) enc[++k];
-                    for (SourceFile sf : srcs) {
-                        if (sf.getIndex() == srcn) {
-                            fileSrc = sf;
-                            break;
-                        }
+                    // source indexes start at 1, in the order of srcs
+                    if (srcn > 0 && srcn <= srcs.size()) {
+                        fileSrc = srcs.get(srcn - 1);
                     }
                     j++;
                 } else if ((fileSrc != null) && enc[k] < fileSrc.getLines().size()) {
@@ -230,6 +228,23 @@ public class GcnoFunction implements Serializable, Comparable<GcnoFunction> {
         }
     }
 
+    /**
+     * Resets the counts of the function, so that a new data file can be parsed.
+     */
+    public void resetCounts() {
+        for (Block b : functionBlocks) {
+            b.resetCounts();
+        }
+        cvrge.reset();
+    }
+
+    /**
+     * Resets the line coverage of the function, so that line counts can be added again.
+     */
+    public void resetLineCounts() {
+        cvrge.reset();
+    }
+
     /* getters & setters */
 
     public long getIdent() {
@@ -45,6 +45,8 @@ public class GcnoRecordsParser {
     private final ArrayList<GcnoFunction> fnctns = new ArrayList<>();
     private final ArrayList<SourceFile> currentAllSrcs;
     private final HashMap<String, SourceFile> sourceMap;
+    private long stamp;
+    private long checksum;
 
     public GcnoRecordsParser(HashMap<String, SourceFile> sourceMap, ArrayList<SourceFile> allSrcs) {
         this.sourceMap = sourceMap;
@@ -88,11 +90,10 @@ public class GcnoRecordsParser {
         }
 
         int version = stream.readInt();
-        // stamp = stream.readInt();
-        stream.readInt();
+        stamp = stream.readInt() & MasksGenerator.UNSIGNED_INT_MASK;
 
 		if (version >= GCC_VER_1210) {
-			stream.readInt(); // checksum
+			checksum = stream.readInt() & MasksGenerator.UNSIGNED_INT_MASK;
 			readBytes = true;
 		}
 
@@ -294,4 +295,18 @@ public class GcnoRecordsParser {
     public ArrayList<GcnoFunction> getFnctns() {
         return fnctns;
     }
+
+    /**
+     * @return the stamp of the note file, shared with its data file
+     */
+    public long getStamp() {
+        return stamp;
+    }
+
+    /**
+     * @return the checksum of the note file (GCC 12 and later), or 0
+     */
+    public long getChecksum() {
+        return checksum;
+    }
 }
@@ -13,50 +13,66 @@
 package org.eclipse.linuxtools.internal.gcov.parser;
 
 import java.io.Serializable;
-import java.util.HashSet;
 import java.util.Set;
 
 
+/**
+ * A line of a {@link SourceFile}. This is a view on the columns of the source file: it can be created on demand and
+ * does not hold any data by itself.
+ */
 public class Line implements Serializable{
 
     private static final long serialVersionUID = 8804878976767948267L;
-    private boolean exists = false;
-    private long count = 0;
-	private Set<Block> blocks = new HashSet<>();
+    private final SourceFile source;
+    private final int lineNumber;
+
+    Line(SourceFile source, int lineNumber) {
+        this.source = source;
+        this.lineNumber = lineNumber;
+    }
 
     /*Getters & setters*/
 
     public boolean exists() {
-        return exists;
+        return source.exists(lineNumber);
     }
 
     public void setExists(boolean exists) {
-        this.exists = exists;
+        source.setExists(lineNumber, exists);
     }
 
     public void setCount(long count) {
-        this.count = count;
+        source.setCount(lineNumber, count);
     }
 
     public long getCount() {
-        return count;
+        return source.getCount(lineNumber);
     }
 
 	public void addBlock(Block b) {
-		blocks.add(b);
+		source.addBlock(lineNumber, b);
 	}
 
 	public boolean hasBlock(Block b) {
-		return blocks.contains(b);
+		return source.hasBlock(lineNumber, b);
 	}
 
 	public Set<Block> getBlocks() {
-		return blocks;
+		return source.getBlocks(lineNumber);
 	}
 
 	@Override
 	public int hashCode() {
-		return blocks.hashCode();
+		return 31 * System.identityHashCode(source) + lineNumber;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (!(obj instanceof Line)) {
+			return false;
+		}
+		Line other = (Line) obj;
+		return source == other.source && lineNumber == other.lineNumber;
 	}
 
 }
@@ -13,10 +13,23 @@
 package org.eclipse.linuxtools.internal.gcov.parser;
 
 import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 
+/**
+ * A source file, with the coverage of its lines. Lines are stored in columns: counts, an "exists" bitset, and the
+ * blocks of each line, indexed by line number. {@link Line} objects are only views on these columns.
+ */
 public class SourceFile implements Serializable {
 
     /**
@@ -25,7 +38,18 @@ public class SourceFile implements Serializable {
     private static final long serialVersionUID = -9182882194956475711L;
     private final String name;
     private final int index;
-    private final ArrayList<Line> lines = new ArrayList<>();
+    /** line counts, null until lines are initialized */
+    private long[] counts;
+    private final BitSet exists = new BitSet();
+    /**
+     * Blocks of lines. While blocks are added, blockRefs and blockLines are parallel arrays of (block, line) pairs.
+     * Once indexed, blockRefs is sorted by line and deduplicated, and the blocks of line i are in
+     * [blockOffsets[i], blockOffsets[i + 1]).
+     */
+    private Block[] blockRefs = new Block[0];
+    private int[] blockLines = new int[0];
+    private int numBlockRefs;
+    private int[] blockOffsets;
     private final TreeSet<GcnoFunction> fnctns = new TreeSet<>();
     private int numLines = 1;
     private final CoverageInfo cvrge = new CoverageInfo();
@@ -41,21 +65,34 @@ public class SourceFile implements Serializable {
 
 
     public void accumulateLineCounts() {
-        for (Line line : lines) {
-            if (line.exists()) {
-                cvrge.incLinesInstrumented();
-                if (line.getCount() != 0) {
-                    cvrge.incLinesExecuted();
-                }
+        if (counts == null) {
+            return;
+        }
+        for (int i = exists.nextSetBit(0); i >= 0 && i < counts.length; i = exists.nextSetBit(i + 1)) {
+            cvrge.incLinesInstrumented();
+            if (counts[i] != 0) {
+                cvrge.incLinesExecuted();
             }
         }
     }
 
+    /**
+     * Resets the counts of the lines, keeping their blocks.
+     */
+    public void resetLineCounts() {
+        if (counts != null) {
+            Arrays.fill(counts, 0);
+        }
+        exists.clear();
+        cvrge.reset();
+        maxCount = -1;
+    }
+
     public long getmaxLineCount() {
-        if (maxCount < 0) {
-            for (Line line : lines) {
-                if (line.getCount() > maxCount) {
-                    maxCount = line.getCount();
+        if (maxCount < 0 && counts != null) {
+            for (long count : counts) {
+                if (count > maxCount) {
+                    maxCount = count;
                 }
             }
         }
@@ -78,8 +115,124 @@ public class SourceFile implements Serializable {
         return name;
     }
 
-    public ArrayList<Line> getLines() {
-        return lines;
+    /**
+     * @return views on the lines of this file, indexed by line number
+     */
+    public List<Line> getLines() {
+        return new AbstractList<>() {
+            @Override
+            public Line get(int index) {
+                Objects.checkIndex(index, size());
+                return new Line(SourceFile.this, index);
+            }
+
+            @Override
+            public int size() {
+                return counts == null ? 0 : counts.length;
+            }
+        };
+    }
+
+    public long getCount(int line) {
+        return counts[line];
+    }
+
+    public void setCount(int line, long count) {
+        counts[line] = count;
+    }
+
+    public boolean exists(int line) {
+        return exists.get(line);
+    }
+
+    public void setExists(int line, boolean exists) {
+        this.exists.set(line, exists);
+    }
+
+    public synchronized void addBlock(int line, Block b) {
+        Objects.checkIndex(line, counts == null ? 0 : counts.length);
+        if (blockOffsets != null) {
+            unindexBlocks();
+        }
+        if (numBlockRefs == blockRefs.length) {
+            int capacity = Math.max(16, numBlockRefs * 2);
+            blockRefs = Arrays.copyOf(blockRefs, capacity);
+            blockLines = Arrays.copyOf(blockLines, capacity);
+        }
+        blockRefs[numBlockRefs] = b;
+        blockLines[numBlockRefs] = line;
+        numBlockRefs++;
+    }
+
+    public synchronized boolean hasBlock(int line, Block b) {
+        indexBlocks();
+        for (int i = blockOffsets[line]; i < blockOffsets[line + 1]; i++) {
+            if (blockRefs[i] == b) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param line
+     * @return the blocks of the given line
+     */
+    public synchronized Set<Block> getBlocks(int line) {
+        indexBlocks();
+        return new BlockSet(blockRefs, blockOffsets[line], blockOffsets[line + 1]);
+    }
+
+    /**
+     * Sorts the (block, line) pairs by line, and removes duplicates. This is done once the blocks of all the sources
+     * are added, and again if blocks are added later.
+     */
+    public synchronized void indexBlocks() {
+        if (blockOffsets != null) {
+            return;
+        }
+        int n = counts == null ? 0 : counts.length;
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i < numBlockRefs; i++) {
+            offsets[blockLines[i] + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        int[] next = Arrays.copyOf(offsets, n);
+        Block[] sorted = new Block[numBlockRefs];
+        for (int i = 0; i < numBlockRefs; i++) {
+            sorted[next[blockLines[i]]++] = blockRefs[i];
+        }
+        // remove duplicates, in place
+        int size = 0;
+        for (int line = 0; line < n; line++) {
+            int start = size;
+            for (int i = offsets[line]; i < offsets[line + 1]; i++) {
+                Block b = sorted[i];
+                boolean found = false;
+                for (int j = start; j < size && !found; j++) {
+                    found = sorted[j] == b;
+                }
+                if (!found) {
+                    sorted[size++] = b;
+                }
+            }
+            offsets[line] = start;
+        }
+        offsets[n] = size;
+        blockRefs = size == sorted.length ? sorted : Arrays.copyOf(sorted, size);
+        numBlockRefs = size;
+        blockLines = null;
+        blockOffsets = offsets;
+    }
+
+    private void unindexBlocks() {
+        blockLines = new int[blockRefs.length];
+        for (int line = 0; line + 1 < blockOffsets.length; line++) {
+            Arrays.fill(blockLines, blockOffsets[line], blockOffsets[line + 1], line);
+        }
+        blockOffsets = null;
     }
 
     public SortedSet<GcnoFunction> getFnctns() {
@@ -103,12 +256,8 @@ public class SourceFile implements Serializable {
     }
 
 	public void initializeLines() {
-		if (lines.isEmpty()) {
-			int n = getNumLines();
-			lines.ensureCapacity(n);
-			for (int j = 0; j < n; j++) {
-				lines.add(new Line());
-			}
+		if (counts == null) {
+			counts = new long[getNumLines()];
 		}
 	}
 
@@ -136,12 +285,46 @@ public class SourceFile implements Serializable {
 					}
 					if (lineno == 0)
 						break;
-					Line line = source.getLines().get((int) lineno);
-					line.addBlock(b);
+					source.addBlock((int) lineno, b);
 				}
 			}
 		}
     }
 
+    /**
+     * The distinct blocks of a line, as indexed. The set does not change when blocks are added later, since the
+     * indexed part of the arrays is never written again.
+     */
+    private static final class BlockSet extends AbstractSet<Block> implements Serializable {
+        private static final long serialVersionUID = 2563214480212460337L;
+        private final Block[] refs;
+        private final int from;
+        private final int to;
+
+        BlockSet(Block[] refs, int from, int to) {
+            this.refs = refs;
+            this.from = from;
+            this.to = to;
+        }
 
+        @Override
+        public Iterator<Block> iterator() {
+            return Collections.unmodifiableList(Arrays.asList(refs).subList(from, to)).iterator();
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            for (int i = from; i < to; i++) {
+                if (refs[i] == o) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
 }
@@ -23,10 +23,12 @@ import java.util.List;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.jface.action.Action;
 import org.eclipse.jface.action.IAction;
 import org.eclipse.jface.action.IToolBarManager;
@@ -142,7 +144,13 @@ public class CovView extends AbstractSTDataView {
         view.label.getParent().layout(true);
     }
 
-    public static void displayCovDetailedResult(String binaryPath, String gcda) {
+    /**
+     * Parses the coverage data of the given binary, and opens the annotated source files. To be called from a job.
+     * @param binaryPath
+     * @param gcda
+     * @param monitor the progress monitor of the job, may be null
+     */
+    public static void displayCovDetailedResult(String binaryPath, String gcda, IProgressMonitor monitor) {
         try {
         	//FIXME EK-LINUXTOOLS: IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
             //FIXME EK-LINUXTOOLS: IFile binary = root.getFileForLocation(new Path(binaryPath));
@@ -156,7 +164,7 @@ public class CovView extends AbstractSTDataView {
             CovManager cvrgeMnger = new CovManager(binaryPath, project);
             List<String> gcdaPaths = new LinkedList<>();
             gcdaPaths.add(gcda);
-            cvrgeMnger.processCovFiles(gcdaPaths, gcda);
+            cvrgeMnger.processCovFiles(gcdaPaths, gcda, monitor);
             // generate model for view
             cvrgeMnger.fillGcovView();
 
@@ -168,7 +176,13 @@ public class CovView extends AbstractSTDataView {
         }
     }
 
-    public static void displayCovResults(String binaryPath, String gcda) {
+    /**
+     * Parses the coverage data of the given binary, and displays it in the view. To be called from a job.
+     * @param binaryPath
+     * @param gcda
+     * @param monitor the progress monitor of the job, may be null
+     */
+    public static void displayCovResults(String binaryPath, String gcda, IProgressMonitor monitor) {
         try {
         	//FIXME EK-LINUXTOOLS: IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
             //FIXME EK-LINUXTOOLS: IFile binary = root.getFileForLocation(new Path(binaryPath));
@@ -178,22 +192,29 @@ public class CovView extends AbstractSTDataView {
                 project = binary.getProject();
             }
 
+            SubMonitor progress = SubMonitor.convert(monitor, 2);
+            // results of the same binary already displayed: only parse the changed files
+            CovManager displayed = getDisplayedCovManager(binaryPath);
+            if (displayed != null && displayed.refresh(displayed.getGCDALocations(), progress.split(1))) {
+                String timestamp = getTimestamp(displayed.getGcdaPaths());
+                PlatformUI.getWorkbench().getDisplay().syncExec(() -> {
+                    try {
+                        refreshCovResults(displayed, timestamp);
+                    } catch (PartInitException e) {
+                        reportError(e);
+                    }
+                });
+                return;
+            }
+
             // parse and process coverage data
             CovManager cvrgeMnger = new CovManager(binaryPath, project);
             List<String> gcdaPaths = cvrgeMnger.getGCDALocations();
-            cvrgeMnger.processCovFiles(gcdaPaths, gcda);
+            cvrgeMnger.processCovFiles(gcdaPaths, gcda, progress.split(1));
             // generate model for view
             cvrgeMnger.fillGcovView();
             // load an Eclipse view
-            Date date = new Date(0);
-            Date dateCandidate;
-            for (String file : gcdaPaths) {
-                dateCandidate = new Date(new File(file).lastModified());
-                if (dateCandidate.after(date)) {
-                    date = dateCandidate;
-                }
-            }
-            String timestamp = DateFormat.getInstance().format(date);
+            String timestamp = getTimestamp(gcdaPaths);
             PlatformUI.getWorkbench().getDisplay().syncExec(() -> {
             	try {
 					displayCovResults(cvrgeMnger, timestamp);
@@ -206,6 +227,36 @@ public class CovView extends AbstractSTDataView {
         }
     }
 
+    private static String getTimestamp(List<String> gcdaPaths) {
+        Date date = new Date(0);
+        Date dateCandidate;
+        for (String file : gcdaPaths) {
+            dateCandidate = new Date(new File(file).lastModified());
+            if (dateCandidate.after(date)) {
+                date = dateCandidate;
+            }
+        }
+        return DateFormat.getInstance().format(date);
+    }
+
+    /**
+     * @param binaryPath
+     * @return the coverage results of the given binary displayed in the view, or null if there are none
+     */
+    private static CovManager getDisplayedCovManager(String binaryPath) {
+        CovManager[] ret = new CovManager[1];
+        PlatformUI.getWorkbench().getDisplay().syncExec(() -> {
+            IWorkbenchWindow window = PlatformUI.getWorkbench().getActiveWorkbenchWindow();
+            IWorkbenchPage page = window == null ? null : window.getActivePage();
+            if (page != null && page.findView("org.eclipse.linuxtools.gcov.view") instanceof CovView view //$NON-NLS-1$
+                    && view.getSTViewer().getInput() instanceof CovManager input
+                    && binaryPath.equals(input.getBinaryPath())) {
+                ret[0] = input;
+            }
+        });
+        return ret[0];
+    }
+
     public static void reportError(Exception ex) {
         final String message = NLS.bind(Messages.CovView_error_message, ex.getMessage());
 		IStatus status = Status.error(message, ex);
@@ -240,6 +291,27 @@ public class CovView extends AbstractSTDataView {
         return cvrgeView;
     }
 
+    /**
+     * Updates the view in place, after the displayed coverage results have been refreshed.
+     * Must be run in UI thread
+     * @param cvrgeMnger
+     * @param timestamp
+     * @throws PartInitException
+     */
+    public static CovView refreshCovResults(CovManager cvrgeMnger, String timestamp) throws PartInitException {
+        IWorkbenchWindow window = PlatformUI.getWorkbench().getActiveWorkbenchWindow();
+        IWorkbenchPage page = window.getActivePage();
+        CovView cvrgeView = (CovView) page.showView("org.eclipse.linuxtools.gcov.view"); //$NON-NLS-1$
+
+        // counts are updated in the model elements: expanded elements and selection are kept
+        cvrgeMnger.updateGcovView();
+        cvrgeView.getSTViewer().getViewer().refresh();
+
+        CovView.setCovViewTitle(cvrgeView, Integer.toString((int) cvrgeMnger.getNbrPgmRuns()),
+                cvrgeMnger.getBinaryPath(), timestamp);
+        return cvrgeView;
+    }
+
     @Override
     protected IAction createExportToCSVAction() {
         IAction action = new STExportToCSVAction(this.getSTViewer()) {
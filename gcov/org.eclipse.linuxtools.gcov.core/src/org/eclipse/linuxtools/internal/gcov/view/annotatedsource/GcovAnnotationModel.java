@@ -13,6 +13,7 @@
 package org.eclipse.linuxtools.internal.gcov.view.annotatedsource;
 
 import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
 import java.net.URI;
 import java.nio.file.Paths;
 import java.util.ArrayList;
@@ -32,6 +33,7 @@ import org.eclipse.core.resources.IResourceProxy;
 import org.eclipse.core.resources.IResourceProxyVisitor;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.DocumentEvent;
@@ -48,7 +50,9 @@ import org.eclipse.linuxtools.binutils.link2source.STLink2SourceSupport;
 import org.eclipse.linuxtools.internal.gcov.parser.CovManager;
 import org.eclipse.linuxtools.internal.gcov.parser.Line;
 import org.eclipse.linuxtools.internal.gcov.parser.SourceFile;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.ui.IEditorInput;
+import org.eclipse.ui.PlatformUI;
 import org.eclipse.ui.texteditor.IDocumentProvider;
 import org.eclipse.ui.texteditor.ITextEditor;
 
@@ -207,6 +211,37 @@ public final class GcovAnnotationModel implements IAnnotationModel {
 
     }
 
+    /**
+     * Parses the coverage files of the given manager. In the UI thread, they are parsed with the progress service,
+     * so that a long parsing shows its progress and can be canceled.
+     * @param covManager
+     * @throws CoreException, IOException
+     * @throws InterruptedException if the parsing is canceled
+     */
+    private static void processCovFiles(CovManager covManager)
+            throws CoreException, IOException, InterruptedException {
+        if (Display.getCurrent() == null) {
+            covManager.processCovFiles(covManager.getGCDALocations(), null, null);
+            return;
+        }
+        try {
+            PlatformUI.getWorkbench().getProgressService().busyCursorWhile(monitor -> {
+                try {
+                    covManager.processCovFiles(covManager.getGCDALocations(), null, monitor);
+                } catch (CoreException | IOException e) {
+                    throw new InvocationTargetException(e);
+                } catch (OperationCanceledException e) {
+                    throw new InterruptedException();
+                }
+            });
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof CoreException) {
+                throw (CoreException) e.getCause();
+            }
+            throw (IOException) e.getCause();
+        }
+    }
+
     private SourceFile findSourceCoverageForElement(ICElement element) {
         List<SourceFile> sources = new ArrayList<> ();
         ICProject cProject = element.getCProject();
@@ -244,7 +279,7 @@ public final class GcovAnnotationModel implements IAnnotationModel {
             for (IBinary b : binaries) {
                 if (b.getResource().getLocation().equals(target)) {
                     CovManager covManager = new CovManager(b.getResource().getLocation().toOSString());
-                    covManager.processCovFiles(covManager.getGCDALocations(), null);
+                    processCovFiles(covManager);
                     sources.addAll(covManager.getAllSrcs());
                 }
             }
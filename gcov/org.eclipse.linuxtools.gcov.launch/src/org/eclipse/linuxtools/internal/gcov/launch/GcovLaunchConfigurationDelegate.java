@@ -28,6 +28,7 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.debug.core.ILaunch;
 import org.eclipse.debug.core.ILaunchConfiguration;
@@ -213,33 +214,37 @@ public class GcovLaunchConfigurationDelegate extends AbstractCLaunchDelegate {
                  * refresh the view (which parses the data/ui model and displays it).
                  */
             	if (l.equals(launch)) {
-            		//need to run this in the ui thread otherwise get SWT Exceptions
-            		// based on concurrency issues
-            		String s = exePath.toOSString();
-            		CovManager cvrgeMnger = new CovManager(s, getProject());
-
-            		try {
-            			List<String> gcdaPaths = cvrgeMnger.getGCDALocations();
-            			if (gcdaPaths.isEmpty()) {
-            				String title = GcovLaunchMessages.GcovCompilerOptions_msg;
-            				String message = GcovLaunchMessages.GcovCompileAgain_msg;
-            				PlatformUI.getWorkbench().getDisplay().syncExec(() -> {
-            					Shell parent = PlatformUI.getWorkbench().getDisplay().getActiveShell();
-            					MessageDialog.openWarning(parent, title, message);
-            				});
-            			}
-            			CovView.displayCovResults(s, null);
-            			GcovAnnotationModelTracker.getInstance().addProject(getProject(), exePath);
-        				PlatformUI.getWorkbench().getDisplay().asyncExec(() -> {
-        					GcovAnnotationModelTracker.getInstance().annotateAllCEditors();
-        				});
-            		} catch (InterruptedException e) {
-            			// Do nothing
-            		}
+            		// parse the coverage data in a job, so that it can be followed and canceled
+            		Job job = Job.create(GcovLaunchMessages.GcovParsing_job, this::displayCoverage);
+            		job.schedule();
             	}
             }
 
         }
+        private void displayCoverage(IProgressMonitor monitor) {
+            String s = exePath.toOSString();
+            CovManager cvrgeMnger = new CovManager(s, getProject());
+
+            try {
+                List<String> gcdaPaths = cvrgeMnger.getGCDALocations();
+                if (gcdaPaths.isEmpty()) {
+                    String title = GcovLaunchMessages.GcovCompilerOptions_msg;
+                    String message = GcovLaunchMessages.GcovCompileAgain_msg;
+                    PlatformUI.getWorkbench().getDisplay().syncExec(() -> {
+                        Shell parent = PlatformUI.getWorkbench().getDisplay().getActiveShell();
+                        MessageDialog.openWarning(parent, title, message);
+                    });
+                }
+                CovView.displayCovResults(s, null, monitor);
+                GcovAnnotationModelTracker.getInstance().addProject(getProject(), exePath);
+                PlatformUI.getWorkbench().getDisplay().asyncExec(() -> {
+                    GcovAnnotationModelTracker.getInstance().annotateAllCEditors();
+                });
+            } catch (InterruptedException e) {
+                // Do nothing
+            }
+        }
+
         @Override
         public void launchesAdded(ILaunch[] launches) { /* dont care */}
         @Override
@@ -18,6 +18,7 @@ public class GcovLaunchMessages extends NLS {
 
     public static String GcovCompilerOptions_msg;
     public static String GcovCompileAgain_msg;
+    public static String GcovParsing_job;
 
     public static String
     GcovMissingFlag_Title,
@@ -19,7 +19,9 @@ import org.junit.runners.Suite;
 @Suite.SuiteClasses({
     GcovTestC.class,
     GcovTestCPP.class,
-    GcovTestCLibrary.class
+    GcovTestCLibrary.class,
+    GcovSourceFileTest.class,
+    GcovRefreshTest.class
 })
 public class AllGcovTests {
 
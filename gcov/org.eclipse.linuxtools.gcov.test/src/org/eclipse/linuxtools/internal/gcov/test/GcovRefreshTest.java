@@ -0,0 +1,254 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.linuxtools.internal.gcov.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.linuxtools.internal.gcov.parser.Arc;
+import org.eclipse.linuxtools.internal.gcov.parser.Block;
+import org.eclipse.linuxtools.internal.gcov.parser.CovManager;
+import org.eclipse.linuxtools.internal.gcov.parser.GcdaRecordsParser;
+import org.eclipse.linuxtools.internal.gcov.parser.GcnoFunction;
+import org.eclipse.linuxtools.internal.gcov.parser.SourceFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Refresh of coverage results, on synthetic GCNO/GCDA files whose function has its arcs out of order: block 0 exits
+ * to block 3 then to block 2, and blocks 2 and 3 are on lines 2 and 3.
+ */
+public class GcovRefreshTest {
+
+    private static final int GCNO_MAGIC = 0x67636e6f;
+    private static final int GCDA_MAGIC = 0x67636461;
+    private static final int VERSION = 0x3430332a; // '403*'
+    private static final int STAMP = 0x12345678;
+    private static final int TAG_FUNCTION = 0x01000000;
+    private static final int TAG_BLOCKS = 0x01410000;
+    private static final int TAG_ARCS = 0x01430000;
+    private static final int TAG_LINES = 0x01450000;
+    private static final int TAG_COUNTER_ARCS = 0x01a10000;
+    private static final int IDENT = 1;
+    private static final int CHECKSUM = 42;
+    private static final String SOURCE = "synthetic.c"; //$NON-NLS-1$
+
+    private File dir;
+    private File gcno;
+    private File gcda;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("gcov").toFile(); //$NON-NLS-1$
+        gcno = new File(dir, "synthetic.gcno"); //$NON-NLS-1$
+        gcda = new File(dir, "synthetic.gcda"); //$NON-NLS-1$
+        writeGcno();
+    }
+
+    @After
+    public void tearDown() {
+        gcno.delete();
+        gcda.delete();
+        dir.delete();
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.US_ASCII);
+        int words = (bytes.length + 4) / 4;
+        out.writeInt(words);
+        out.write(bytes);
+        out.write(new byte[words * 4 - bytes.length]);
+    }
+
+    private static void writeLines(DataOutputStream out, int block, int line) throws IOException {
+        out.writeInt(TAG_LINES);
+        out.writeInt(6 + (SOURCE.length() + 4) / 4);
+        out.writeInt(block);
+        out.writeInt(0);
+        writeString(out, SOURCE);
+        out.writeInt(line);
+        out.writeInt(0);
+        out.writeInt(0);
+    }
+
+    private void writeGcno() throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(gcno))) {
+            out.writeInt(GCNO_MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(STAMP);
+            out.writeInt(TAG_FUNCTION);
+            out.writeInt(10);
+            out.writeInt(IDENT);
+            out.writeInt(CHECKSUM);
+            writeString(out, "main"); //$NON-NLS-1$
+            writeString(out, SOURCE);
+            out.writeInt(1);
+            out.writeInt(TAG_BLOCKS);
+            out.writeInt(4);
+            for (int i = 0; i < 4; i++) {
+                out.writeInt(0);
+            }
+            // counted arcs, out of order
+            out.writeInt(TAG_ARCS);
+            out.writeInt(5);
+            out.writeInt(0);
+            out.writeInt(3);
+            out.writeInt(0);
+            out.writeInt(2);
+            out.writeInt(0);
+            // arcs on the spanning tree
+            for (int src = 2; src <= 3; src++) {
+                out.writeInt(TAG_ARCS);
+                out.writeInt(3);
+                out.writeInt(src);
+                out.writeInt(1);
+                out.writeInt(1);
+            }
+            writeLines(out, 2, 2);
+            writeLines(out, 3, 3);
+        }
+    }
+
+    /**
+     * Writes the data file, with the counts of the arcs in the order of the note file.
+     */
+    private void writeGcda(long count0to3, long count0to2) throws IOException {
+        long modified = gcda.exists() ? gcda.lastModified() : 0;
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(gcda))) {
+            out.writeInt(GCDA_MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(STAMP);
+            out.writeInt(TAG_FUNCTION);
+            out.writeInt(2);
+            out.writeInt(IDENT);
+            out.writeInt(CHECKSUM);
+            out.writeInt(TAG_COUNTER_ARCS);
+            out.writeInt(4);
+            // low word first
+            out.writeInt((int) count0to3);
+            out.writeInt(0);
+            out.writeInt((int) count0to2);
+            out.writeInt(0);
+        }
+        if (modified != 0) {
+            gcda.setLastModified(modified + 2000);
+        }
+    }
+
+    private List<String> getPaths() {
+        List<String> paths = new ArrayList<>();
+        paths.add(gcda.getPath());
+        return paths;
+    }
+
+    private CovManager process() throws CoreException, IOException {
+        CovManager cvrgeMnger = new CovManager(new File(dir, "synthetic").getPath(), null); //$NON-NLS-1$
+        cvrgeMnger.processCovFiles(getPaths(), null, null);
+        cvrgeMnger.fillGcovView();
+        return cvrgeMnger;
+    }
+
+    private static Arc arcTo(Block b, int dst) {
+        for (Arc a : b.getExitArcs()) {
+            if (a.getDstnatnBlockIndice() == dst) {
+                return a;
+            }
+        }
+        throw new AssertionError();
+    }
+
+    @Test
+    public void testParseAgainOutOfOrderArcs() throws CoreException, IOException {
+        writeGcda(5, 7);
+        CovManager cvrgeMnger = process();
+        GcnoFunction f = cvrgeMnger.getAllFnctns().get(0);
+        Block b = f.getFunctionBlock(0);
+        // sorted for the computation, in the order of the note file for the counters
+        assertEquals(2, b.getExitArcs().get(0).getDstnatnBlockIndice());
+        assertEquals(3, b.getNoteExitArcs().get(0).getDstnatnBlockIndice());
+        assertEquals(7, arcTo(b, 2).getCount());
+        assertEquals(5, arcTo(b, 3).getCount());
+
+        writeGcda(11, 13);
+        f.resetCounts();
+        GcdaRecordsParser daRcrd = new GcdaRecordsParser(cvrgeMnger.getAllFnctns());
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(gcda)))) {
+            daRcrd.parseGcdaRecord(in);
+        }
+        assertEquals(13, arcTo(b, 2).getCount());
+        assertEquals(11, arcTo(b, 3).getCount());
+    }
+
+    @Test
+    public void testRefreshOutOfOrderArcs() throws CoreException, IOException {
+        writeGcda(5, 7);
+        CovManager cvrgeMnger = process();
+        SourceFile sf = cvrgeMnger.getSourceMap().get(SOURCE);
+        assertEquals(7, sf.getCount(2));
+        assertEquals(5, sf.getCount(3));
+
+        writeGcda(11, 13);
+        assertTrue(cvrgeMnger.refresh(getPaths(), null));
+        // the results are not changed until the refreshed counts are applied
+        assertEquals(7, sf.getCount(2));
+        assertEquals(5, sf.getCount(3));
+        cvrgeMnger.updateGcovView();
+        assertEquals(13, sf.getCount(2));
+        assertEquals(11, sf.getCount(3));
+
+        // and once more, on the graph whose arcs have been sorted: the note file is unchanged, only the data file is
+        // parsed into the graph of the previous refresh
+        writeGcda(17, 19);
+        assertTrue(cvrgeMnger.refresh(getPaths(), null));
+        cvrgeMnger.updateGcovView();
+        assertEquals(19, sf.getCount(2));
+        assertEquals(17, sf.getCount(3));
+        assertEquals(2, sf.getLinesExecuted());
+
+        writeGcda(23, 29);
+        assertTrue(cvrgeMnger.refresh(getPaths(), null));
+        cvrgeMnger.updateGcovView();
+        assertEquals(29, sf.getCount(2));
+        assertEquals(23, sf.getCount(3));
+    }
+
+    @Test
+    public void testRefreshChangedPairs() throws CoreException, IOException {
+        writeGcda(5, 7);
+        CovManager cvrgeMnger = process();
+
+        // a source added to the binary
+        List<String> paths = getPaths();
+        paths.add(new File(dir, "other.gcda").getPath()); //$NON-NLS-1$
+        assertFalse(cvrgeMnger.refresh(paths, null));
+        // or removed
+        assertFalse(cvrgeMnger.refresh(Collections.emptyList(), null));
+        assertTrue(cvrgeMnger.refresh(getPaths(), null));
+    }
+}
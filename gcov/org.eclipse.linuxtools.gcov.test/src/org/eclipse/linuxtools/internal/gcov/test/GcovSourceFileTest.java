@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.linuxtools.internal.gcov.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import org.eclipse.linuxtools.internal.gcov.parser.Block;
+import org.eclipse.linuxtools.internal.gcov.parser.Line;
+import org.eclipse.linuxtools.internal.gcov.parser.SourceFile;
+import org.junit.Test;
+
+/**
+ * Line coverage, stored in columns of the source file: lines are views on the columns, and the blocks of each line
+ * are indexed once they are all added.
+ */
+public class GcovSourceFileTest {
+
+    private static final int NUM_LINES = 10_000;
+    private static final int LINES_PER_BLOCK = 8;
+
+    private static SourceFile createSourceFile(Block[] blocks) {
+        SourceFile sf = new SourceFile("synthetic.c", 1); //$NON-NLS-1$
+        sf.setNumLines(NUM_LINES);
+        sf.initializeLines();
+        for (int i = 1; i < NUM_LINES; i++) {
+            sf.addBlock(i, blocks[i / LINES_PER_BLOCK]);
+            // the last line of a block also belongs to the next one
+            if (i % LINES_PER_BLOCK == LINES_PER_BLOCK - 1 && i + 1 < NUM_LINES) {
+                sf.addBlock(i, blocks[(i + 1) / LINES_PER_BLOCK]);
+            }
+            // and duplicates are ignored
+            sf.addBlock(i, blocks[i / LINES_PER_BLOCK]);
+            if (i % 3 == 0) {
+                sf.setExists(i, true);
+                sf.setCount(i, i);
+            }
+        }
+        sf.indexBlocks();
+        return sf;
+    }
+
+    private static Block[] createBlocks() {
+        Block[] blocks = new Block[NUM_LINES / LINES_PER_BLOCK];
+        for (int i = 0; i < blocks.length; i++) {
+            blocks[i] = new Block(0);
+        }
+        return blocks;
+    }
+
+    private static void checkBlocks(SourceFile sf, Block[] blocks, int i) {
+        Set<Block> lineBlocks = sf.getBlocks(i);
+        Block b = blocks[i / LINES_PER_BLOCK];
+        if (i % LINES_PER_BLOCK == LINES_PER_BLOCK - 1 && i + 1 < NUM_LINES) {
+            Block next = blocks[(i + 1) / LINES_PER_BLOCK];
+            assertEquals(Set.of(b, next), lineBlocks);
+            assertTrue(sf.hasBlock(i, next));
+        } else {
+            assertEquals(Set.of(b), lineBlocks);
+        }
+        assertTrue(sf.hasBlock(i, b));
+    }
+
+    @Test
+    public void testLineColumns() {
+        SourceFile sf = new SourceFile("synthetic.c", 1); //$NON-NLS-1$
+        sf.setNumLines(16);
+        sf.initializeLines();
+        Block b1 = new Block(0);
+        Block b2 = new Block(0);
+        sf.addBlock(3, b1);
+        sf.addBlock(3, b2);
+        sf.addBlock(3, b1);
+        sf.addBlock(5, b2);
+        Line line = sf.getLines().get(3);
+        assertEquals(2, line.getBlocks().size());
+        assertTrue(line.hasBlock(b1));
+        assertFalse(sf.getLines().get(5).hasBlock(b1));
+        // blocks can still be added once indexed, without changing the blocks already returned
+        Set<Block> blocks = sf.getLines().get(5).getBlocks();
+        sf.addBlock(5, b1);
+        assertTrue(sf.getLines().get(5).hasBlock(b1));
+        assertEquals(Set.of(b2), blocks);
+        assertEquals(Set.of(b1, b2), sf.getLines().get(5).getBlocks());
+        assertEquals(2, sf.getLines().get(3).getBlocks().size());
+        line.setExists(true);
+        line.setCount(42);
+        assertEquals(42, sf.getCount(3));
+        assertEquals(line, sf.getLines().get(3));
+        sf.accumulateLineCounts();
+        assertEquals(1, sf.getLinesInstrumented());
+        assertEquals(1, sf.getLinesExecuted());
+        assertEquals(42, sf.getmaxLineCount());
+    }
+
+    @Test
+    public void testLinesAreViews() {
+        Block[] blocks = createBlocks();
+        SourceFile sf = createSourceFile(blocks);
+        assertEquals(NUM_LINES, sf.getLines().size());
+        for (int i = 1; i < NUM_LINES; i++) {
+            Line line = sf.getLines().get(i);
+            // created on demand, on the columns of the source file
+            assertNotSame(line, sf.getLines().get(i));
+            assertEquals(line, sf.getLines().get(i));
+            assertEquals(i % 3 == 0, line.exists());
+            assertEquals(i % 3 == 0 ? i : 0, line.getCount());
+            checkBlocks(sf, blocks, i);
+        }
+        assertTrue(sf.getBlocks(0).isEmpty());
+        sf.accumulateLineCounts();
+        assertEquals((NUM_LINES - 1) / 3, sf.getLinesInstrumented());
+        assertEquals((NUM_LINES - 1) / 3, sf.getLinesExecuted());
+        assertEquals(NUM_LINES - 1 - (NUM_LINES - 1) % 3, sf.getmaxLineCount());
+    }
+
+    @Test
+    public void testConcurrentReads() {
+        Block[] blocks = createBlocks();
+        SourceFile sf = createSourceFile(blocks);
+        // as the annotations and the views read lines while others are computed
+        IntStream.range(1, NUM_LINES).parallel().forEach(i -> checkBlocks(sf, blocks, i));
+    }
+}
@@ -19,9 +19,13 @@
 package org.eclipse.linuxtools.internal.gprof.launch;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 import org.eclipse.cdt.debug.core.CDebugUtils;
 import org.eclipse.cdt.launch.AbstractCLaunchDelegate;
+import org.eclipse.core.filesystem.EFS;
 import org.eclipse.core.filesystem.IFileStore;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.CoreException;
@@ -207,19 +211,22 @@ public class GprofLaunchConfigurationDelegate extends AbstractCLaunchDelegate {
         private ILaunch launch;
         private IPath exePath;
 
+        /** start of the launch, truncated to the second as file modification times may be */
+        private final long launchTime = System.currentTimeMillis() / 1000 * 1000;
+
         class LaunchTerminationWatcherRunnable implements Runnable {
 
             private String exePath;
-            private String gmonPath;
+            private List<String> gmonPaths;
 
-            public LaunchTerminationWatcherRunnable(String exePath, String gmonPath) {
+            public LaunchTerminationWatcherRunnable(String exePath, List<String> gmonPaths) {
                 this.exePath = exePath;
-                this.gmonPath = gmonPath;
+                this.gmonPaths = gmonPaths;
             }
 
             @Override
             public void run() {
-                GmonView.displayGprofView(exePath, gmonPath, getProject());
+                GmonView.displayGprofView(exePath, gmonPaths, getProject());
             }
         }
 
@@ -227,6 +234,31 @@ public class GprofLaunchConfigurationDelegate extends AbstractCLaunchDelegate {
             launch = il;
             this.exePath = exePath;
         }
+
+        /**
+         * Gets the gmon files written during the launch by its processes, when the GMON_OUT_PREFIX environment
+         * variable is set to the name of the expected gmon file: each process writes its own
+         * &lt;gmon file&gt;.&lt;pid&gt; file.
+         */
+        private List<String> getProcessGmons(IRemoteFileProxy proxy, String gmonExpected) throws CoreException {
+            List<String> ret = new ArrayList<>();
+            IFileStore gmonFileStore = proxy.getResource(gmonExpected);
+            IFileStore dir = gmonFileStore.getParent();
+            if (dir == null || !dir.fetchInfo().exists()) {
+                return ret;
+            }
+            String prefix = gmonFileStore.getName() + '.';
+            String dirPath = gmonExpected.substring(0, gmonExpected.length() - gmonFileStore.getName().length());
+            for (IFileStore child : dir.childStores(EFS.NONE, null)) {
+                String name = child.getName();
+                if (name.startsWith(prefix) && name.substring(prefix.length()).matches("\\d+") //$NON-NLS-1$
+                        && child.fetchInfo().getLastModified() >= launchTime) {
+                    ret.add(dirPath + name);
+                }
+            }
+            Collections.sort(ret);
+            return ret;
+        }
         /**
          *  This is ran after the process completes.
          *
@@ -252,7 +284,15 @@ public class GprofLaunchConfigurationDelegate extends AbstractCLaunchDelegate {
 					        // gmon.out file should be in working directory used for the launch.
 					        String gmonExpected = getWorkingDirectory(config).getAbsolutePath() + "/gmon.out"; //$NON-NLS-1$
 					        IFileStore gmonFileStore = proxy.getResource(gmonExpected);
-					        if (!gmonFileStore.fetchInfo().exists()) {
+					        List<String> gmonPaths = getProcessGmons(proxy, gmonExpected);
+					        if (!gmonPaths.isEmpty()) {
+					            // the profiles of all the processes of the launch are aggregated.
+					            if (gmonFileStore.fetchInfo().exists()) {
+					                gmonPaths.add(0, gmonExpected);
+					            }
+					            gmonExpected = gmonPaths.get(0);
+					            gmonFileStore = proxy.getResource(gmonExpected);
+					        } else if (!gmonFileStore.fetchInfo().exists()) {
 					            Shell parent1 = PlatformUI.getWorkbench().getDisplay().getActiveShell();
 
 					           //Missing gmon.out logic:
@@ -282,7 +322,10 @@ public class GprofLaunchConfigurationDelegate extends AbstractCLaunchDelegate {
 					            Shell parent2 = PlatformUI.getWorkbench().getDisplay().getActiveShell();
 					            MessageDialog.openWarning(parent2, title, message);
 					        }
-					        Display.getDefault().asyncExec(new LaunchTerminationWatcherRunnable(s, gmonExpected));
+					        if (gmonPaths.isEmpty()) {
+					            gmonPaths.add(gmonExpected);
+					        }
+					        Display.getDefault().asyncExec(new LaunchTerminationWatcherRunnable(s, gmonPaths));
 
 					    } catch (NullPointerException e1) {
 					        // Do nothing
@@ -16,8 +16,9 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
 @RunWith(Suite.class)
-@Suite.SuiteClasses({ GprofAggregatorTest.class, GprofBinaryTest.class,
+@Suite.SuiteClasses({ GprofAggregatorTest.class, GprofBinaryTest.class, GprofByteOrderTest.class,
         GprofParserTest.class, GprofLaunchTest.class, GprofShortcutTest.class,
+        GprofSourceLocationsTest.class, GprofSymbolCacheTest.class, GprofSymbolIndexTest.class,
         GprofTest.class })
 public class AllGprofTests {
 }
@@ -14,14 +14,24 @@ package org.eclipse.linuxtools.internal.gprof.test;
 
 import static org.eclipse.linuxtools.internal.gprof.test.STJunitUtils.BINARY_FILE;
 import static org.eclipse.linuxtools.internal.gprof.test.STJunitUtils.OUTPUT_FILE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
 
+import org.eclipse.cdt.core.IBinaryParser.IBinaryObject;
+import org.eclipse.linuxtools.binutils.utils.STSymbolManager;
+import org.eclipse.linuxtools.internal.gprof.parser.GmonDecoder;
 import org.eclipse.linuxtools.internal.gprof.utils.Aggregator;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -81,4 +91,115 @@ public class GprofAggregatorTest {
         p.waitFor();
         p2.waitFor();
     }
+
+    @Test
+    public void testInProcessAggregation() throws IOException, InterruptedException {
+        File directory = new File(STJunitUtils.getAbsolutePath(
+                "org.eclipse.linuxtools.gprof.test", dir));
+        File gmonPath = new File(directory, OUTPUT_FILE);
+        File binaryPath = new File(directory, BINARY_FILE);
+        File sumPath = new File(directory, "gmon.sum.java");
+
+        LinkedList<String> s = new LinkedList<>();
+        s.add(gmonPath.toString());
+        s.add(gmonPath.toString());
+
+        IBinaryObject program = STSymbolManager.sharedInstance
+                .getBinaryObject(binaryPath.getAbsolutePath());
+        GmonDecoder decoder = Aggregator.aggregate(program, s, null, sumPath);
+        assertFalse(decoder.getRootNode().getChildren().isEmpty());
+
+        String gprof2use = "gprof";
+        Process p = Runtime.getRuntime().exec(
+                new String[] { gprof2use, binaryPath.toString(), sumPath.getAbsolutePath() });
+        Process p2 = Runtime.getRuntime().exec(
+                new String[] { gprof2use, binaryPath.toString(),
+                        directory + File.separator + "gmon.sum.ref" });
+
+        assertTrue(STJunitUtils.compare(p.getInputStream(), p2.getInputStream()));
+        p.waitFor();
+        p2.waitFor();
+        sumPath.delete();
+    }
+
+    /**
+     * Copies the gmon file of the test, with its histogram moved to the address range which follows the
+     * original one, or with a range which overlaps the original one.
+     */
+    private static File copyHistogram(IBinaryObject program, File gmon, String name, boolean overlap)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(gmon.toPath()));
+        buffer.order(program.isLittleEndian() ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+        boolean is64 = program.getAddressFactory().getMax().getSize() > 4 || program.getCPU().endsWith("64"); //$NON-NLS-1$
+        // the histogram record follows the gmon header
+        int pos = 20;
+        assertEquals("gmon", new String(buffer.array(), 0, 4)); //$NON-NLS-1$
+        assertEquals(0, buffer.get(pos++));
+        long lowpc = is64 ? buffer.getLong(pos) : buffer.getInt(pos) & 0xFFFFFFFFL;
+        long highpc = is64 ? buffer.getLong(pos + 8) : buffer.getInt(pos + 4) & 0xFFFFFFFFL;
+        long newLowpc = overlap ? lowpc : highpc;
+        long newHighpc = overlap ? highpc + 1 : 2 * highpc - lowpc;
+        if (is64) {
+            buffer.putLong(pos, newLowpc);
+            buffer.putLong(pos + 8, newHighpc);
+        } else {
+            buffer.putInt(pos, (int) newLowpc);
+            buffer.putInt(pos + 4, (int) newHighpc);
+        }
+        File ret = new File(gmon.getParentFile(), name);
+        Files.write(ret.toPath(), buffer.array());
+        return ret;
+    }
+
+    @Test
+    public void testMultiRangeAggregation() throws IOException {
+        File directory = new File(STJunitUtils.getAbsolutePath(
+                "org.eclipse.linuxtools.gprof.test", dir));
+        File gmonPath = new File(directory, OUTPUT_FILE);
+        File binaryPath = new File(directory, BINARY_FILE);
+        IBinaryObject program = STSymbolManager.sharedInstance
+                .getBinaryObject(binaryPath.getAbsolutePath());
+        File moved = copyHistogram(program, gmonPath, "gmon.moved", false);
+        File sumPath = new File(directory, "gmon.sum.ranges");
+        try {
+            List<String> s = new ArrayList<>();
+            s.add(gmonPath.toString());
+            s.add(moved.toString());
+            GmonDecoder decoder = Aggregator.aggregate(program, s, null, sumPath);
+            assertTrue(decoder.getHistogramDecoder().hasValues());
+
+            // the sum has a histogram record per range
+            GmonDecoder sum = new GmonDecoder(program, null);
+            sum.read(sumPath.toString());
+            assertEquals(decoder.getRootNode().getSamples(), sum.getRootNode().getSamples());
+        } finally {
+            moved.delete();
+            sumPath.delete();
+        }
+    }
+
+    @Test
+    public void testIncompatibleAggregation() throws IOException {
+        File directory = new File(STJunitUtils.getAbsolutePath(
+                "org.eclipse.linuxtools.gprof.test", dir));
+        File gmonPath = new File(directory, OUTPUT_FILE);
+        File binaryPath = new File(directory, BINARY_FILE);
+        IBinaryObject program = STSymbolManager.sharedInstance
+                .getBinaryObject(binaryPath.getAbsolutePath());
+        File overlapping = copyHistogram(program, gmonPath, "gmon.overlapping", true);
+        try {
+            List<String> s = new ArrayList<>();
+            s.add(gmonPath.toString());
+            s.add(gmonPath.toString());
+            s.add(gmonPath.toString());
+            s.add(overlapping.toString());
+            Aggregator.aggregate(program, s, null, null);
+            fail();
+        } catch (IOException e) {
+            // the message names the incompatible file
+            assertTrue(e.getMessage(), e.getMessage().contains(overlapping.toString()));
+        } finally {
+            overlapping.delete();
+        }
+    }
 }
@@ -0,0 +1,216 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.linuxtools.internal.gprof.test;
+
+import static org.eclipse.linuxtools.internal.gprof.test.STJunitUtils.BINARY_FILE;
+import static org.eclipse.linuxtools.internal.gprof.test.STJunitUtils.OUTPUT_FILE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.eclipse.cdt.core.IAddressFactory;
+import org.eclipse.cdt.core.IBinaryParser.IBinaryObject;
+import org.eclipse.linuxtools.binutils.utils.STSymbolManager;
+import org.eclipse.linuxtools.internal.gprof.parser.GmonDecoder;
+import org.eclipse.linuxtools.internal.gprof.view.histogram.TreeElement;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * Decoding of gmon files of big-endian programs, and of gmon files mapped in memory by parts: the results must
+ * be the ones of the little-endian gmon files of the tests, mapped at once.
+ */
+@RunWith(Parameterized.class)
+public class GprofByteOrderTest {
+    /** size of the gmon header: cookie, version and spare bytes */
+    private static final int GMON_HDRSIZE = 4 + 4 + 12;
+
+    @Parameters
+    public static Collection<Object[]> data() {
+        List<Object[]> params = new ArrayList<>();
+        for (File testDir : STJunitUtils.getTestDirs()) {
+            params.add(new Object[] { new File(testDir, OUTPUT_FILE), new File(testDir, BINARY_FILE),
+                    new File(testDir, "testParse.ref") });
+        }
+        return params;
+    }
+
+    private File gmonFile;
+    private File binaryFile;
+    private File parserRefFile;
+
+    public GprofByteOrderTest(File gmonFile, File binaryFile, File parserRefFile) {
+        this.gmonFile = gmonFile;
+        this.binaryFile = binaryFile;
+        this.parserRefFile = parserRefFile;
+    }
+
+    private static boolean is64(IBinaryObject binary) {
+        IAddressFactory factory = binary.getAddressFactory();
+        int addrSize = factory == null ? 4 : factory.getMax().getSize();
+        return addrSize > 4 || binary.getCPU().endsWith("64"); //$NON-NLS-1$
+    }
+
+    /**
+     * @return the given program, as if it was big-endian
+     */
+    private static IBinaryObject bigEndian(IBinaryObject binary) {
+        return (IBinaryObject) Proxy.newProxyInstance(IBinaryObject.class.getClassLoader(),
+                new Class<?>[] { IBinaryObject.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("isLittleEndian")) { //$NON-NLS-1$
+                        return Boolean.FALSE;
+                    }
+                    try {
+                        return method.invoke(binary, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private static void copyAddress(ByteBuffer in, ByteBuffer out, boolean is64) {
+        if (is64) {
+            out.putLong(in.getLong());
+        } else {
+            out.putInt(in.getInt());
+        }
+    }
+
+    /**
+     * Converts the records of a little-endian gmon file to big-endian.
+     */
+    private static File toBigEndian(File gmon, boolean is64) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(gmon.toPath())).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer out = ByteBuffer.allocate(in.capacity()).order(ByteOrder.BIG_ENDIAN);
+        byte[] cookie = new byte[4];
+        in.get(cookie);
+        assertEquals("gmon", new String(cookie)); //$NON-NLS-1$
+        out.put(cookie);
+        out.putInt(in.getInt());
+        out.put(new byte[GMON_HDRSIZE - 8]);
+        in.position(GMON_HDRSIZE);
+        while (in.hasRemaining()) {
+            byte tag = in.get();
+            out.put(tag);
+            copyAddress(in, out, is64);
+            copyAddress(in, out, is64);
+            if (tag == 0) {
+                int bins = in.getInt();
+                out.putInt(bins);
+                out.putInt(in.getInt());
+                byte[] dimen = new byte[16];
+                in.get(dimen);
+                out.put(dimen);
+                for (int i = 0; i < bins; i++) {
+                    out.putShort(in.getShort());
+                }
+            } else {
+                assertEquals(1, tag);
+                out.putInt(in.getInt());
+            }
+        }
+        File ret = new File(gmon.getParentFile(), gmon.getName() + ".be"); //$NON-NLS-1$
+        Files.write(ret.toPath(), out.array());
+        return ret;
+    }
+
+    /**
+     * @return the size of the largest record of the given gmon file
+     */
+    private static int getLargestRecordSize(File gmon, boolean is64) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(gmon.toPath())).order(ByteOrder.LITTLE_ENDIAN);
+        int addressSize = is64 ? 8 : 4;
+        int ret = GMON_HDRSIZE;
+        in.position(GMON_HDRSIZE);
+        while (in.hasRemaining()) {
+            byte tag = in.get();
+            int size;
+            if (tag == 0) {
+                int bins = in.getInt(in.position() + 2 * addressSize);
+                size = 1 + 2 * addressSize + 4 + 4 + 16 + 2 * bins;
+            } else {
+                size = 1 + 2 * addressSize + 4;
+            }
+            in.position(in.position() + size - 1);
+            ret = Math.max(ret, size);
+        }
+        return ret;
+    }
+
+    private static String dumpTree(GmonDecoder decoder) {
+        StringBuilder ret = new StringBuilder();
+        TreeElement root = decoder.getRootNode();
+        ret.append(root.getSamples()).append(' ').append(root.getCalls()).append('\n');
+        for (TreeElement file : root.getChildren()) {
+            ret.append(file.getName()).append(' ').append(file.getSamples()).append(' ').append(file.getCalls())
+                    .append('\n');
+            for (TreeElement function : file.getChildren()) {
+                ret.append("  ").append(function.getName()).append(' ').append(function.getSamples()) //$NON-NLS-1$
+                        .append(' ').append(function.getCalls()).append('\n');
+            }
+        }
+        return ret.toString();
+    }
+
+    @Test
+    public void testBigEndian() throws IOException {
+        IBinaryObject binary = STSymbolManager.sharedInstance.getBinaryObject(binaryFile.getAbsolutePath());
+        GmonDecoder littleEndianDecoder = new GmonDecoder(binary, null);
+        littleEndianDecoder.read(gmonFile.getAbsolutePath());
+
+        File bigEndianGmon = toBigEndian(gmonFile, is64(binary));
+        File dumpFile = new File(gmonFile.getParentFile(), "testParse.be.dump"); //$NON-NLS-1$
+        try (PrintStream ps = new PrintStream(dumpFile)) {
+            GmonDecoder bigEndianDecoder = new GmonDecoder(bigEndian(binary), ps, null);
+            bigEndianDecoder.setShouldDump(true);
+            bigEndianDecoder.read(bigEndianGmon.getAbsolutePath());
+            assertEquals(dumpTree(littleEndianDecoder), dumpTree(bigEndianDecoder));
+        } finally {
+            bigEndianGmon.delete();
+        }
+        assertTrue(STJunitUtils.compareIgnoreEOL(dumpFile.getAbsolutePath(), parserRefFile.getAbsolutePath(),
+                true));
+    }
+
+    @Test
+    public void testMappedByParts() throws IOException {
+        IBinaryObject binary = STSymbolManager.sharedInstance.getBinaryObject(binaryFile.getAbsolutePath());
+        GmonDecoder decoder = new GmonDecoder(binary, null);
+        decoder.read(gmonFile.getAbsolutePath());
+
+        File dumpFile = new File(gmonFile.getParentFile(), "testParse.parts.dump"); //$NON-NLS-1$
+        try (PrintStream ps = new PrintStream(dumpFile)) {
+            GmonDecoder partsDecoder = new GmonDecoder(binary, ps, null);
+            partsDecoder.setShouldDump(true);
+            // the smallest parts which the records fit in
+            partsDecoder.setMapWindowSize(getLargestRecordSize(gmonFile, is64(binary)));
+            partsDecoder.read(gmonFile.getAbsolutePath());
+            assertEquals(dumpTree(decoder), dumpTree(partsDecoder));
+        }
+        assertTrue(STJunitUtils.compareIgnoreEOL(dumpFile.getAbsolutePath(), parserRefFile.getAbsolutePath(),
+                true));
+    }
+}
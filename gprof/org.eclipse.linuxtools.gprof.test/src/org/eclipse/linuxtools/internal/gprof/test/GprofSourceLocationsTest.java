@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.linuxtools.internal.gprof.test;
+
+import static org.eclipse.linuxtools.internal.gprof.test.STJunitUtils.BINARY_FILE;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.eclipse.cdt.core.IAddressFactory;
+import org.eclipse.cdt.core.IBinaryParser.IBinaryObject;
+import org.eclipse.cdt.core.IBinaryParser.ISymbol;
+import org.eclipse.linuxtools.binutils.utils.STSourceLocations;
+import org.eclipse.linuxtools.binutils.utils.STSymbolManager;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * Batch resolution of source locations and demangled names: the batch results must be the ones of the lookups of
+ * one address or one symbol.
+ */
+@RunWith(Parameterized.class)
+public class GprofSourceLocationsTest {
+    /** more addresses than the smallest batch of all the addr2line processes, so they are all used */
+    private static final int MIN_ADDRESSES = 1024;
+
+    @Parameters
+    public static Collection<Object[]> data() {
+        List<Object[]> params = new ArrayList<>();
+        for (File testDir : STJunitUtils.getTestDirs()) {
+            params.add(new Object[] { new File(testDir, BINARY_FILE) });
+        }
+        return params;
+    }
+
+    private File binaryFile;
+
+    public GprofSourceLocationsTest(File binaryFile) {
+        this.binaryFile = binaryFile;
+    }
+
+    private static long[] getAddresses(IBinaryObject binary) {
+        List<Long> addresses = new ArrayList<>();
+        ISymbol[] symbols = binary.getSymbols();
+        // repeat the symbol addresses, so that the batch has duplicates and is split among the workers
+        while (symbols.length > 0 && addresses.size() < MIN_ADDRESSES) {
+            for (ISymbol symbol : symbols) {
+                long start = symbol.getAddress().getValue().longValue();
+                addresses.add(start);
+                addresses.add(start + symbol.getSize() / 2);
+            }
+        }
+        long[] ret = new long[addresses.size()];
+        for (int i = 0; i < ret.length; i++) {
+            ret[i] = addresses.get(i);
+        }
+        return ret;
+    }
+
+    @Test
+    public void testBatchMatchesSingleLookups() {
+        IBinaryObject binary = STSymbolManager.sharedInstance.getBinaryObject(binaryFile.getAbsolutePath());
+        IAddressFactory factory = binary.getAddressFactory();
+        long[] addresses = getAddresses(binary);
+        STSourceLocations locations = STSymbolManager.sharedInstance.getSourceLocations(binary, addresses, null);
+        assertEquals(addresses.length, locations.size());
+        for (int i = 0; i < addresses.length; i++) {
+            assertEquals(addresses[i], locations.getAddress(i));
+            String fileName = STSymbolManager.sharedInstance.getFileName(binary,
+                    factory.createAddress(Long.toString(addresses[i])), null);
+            int lineNumber = STSymbolManager.sharedInstance.getLineNumber(binary,
+                    factory.createAddress(Long.toString(addresses[i])), null);
+            assertEquals(fileName, locations.getFileName(i));
+            assertEquals(lineNumber, locations.getLineNumber(i));
+            assertEquals(locations.getFileName(i), locations.getFileNames()[i]);
+            assertEquals(locations.getLineNumber(i), locations.getLineNumbers()[i]);
+        }
+    }
+
+    @Test
+    public void testEmptyBatch() {
+        IBinaryObject binary = STSymbolManager.sharedInstance.getBinaryObject(binaryFile.getAbsolutePath());
+        STSourceLocations locations = STSymbolManager.sharedInstance.getSourceLocations(binary, new long[0], null);
+        assertEquals(0, locations.size());
+        assertEquals(0, locations.getFileNames().length);
+        assertEquals(0, locations.getLineNumbers().length);
+    }
+
+    @Test
+    public void testBatchDemangle() {
+        IBinaryObject binary = STSymbolManager.sharedInstance.getBinaryObject(binaryFile.getAbsolutePath());
+        ISymbol[] symbols = binary.getSymbols();
+        String[] names = new String[symbols.length];
+        for (int i = 0; i < symbols.length; i++) {
+            names[i] = symbols[i].getName();
+        }
+        String[] copy = names.clone();
+        String[] demangled = STSymbolManager.sharedInstance.demangle(binary, names, null);
+        // the given names are not changed
+        assertArrayEquals(copy, names);
+        assertEquals(names.length, demangled.length);
+        for (int i = 0; i < names.length; i++) {
+            assertEquals(STSymbolManager.sharedInstance.demangle(binary, names[i], null), demangled[i]);
+        }
+    }
+}
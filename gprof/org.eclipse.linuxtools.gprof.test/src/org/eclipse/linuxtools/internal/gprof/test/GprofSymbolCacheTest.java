@@ -0,0 +1,178 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.linuxtools.internal.gprof.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import org.eclipse.linuxtools.internal.binutils.SymbolCacheStore;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The persistent store of resolved symbols: what is saved is found again in the mapped file, and files which do not
+ * match their binary or are corrupted are not used.
+ */
+public class GprofSymbolCacheTest {
+    private static final String KEY = "btest"; //$NON-NLS-1$
+    private static final int ADDRESSES = 1000;
+
+    private Path dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("symbols"); //$NON-NLS-1$
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        File[] files = dir.toFile().listFiles();
+        if (files != null) {
+            for (File f : files) {
+                Files.delete(f.toPath());
+            }
+        }
+        Files.delete(dir);
+    }
+
+    private static SymbolCacheStore.Content createContent() {
+        SymbolCacheStore.Content content = new SymbolCacheStore.Content();
+        for (int i = 0; i < ADDRESSES; i++) {
+            // addresses of the upper half of the address space too
+            long address = (i % 2 == 0 ? 0x400000L : 0xffffffff80000000L) + 16 * i;
+            if (i % 5 != 0) {
+                content.fileNames.put(address, i % 7 == 0 ? null : "/src/file" + (i % 10) + ".c"); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+            if (i % 3 != 0) {
+                content.lineNumbers.put(address, i % 11 == 0 ? -1 : i);
+            }
+            content.demangledNames.put("_Z" + i + "fv", "f" + i + "()"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+        }
+        content.demangledNames.put("_Z\u00e9", "\u00e9()"); //$NON-NLS-1$ //$NON-NLS-2$
+        return content;
+    }
+
+    private static void checkEntries(SymbolCacheStore.Content content, SymbolCacheStore.Entries entries) {
+        for (int i = 0; i < ADDRESSES; i++) {
+            long address = (i % 2 == 0 ? 0x400000L : 0xffffffff80000000L) + 16 * i;
+            assertEquals(content.fileNames.containsKey(address), entries.hasFileName(address));
+            assertEquals(content.fileNames.get(address), entries.getFileName(address));
+            assertEquals(content.lineNumbers.get(address), entries.getLineNumber(address));
+            // between two cached addresses
+            assertFalse(entries.hasFileName(address + 1));
+            assertNull(entries.getLineNumber(address + 1));
+        }
+        for (String symbolName : content.demangledNames.keySet()) {
+            assertEquals(content.demangledNames.get(symbolName), entries.getDemangledName(symbolName));
+        }
+        assertNull(entries.getDemangledName("_Z")); //$NON-NLS-1$
+        assertNull(entries.getDemangledName("main")); //$NON-NLS-1$
+    }
+
+    @Test
+    public void testSaveAndLoad() {
+        SymbolCacheStore store = new SymbolCacheStore(dir.toFile());
+        assertNull(store.load(KEY));
+        SymbolCacheStore.Content content = createContent();
+        store.save(KEY, content);
+
+        // as in a later session
+        SymbolCacheStore.Entries entries = new SymbolCacheStore(dir.toFile()).load(KEY);
+        assertNotNull(entries);
+        checkEntries(content, entries);
+
+        // saved again with the new entries, as an address pool does
+        SymbolCacheStore.Content merged = new SymbolCacheStore.Content();
+        entries.copyTo(merged);
+        assertEquals(content.fileNames, merged.fileNames);
+        assertEquals(content.lineNumbers, merged.lineNumbers);
+        assertEquals(content.demangledNames, merged.demangledNames);
+        merged.fileNames.put(0x1000L, "/src/new.c"); //$NON-NLS-1$
+        store.save(KEY, merged);
+        // the previous mapping is still valid
+        checkEntries(content, entries);
+        SymbolCacheStore.Entries reloaded = store.load(KEY);
+        checkEntries(merged, reloaded);
+        assertEquals(content.fileNames.size() + 1, merged.fileNames.size());
+        assertEquals("/src/new.c", reloaded.getFileName(0x1000L)); //$NON-NLS-1$
+    }
+
+    @Test
+    public void testEmpty() {
+        SymbolCacheStore store = new SymbolCacheStore(dir.toFile());
+        store.save(KEY, new SymbolCacheStore.Content());
+        SymbolCacheStore.Entries entries = store.load(KEY);
+        assertEquals(0, entries.getAddressCount());
+        assertEquals(0, entries.getDemangledNameCount());
+        assertFalse(entries.hasFileName(0));
+        assertNull(entries.getDemangledName("_Z1fv")); //$NON-NLS-1$
+    }
+
+    @Test
+    public void testCorruptedFile() throws IOException {
+        SymbolCacheStore store = new SymbolCacheStore(dir.toFile());
+        store.save(KEY, createContent());
+        File file = dir.resolve(KEY + ".cache").toFile(); //$NON-NLS-1$
+        assertTrue(file.isFile());
+
+        // truncated, e.g. by a crash
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        Files.write(file.toPath(), Arrays.copyOf(bytes, bytes.length / 2), StandardOpenOption.TRUNCATE_EXISTING);
+        assertNull(store.load(KEY));
+        assertFalse(file.exists());
+
+        // or written in another format
+        Files.write(file.toPath(), "not a cache file".getBytes(StandardCharsets.UTF_8)); //$NON-NLS-1$
+        assertNull(store.load(KEY));
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void testKeyInvalidation() throws IOException {
+        assertNull(SymbolCacheStore.getKey(dir.resolve("missing").toFile())); //$NON-NLS-1$
+
+        // not an ELF file: identified by its path, modification time and size
+        File binary = dir.resolve("binary").toFile(); //$NON-NLS-1$
+        Files.write(binary.toPath(), "#!/bin/sh".getBytes(StandardCharsets.UTF_8)); //$NON-NLS-1$
+        assertTrue(binary.setLastModified(1_000_000L));
+        String key = SymbolCacheStore.getKey(binary);
+        assertEquals(key, SymbolCacheStore.getKey(binary));
+        SymbolCacheStore store = new SymbolCacheStore(dir.resolve("cache").toFile()); //$NON-NLS-1$
+        store.save(key, createContent());
+        assertNotNull(store.load(key));
+
+        // rebuilt: the symbols of the previous binary are not used
+        Files.write(binary.toPath(), "\necho".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND); //$NON-NLS-1$
+        assertTrue(binary.setLastModified(2_000_000L));
+        String newKey = SymbolCacheStore.getKey(binary);
+        assertNotEquals(key, newKey);
+        assertNull(store.load(newKey));
+
+        store.clear();
+        assertNull(store.load(key));
+        Files.delete(dir.resolve("cache")); //$NON-NLS-1$
+    }
+}
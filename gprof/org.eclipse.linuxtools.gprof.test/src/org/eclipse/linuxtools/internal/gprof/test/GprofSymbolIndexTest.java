@@ -0,0 +1,77 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.linuxtools.internal.gprof.test;
+
+import static org.eclipse.linuxtools.internal.gprof.test.STJunitUtils.BINARY_FILE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.eclipse.cdt.core.IAddressFactory;
+import org.eclipse.cdt.core.IBinaryParser.IBinaryObject;
+import org.eclipse.cdt.core.IBinaryParser.ISymbol;
+import org.eclipse.linuxtools.binutils.utils.STSymbolManager;
+import org.eclipse.linuxtools.internal.gprof.symbolManager.SymbolIndex;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+@RunWith(Parameterized.class)
+public class GprofSymbolIndexTest {
+    @Parameters
+    public static Collection<Object[]> data() {
+        List<Object[]> params = new ArrayList<>();
+        for (File testDir : STJunitUtils.getTestDirs()) {
+            params.add(new Object[] { new File(testDir, BINARY_FILE) });
+        }
+        return params;
+    }
+
+    private File binaryFile;
+
+    public GprofSymbolIndexTest(File binaryFile) {
+        this.binaryFile = binaryFile;
+    }
+
+    @Test
+    public void testFindSymbol() {
+        IBinaryObject binary = STSymbolManager.sharedInstance
+                .getBinaryObject(binaryFile.getAbsolutePath());
+        SymbolIndex index = SymbolIndex.getIndex(binary);
+        IAddressFactory factory = binary.getAddressFactory();
+        for (ISymbol symbol : binary.getSymbols()) {
+            long start = symbol.getAddress().getValue().longValue();
+            for (long addr : new long[] { start, start + symbol.getSize() / 2, start + symbol.getSize() }) {
+                ISymbol expected = binary.getSymbol(factory.createAddress(Long.toString(addr)));
+                int i = index.find(addr);
+                if (expected == null) {
+                    assertEquals(-1, i);
+                } else {
+                    assertEquals(expected.getAddress(), index.getSymbol(i).getAddress());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testIndexIsCached() {
+        IBinaryObject binary = STSymbolManager.sharedInstance
+                .getBinaryObject(binaryFile.getAbsolutePath());
+        assertSame(SymbolIndex.getIndex(binary), SymbolIndex.getIndex(binary));
+    }
+}
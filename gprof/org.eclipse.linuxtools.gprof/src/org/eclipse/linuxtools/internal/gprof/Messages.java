@@ -17,6 +17,8 @@ import org.eclipse.osgi.util.NLS;
 public class Messages extends NLS {
     private static final String BUNDLE_NAME = "org.eclipse.linuxtools.internal.gprof.messages"; //$NON-NLS-1$
     public static String GmonDecoder_BAD_TAG_ERROR;
+    public static String GmonDecoder_FILE_TOO_LARGE_ERROR;
+    public static String GmonDecoder_INCOMPATIBLE_FILE_ERROR;
     public static String HistogramDecoder_INCOMPATIBLE_HIST_HEADER_ERROR_MSG;
     public static String HistRoot_Summary;
     public static String OpenGmonDialog_BINARY_FILE;
@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.linuxtools.internal.gprof.parser;
+
+import java.util.Arrays;
+
+/**
+ * Raw call-graph arcs of gmon files, before symbol resolution.
+ * Arcs are keyed by (from_pc, self_pc), their counts are summed,
+ * and they are kept in insertion order.
+ */
+final class ArcTable {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private long[] from = new long[INITIAL_CAPACITY];
+    private long[] self = new long[INITIAL_CAPACITY];
+    private int[] counts = new int[INITIAL_CAPACITY];
+    private int size;
+
+    /** open-addressing hash table of arc indexes, -1 for empty slots */
+    private int[] slots = newSlots(INITIAL_CAPACITY * 2);
+
+    private static int[] newSlots(int length) {
+        int[] ret = new int[length];
+        Arrays.fill(ret, -1);
+        return ret;
+    }
+
+    private static int hash(long fromPc, long selfPc) {
+        long h = fromPc * 0x9E3779B97F4A7C15L + selfPc;
+        h ^= (h >>> 32);
+        h ^= (h >>> 16);
+        return (int) h;
+    }
+
+    /**
+     * Adds the given count to the arc (fromPc, selfPc)
+     * @param fromPc
+     * @param selfPc
+     * @param count
+     */
+    void add(long fromPc, long selfPc, int count) {
+        int mask = slots.length - 1;
+        int slot = hash(fromPc, selfPc) & mask;
+        while (true) {
+            int i = slots[slot];
+            if (i == -1) {
+                break;
+            }
+            if (from[i] == fromPc && self[i] == selfPc) {
+                counts[i] += count;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (size == from.length) {
+            grow();
+            add(fromPc, selfPc, count);
+            return;
+        }
+        from[size] = fromPc;
+        self[size] = selfPc;
+        counts[size] = count;
+        slots[slot] = size;
+        size++;
+    }
+
+    /**
+     * Adds all the arcs of the given table to this one
+     * @param other
+     */
+    void addAll(ArcTable other) {
+        for (int i = 0; i < other.size; i++) {
+            add(other.from[i], other.self[i], other.counts[i]);
+        }
+    }
+
+    private void grow() {
+        int capacity = from.length * 2;
+        from = Arrays.copyOf(from, capacity);
+        self = Arrays.copyOf(self, capacity);
+        counts = Arrays.copyOf(counts, capacity);
+        slots = newSlots(capacity * 2);
+        int mask = slots.length - 1;
+        for (int i = 0; i < size; i++) {
+            int slot = hash(from[i], self[i]) & mask;
+            while (slots[slot] != -1) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = i;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    long getFrom(int i) {
+        return from[i];
+    }
+
+    long getSelf(int i) {
+        return self[i];
+    }
+
+    int getCount(int i) {
+        return counts[i];
+    }
+}
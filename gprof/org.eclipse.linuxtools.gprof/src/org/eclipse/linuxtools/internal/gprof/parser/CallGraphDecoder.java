@@ -12,17 +12,17 @@
  *******************************************************************************/
 package org.eclipse.linuxtools.internal.gprof.parser;
 
-import java.io.DataInput;
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
 
-import org.eclipse.cdt.core.IAddress;
-import org.eclipse.cdt.core.IAddressFactory;
-import org.eclipse.cdt.core.IBinaryParser.IBinaryObject;
-import org.eclipse.cdt.core.IBinaryParser.ISymbol;
+import org.eclipse.linuxtools.binutils.utils.STSourceLocations;
+import org.eclipse.linuxtools.binutils.utils.STSymbolManager;
 import org.eclipse.linuxtools.internal.gprof.symbolManager.CallGraphArc;
 import org.eclipse.linuxtools.internal.gprof.symbolManager.CallGraphNode;
+import org.eclipse.linuxtools.internal.gprof.symbolManager.SymbolIndex;
 import org.eclipse.linuxtools.internal.gprof.view.histogram.HistRoot;
 
 
@@ -36,7 +36,11 @@ public class CallGraphDecoder {
     protected final GmonDecoder decoder;
 
 
-    private final Map<ISymbol, CallGraphNode> nodes = new HashMap<>();
+    /** decoded arcs, not yet resolved */
+    private final ArcTable arcs = new ArcTable();
+
+    /** call-graph nodes, indexed like the symbols of the program symbol index */
+    private CallGraphNode[] nodes;
 
     /**
      * Constructor
@@ -48,45 +52,67 @@ public class CallGraphDecoder {
 
     /**
      * Decode call-graph record from gmon file.
-     * @param stream
-     * @throws IOException
+     * @param buffer
      */
-    public void decodeCallGraphRecord(DataInput stream, boolean bsdFormat) throws IOException {
-        long from_pc = readAddress(stream);
-        long self_pc = readAddress(stream);
-        int count    = bsdFormat?(int)readAddress(stream):stream.readInt();
-        IBinaryObject program = decoder.getProgram();
-        IAddressFactory addressFactory = program.getAddressFactory();
-        IAddress parentAddress = addressFactory.createAddress(Long.toString(from_pc));
-        ISymbol  parentSymbol  = program.getSymbol(parentAddress);
-        IAddress childAddress  = addressFactory.createAddress(Long.toString(self_pc));
-        ISymbol  childSymbol   = program.getSymbol(childAddress);
-        if (childSymbol == null || parentSymbol == null) {
-            return;
+    public void decodeCallGraphRecord(ByteBuffer buffer, boolean bsdFormat) {
+        long from_pc = readAddress(buffer);
+        long self_pc = readAddress(buffer);
+        int count    = bsdFormat?(int)readAddress(buffer):buffer.getInt();
+        arcs.add(from_pc, self_pc, count);
+    }
+
+
+    /**
+     * Decode all the complete call-graph records remaining in the given buffer.
+     * The buffer is left at the beginning of the first truncated record, if any.
+     * @param buffer
+     */
+    public void decodeCallGraphRecords(ByteBuffer buffer, boolean bsdFormat) {
+        int recordSize = getRecordSize(bsdFormat);
+        while (buffer.remaining() >= recordSize) {
+            decodeCallGraphRecord(buffer, bsdFormat);
         }
-        addCallArc(parentSymbol, parentAddress, childSymbol, count);
     }
 
+    /**
+     * @return the size in bytes of a call-graph record, without its tag
+     */
+    int getRecordSize(boolean bsdFormat) {
+        return 2 * getAddressSize() + (bsdFormat ? getAddressSize() : 4);
+    }
 
-    protected long readAddress(DataInput stream) throws IOException {
-        return stream.readInt() & 0xFFFFFFFFL;
+    protected long readAddress(ByteBuffer buffer) {
+        return buffer.getInt() & 0xFFFFFFFFL;
+    }
+
+    /**
+     * @return the size in bytes of an address in the gmon file
+     */
+    protected int getAddressSize() {
+        return 4;
     }
 
 
-    private void addCallArc(ISymbol parent, IAddress parentAddress, ISymbol child, int count) {
-        CallGraphNode parentNode = nodes.get(parent);
-        CallGraphNode childNode  = nodes.get(child);
+    private void addCallArc(SymbolIndex index, int parent, int child, int count, STSourceLocations locations,
+            int callSite) {
+        if (nodes == null) {
+            nodes = new CallGraphNode[index.size()];
+        }
+        CallGraphNode parentNode = nodes[parent];
+        CallGraphNode childNode  = nodes[child];
         if (parentNode == null) {
-            parentNode = new CallGraphNode(parent);
-            nodes.put(parent, parentNode);
+            parentNode = new CallGraphNode(index.getSymbol(parent));
+            nodes[parent] = parentNode;
         }
         if (childNode == null) {
-            childNode = new CallGraphNode(child);
-            nodes.put(child, childNode);
+            childNode = new CallGraphNode(index.getSymbol(child));
+            nodes[child] = childNode;
         }
         CallGraphArc arc = parentNode.getOutputArc(childNode);
         if (arc == null) {
-            arc = new CallGraphArc(parentNode, parentAddress, childNode, count, decoder.getProgram(), decoder.getProject());
+            // new arcs are built for the first arc between two functions, whose call location has been resolved.
+            arc = new CallGraphArc(parentNode, locations.getFileName(callSite), locations.getLineNumber(callSite),
+                    childNode, count, decoder.getProject());
             parentNode.getChildren().add(arc);
             childNode.getParents().add(arc);
         } else {
@@ -94,9 +120,61 @@ public class CallGraphDecoder {
         }
     }
 
+    /**
+     * Adds the arcs decoded by the given decoder to this one.
+     * @param other
+     */
+    void merge(CallGraphDecoder other) {
+        arcs.addAll(other.arcs);
+    }
+
+    /**
+     * Writes the decoded arcs as gmon call-graph records.
+     * @param writer
+     * @throws IOException
+     */
+    void write(GmonWriter writer) throws IOException {
+        for (int i = 0; i < arcs.size(); i++) {
+            writer.putByte(GmonDecoder.VPF_GMON_RECORD_TYPE_CALLGRAPH);
+            writer.putAddress(arcs.getFrom(i));
+            writer.putAddress(arcs.getSelf(i));
+            writer.putInt(arcs.getCount(i));
+        }
+    }
+
     void populate(HistRoot rootNode) {
-        for (CallGraphNode callGraphNode : nodes.values()) {
-            rootNode.addCallGraphNode(callGraphNode);
+        SymbolIndex index = decoder.getSymbolIndex();
+        int[] parentSymbols = new int[arcs.size()];
+        int[] childSymbols = new int[arcs.size()];
+        // call locations are resolved in a single batch, for the first arc between two functions.
+        Set<Long> functionPairs = new HashSet<>();
+        long[] callSites = new long[arcs.size()];
+        int[] arcCallSites = new int[arcs.size()];
+        int nbCallSites = 0;
+        for (int i = 0; i < arcs.size(); i++) {
+            parentSymbols[i] = index.find(arcs.getFrom(i));
+            childSymbols[i]  = index.find(arcs.getSelf(i));
+            arcCallSites[i] = -1;
+            if (childSymbols[i] != -1 && parentSymbols[i] != -1
+                    && functionPairs.add(((long) parentSymbols[i] << 32) | childSymbols[i])) {
+                arcCallSites[i] = nbCallSites;
+                callSites[nbCallSites++] = arcs.getFrom(i);
+            }
+        }
+        STSourceLocations locations = STSymbolManager.sharedInstance.getSourceLocations(decoder.getProgram(),
+                Arrays.copyOf(callSites, nbCallSites), decoder.getProject());
+        for (int i = 0; i < arcs.size(); i++) {
+            if (childSymbols[i] != -1 && parentSymbols[i] != -1) {
+                addCallArc(index, parentSymbols[i], childSymbols[i], arcs.getCount(i), locations, arcCallSites[i]);
+            }
+        }
+        if (nodes == null) {
+            return;
+        }
+        for (CallGraphNode callGraphNode : nodes) {
+            if (callGraphNode != null) {
+                rootNode.addCallGraphNode(callGraphNode);
+            }
         }
     }
 
@@ -12,8 +12,7 @@
  *******************************************************************************/
 package org.eclipse.linuxtools.internal.gprof.parser;
 
-import java.io.DataInput;
-import java.io.IOException;
+import java.nio.ByteBuffer;
 
 public class CallGraphDecoder64 extends CallGraphDecoder{
 
@@ -22,8 +21,13 @@ public class CallGraphDecoder64 extends CallGraphDecoder{
     }
 
     @Override
-    protected long readAddress(DataInput stream) throws IOException {
-        return stream.readLong();
+    protected long readAddress(ByteBuffer buffer) {
+        return buffer.getLong();
+    }
+
+    @Override
+    protected int getAddressSize() {
+        return 8;
     }
 
 }
@@ -12,17 +12,20 @@
  *******************************************************************************/
 package org.eclipse.linuxtools.internal.gprof.parser;
 
-import java.io.BufferedInputStream;
-import java.io.DataInput;
-import java.io.DataInputStream;
 import java.io.EOFException;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.text.DateFormat;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 import org.eclipse.cdt.core.IAddressFactory;
 import org.eclipse.cdt.core.IBinaryParser.IBinaryObject;
@@ -30,7 +33,7 @@ import org.eclipse.cdt.core.IBinaryParser.ISymbol;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.linuxtools.binutils.utils.STSymbolManager;
 import org.eclipse.linuxtools.internal.gprof.Messages;
-import org.eclipse.linuxtools.internal.gprof.utils.LEDataInputStream;
+import org.eclipse.linuxtools.internal.gprof.symbolManager.SymbolIndex;
 import org.eclipse.linuxtools.internal.gprof.view.histogram.HistRoot;
 
 /**
@@ -47,6 +50,12 @@ public class GmonDecoder {
 
     public static final int GMONVERSION = 0x00051879;
 
+    /** Version of gmon files written by gprof -s */
+    private static final int GMON_VERSION_1 = 1;
+
+    /** Size of the gmon header: cookie, version and spare bytes. */
+    private static final int GMON_HDRSIZE = 4 + 4 + 12;
+
     // header
     private String cookie;
     private int gmonVersion;
@@ -61,11 +70,14 @@ public class GmonDecoder {
     private int tag = -1;
 
     private final HashMap<ISymbol, String> filenames = new HashMap<>();
+    private SymbolIndex symbolIndex;
     private final IProject project;
 
     // for dump
     private boolean shouldDump = false;
 
+    private int mapWindowSize = Integer.MAX_VALUE;
+
     /**
      * Constructor
      *
@@ -111,96 +123,196 @@ public class GmonDecoder {
      * @throws IOException
      */
     public void read(String file) throws IOException {
-        this.file = file;
-        DataInputStream beStream = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
-        if (program.isLittleEndian()) {
-            try (LEDataInputStream leStream = new LEDataInputStream(beStream)) {
-                leStream.mark(1000);
-                boolean gmonType = readHeader(leStream);
-                if (gmonType)
-                    readGmonContent(leStream);
-                else {
-                    leStream.reset();
-                    histo.decodeOldHeader(leStream);
-                    histo.decodeHistRecord(leStream);
-                    try {
-                        do {
-                            this.callGraph.decodeCallGraphRecord(leStream, true);
-                        } while (true);
-                    } catch (EOFException e) {
-                        // normal. End of file reached.
-                    }
-                    this.callGraph.populate(rootNode);
-                    this.histo.assignSamplesSymbol();
+        decode(file);
+        resolve();
+    }
+
+    /**
+     * Reads the given files, and aggregates their content. Files are decoded in parallel, and their
+     * histograms and call-graph arcs are summed before symbol resolution.
+     *
+     * @param files
+     *            the gmon files to aggregate
+     * @throws IOException
+     *             if an IO error occurs, or if the histogram headers of the files are not compatible.
+     */
+    public void read(List<String> files) throws IOException {
+        if (files.isEmpty()) {
+            return;
+        }
+        GmonDecoder aggregated;
+        try {
+            aggregated = ForkJoinPool.commonPool().invoke(new DecodeTask(files, 0, files.size()));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        merge(aggregated);
+        this.file = files.get(0);
+        resolve();
+    }
+
+    /**
+     * Decodes (without resolving symbols) a part of a list of gmon files, and merges the results.
+     */
+    private class DecodeTask extends RecursiveTask<GmonDecoder> {
+        private static final long serialVersionUID = 1L;
+        private final List<String> files;
+        private final int from;
+        private final int to;
+
+        DecodeTask(List<String> files, int from, int to) {
+            this.files = files;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected GmonDecoder compute() {
+            try {
+                if (to - from == 1) {
+                    GmonDecoder d = new GmonDecoder(program, project);
+                    d.mapWindowSize = mapWindowSize;
+                    d.decode(files.get(from));
+                    return d;
                 }
+                int middle = (from + to) >>> 1;
+                DecodeTask right = new DecodeTask(files, middle, to);
+                right.fork();
+                GmonDecoder ret = new DecodeTask(files, from, middle).compute();
+                ret.merge(right.join());
+                return ret;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
-        } else {
-            try {
-                beStream.mark(1000);
-                boolean gmonType = readHeader(beStream);
-                if (gmonType) {
-                    readGmonContent(beStream);
-                } else {
-                    beStream.reset();
-                    histo.decodeOldHeader(beStream);
-                    histo.decodeHistRecord(beStream);
-                    try {
-                        do {
-                            this.callGraph.decodeCallGraphRecord(beStream, true);
-                        } while (true);
-                    } catch (EOFException e) {
-                        // normal. End of file reached.
-                    }
-                    this.callGraph.populate(rootNode);
-                    this.histo.assignSamplesSymbol();
+        }
+    }
+
+    /**
+     * Adds the decoded content of the given decoder to this one.
+     *
+     * @param other
+     * @throws IOException
+     *             if the histogram headers are not compatible.
+     */
+    private void merge(GmonDecoder other) throws IOException {
+        histo.merge(other.histo);
+        callGraph.merge(other.callGraph);
+    }
+
+    /**
+     * Decodes the given file, without resolving symbols
+     *
+     * @param file
+     * @throws IOException
+     */
+    private void decode(String file) throws IOException {
+        this.file = file;
+        try (GmonReader in = new GmonReader(file, getByteOrder(), mapWindowSize)) {
+            decode(in);
+        }
+    }
+
+    /**
+     * Decodes the given gmon data, record by record.
+     *
+     * @param in
+     * @throws IOException
+     */
+    private void decode(GmonReader in) throws IOException {
+        try {
+            boolean gmonType = in.remaining() >= GMON_HDRSIZE && readHeader(in.ensure(GMON_HDRSIZE));
+            if (gmonType) {
+                readGmonContent(in);
+            } else {
+                in.rewind();
+                histo.decodeOldHeader(in.ensure(Math.min(histo.getOldHeaderSize(), in.remaining())));
+                histo.decodeHistRecord(in.ensure(histo.getSamplesSize()));
+                // the remaining of the file is made of call-graph arcs, up to EOF.
+                // A truncated arc at the end of the file is ignored.
+                int recordSize = callGraph.getRecordSize(true);
+                while (in.remaining() >= recordSize) {
+                    callGraph.decodeCallGraphRecords(in.ensure(recordSize), true);
                 }
-            } finally {
-                beStream.close();
             }
+        } catch (BufferUnderflowException e) {
+            throw new EOFException();
         }
     }
 
+    /**
+     * Sets the size of the parts of gmon files mapped in memory at once. Records must fit in a part.
+     *
+     * @param mapWindowSize
+     *            the size in bytes, by default the largest a buffer can address
+     */
+    public void setMapWindowSize(int mapWindowSize) {
+        this.mapWindowSize = mapWindowSize;
+    }
+
+    /**
+     * Assigns the decoded histogram and call-graph to the program symbols.
+     */
+    private void resolve() {
+        this.callGraph.populate(rootNode);
+        this.histo.assignSamplesSymbol();
+    }
+
+    /**
+     * Writes the decoded content in a gmon file, e.g. to save an aggregation of gmon files as gmon.sum.
+     *
+     * @param out
+     *            the file to write
+     * @throws IOException
+     *             if an IO error occurs
+     */
+    public void write(File out) throws IOException {
+        try (GmonWriter writer = new GmonWriter(out, getByteOrder(), _32_bit_platform)) {
+            writer.putBytes("gmon".getBytes()); //$NON-NLS-1$
+            writer.putInt(GMON_VERSION_1);
+            writer.putBytes(new byte[12]);
+            histo.write(writer);
+            callGraph.write(writer);
+        }
+    }
+
+    private ByteOrder getByteOrder() {
+        return program.isLittleEndian() ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN;
+    }
+
     /**
      * Read gmon header
      *
-     * @param stream
-     *            the gmon as a stream
+     * @param buffer
+     *            the gmon as a buffer
      * @throws IOException
      *             if an IO error occurs or if the stream is not a gmon file.
      */
-    private boolean readHeader(DataInput stream) throws IOException {
+    private boolean readHeader(ByteBuffer buffer) throws IOException {
         byte[] _cookie = new byte[4];
-        stream.readFully(_cookie);
+        buffer.get(_cookie);
         cookie = new String(_cookie);
-        gmonVersion = stream.readInt();
-        byte[] spare = new byte[12];
-        stream.readFully(spare);
+        gmonVersion = buffer.getInt();
+        // skip spare bytes
+        buffer.position(buffer.position() + 12);
         return "gmon".equals(cookie); //$NON-NLS-1$
     }
 
     /**
      * Read the whole content of the GMON file The header should be read before calling this function.
      *
-     * @param stream
+     * @param in
      * @throws IOException
      */
-    private void readGmonContent(DataInput stream) throws IOException {
-        do {
-            // int tag = -1;
-            tag = -1;
-
-            try {
-                tag = stream.readByte();
-            } catch (EOFException e) {
-                break;
-            }
+    private void readGmonContent(GmonReader in) throws IOException {
+        while (in.hasRemaining()) {
+            tag = in.ensure(1).get();
             switch (tag) {
             case VPF_GMON_RECORD_TYPE_HISTOGRAM:
-                histo.decodeHeader(stream);
-                histo.decodeHistRecord(stream);
+                histo.decodeHeader(in.ensure(histo.getHeaderSize()));
+                histo.decodeHistRecord(in.ensure(histo.getSamplesSize()));
                 break;
             case VPF_GMON_RECORD_TYPE_CALLGRAPH:
-                callGraph.decodeCallGraphRecord(stream, false);
+                callGraph.decodeCallGraphRecord(in.ensure(callGraph.getRecordSize(false)), false);
                 break;
             default:
                 throw new IOException(Messages.GmonDecoder_BAD_TAG_ERROR);
@@ -209,12 +321,8 @@ public class GmonDecoder {
             if (shouldDump) {
                 dumpGmonResult(ps == null ? System.out : ps);
             }
-
-        } while (true);
-
-        this.callGraph.populate(rootNode);
-        this.histo.assignSamplesSymbol();
-
+        }
+        tag = -1;
     }
 
     public void dumpGmonResult(PrintStream ps) {
@@ -249,6 +357,16 @@ public class GmonDecoder {
         return program;
     }
 
+    /**
+     * @return the sorted address index of the program symbols
+     */
+    public SymbolIndex getSymbolIndex() {
+        if (symbolIndex == null) {
+            symbolIndex = SymbolIndex.getIndex(program);
+        }
+        return symbolIndex;
+    }
+
     /**
      * @return the rootNode
      */
@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.linuxtools.internal.gprof.parser;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import org.eclipse.linuxtools.internal.gprof.Messages;
+import org.eclipse.osgi.util.NLS;
+
+/**
+ * Reader of gmon files, with the byte order of the profiled program. The file is mapped in memory by windows:
+ * the window is moved forward whenever the next record does not fit in the rest of it, so that files larger
+ * than what a buffer can address are decoded too.
+ */
+final class GmonReader implements Closeable {
+
+    private final String file;
+    private final FileChannel channel;
+    private final long size;
+    private final ByteOrder order;
+    private final int windowSize;
+    /** position of the window in the file */
+    private long windowStart;
+    private ByteBuffer buffer;
+
+    GmonReader(String file, ByteOrder order, int windowSize) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(Paths.get(file), StandardOpenOption.READ);
+        this.order = order;
+        this.windowSize = windowSize;
+        try {
+            this.size = channel.size();
+            map(0);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void map(long position) throws IOException {
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(windowSize, size - position));
+        buffer.order(order);
+        windowStart = position;
+    }
+
+    /**
+     * @return the number of bytes left in the file
+     */
+    long remaining() {
+        return size - windowStart - buffer.position();
+    }
+
+    boolean hasRemaining() {
+        return remaining() > 0;
+    }
+
+    /**
+     * Makes sure that the given number of bytes can be read from the buffer, by moving the window to the current
+     * position if needed.
+     * @param bytes
+     * @return the buffer, to read the bytes from
+     * @throws EOFException if fewer bytes are left in the file
+     * @throws IOException if the bytes do not fit in a window
+     */
+    ByteBuffer ensure(long bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return buffer;
+        }
+        if (remaining() < bytes) {
+            throw new EOFException();
+        }
+        if (bytes > windowSize) {
+            throw new IOException(NLS.bind(Messages.GmonDecoder_FILE_TOO_LARGE_ERROR, file));
+        }
+        map(windowStart + buffer.position());
+        return buffer;
+    }
+
+    /**
+     * Goes back to the beginning of the file.
+     * @throws IOException
+     */
+    void rewind() throws IOException {
+        if (windowStart == 0) {
+            buffer.position(0);
+        } else {
+            map(0);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
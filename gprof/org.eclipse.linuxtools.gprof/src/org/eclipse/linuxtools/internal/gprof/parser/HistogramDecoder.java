@@ -12,14 +12,21 @@
  *******************************************************************************/
 package org.eclipse.linuxtools.internal.gprof.parser;
 
-import java.io.DataInput;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.ShortBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import org.eclipse.cdt.core.IBinaryParser.ISymbol;
 import org.eclipse.linuxtools.internal.gprof.Messages;
 import org.eclipse.linuxtools.internal.gprof.symbolManager.Bucket;
+import org.eclipse.linuxtools.internal.gprof.symbolManager.SymbolIndex;
 import org.eclipse.linuxtools.internal.gprof.view.histogram.HistRoot;
+import org.eclipse.osgi.util.NLS;
 
 
 /**
@@ -35,30 +42,60 @@ public class HistogramDecoder {
     private static final int GMON_HDRSIZE_OLDBSD_32 = (4 + 4 + 4) ;
     private static final int GMON_HDRSIZE_OLDBSD_64 = (8 + 8 + 4);
 
+    /** Number of samples copied at once out of the mapped gmon file. */
+    private static final int SAMPLE_CHUNK_SIZE = 8192;
+
 
     /** the decoder */
     protected final GmonDecoder decoder;
 
+    /**
+     * Samples of an address range: a gmon file has one histogram record per range, and the records of
+     * the same range are summed.
+     */
+    private static final class HistRange {
+        /** Base pc address of sampled buffer */
+        final long lowpc;
+        /** Max pc address of sampled buffer */
+        final long highpc;
+        /** Histogram samples (shorts in the file!). */
+        final int[] samples;
+        final long bucketSize;
+        /** the gmon file of the first record of the range */
+        final String file;
+
+        HistRange(long lowpc, long highpc, int[] samples, String file) {
+            this.lowpc = lowpc;
+            this.highpc = highpc;
+            this.samples = samples;
+            this.file = file;
+            this.bucketSize = Math.round((highpc - lowpc) / (double) samples.length);
+        }
+
+        boolean overlaps(long lowpc, long highpc) {
+            return lowpc < this.highpc && this.lowpc < highpc;
+        }
+    }
+
     // histogram header
-    /** Base pc address of sampled buffer */
-    protected long lowpc;
-    /** Max pc address of sampled buffer */
-    protected long highpc;
     /** Profiling clock rate */
     protected int profRate;
+    /** usually "seconds", "milliseconds"... */
+    protected byte[] dimen;
     /** usually 's' for seconds, 'm' for milliseconds... */
     protected char dimenAbbrev;
     /** used when aggregate several gmon files */
     private boolean initialized = false;
+    /** the gmon file the profiling rate and dimension have been read from */
+    private String headerFile;
 
-
-    /** Histogram samples (shorts in the file!). */
-    protected int[] hist_sample;
+    /** Histogram ranges, sorted by address. */
+    private final List<HistRange> ranges = new ArrayList<>();
+    /** The range of the histogram record being decoded. */
+    private HistRange current;
     /** Total time for all routines.  */
     protected double total_time;
 
-    protected long bucketSize;
-
 
     /**
      * Constructor
@@ -68,57 +105,80 @@ public class HistogramDecoder {
         this.decoder = decoder;
     }
 
-    protected long readAddress(DataInput stream) throws IOException {
-        return stream.readInt() & 0xFFFFFFFFL;
+    protected long readAddress(ByteBuffer buffer) {
+        return buffer.getInt() & 0xFFFFFFFFL;
     }
 
-    public boolean hasValues() {
-        return (this.hist_sample != null && this.hist_sample.length > 0);
+    /**
+     * @return the size in bytes of an address in the gmon file
+     */
+    protected int getAddressSize() {
+        return 4;
     }
 
     /**
-     * Decode the given stream
-     * @param stream a DataInputStream, pointing on a histogram header in a gmon file.
-     * @throws IOException if an IO error occurs
+     * @return the size in bytes of a histogram header, without its tag
      */
-    public void decodeHeader(DataInput stream) throws IOException {
-        long lowpc        = readAddress(stream);
-        long highpc       = readAddress(stream);
-        int hist_num_bins = stream.readInt();
-        int prof_rate     = stream.readInt();
-        byte[] bytes      = new byte[15];
-        stream.readFully(bytes);
-        byte b            = stream.readByte();
+    int getHeaderSize() {
+        return 2 * getAddressSize() + 4 + 4 + 15 + 1;
+    }
+
+    /**
+     * @return the size in bytes of an old BSD histogram header
+     */
+    int getOldHeaderSize() {
+        return decoder._32_bit_platform ? GMON_HDRSIZE_BSD44_32 : GMON_HDRSIZE_BSD44_64;
+    }
 
-        if (!isCompatible(lowpc, highpc, prof_rate, hist_num_bins))    {
-            // TODO exception to normalize
-            throw new RuntimeException(Messages.HistogramDecoder_INCOMPATIBLE_HIST_HEADER_ERROR_MSG);
+    /**
+     * @return the size in bytes of the samples of the histogram record whose header has just been decoded
+     */
+    long getSamplesSize() {
+        return current.samples.length * 2L;
+    }
+
+    public boolean hasValues() {
+        for (HistRange range : ranges) {
+            if (range.samples.length > 0) {
+                return true;
+            }
         }
-        this.lowpc     = lowpc;
-        this.highpc    = highpc;
-        this.profRate = prof_rate;
-        hist_sample    = new int[hist_num_bins]; // Impl note: JVM sets all integers to 0
-        dimenAbbrev   = (char) b;
-        long temp = highpc - lowpc;
-        bucketSize = Math.round(temp/(double)hist_num_bins);
+        return false;
     }
 
     /**
-     * Decode the given stream
-     * @param stream a DataInputStream, pointing on a histogram header in a gmon file.
-     * @throws IOException if an IO error occurs
+     * Decode the given buffer
+     * @param buffer a ByteBuffer, pointing on a histogram header in a gmon file.
+     * @throws IOException if an IO error occurs, or if the header is not compatible with the previous ones
      */
-    public void decodeOldHeader(DataInput stream) throws IOException {
-        long lowPC = readAddress(stream);
-        long highPC = readAddress(stream);
-        int ncnt = stream.readInt();
-        int version = stream.readInt();
+    public void decodeHeader(ByteBuffer buffer) throws IOException {
+        long lowpc        = readAddress(buffer);
+        long highpc       = readAddress(buffer);
+        int hist_num_bins = buffer.getInt();
+        int prof_rate     = buffer.getInt();
+        byte[] bytes      = new byte[15];
+        buffer.get(bytes);
+        byte b            = buffer.get();
+        setHeader(prof_rate, bytes, (char) b);
+        current = getRange(lowpc, highpc, hist_num_bins, decoder.getGmonFile());
+    }
+
+    /**
+     * Decode the given buffer
+     * @param buffer a ByteBuffer, pointing on a histogram header in a gmon file.
+     * @throws IOException if an IO error occurs, or if the header is not compatible with the previous ones
+     */
+    public void decodeOldHeader(ByteBuffer buffer) throws IOException {
+        long lowPC = readAddress(buffer);
+        long highPC = readAddress(buffer);
+        int ncnt = buffer.getInt();
+        int version = buffer.getInt();
         int headerSize;
         int profrate = 0;
         if (version == GmonDecoder.GMONVERSION)
         {
-            profrate = stream.readInt();
-            stream.skipBytes(GMON_HDRSIZE_BSD44);
+            profrate = buffer.getInt();
+            buffer.position(buffer.position() + GMON_HDRSIZE_BSD44);
             if (decoder._32_bit_platform) {
               headerSize = GMON_HDRSIZE_BSD44_32;
             } else {
@@ -136,56 +196,154 @@ public class HistogramDecoder {
         int sampBytes = ncnt - headerSize;
         int histNumBins = sampBytes / 2;
 
-        if (!isCompatible(lowPC, highPC, profrate, histNumBins))
-        {
-            // TODO exception to normalize
-            throw new RuntimeException(Messages.HistogramDecoder_INCOMPATIBLE_HIST_HEADER_ERROR_MSG);
-        }
+        setHeader(profrate, Arrays.copyOf("seconds".getBytes(), 15), 's'); //$NON-NLS-1$
+        current = getRange(lowPC, highPC, histNumBins, decoder.getGmonFile());
+    }
 
+    /**
+     * Sets the profiling rate and dimension of the histogram, or checks that they are the same as the
+     * ones of the previous histogram records.
+     * @throws IOException if they are not the same
+     */
+    private void setHeader(int profrate, byte[] dimen, char dimenAbbrev) throws IOException {
+        if (!isCompatible(profrate, dimenAbbrev)) {
+            throw new IOException(Messages.HistogramDecoder_INCOMPATIBLE_HIST_HEADER_ERROR_MSG);
+        }
+        if (!initialized) {
+            this.profRate    = profrate;
+            this.dimen       = dimen;
+            this.dimenAbbrev = dimenAbbrev;
+            this.headerFile  = decoder.getGmonFile();
+            this.initialized = true;
+        }
+    }
 
-        this.lowpc     = lowPC;
-        this.highpc    = highPC;
-        this.profRate = profrate;
-        hist_sample    = new int[histNumBins]; // Impl note: JVM sets all integers to 0
-        dimenAbbrev   = 's';
-        long temp = highpc - lowpc;
-        bucketSize = Math.round(temp/(double)histNumBins);
+    private boolean isCompatible(int profrate, char dimenAbbrev) {
+        return !initialized || (this.profRate == profrate && this.dimenAbbrev == dimenAbbrev);
     }
 
+    /**
+     * Gets the range of the given address bounds, or creates it if it does not overlap the other ones.
+     * @return the range whose samples the histogram record adds to
+     * @throws IOException if the range is not compatible with the previous ones
+     */
+    private HistRange getRange(long lowpc, long highpc, int sampleCount, String file) throws IOException {
+        if (getConflict(lowpc, highpc, sampleCount) != null) {
+            throw new IOException(Messages.HistogramDecoder_INCOMPATIBLE_HIST_HEADER_ERROR_MSG);
+        }
+        int i = 0;
+        for (; i < ranges.size(); i++) {
+            HistRange range = ranges.get(i);
+            if (range.lowpc == lowpc && range.highpc == highpc) {
+                // several records of the same range: samples are summed.
+                return range;
+            }
+            if (lowpc < range.lowpc) {
+                break;
+            }
+        }
+        // Impl note: JVM sets all integers to 0
+        HistRange range = new HistRange(lowpc, highpc, new int[sampleCount], file);
+        ranges.add(i, range);
+        return range;
+    }
 
     /**
-     * Checks whether the gmon file currently parsed is compatible with the previous one (if any).
-     * @param lowpc
-     * @param highpc
-     * @param profrate
-     * @param sampleCount
-     * @return whether the gmon file currently parsed is compatible with the previous one (if any).
+     * @return the range which the given bounds partially overlap, or null if they are either the bounds of
+     *         a range with the same number of samples, or outside all the ranges.
      */
-    private boolean isCompatible(long lowpc, long highpc, int profrate, int sampleCount) {
-        if (!initialized) return true;
-        return (
-                (this.lowpc     == lowpc) &&
-                (this.highpc    == highpc) &&
-                (this.profRate == profrate) &&
-                (this.hist_sample.length == sampleCount)
-        );
+    private HistRange getConflict(long lowpc, long highpc, int sampleCount) {
+        for (HistRange range : ranges) {
+            boolean same = range.lowpc == lowpc && range.highpc == highpc;
+            if (same ? range.samples.length != sampleCount : range.overlaps(lowpc, highpc)) {
+                return range;
+            }
+        }
+        return null;
     }
 
+    /**
+     * Adds the samples of the given histogram to this one. Records of the same range are summed, and
+     * records of other ranges are added, as long as they do not overlap the existing ones.
+     * @param other another histogram
+     * @throws IOException if the histogram headers are not compatible; the message names the gmon files
+     *             whose headers are not compatible
+     */
+    void merge(HistogramDecoder other) throws IOException {
+        if (!other.initialized) return;
+        if (!isCompatible(other.profRate, other.dimenAbbrev)) {
+            throw new IOException(NLS.bind(Messages.GmonDecoder_INCOMPATIBLE_FILE_ERROR, other.headerFile,
+                    headerFile));
+        }
+        // check all the ranges before adding anything.
+        for (HistRange range : other.ranges) {
+            HistRange conflict = getConflict(range.lowpc, range.highpc, range.samples.length);
+            if (conflict != null) {
+                throw new IOException(NLS.bind(Messages.GmonDecoder_INCOMPATIBLE_FILE_ERROR, range.file,
+                        conflict.file));
+            }
+        }
+        if (!initialized) {
+            this.profRate    = other.profRate;
+            this.dimen       = other.dimen;
+            this.dimenAbbrev = other.dimenAbbrev;
+            this.headerFile  = other.headerFile;
+            this.initialized = true;
+        }
+        for (HistRange range : other.ranges) {
+            int[] samples = getRange(range.lowpc, range.highpc, range.samples.length, range.file).samples;
+            for (int i = 0; i < samples.length; i++) {
+                samples[i] += range.samples[i];
+            }
+        }
+    }
 
+    /**
+     * Writes the histogram as gmon histogram records, one per range. As in gmon files, samples are
+     * stored on 16 bits: larger values are saturated.
+     * @param writer
+     * @throws IOException if an IO error occurs
+     */
+    void write(GmonWriter writer) throws IOException {
+        if (!initialized) return;
+        for (HistRange range : ranges) {
+            writer.putByte(GmonDecoder.VPF_GMON_RECORD_TYPE_HISTOGRAM);
+            writer.putAddress(range.lowpc);
+            writer.putAddress(range.highpc);
+            writer.putInt(range.samples.length);
+            writer.putInt(profRate);
+            writer.putBytes(dimen);
+            writer.putByte(dimenAbbrev);
+            for (int sample : range.samples) {
+                writer.putShort(Math.min(sample, 0xFFFF));
+            }
+        }
+    }
 
     /**
-     * Reads hitogram record
-     * @param stream a DataInputStream, pointing just after histogram header in a gmon file.
+     * Reads hitogram record. Samples are copied in bulk through a short view of the buffer,
+     * which shares its byte order.
+     * @param buffer a ByteBuffer, pointing just after histogram header in a gmon file.
      * @throws IOException if an IO error occurs
      */
-    public void decodeHistRecord(DataInput stream) throws IOException {
-        for (int i = 0; i<hist_sample.length; i++) {
-            short rv = stream.readShort();
-            if (rv != 0) {
-                int hist_size = (rv & 0xFFFF);
-                hist_sample[i] += hist_size;
+    public void decodeHistRecord(ByteBuffer buffer) throws IOException {
+        int[] hist_sample = current.samples;
+        if (buffer.remaining() < hist_sample.length * 2L) {
+            throw new EOFException();
+        }
+        ShortBuffer samples = buffer.asShortBuffer();
+        short[] chunk = new short[Math.min(hist_sample.length, SAMPLE_CHUNK_SIZE)];
+        for (int i = 0; i < hist_sample.length; i += chunk.length) {
+            int len = Math.min(chunk.length, hist_sample.length - i);
+            samples.get(chunk, 0, len);
+            for (int k = 0; k < len; k++) {
+                short rv = chunk[k];
+                if (rv != 0) {
+                    hist_sample[i + k] += (rv & 0xFFFF);
+                }
             }
         }
+        buffer.position(buffer.position() + hist_sample.length * 2);
     }
 
 
@@ -195,12 +353,14 @@ public class HistogramDecoder {
      */
     public void printHistHeader(PrintStream ps)    {
         ps.println(" \nHistogram Header : \n"); //$NON-NLS-1$
-        ps.print("  Base pc address of sample buffer = 0x"); //$NON-NLS-1$
-        ps.println(Long.toHexString(lowpc));
-        ps.print("  Max pc address of sampled buffer = 0x"); //$NON-NLS-1$
-        ps.println(Long.toHexString(highpc));
-        ps.print("  Number of histogram samples      = "); //$NON-NLS-1$
-        ps.println(hist_sample.length);
+        for (HistRange range : ranges) {
+            ps.print("  Base pc address of sample buffer = 0x"); //$NON-NLS-1$
+            ps.println(Long.toHexString(range.lowpc));
+            ps.print("  Max pc address of sampled buffer = 0x"); //$NON-NLS-1$
+            ps.println(Long.toHexString(range.highpc));
+            ps.print("  Number of histogram samples      = "); //$NON-NLS-1$
+            ps.println(range.samples.length);
+        }
         ps.print("  Profiling clock rate             = "); //$NON-NLS-1$
         ps.println(profRate);
 //        ps.print("  Physical dimension usually \"seconds\" = ");
@@ -235,8 +395,17 @@ public class HistogramDecoder {
      * @param symblist
      */
     public void assignSamplesSymbol() {
-        if (hist_sample == null || hist_sample.length == 0) return;
-        ISymbol[] symblist = this.decoder.getProgram().getSymbols();
+        SymbolIndex symblist = this.decoder.getSymbolIndex();
+        if (symblist.size() == 0) return;
+        for (HistRange range : ranges) {
+            assignSamplesSymbol(range, symblist);
+        }
+    }
+
+    private void assignSamplesSymbol(HistRange range, SymbolIndex symblist) {
+        int[] hist_sample = range.samples;
+        long lowpc = range.lowpc;
+        long bucketSize = range.bucketSize;
         /* read samples and assign to namelist symbols */
         int j = 1;
         for (int i = 0; i < hist_sample.length; i++)
@@ -248,11 +417,11 @@ public class HistogramDecoder {
                 long pch = pcl+bucketSize;
                 total_time += ccnt;
                 long svalue0;
-                long svalue1 = symblist[j-1].getAddress().getValue().longValue();
-                for (j = j-1; j < symblist.length - 1; j++)
+                long svalue1 = symblist.getStart(j-1);
+                for (j = j-1; j < symblist.size() - 1; j++)
                 {
                     svalue0 = svalue1;
-                    svalue1 = symblist[j+1].getAddress().getValue().longValue();
+                    svalue1 = symblist.getStart(j+1);
                     /* if high end of tick is below entry address,
                      * go for next tick. */
                     if(pch < svalue0) {
@@ -265,7 +434,7 @@ public class HistogramDecoder {
                         long end_addr   = pch<svalue1?pch:svalue1;
                         long overlap = end_addr - start_addr;
                         if(overlap > 0)    {
-                            ISymbol symbol = symblist[j];
+                            ISymbol symbol = symblist.getSymbol(j);
                             int time = (int) ((overlap * ccnt) / bucketSize);
                             Bucket   bck = new Bucket(start_addr, end_addr, time);
                             addBucket(bck,symbol);
@@ -297,9 +466,9 @@ public class HistogramDecoder {
     }
 
     /**
-     * get the bucket size
+     * get the bucket size, of the first range if the histogram has several ones
      */
     public long getBucketSize(){
-        return bucketSize;
+        return ranges.isEmpty() ? 0 : ranges.get(0).bucketSize;
     }
 }
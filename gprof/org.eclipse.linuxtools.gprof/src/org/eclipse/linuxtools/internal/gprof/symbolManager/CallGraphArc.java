@@ -12,10 +12,7 @@
  *******************************************************************************/
 package org.eclipse.linuxtools.internal.gprof.symbolManager;
 
-import org.eclipse.cdt.core.IAddress;
-import org.eclipse.cdt.core.IBinaryParser.IBinaryObject;
 import org.eclipse.core.resources.IProject;
-import org.eclipse.linuxtools.binutils.utils.STSymbolManager;
 
 /**
  * Arc structure for call-graph.
@@ -42,22 +39,24 @@ public class CallGraphArc {
      *
      * @param parent
      *            the caller node
-     * @param parentAddress
-     *            the location of the function call
+     * @param parentPath
+     *            the source path of the function call
+     * @param parentLine
+     *            the line number of the function call
      * @param child
      *            the callee node
      * @param count
      *            how many function calls have been performed
-     * @param program
-     *            the program
+     * @param project
+     *            the project
      */
-    public CallGraphArc(CallGraphNode parent, IAddress parentAddress, CallGraphNode child, int count,
-            IBinaryObject program, IProject project) {
+    public CallGraphArc(CallGraphNode parent, String parentPath, int parentLine, CallGraphNode child, int count,
+            IProject project) {
         this.parent = parent;
         this.child = child;
         this.count = count;
-        this.parentPath = STSymbolManager.sharedInstance.getFileName(program, parentAddress, project);
-        this.parentLine = STSymbolManager.sharedInstance.getLineNumber(program, parentAddress, project);
+        this.parentPath = parentPath;
+        this.parentLine = parentLine;
         this.project = project;
     }
 
@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.linuxtools.internal.gprof.symbolManager;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.cdt.core.IBinaryParser.IBinaryObject;
+import org.eclipse.cdt.core.IBinaryParser.ISymbol;
+
+/**
+ * Sorted table of the symbol address ranges of a binary, used to resolve
+ * addresses to symbols without allocating {@link org.eclipse.cdt.core.IAddress} objects.
+ *
+ * Indexes are cached per binary file, and reused as long as the file is not modified.
+ */
+public class SymbolIndex {
+
+    /** Maximum number of binaries kept in the cache */
+    private static final int CACHE_SIZE = 8;
+
+    private static final Map<String, SymbolIndex> cache = new LinkedHashMap<>(CACHE_SIZE, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, SymbolIndex> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    private final ISymbol[] symbols;
+    private final long[] starts;
+    private final long[] ends;
+    private final long timestamp;
+
+    private SymbolIndex(ISymbol[] symbols, long timestamp) {
+        this.symbols = symbols;
+        this.starts = new long[symbols.length];
+        this.ends = new long[symbols.length];
+        this.timestamp = timestamp;
+        for (int i = 0; i < symbols.length; i++) {
+            starts[i] = symbols[i].getAddress().getValue().longValue();
+            ends[i] = starts[i] + symbols[i].getSize();
+        }
+    }
+
+    /**
+     * Gets the index of the given program, building it if needed.
+     * @param program
+     * @return the symbol index of the program
+     */
+    public static SymbolIndex getIndex(IBinaryObject program) {
+        ISymbol[] symbols = program.getSymbols();
+        if (program.getPath() == null) {
+            return new SymbolIndex(sort(symbols), 0);
+        }
+        String key = program.getPath().toOSString();
+        long timestamp = new File(key).lastModified();
+        synchronized (cache) {
+            SymbolIndex index = cache.get(key);
+            if (index != null && index.timestamp == timestamp && index.symbols.length == symbols.length) {
+                return index;
+            }
+            index = new SymbolIndex(sort(symbols), timestamp);
+            cache.put(key, index);
+            return index;
+        }
+    }
+
+    private static ISymbol[] sort(ISymbol[] symbols) {
+        ISymbol[] sorted = symbols.clone();
+        Arrays.sort(sorted, (s1, s2) -> s1.getAddress().compareTo(s2.getAddress()));
+        return sorted;
+    }
+
+    /**
+     * @return the number of indexed symbols
+     */
+    public int size() {
+        return symbols.length;
+    }
+
+    /**
+     * Finds the symbol containing the given address.
+     * @param address
+     * @return the index of the symbol containing the address, or -1 if none.
+     */
+    public int find(long address) {
+        int pos = Arrays.binarySearch(starts, address);
+        if (pos < 0) {
+            pos = -pos - 2;
+            if (pos < 0 || address >= ends[pos]) {
+                return -1;
+            }
+        } else {
+            // several symbols may share the same start address: use the first one.
+            while (pos > 0 && starts[pos - 1] == address) {
+                pos--;
+            }
+        }
+        return pos;
+    }
+
+    /**
+     * @param i a symbol index
+     * @return the symbol
+     */
+    public ISymbol getSymbol(int i) {
+        return symbols[i];
+    }
+
+    /**
+     * @param i a symbol index
+     * @return the start address of the symbol
+     */
+    public long getStart(int i) {
+        return starts[i];
+    }
+}
@@ -16,10 +16,14 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.LineNumberReader;
+import java.util.List;
 
+import org.eclipse.cdt.core.IBinaryParser.IBinaryObject;
 import org.eclipse.cdt.utils.spawner.ProcessFactory;
+import org.eclipse.core.resources.IProject;
 import org.eclipse.jface.dialogs.MessageDialog;
 import org.eclipse.linuxtools.internal.gprof.Messages;
+import org.eclipse.linuxtools.internal.gprof.parser.GmonDecoder;
 import org.eclipse.ui.PlatformUI;
 
 /**
@@ -39,7 +43,7 @@ public class Aggregator {
      * @param directory
      * @return the location of generated gmon.sum
      */
-    public static File aggregate(String gprof2use, String binaryFile, java.util.List<String> gmons, File directory) {
+    public static File aggregate(String gprof2use, String binaryFile, List<String> gmons, File directory) {
         String[] cmd = new String[gmons.size() + 3];
         cmd[0] = gprof2use;
         cmd[1] = "-s"; //$NON-NLS-1$
@@ -79,6 +83,31 @@ public class Aggregator {
         return ret;
     }
 
+    /**
+     * Aggregates the given gmon files in process, without running gprof.
+     *
+     * @param program
+     *            the profiled program
+     * @param gmons
+     *            the gmon files to aggregate
+     * @param project
+     *            the project of the program (may be null)
+     * @param sumFile
+     *            if not null, the aggregated data is also written in this file, in gmon format
+     * @return the decoder of the aggregated gmon files
+     * @throws IOException
+     *             if an IO error occurs, or if the gmon files are not compatible
+     */
+    public static GmonDecoder aggregate(IBinaryObject program, List<String> gmons, IProject project, File sumFile)
+            throws IOException {
+        GmonDecoder decoder = new GmonDecoder(program, project);
+        decoder.read(gmons);
+        if (sumFile != null) {
+            decoder.write(sumFile);
+        }
+        return decoder;
+    }
+
     final static class ProcessReader extends Thread {
 
         private final Process p;
@@ -14,6 +14,8 @@
 package org.eclipse.linuxtools.internal.gprof.view;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
 
 import org.eclipse.cdt.core.IBinaryParser.IBinaryObject;
 import org.eclipse.core.resources.IProject;
@@ -41,6 +43,7 @@ import org.eclipse.linuxtools.internal.gprof.action.SwitchContentProviderAction;
 import org.eclipse.linuxtools.internal.gprof.action.SwitchSampleTimeAction;
 import org.eclipse.linuxtools.internal.gprof.parser.GmonDecoder;
 import org.eclipse.linuxtools.internal.gprof.parser.HistogramDecoder;
+import org.eclipse.linuxtools.internal.gprof.utils.Aggregator;
 import org.eclipse.linuxtools.internal.gprof.utils.PPC64ElfBinaryObjectWrapper;
 import org.eclipse.linuxtools.internal.gprof.view.fields.SampleProfField;
 import org.eclipse.linuxtools.internal.gprof.view.histogram.CGArc;
@@ -236,6 +239,18 @@ public class GmonView extends AbstractSTDataView {
      * @param instanceName
      */
     public static GmonView displayGprofView(String binaryPath, String gmonPath, IProject project) {
+        return displayGprofView(binaryPath, Collections.singletonList(gmonPath), project);
+    }
+
+    /**
+     * Display the aggregated results of several gmon files in the GProf View. NOTE: this method has to be called
+     * from within the UI thread.
+     *
+     * @param binaryPath
+     * @param gmonPaths the gmon files, of several runs or processes of the binary
+     * @param project
+     */
+    public static GmonView displayGprofView(String binaryPath, List<String> gmonPaths, IProject project) {
         IBinaryObject binary = STSymbolManager.sharedInstance.getBinaryObject(new Path(binaryPath));
         if (binary == null) {
             MessageDialog.openError(PlatformUI.getWorkbench().getDisplay().getActiveShell(), "Invalid binary file", //$NON-NLS-1$
@@ -245,12 +260,24 @@ public class GmonView extends AbstractSTDataView {
             binary = new PPC64ElfBinaryObjectWrapper(binary.getBinaryParser(), binary.getPath(), binary.getType());
         }
 
-        GmonDecoder decoder = new GmonDecoder(binary, project);
-        try {
-            decoder.read(gmonPath);
-        } catch (IOException e) {
-			IStatus status = Status.error(e.getMessage(), e);
-            Activator.getDefault().getLog().log(status);
+        GmonDecoder decoder;
+        String gmonPath = gmonPaths.get(0);
+        if (gmonPaths.size() == 1) {
+            decoder = new GmonDecoder(binary, project);
+            try {
+                decoder.read(gmonPath);
+            } catch (IOException e) {
+                IStatus status = Status.error(e.getMessage(), e);
+                Activator.getDefault().getLog().log(status);
+            }
+        } else {
+            try {
+                decoder = Aggregator.aggregate(binary, gmonPaths, project, null);
+            } catch (IOException e) {
+                MessageDialog.openError(PlatformUI.getWorkbench().getDisplay().getActiveShell(),
+                        Messages.Aggregator_GPROF_ERROR, Messages.Aggregator_ERROR_COMMON_PREFIX + e.getMessage());
+                return null;
+            }
         }
         return displayGprofView(decoder, gmonPath);
     }
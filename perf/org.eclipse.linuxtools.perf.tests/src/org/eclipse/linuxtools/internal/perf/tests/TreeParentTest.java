@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.linuxtools.internal.perf.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.linuxtools.internal.perf.model.PMCommand;
+import org.eclipse.linuxtools.internal.perf.model.PMDso;
+import org.eclipse.linuxtools.internal.perf.model.PMFile;
+import org.eclipse.linuxtools.internal.perf.model.PMSymbol;
+import org.eclipse.linuxtools.internal.perf.model.TreeParent;
+import org.junit.Test;
+
+public class TreeParentTest {
+
+    @Test
+    public void testGetChild() {
+        PMFile file = new PMFile("file"); //$NON-NLS-1$
+        PMSymbol first = new PMSymbol("sym", 1, 10); //$NON-NLS-1$
+        PMSymbol second = new PMSymbol("sym", 2, 20); //$NON-NLS-1$
+        PMSymbol other = new PMSymbol("other", 3, 30); //$NON-NLS-1$
+        file.addChild(first);
+        file.addChild(second);
+        file.addChild(other);
+
+        assertSame(first, file.getChild("sym")); //$NON-NLS-1$
+        assertSame(other, file.getChild("other")); //$NON-NLS-1$
+        assertNull(file.getChild("none")); //$NON-NLS-1$
+
+        // the next child of the same name is found once the first one is removed
+        file.removeChild(first);
+        assertSame(second, file.getChild("sym")); //$NON-NLS-1$
+        file.removeChild(second);
+        assertNull(file.getChild("sym")); //$NON-NLS-1$
+        assertEquals(1, file.getChildren().length);
+        assertSame(other, file.getChildren()[0]);
+    }
+
+    @Test
+    public void testChildrenOrder() {
+        PMFile file = new PMFile("file"); //$NON-NLS-1$
+        PMSymbol[] syms = new PMSymbol[5];
+        for (int i = 0; i < syms.length; i++) {
+            syms[i] = new PMSymbol("sym" + i, i, i); //$NON-NLS-1$
+            file.addChild(syms[i]);
+        }
+        file.removeChild(syms[2]);
+        file.addChild(syms[2]);
+
+        TreeParent[] children = file.getChildren();
+        assertEquals(5, children.length);
+        assertSame(syms[0], children[0]);
+        assertSame(syms[1], children[1]);
+        assertSame(syms[3], children[2]);
+        assertSame(syms[4], children[3]);
+        assertSame(syms[2], children[4]);
+    }
+
+    @Test
+    public void testAggregates() {
+        PMCommand cmd = new PMCommand("cmd"); //$NON-NLS-1$
+        PMDso dso = new PMDso("dso", false); //$NON-NLS-1$
+        cmd.addChild(dso);
+        PMFile a = dso.getFile("a"); //$NON-NLS-1$
+        PMFile b = dso.getFile("b"); //$NON-NLS-1$
+        PMSymbol sym1 = new PMSymbol("sym1", 10, 100); //$NON-NLS-1$
+        PMSymbol sym2 = new PMSymbol("sym2", 20, 200); //$NON-NLS-1$
+        a.addChild(sym1);
+        a.addChild(sym2);
+        b.addChild(new PMSymbol("sym3", 5, 50)); //$NON-NLS-1$
+
+        assertEquals(30, a.getPercent(), 0);
+        assertEquals(35, dso.getPercent(), 0);
+        assertEquals("350", dso.getFormattedSamples()); //$NON-NLS-1$
+
+        // moving a symbol is reflected on the next read
+        a.removeChild(sym2);
+        b.addChild(sym2);
+        assertEquals(10, a.getPercent(), 0);
+        assertEquals(25, b.getPercent(), 0);
+        assertEquals(35, dso.getPercent(), 0);
+        assertEquals("100", a.getFormattedSamples()); //$NON-NLS-1$
+        assertEquals("250", b.getFormattedSamples()); //$NON-NLS-1$
+        assertEquals(100, cmd.getPercent(), 0);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testFreeze() {
+        TreeParent root = new TreeParent(""); //$NON-NLS-1$
+        PMCommand cmd = new PMCommand("cmd"); //$NON-NLS-1$
+        root.addChild(cmd);
+        root.freeze();
+        assertTrue(cmd.isFrozen());
+        cmd.addChild(new PMDso("dso", false)); //$NON-NLS-1$
+    }
+
+    @Test
+    public void testClearFrozen() {
+        TreeParent root = new TreeParent(""); //$NON-NLS-1$
+        root.addChild(new PMCommand("cmd")); //$NON-NLS-1$
+        root.freeze();
+        root.clear();
+        root.addChild(new PMCommand("cmd")); //$NON-NLS-1$
+        assertEquals(1, root.getChildren().length);
+    }
+
+    @Test(timeout = 60000)
+    public void testLargeReport() {
+        int symbols = 500000;
+        TreeParent root = new TreeParent(""); //$NON-NLS-1$
+        PMCommand cmd = new PMCommand("cmd"); //$NON-NLS-1$
+        root.addChild(cmd);
+        PMDso dso = new PMDso("dso", false); //$NON-NLS-1$
+        cmd.addChild(dso);
+        PMFile unfiled = dso.getFile("unfiled"); //$NON-NLS-1$
+        for (int i = 0; i < symbols; i++) {
+            unfiled.addChild(new PMSymbol("[.] sym" + i, 0.0001f, 1)); //$NON-NLS-1$
+        }
+        // move every other symbol to a source file, as annotations do
+        for (int i = 0; i < symbols; i += 2) {
+            TreeParent sym = unfiled.getChild("[.] sym" + i); //$NON-NLS-1$
+            unfiled.removeChild(sym);
+            dso.getFile("file" + (i % 100)).addChild(sym); //$NON-NLS-1$
+        }
+        root.freeze();
+
+        assertEquals(51, dso.getChildren().length);
+        assertEquals(symbols / 2, unfiled.getChildren().length);
+        assertEquals(String.valueOf(symbols), dso.getFormattedSamples());
+    }
+}
@@ -0,0 +1,426 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.linuxtools.internal.perf;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.debug.core.ILaunchConfiguration;
+import org.eclipse.linuxtools.internal.perf.model.PMDso;
+import org.eclipse.linuxtools.internal.perf.model.PMFile;
+import org.eclipse.linuxtools.internal.perf.model.PMSymbol;
+import org.eclipse.linuxtools.internal.perf.model.TreeParent;
+import org.eclipse.linuxtools.tools.launch.core.factory.RuntimeProcessFactory;
+
+/**
+ * Runs 'perf annotate' for the symbols of a report on a bounded pool of worker threads. Outputs are parsed as they
+ * are read, and the source line references of each symbol are attached to the model as soon as they are available,
+ * by the calling thread only.
+ *
+ * Annotations are either obtained with one 'perf annotate' per symbol, or with one 'perf annotate' per DSO whose
+ * output is split by symbol. Symbols missing from the output of a DSO are then annotated one by one.
+ */
+final class PerfAnnotator {
+
+    /** Line of the disassembly giving the symbol of an annotation, e.g. ":	00000000004008bc <fib(unsigned long)>:" */
+    private static final Pattern SYMBOL_PATTERN = Pattern.compile("^\\s*:\\s*[0-9a-fA-F]+ <(.+)>:\\s*$"); //$NON-NLS-1$
+    private static final String SUMMARY = "Sorted summary for file"; //$NON-NLS-1$
+
+    /**
+     * Source line references of a symbol, parsed from the output of 'perf annotate'.
+     */
+    static final class Annotation {
+        private final IPath workingDir;
+        private String dsoPath;
+        private final List<String> files = new ArrayList<>();
+        private final List<Integer> lineNumbers = new ArrayList<>();
+        private final List<Float> percents = new ArrayList<>();
+        private boolean grabBlock;
+        private boolean blockStarted;
+
+        Annotation(IPath workingDir) {
+            this.workingDir = workingDir;
+        }
+
+        /**
+         * Parses a line of the output of 'perf annotate'.
+         * @param line
+         */
+        void accept(String line) {
+            if (line.startsWith(SUMMARY)) {
+                grabBlock = true;
+                dsoPath = line.replace(SUMMARY + " ", ""); //$NON-NLS-1$ //$NON-NLS-2$
+                blockStarted = false;
+                if ((workingDir != null) && (dsoPath.startsWith("./"))) { //$NON-NLS-1$
+                    if (workingDir.toOSString().endsWith("/")) { //$NON-NLS-1$
+                        dsoPath = workingDir.toOSString() + dsoPath.substring(2); // path already ends with '/', so trim './'
+                    } else {
+                        dsoPath = workingDir.toOSString() + dsoPath.substring(1); // path doesn't have '/', so trim just the '.'
+                    }
+                }
+            } else if (line.startsWith("---")) { //$NON-NLS-1$
+                if (blockStarted) {
+                    blockStarted = false;
+                    grabBlock = false;
+                } else {
+                    blockStarted = true;
+                }
+            } else if (grabBlock && blockStarted) {
+                //process the line.
+                String[] items = line.trim().split(" +"); //$NON-NLS-1$
+                if (items.length != 2) {
+                    return;
+                }
+                float percent = Float.parseFloat(items[0]);
+                items = items[1].split(":"); //$NON-NLS-1$
+                int lineNum = -1;
+                try {
+                    /*
+                     *  May not have line number when parsing a line like "100.00 [vdso][7ffce9fdbda0]"
+                     */
+                    if (items.length > 1) {
+                        lineNum = Integer.parseInt(items[1]);
+                    }
+                } catch (NumberFormatException e) {
+                    // leave line number as -1
+                }
+                files.add(items[0]);
+                lineNumbers.add(lineNum);
+                percents.add(percent);
+            }
+        }
+
+        /**
+         * Parses the whole output of 'perf annotate'.
+         * @param input
+         * @throws IOException
+         */
+        void parse(BufferedReader input) throws IOException {
+            String line;
+            while ((line = input.readLine()) != null) {
+                accept(line);
+            }
+        }
+
+        /**
+         * Attaches the source line references to the given symbol, and moves it to its source file.
+         * @param currentDso
+         * @param currentSym
+         */
+        void apply(PMDso currentDso, PMSymbol currentSym) {
+            if (dsoPath != null) {
+                currentDso.setPath(dsoPath);
+            }
+            for (int i = 0; i < files.size(); i++) {
+                String file = files.get(i);
+                currentSym.addPercent(lineNumbers.get(i), percents.get(i));
+                // Symbol currently in 'Unfiled Symbols' but we now know the actual parent
+                if (currentSym.getParent().getName().equals(PerfPlugin.STRINGS_UnfiledSymbols)) {
+                    currentSym.getParent().removeChild(currentSym);
+                    currentDso.getFile(file).addChild(currentSym);
+                    // Symbol has 2 (or more) parents
+                } else if (!((PMFile) currentSym.getParent()).getPath().equals(file)) {
+                    currentSym.markConflict();
+                    currentSym.getParent().removeChild(currentSym);
+                    currentDso.getFile(PerfPlugin.STRINGS_MultipleFilesForSymbol).addChild(currentSym);
+                }
+            }
+        }
+    }
+
+    /**
+     * Message from a worker to the calling thread: either the annotation of a symbol, or the end of a job.
+     */
+    private static final class Result {
+        private final PMDso dso;
+        private final PMSymbol sym;
+        private final Annotation annotation;
+        private final boolean done;
+        /** symbols of a DSO job which were not found in its output */
+        private final List<PMSymbol> missing;
+        private final String errors;
+
+        private Result(PMDso dso, PMSymbol sym, Annotation annotation, boolean done, List<PMSymbol> missing,
+                String errors) {
+            this.dso = dso;
+            this.sym = sym;
+            this.annotation = annotation;
+            this.done = done;
+            this.missing = missing;
+            this.errors = errors;
+        }
+    }
+
+    private final ILaunchConfiguration config;
+    private final IPath workingDir;
+    private final String perfDataLoc;
+    private final boolean oldPerfVersion;
+    private final IProject project;
+    private final int jobs;
+    private final boolean perDso;
+
+    private final BlockingQueue<Result> results = new LinkedBlockingQueue<>();
+    private final Set<Process> processes = ConcurrentHashMap.newKeySet();
+    private final Map<PMDso, StringBuilder> errors = new LinkedHashMap<>();
+    private ExecutorService pool;
+    private int pending;
+
+    /**
+     * @param config launch configuration
+     * @param workingDir working directory, may be null
+     * @param perfDataLoc location of the perf data file, used if workingDir is null
+     * @param oldPerfVersion
+     * @param project project used to run perf, may be null
+     */
+    PerfAnnotator(ILaunchConfiguration config, IPath workingDir, String perfDataLoc, boolean oldPerfVersion,
+            IProject project) {
+        this.config = config;
+        this.workingDir = workingDir;
+        this.perfDataLoc = workingDir == null ? perfDataLoc
+                : workingDir + "/" + PerfPlugin.PERF_DEFAULT_DATA; //$NON-NLS-1$
+        this.oldPerfVersion = oldPerfVersion;
+        this.project = project;
+        int n = PerfPlugin.ATTR_AnnotateJobs_default;
+        boolean d = PerfPlugin.ATTR_AnnotatePerDso_default;
+        if (config != null) {
+            try {
+                n = config.getAttribute(PerfPlugin.ATTR_AnnotateJobs, PerfPlugin.ATTR_AnnotateJobs_default);
+                d = config.getAttribute(PerfPlugin.ATTR_AnnotatePerDso, PerfPlugin.ATTR_AnnotatePerDso_default);
+            } catch (CoreException e) {
+                // use defaults
+            }
+        }
+        this.jobs = n > 0 ? n : Runtime.getRuntime().availableProcessors();
+        // old versions of perf cannot annotate a whole DSO
+        this.perDso = d && !oldPerfVersion;
+    }
+
+    /**
+     * Annotates the unfiled symbols of the given DSOs, and waits for all the annotations to be attached.
+     * @param dsos
+     * @param monitor monitor, may be null
+     * @param print print stream for the errors of perf, may be null
+     * @return false if the monitor has been canceled
+     */
+    boolean annotate(List<PMDso> dsos, IProgressMonitor monitor, PrintStream print) {
+        pool = Executors.newFixedThreadPool(jobs, r -> {
+            Thread t = new Thread(r, "perf annotate"); //$NON-NLS-1$
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            for (PMDso dso : dsos) {
+                errors.put(dso, new StringBuilder());
+                List<PMSymbol> syms = getUnfiledSymbols(dso);
+                if (perDso && !syms.isEmpty()) {
+                    submitDso(dso, syms);
+                } else {
+                    for (PMSymbol sym : syms) {
+                        submitSymbol(dso, sym);
+                    }
+                }
+            }
+            while (pending > 0) {
+                if (monitor != null && monitor.isCanceled()) {
+                    return false;
+                }
+                Result r;
+                try {
+                    r = results.poll(100, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+                if (r == null) {
+                    continue;
+                }
+                if (r.annotation != null) {
+                    r.annotation.apply(r.dso, r.sym);
+                }
+                if (r.done) {
+                    pending--;
+                    errors.get(r.dso).append(r.errors);
+                    for (PMSymbol sym : r.missing) {
+                        submitSymbol(r.dso, sym);
+                    }
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+            for (Process p : processes) {
+                p.destroy();
+            }
+        }
+
+        for (Map.Entry<PMDso, StringBuilder> e : errors.entrySet()) {
+            PMDso dso = e.getKey();
+            if (dso.getFile(PerfPlugin.STRINGS_UnfiledSymbols).getChildren().length == 0) {
+                dso.removeChild(dso.getFile(PerfPlugin.STRINGS_UnfiledSymbols));
+            }
+            String str = e.getValue().toString();
+            if (!str.trim().isEmpty() && print != null) {
+                print.println("Perf Annotate: \n" + str + "\n END OF Perf Annotate"); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+        }
+        return true;
+    }
+
+    private static List<PMSymbol> getUnfiledSymbols(PMDso dso) {
+        List<PMSymbol> ret = new ArrayList<>();
+        for (TreeParent s : dso.getFile(PerfPlugin.STRINGS_UnfiledSymbols).getChildren()) {
+            if (s instanceof PMSymbol sym) {
+                ret.add(sym);
+            }
+        }
+        return ret;
+    }
+
+    private void submitSymbol(PMDso dso, PMSymbol sym) {
+        String[] annotateCmd = PerfCore.getAnnotateString(config, dso.getName(), sym.getName().substring(4),
+                perfDataLoc, oldPerfVersion);
+        pending++;
+        pool.execute(() -> {
+            Annotation annotation = null;
+            String err = ""; //$NON-NLS-1$
+            try {
+                Process p = start(annotateCmd);
+                try {
+                    annotation = new Annotation(workingDir);
+                    annotation.parse(new BufferedReader(new InputStreamReader(p.getInputStream())));
+                    err = readErrors(p);
+                } finally {
+                    processes.remove(p);
+                }
+            } catch (IOException | RuntimeException e) {
+                PerfCore.logException(e);
+                annotation = null;
+            } finally {
+                results.add(new Result(dso, sym, annotation, true, List.of(), err));
+            }
+        });
+    }
+
+    private void submitDso(PMDso dso, List<PMSymbol> syms) {
+        String[] annotateCmd = PerfCore.getAnnotateString(config, dso.getName(), null, perfDataLoc, oldPerfVersion);
+        Map<String, PMSymbol> bySymbolName = new HashMap<>();
+        for (PMSymbol sym : syms) {
+            bySymbolName.putIfAbsent(sym.getName().substring(4), sym);
+        }
+        pending++;
+        pool.execute(() -> {
+            String err = ""; //$NON-NLS-1$
+            try {
+                Process p = start(annotateCmd);
+                try {
+                    BufferedReader input = new BufferedReader(new InputStreamReader(p.getInputStream()));
+                    Annotation annotation = null;
+                    PMSymbol sym = null;
+                    String line;
+                    while ((line = input.readLine()) != null) {
+                        if (line.startsWith(SUMMARY)) {
+                            // a new symbol starts: the previous one is complete
+                            post(dso, sym, annotation);
+                            annotation = new Annotation(workingDir);
+                            sym = null;
+                        } else if (annotation != null && sym == null) {
+                            Matcher m = SYMBOL_PATTERN.matcher(line);
+                            if (m.matches()) {
+                                sym = bySymbolName.remove(m.group(1));
+                            }
+                        }
+                        if (annotation != null) {
+                            annotation.accept(line);
+                        }
+                    }
+                    post(dso, sym, annotation);
+                    err = readErrors(p);
+                } finally {
+                    processes.remove(p);
+                }
+            } catch (IOException | RuntimeException e) {
+                PerfCore.logException(e);
+            } finally {
+                results.add(new Result(dso, null, null, true, new ArrayList<>(bySymbolName.values()), err));
+            }
+        });
+    }
+
+    private void post(PMDso dso, PMSymbol sym, Annotation annotation) {
+        if (sym != null && annotation != null) {
+            results.add(new Result(dso, sym, annotation, false, null, null));
+        }
+    }
+
+    private Process start(String[] annotateCmd) throws IOException {
+        Process p;
+        if (project == null) {
+            p = Runtime.getRuntime().exec(annotateCmd);
+        } else {
+            StringBuilder sb = new StringBuilder();
+            ArrayList<String> al = new ArrayList<>();
+            /*
+             *  Wrap the whole Perf annotate line as a single argument of sh command
+             *   so that any IO redirection will take effect. Change to working directory before run perf annotate.
+             *  It results on a command string as 'sh', '-c', 'cd <workindir> && perf annotate <args> < /dev/null'
+             */
+            al.add("sh"); //$NON-NLS-1$
+            al.add("-c"); //$NON-NLS-1$
+            if (workingDir != null) {
+                sb.append("cd " + workingDir.toOSString() + " && "); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+            for (String arg : annotateCmd) {
+                sb.append(arg);
+                sb.append(" "); //$NON-NLS-1$
+            }
+            al.add(sb.toString());
+            p = RuntimeProcessFactory.getFactory().exec(al.toArray(new String[] {}), project);
+        }
+        if (p == null) {
+            throw new IOException(annotateCmd[0]);
+        }
+        processes.add(p);
+        return p;
+    }
+
+    private static String readErrors(Process p) throws IOException {
+        StringBuilder strBuf = new StringBuilder();
+        try (BufferedReader error = new BufferedReader(new InputStreamReader(p.getErrorStream()))) {
+            String line;
+            while ((line = error.readLine()) != null) {
+                strBuf.append(line);
+                strBuf.append("\n"); //$NON-NLS-1$
+            }
+        }
+        return strBuf.toString();
+    }
+}
@@ -328,10 +328,15 @@ public class PerfCore {
     public static String[] getAnnotateString(ILaunchConfiguration config, String dso, String symbol, String perfDataLoc, boolean oldPerfVersion) {
         ArrayList<String> base = new ArrayList<>();
         if (oldPerfVersion) {
-            base.addAll( Arrays.asList( new String[]{PerfPlugin.PERF_COMMAND, "annotate", "-s", symbol, "-l", "-P"} ) ); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+            base.addAll( Arrays.asList( new String[]{PerfPlugin.PERF_COMMAND, "annotate"} ) ); //$NON-NLS-1$
         } else {
-            base.addAll( Arrays.asList( new String[]{PerfPlugin.PERF_COMMAND, "annotate", "--stdio", "-d", dso, "-s", symbol, "-l", "-P"} ) ); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
+            base.addAll( Arrays.asList( new String[]{PerfPlugin.PERF_COMMAND, "annotate", "--stdio", "-d", dso} ) ); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
         }
+        // without a symbol, all the symbols of the DSO are annotated
+        if (symbol != null) {
+            base.addAll( Arrays.asList( new String[]{"-s", symbol} ) ); //$NON-NLS-1$
+        }
+        base.addAll( Arrays.asList( new String[]{"-l", "-P"} ) ); //$NON-NLS-1$ //$NON-NLS-2$
         if (config != null) {
             try {
                 String kernelLoc = config.getAttribute(PerfPlugin.ATTR_Kernel_Location, PerfPlugin.ATTR_Kernel_Location_default);
@@ -444,7 +449,6 @@ public class PerfCore {
         String items[];
         float percent;
 
-        Process p = null;
         double samples;
         String comm,dso,symbol;
         boolean kernelFlag;
@@ -544,6 +548,7 @@ public class PerfCore {
         boolean hasProfileData = invisibleRoot.getChildren().length != 0;
 
         if (SourceLineNumbers) {
+            List<PMDso> dsos = new ArrayList<>();
             for (TreeParent ev : invisibleRoot.getChildren()) {
                 if (!(ev instanceof PMEvent)) continue;
                 for (TreeParent cmd : ev.getChildren()) {
@@ -552,62 +557,20 @@ public class PerfCore {
                         if (!(d instanceof PMDso)) continue;
                         currentDso = (PMDso)d;
                         if ((!Kernel_SourceLineNumbers) && currentDso.isKernelDso()) continue;
-                        for (TreeParent s : currentDso.getFile(PerfPlugin.STRINGS_UnfiledSymbols).getChildren()) {
-                            if (!(s instanceof PMSymbol)) continue;
-
-                            if (monitor != null && monitor.isCanceled()) {
-                                return;
-                            }
-                            currentSym = (PMSymbol)s;
-                            String[] annotateCmd;
-                            if (workingDir == null) {
-                                annotateCmd = getAnnotateString(config, currentDso.getName(), currentSym.getName().substring(4), perfDataLoc, oldPerfVersion);
-                            } else {
-                                String perfDefaultDataLoc = workingDir + "/" + PerfPlugin.PERF_DEFAULT_DATA; //$NON-NLS-1$
-                                annotateCmd = getAnnotateString(config, currentDso.getName(), currentSym.getName().substring(4), perfDefaultDataLoc, oldPerfVersion);
-                            }
-
-                            try {
-                                if(project==null) {
-                                    p = Runtime.getRuntime().exec(annotateCmd);
-                                } else {
-                                    StringBuilder sb = new StringBuilder();
-                                    ArrayList<String> al = new ArrayList<>();
-                                    /*
-                                     *  Wrap the whole Perf annotate line as a single argument of sh command
-                                     *   so that any IO redirection will take effect. Change to working directory before run perf annotate.
-                                     *  It results on a command string as 'sh', '-c', 'cd <workindir> && perf annotate <args> < /dev/null'
-                                     */
-                                    al.add("sh"); //$NON-NLS-1$
-                                    al.add("-c"); //$NON-NLS-1$
-                                    if(workingDir != null) {
-                                        sb.append("cd " + workingDir.toOSString() + " && "); //$NON-NLS-1$ //$NON-NLS-2$
-                                    }
-                                    for(int i=0; i<annotateCmd.length; i++) {
-                                        sb.append(annotateCmd[i]);
-                                        sb.append(" "); //$NON-NLS-1$
-                                    }
-                                    al.add(sb.toString());
-                                    p = RuntimeProcessFactory.getFactory().exec(al.toArray(new String[]{}), project);
-                                }
-                                input = new BufferedReader(new InputStreamReader(p.getInputStream()));
-                                error = new BufferedReader(new InputStreamReader(p.getErrorStream()));
-                            } catch (IOException e) {
-                                logException(e);
-                            }
-
-                            PerfCore.parseAnnotation(monitor, input, workingDir, currentDso, currentSym);
-                        }
-
-                        if (currentDso.getFile(PerfPlugin.STRINGS_UnfiledSymbols).getChildren().length == 0) {
-                            currentDso.removeChild(currentDso.getFile(PerfPlugin.STRINGS_UnfiledSymbols));
-                        }
-                        spitStream(error,"Perf Annotate", print); //$NON-NLS-1$
+                        dsos.add(currentDso);
                     }
                 }
             }
+            // run perf annotate concurrently, see ATTR_AnnotateJobs and ATTR_AnnotatePerDso
+            PerfAnnotator annotator = new PerfAnnotator(config, workingDir, perfDataLoc, oldPerfVersion, project);
+            if (!annotator.annotate(dsos, monitor, print)) {
+                return;
+            }
         }
 
+        // the model is complete, compute its aggregates before it is displayed
+        invisibleRoot.freeze();
+
         if (print != null) {
             if (hasProfileData) {
                 print.println("Profile data loaded into Perf Profile View."); //$NON-NLS-1$
@@ -633,72 +596,10 @@ public class PerfCore {
             return;
         }
 
-        boolean grabBlock = false;
-        boolean blockStarted = false;
-        String dsoName,lineRef;
-        String line = null;
-        String items[];
-        float percent;
-
         try {
-            while (( line = input.readLine()) != null){
-                if (line.startsWith("Sorted summary for file")) { //$NON-NLS-1$
-                    grabBlock = true;
-                    dsoName = line.replace("Sorted summary for file ",""); //$NON-NLS-1$ //$NON-NLS-2$
-                    blockStarted = false;
-                    if ((workingDir != null) && (dsoName.startsWith("./"))) { //$NON-NLS-1$
-                        if (workingDir.toOSString().endsWith("/")) { //$NON-NLS-1$
-                            dsoName = workingDir.toOSString() + dsoName.substring(2); // path already ends with '/', so trim './'
-                        } else {
-                            dsoName = workingDir.toOSString() + dsoName.substring(1); // path doesn't have '/', so trim just the '.'
-                        }
-                    }
-                    currentDso.setPath(dsoName);
-                } else if (line.startsWith("---")) { //$NON-NLS-1$
-                    if (blockStarted) {
-                        blockStarted = false;
-                        grabBlock = false;
-                    } else {
-                        blockStarted = true;
-                    }
-                } else if (grabBlock && blockStarted) {
-                    //process the line.
-                    items = line.trim().split(" +"); //$NON-NLS-1$
-                    if (items.length != 2) {
-                        continue;
-                    }
-                    percent = Float.parseFloat(items[0]);
-                    lineRef = items[1];
-                    items = lineRef.split(":"); //$NON-NLS-1$
-                    if (currentDso == null) {
-                        //if (PerfPlugin.DEBUG_ON) System.err.println("Parsed line ref without being in valid block, shouldn't happen.");
-                        break;
-                    } else {
-                        int lineNum = -1;
-                        try {
-                            /*
-                             *  May not have line number when parsing a line like "100.00 [vdso][7ffce9fdbda0]"
-                             */
-                             if( items.length > 1) {
-                                 lineNum = Integer.parseInt(items[1]);
-                             }
-                        } catch (NumberFormatException e) {
-                            // leave line number as -1
-                        }
-                        currentSym.addPercent(lineNum, percent);
-                        // Symbol currently in 'Unfiled Symbols' but we now know the actual parent
-                        if (currentSym.getParent().getName().equals(PerfPlugin.STRINGS_UnfiledSymbols)) {
-                            currentSym.getParent().removeChild(currentSym);
-                            currentDso.getFile(items[0]).addChild(currentSym);
-                            // Symbol has 2 (or more) parents
-                        } else if (!((PMFile)currentSym.getParent()).getPath().equals(items[0])) {
-                            currentSym.markConflict();
-                            currentSym.getParent().removeChild(currentSym);
-                            currentDso.getFile(PerfPlugin.STRINGS_MultipleFilesForSymbol).addChild(currentSym);
-                        }
-                    }
-                }
-            }
+            PerfAnnotator.Annotation annotation = new PerfAnnotator.Annotation(workingDir);
+            annotation.parse(input);
+            annotation.apply(currentDso, currentSym);
         } catch (IOException e) {
             logException(e);
         }
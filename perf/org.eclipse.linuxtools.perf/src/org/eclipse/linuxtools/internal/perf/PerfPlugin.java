@@ -79,6 +79,11 @@ public class PerfPlugin extends AbstractUIPlugin {
     public static final boolean ATTR_ShowStat_default = false;
     public static final String ATTR_StatRunCount = "org.eclipse.linuxtools.internal.perf.attr.StatRunCount"; //$NON-NLS-1$
     public static final int ATTR_StatRunCount_default = 1;
+    public static final String ATTR_AnnotateJobs = "org.eclipse.linuxtools.internal.perf.attr.AnnotateJobs"; //$NON-NLS-1$
+    /** 0 stands for the number of available processors */
+    public static final int ATTR_AnnotateJobs_default = 0;
+    public static final String ATTR_AnnotatePerDso = "org.eclipse.linuxtools.internal.perf.attr.AnnotatePerDso"; //$NON-NLS-1$
+    public static final boolean ATTR_AnnotatePerDso_default = false;
 
     //Perf Events tab attribs.
     public static final String ATTR_DefaultEvent = "org.eclipse.linuxtools.internal.perf.attr.DefaultEvent"; //$NON-NLS-1$
@@ -12,20 +12,31 @@
  *******************************************************************************/
 package org.eclipse.linuxtools.internal.perf.model;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
 
 public class TreeParent {
+    private static final TreeParent[] NO_CHILDREN = new TreeParent[0];
+
     private String name;
     private TreeParent parent;
-    private List<TreeParent> children;
+    // insertion ordered, with constant time removal
+    private final Set<TreeParent> children = new LinkedHashSet<>();
+    // first child of each name, as found by getChild()
+    private final Map<String, TreeParent> childrenByName = new HashMap<>();
+    private TreeParent[] childrenArray;
     private float percent = -1;
     private double samples = -1;
+    // aggregates are recomputed lazily, see invalidate()
+    private boolean percentValid = true;
+    private boolean samplesComputed;
+    private boolean frozen;
 
     public TreeParent(String name, float percent) {
         this.name = name;
         this.percent = percent;
-        children = new ArrayList<>();
     }
 
     public TreeParent(String name, float percent, double samples) {
@@ -55,11 +66,23 @@ public class TreeParent {
     }
 
     public float getPercent() {
+        if (!percentValid) {
+            percentValid = true;
+            percent = 0;
+            // Re-sum its children percentages
+            for (TreeParent c : children) {
+                percent += c.getPercent();
+            }
+        }
         return percent;
     }
 
     public void setPercent(float percent) {
+        checkNotFrozen();
         this.percent = percent;
+        if (parent != null) {
+            parent.invalidate();
+        }
     }
 
     /**
@@ -84,10 +107,11 @@ public class TreeParent {
             if (samples == -1) {
                 int sampleSum = 0;
 
-                for (TreeParent child : getChildren()) {
+                for (TreeParent child : children) {
                     sampleSum += child.getSamples();
                 }
                 samples = sampleSum;
+                samplesComputed = true;
             }
         }
 
@@ -103,32 +127,47 @@ public class TreeParent {
 
     public TreeParent(String name) {
         this.name = name;
-        children = new ArrayList<>();
     }
 
     public void addChild(TreeParent child) {
+        checkNotFrozen();
         children.add(child);
+        childrenByName.putIfAbsent(child.getName(), child);
         child.setParent(this);
-        recalculatePercentage();
+        invalidate();
     }
 
     public TreeParent getChild(String name) {
-        //check if it exists
-        for(TreeParent t : children) {
-            if (t.equals(name))
-                return t;
-        }
-        return null;
+        return childrenByName.get(name);
     }
 
     public void removeChild(TreeParent child) {
-        children.remove(child);
+        checkNotFrozen();
+        if (!children.remove(child)) {
+            return;
+        }
+        String childName = child.getName();
+        if (childrenByName.get(childName) == child) {
+            childrenByName.remove(childName);
+            // only scan for another child of that name when names are not unique
+            if (children.size() > childrenByName.size()) {
+                for (TreeParent t : children) {
+                    if (t.equals(childName)) {
+                        childrenByName.put(childName, t);
+                        break;
+                    }
+                }
+            }
+        }
         child.setParent(null);
-        recalculatePercentage();
+        invalidate();
     }
 
     public TreeParent [] getChildren() {
-        return children.toArray(new TreeParent[children.size()]);
+        if (childrenArray == null) {
+            childrenArray = children.isEmpty() ? NO_CHILDREN : children.toArray(new TreeParent[children.size()]);
+        }
+        return childrenArray;
     }
 
     public boolean hasChildren() {
@@ -136,19 +175,56 @@ public class TreeParent {
     }
 
     public void clear() {
+        frozen = false;
         children.clear();
+        childrenByName.clear();
+        invalidate();
     }
 
-    private void recalculatePercentage() {
-        if (getPercent() != -1 && (this instanceof PMDso || this instanceof PMFile)){
-            percent = 0;
-            // Re-sum its children percentages
-            for (TreeParent c : getChildren()) {
-                percent += c.getPercent();
+    /**
+     * Computes the aggregated percentages and samples of this element and
+     * of all its descendants, which cannot be modified afterwards. To be
+     * called once the model is fully built, before it is displayed.
+     */
+    public void freeze() {
+        for (TreeParent c : getChildren()) {
+            c.freeze();
+        }
+        getPercent();
+        getSamples();
+        frozen = true;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new IllegalStateException(getName());
+        }
+    }
+
+    /**
+     * Marks the aggregated values of this element, and of its ancestors, as
+     * needing to be recomputed.
+     */
+    private void invalidate() {
+        childrenArray = null;
+        for (TreeParent t = this; t != null; t = t.getParent()) {
+            boolean changed = false;
+            if (t.samplesComputed) {
+                t.samplesComputed = false;
+                t.samples = -1;
+                changed = true;
+            }
+            if (t.percentValid && t.percent != -1 && (t instanceof PMDso || t instanceof PMFile)) {
+                t.percentValid = false;
+                changed = true;
             }
-            // Tell its parent to re-sum too.
-            if (getParent().getPercent() != -1) {
-                getParent().recalculatePercentage();
+            // ancestors are already invalid, or do not aggregate their children
+            if (!changed && t != this) {
+                break;
             }
         }
     }
@@ -0,0 +1,430 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.linuxtools.binutils.utils;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.cdt.core.IAddress;
+import org.eclipse.cdt.core.IBinaryParser.IBinaryObject;
+import org.eclipse.cdt.utils.Addr2line;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.linuxtools.internal.binutils.SymbolCacheStore;
+
+/**
+ * A small pool of addr2line processes for one binary, with a bounded LRU cache of resolved addresses and
+ * demangled names. Each addr2line process is used by one thread at a time, so that several threads can resolve
+ * addresses of the same binary concurrently. Addresses and names which are not in the cache are looked up in the
+ * mapped file of a {@link SymbolCacheStore}, if any, before running binutils. The cache is saved to the store with
+ * the entries of its file.
+ */
+class Addr2linePool {
+
+    /** Maximum number of cached addresses, per binary */
+    private static final int CACHE_SIZE = 1 << 16;
+
+    /** Maximum number of addr2line processes, per binary */
+    static final int MAX_WORKERS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    private final IBinaryObject program;
+    private final ArrayDeque<Addr2line> idle = new ArrayDeque<>();
+    private int workers;
+    private int busy;
+    private long lastUse = System.currentTimeMillis();
+    private boolean closed;
+
+    private final Map<Long, String> fileNames = new LRUCache<>();
+    private final Map<Long, Integer> lineNumbers = new LRUCache<>();
+    private final Map<String, String> demangledNames = new LRUCache<>();
+
+    private final SymbolCacheStore store;
+    private final String storeKey;
+    /** the entries saved by a previous session, or null */
+    private volatile SymbolCacheStore.Entries saved;
+    /** whether the cache has changed since it has been loaded */
+    private volatile boolean dirty;
+
+    private static final class LRUCache<K, V> extends LinkedHashMap<K, V> {
+        private static final long serialVersionUID = 1L;
+
+        LRUCache() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    }
+
+    Addr2linePool(IBinaryObject program, SymbolCacheStore store) {
+        this.program = program;
+        this.store = store;
+        this.storeKey = store == null || program.getPath() == null ? null
+                : SymbolCacheStore.getKey(program.getPath().toFile());
+        this.saved = storeKey == null ? null : store.load(storeKey);
+    }
+
+    /**
+     * Saves the cache in the store, if it has changed.
+     */
+    void save() {
+        write(snapshot());
+    }
+
+    /**
+     * A copy of the cache, with the entries it is saved with.
+     */
+    private static final class Snapshot {
+        final SymbolCacheStore.Content content = new SymbolCacheStore.Content();
+        SymbolCacheStore.Entries entries;
+    }
+
+    /**
+     * Copies the cache, if it has changed.
+     * @return the copy, or null if there is nothing to save
+     */
+    private Snapshot snapshot() {
+        if (storeKey == null || !dirty) {
+            return null;
+        }
+        dirty = false;
+        Snapshot snapshot = new Snapshot();
+        snapshot.entries = saved;
+        SymbolCacheStore.Content content = snapshot.content;
+        synchronized (fileNames) {
+            content.fileNames.putAll(fileNames);
+        }
+        synchronized (lineNumbers) {
+            content.lineNumbers.putAll(lineNumbers);
+        }
+        synchronized (demangledNames) {
+            content.demangledNames.putAll(demangledNames);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Saves a copy of the cache in the store, with the entries previously saved. Must not be called while holding
+     * the lock of the pool, so that the file IO does not block the threads resolving addresses.
+     * @param snapshot the copy, or null
+     */
+    private void write(Snapshot snapshot) {
+        if (snapshot == null) {
+            return;
+        }
+        SymbolCacheStore.Content content = new SymbolCacheStore.Content();
+        if (snapshot.entries != null) {
+            snapshot.entries.copyTo(content);
+        }
+        content.fileNames.putAll(snapshot.content.fileNames);
+        content.lineNumbers.putAll(snapshot.content.lineNumbers);
+        content.demangledNames.putAll(snapshot.content.demangledNames);
+        store.save(storeKey, content);
+        // so that the entries evicted from the cache are still found, unless the pool has been closed or reset since
+        SymbolCacheStore.Entries entries = store.load(storeKey);
+        synchronized (this) {
+            if (!closed && saved == snapshot.entries) {
+                saved = entries;
+            }
+        }
+    }
+
+    /**
+     * @param symbolName
+     * @return the cached demangled name, or null if not cached
+     */
+    String getDemangledName(String symbolName) {
+        synchronized (demangledNames) {
+            String ret = demangledNames.get(symbolName);
+            if (ret != null) {
+                return ret;
+            }
+        }
+        SymbolCacheStore.Entries entries = saved;
+        return entries == null ? null : entries.getDemangledName(symbolName);
+    }
+
+    void putDemangledName(String symbolName, String demangledName) {
+        synchronized (demangledNames) {
+            demangledNames.put(symbolName, demangledName);
+        }
+        dirty = true;
+    }
+
+    /**
+     * Takes an addr2line process out of the pool, starting a new one if the pool is not full. Waits for a process
+     * to be released otherwise.
+     * @return an addr2line process, or null if it cannot be started
+     */
+    private Addr2line acquire(IProject project) {
+        synchronized (this) {
+            lastUse = System.currentTimeMillis();
+            while (idle.isEmpty() && workers >= MAX_WORKERS) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return null;
+                }
+            }
+            busy++;
+            if (!idle.isEmpty()) {
+                return idle.pop();
+            }
+            workers++;
+        }
+        try {
+            return STBinutilsFactoryManager.getAddr2line(program.getCPU(), program.getPath().toOSString(), project);
+        } catch (IOException e) {
+            // TODO: log the error ?;
+            // Perhaps log the error only once, because
+            // this method is called many many times...
+            synchronized (this) {
+                workers--;
+                busy--;
+                notifyAll();
+            }
+            return null;
+        }
+    }
+
+    private synchronized void release(Addr2line addr2line) {
+        busy--;
+        if (closed) {
+            // the pool is no longer registered: do not keep processes alive.
+            addr2line.dispose();
+            workers--;
+        } else {
+            idle.push(addr2line);
+        }
+        notifyAll();
+    }
+
+    /**
+     * Disposes the idle addr2line processes, if the pool has not been used since the given timeout. The cache is kept.
+     * @param now
+     * @param timeout
+     */
+    void disposeIfUnused(long now, long timeout) {
+        Snapshot snapshot;
+        synchronized (this) {
+            if (now - lastUse <= timeout) {
+                return;
+            }
+            dispose();
+            snapshot = snapshot();
+        }
+        write(snapshot);
+    }
+
+    /**
+     * Closes the pool if it has not been used since the given timeout.
+     * @param now
+     * @param timeout
+     * @return true if the pool has been closed
+     */
+    boolean closeIfUnused(long now, long timeout) {
+        Snapshot snapshot;
+        synchronized (this) {
+            if (busy != 0 || now - lastUse <= timeout) {
+                return false;
+            }
+            snapshot = closeAndCopy();
+        }
+        write(snapshot);
+        return true;
+    }
+
+    /**
+     * Closes the pool: idle addr2line processes are disposed, the ones in use will be when released.
+     */
+    void close() {
+        write(closeAndCopy());
+    }
+
+    /**
+     * Closes the pool.
+     * @return the copy of the cache to save, or null
+     */
+    private synchronized Snapshot closeAndCopy() {
+        closed = true;
+        Snapshot snapshot = snapshot();
+        reset();
+        return snapshot;
+    }
+
+    /**
+     * Disposes the idle addr2line processes.
+     */
+    synchronized void dispose() {
+        while (!idle.isEmpty()) {
+            idle.pop().dispose();
+            workers--;
+        }
+    }
+
+    /**
+     * Disposes the idle addr2line processes, and clears the cache. The entries of the store are no longer used, but
+     * its file is not deleted.
+     */
+    synchronized void reset() {
+        dispose();
+        saved = null;
+        synchronized (fileNames) {
+            fileNames.clear();
+        }
+        synchronized (lineNumbers) {
+            lineNumbers.clear();
+        }
+        synchronized (demangledNames) {
+            demangledNames.clear();
+        }
+        dirty = false;
+    }
+
+    IAddress createAddress(long address) {
+        return program.getAddressFactory().createAddress(new BigInteger(Long.toUnsignedString(address)));
+    }
+
+    String getFileName(IAddress address, IProject project) {
+        Long key = address.getValue().longValue();
+        synchronized (fileNames) {
+            if (fileNames.containsKey(key)) {
+                return fileNames.get(key);
+            }
+        }
+        SymbolCacheStore.Entries entries = saved;
+        if (entries != null && entries.hasFileName(key)) {
+            return entries.getFileName(key);
+        }
+        Addr2line addr2line = acquire(project);
+        if (addr2line == null) {
+            return null;
+        }
+        try {
+            return resolveFileName(addr2line, key, address);
+        } finally {
+            release(addr2line);
+        }
+    }
+
+    int getLineNumber(IAddress address, IProject project) {
+        Long key = address.getValue().longValue();
+        synchronized (lineNumbers) {
+            Integer ret = lineNumbers.get(key);
+            if (ret != null) {
+                return ret;
+            }
+        }
+        SymbolCacheStore.Entries entries = saved;
+        Integer ret = entries == null ? null : entries.getLineNumber(key);
+        if (ret != null) {
+            return ret;
+        }
+        Addr2line addr2line = acquire(project);
+        if (addr2line == null) {
+            return -1;
+        }
+        try {
+            return resolveLineNumber(addr2line, key, address);
+        } finally {
+            release(addr2line);
+        }
+    }
+
+    /**
+     * Resolves the given range of addresses. A single addr2line process is used for the whole range, and only
+     * taken out of the pool if some addresses are not already cached.
+     * @param locations
+     * @param from
+     * @param to
+     * @param project
+     */
+    void resolve(STSourceLocations locations, int from, int to, IProject project) {
+        Addr2line addr2line = null;
+        SymbolCacheStore.Entries entries = saved;
+        try {
+            for (int i = from; i < to; i++) {
+                Long key = locations.getAddress(i);
+                String fileName;
+                Integer lineNumber;
+                boolean hasFileName;
+                synchronized (fileNames) {
+                    hasFileName = fileNames.containsKey(key);
+                    fileName = fileNames.get(key);
+                }
+                synchronized (lineNumbers) {
+                    lineNumber = lineNumbers.get(key);
+                }
+                if (entries != null && !hasFileName && entries.hasFileName(key)) {
+                    hasFileName = true;
+                    fileName = entries.getFileName(key);
+                }
+                if (entries != null && lineNumber == null) {
+                    lineNumber = entries.getLineNumber(key);
+                }
+                if (!hasFileName || lineNumber == null) {
+                    if (addr2line == null) {
+                        addr2line = acquire(project);
+                        if (addr2line == null) {
+                            locations.set(i, null, -1);
+                            continue;
+                        }
+                    }
+                    IAddress address = createAddress(key);
+                    if (!hasFileName) {
+                        fileName = resolveFileName(addr2line, key, address);
+                    }
+                    if (lineNumber == null) {
+                        lineNumber = resolveLineNumber(addr2line, key, address);
+                    }
+                }
+                locations.set(i, fileName, lineNumber);
+            }
+        } finally {
+            if (addr2line != null) {
+                release(addr2line);
+            }
+        }
+    }
+
+    private String resolveFileName(Addr2line addr2line, Long key, IAddress address) {
+        try {
+            String ret = addr2line.getFileName(address);
+            synchronized (fileNames) {
+                fileNames.put(key, ret);
+            }
+            dirty = true;
+            return ret;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private int resolveLineNumber(Addr2line addr2line, Long key, IAddress address) {
+        try {
+            int ret = addr2line.getLineNumber(address);
+            synchronized (lineNumbers) {
+                lineNumbers.put(key, ret);
+            }
+            dirty = true;
+            return ret;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+}
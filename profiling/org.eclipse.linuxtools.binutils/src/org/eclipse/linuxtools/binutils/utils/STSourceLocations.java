@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.linuxtools.binutils.utils;
+
+/**
+ * Source locations (file name and line number) of a batch of addresses, as resolved by
+ * {@link STSymbolManager#getSourceLocations(org.eclipse.cdt.core.IBinaryParser.IBinaryObject, long[], org.eclipse.core.resources.IProject)}.
+ *
+ * @since 6.1
+ */
+public class STSourceLocations {
+
+    private final long[] addresses;
+    private final String[] fileNames;
+    private final int[] lineNumbers;
+
+    STSourceLocations(long[] addresses) {
+        this.addresses = addresses;
+        this.fileNames = new String[addresses.length];
+        this.lineNumbers = new int[addresses.length];
+    }
+
+    /**
+     * @return the number of resolved addresses
+     */
+    public int size() {
+        return addresses.length;
+    }
+
+    /**
+     * @param i
+     * @return the i-th address
+     */
+    public long getAddress(int i) {
+        return addresses[i];
+    }
+
+    /**
+     * @param i
+     * @return the file name of the i-th address, or null if unknown
+     */
+    public String getFileName(int i) {
+        return fileNames[i];
+    }
+
+    /**
+     * @param i
+     * @return the line number of the i-th address, or -1 if unknown
+     */
+    public int getLineNumber(int i) {
+        return lineNumbers[i];
+    }
+
+    /**
+     * @return the file names, indexed like the addresses
+     */
+    public String[] getFileNames() {
+        return fileNames;
+    }
+
+    /**
+     * @return the line numbers, indexed like the addresses
+     */
+    public int[] getLineNumbers() {
+        return lineNumbers;
+    }
+
+    void set(int i, String fileName, int lineNumber) {
+        fileNames[i] = fileName;
+        lineNumbers[i] = lineNumber;
+    }
+}
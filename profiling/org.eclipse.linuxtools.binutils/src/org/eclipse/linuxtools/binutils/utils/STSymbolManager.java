@@ -16,11 +16,14 @@ package org.eclipse.linuxtools.binutils.utils;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.eclipse.cdt.core.CCorePlugin;
 import org.eclipse.cdt.core.IAddress;
@@ -35,7 +38,6 @@ import org.eclipse.cdt.core.model.IBinary;
 import org.eclipse.cdt.core.model.ICProject;
 import org.eclipse.cdt.core.settings.model.ICConfigurationDescription;
 import org.eclipse.cdt.core.settings.model.ICProjectDescription;
-import org.eclipse.cdt.utils.Addr2line;
 import org.eclipse.cdt.utils.CPPFilt;
 import org.eclipse.core.filesystem.URIUtil;
 import org.eclipse.core.resources.IFile;
@@ -53,6 +55,7 @@ import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.linuxtools.internal.Activator;
+import org.eclipse.linuxtools.internal.binutils.SymbolCacheStore;
 
 /**
  * This class Is a utility on top of c++filt and addr2line. It allows an easy conversion between address and source
@@ -65,25 +68,45 @@ public class STSymbolManager {
      */
     private final static long AUTO_DISPOSE_TIMEOUT = 30000;
 
+    /**
+     * Minimum number of addresses resolved by a single addr2line process in a batch.
+     */
+    private final static int MIN_BATCH_SIZE = 64;
+
+    /**
+     * Directory of the persistent symbol cache, in the state location of the plug-in.
+     */
+    private final static String SYMBOL_CACHE_DIRECTORY = "symbols"; //$NON-NLS-1$
+
     /**
      * Singleton instance
      */
     public final static STSymbolManager sharedInstance = new STSymbolManager();
 
-    private final static class AutoDisposeAddr2line {
-        private Addr2line addr2line;
-        private long startTime;
-    }
+    /**
+     * Unused addr2line pools are discarded (with their cache) after this time (in ms).
+     */
+    private final static long CACHE_DISPOSE_TIMEOUT = 10 * AUTO_DISPOSE_TIMEOUT;
 
     private final static class AutoDisposeCPPFilt {
         private CPPFilt cppfilt;
         private long startTime;
     }
 
-    /** Map of all living instance of addr2line */
-    private final HashMap<IBinaryObject, AutoDisposeAddr2line> addr2lines = new HashMap<>();
+    /** Map of all living pools of addr2line */
+    private final ConcurrentHashMap<IBinaryObject, Addr2linePool> addr2lines = new ConcurrentHashMap<>();
     /** Map of all living instance of cppfilt */
-    private final HashMap<String, AutoDisposeCPPFilt> cppfilts = new HashMap<>();
+    private final ConcurrentHashMap<String, AutoDisposeCPPFilt> cppfilts = new ConcurrentHashMap<>();
+
+    /** Persistent store of resolved symbols */
+    private SymbolCacheStore store;
+
+    /** Threads used to resolve batches of addresses */
+    private final ExecutorService resolvers = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "ST System Analysis Symbol Resolver"); //$NON-NLS-1$
+        t.setDaemon(true);
+        return t;
+    });
 
     /**
      * Constructor
@@ -113,41 +136,46 @@ public class STSymbolManager {
     /**
      * @since 4.1
      */
-    public synchronized void reset() {
-        Iterator<Entry<IBinaryObject, AutoDisposeAddr2line>> iter = addr2lines.entrySet().iterator();
+    public void reset() {
+        Iterator<Entry<IBinaryObject, Addr2linePool>> iter = addr2lines.entrySet().iterator();
         while (iter.hasNext()) {
-            Entry<IBinaryObject, AutoDisposeAddr2line> entry = iter.next();
-            AutoDisposeAddr2line ada2l = entry.getValue();
-            ada2l.addr2line.dispose();
-            ada2l.addr2line = null;
+            Entry<IBinaryObject, Addr2linePool> entry = iter.next();
+            Addr2linePool pool = entry.getValue();
+            // binutils settings have changed: previous results are invalid.
+            pool.reset();
+            pool.close();
             iter.remove();
         }
+        SymbolCacheStore store = getStore();
+        if (store != null) {
+            store.clear();
+        }
 
         Iterator<Entry<String, AutoDisposeCPPFilt>> iter2 = cppfilts.entrySet().iterator();
         while (iter2.hasNext()) {
             Entry<String, AutoDisposeCPPFilt> entry = iter2.next();
             AutoDisposeCPPFilt adcppf = entry.getValue();
-            adcppf.cppfilt.dispose();
-            adcppf.cppfilt = null;
+            synchronized (adcppf) {
+                if (adcppf.cppfilt != null) {
+                    adcppf.cppfilt.dispose();
+                    adcppf.cppfilt = null;
+                }
+            }
         }
     }
 
     /**
      * each {@link #AUTO_DISPOSE_TIMEOUT} ms, the unused addr2line and c++filt programs are disposed.
      */
-    private synchronized void cleanup() {
+    private void cleanup() {
         long currentTime = System.currentTimeMillis();
-        Iterator<Entry<IBinaryObject, AutoDisposeAddr2line>> iter = addr2lines.entrySet().iterator();
+        Iterator<Entry<IBinaryObject, Addr2linePool>> iter = addr2lines.entrySet().iterator();
         while (iter.hasNext()) {
-            Entry<IBinaryObject, AutoDisposeAddr2line> entry = iter.next();
-            AutoDisposeAddr2line ada2l = entry.getValue();
-            long diff = currentTime - ada2l.startTime;
-            if (diff > AUTO_DISPOSE_TIMEOUT) {
-                if (ada2l.addr2line != null) {
-                    ada2l.addr2line.dispose();
-                    ada2l.addr2line = null;
-                }
+            Addr2linePool pool = iter.next().getValue();
+            if (pool.closeIfUnused(currentTime, CACHE_DISPOSE_TIMEOUT)) {
                 iter.remove();
+            } else {
+                pool.disposeIfUnused(currentTime, AUTO_DISPOSE_TIMEOUT);
             }
         }
 
@@ -155,13 +183,14 @@ public class STSymbolManager {
         while (iter2.hasNext()) {
             Entry<String, AutoDisposeCPPFilt> entry = iter2.next();
             AutoDisposeCPPFilt adcppf = entry.getValue();
-            long diff = currentTime - adcppf.startTime;
-            if (diff > AUTO_DISPOSE_TIMEOUT) {
-                if (adcppf.cppfilt != null) {
-                    adcppf.cppfilt.dispose();
-                    adcppf.cppfilt = null;
+            synchronized (adcppf) {
+                long diff = currentTime - adcppf.startTime;
+                if (diff > AUTO_DISPOSE_TIMEOUT) {
+                    if (adcppf.cppfilt != null) {
+                        adcppf.cppfilt.dispose();
+                        adcppf.cppfilt = null;
+                    }
                 }
-                iter2.remove();
             }
         }
     }
@@ -172,10 +201,9 @@ public class STSymbolManager {
      * @param project The project to be
      * @return The demangled symbol.
      */
-    public synchronized String demangle(ISymbol symbol, IProject project) {
-        String cpu = symbol.getBinaryObject().getCPU();
+    public String demangle(ISymbol symbol, IProject project) {
         String symbolName = symbol.getName();
-        return demangleImpl(symbolName, cpu, project);
+        return demangleImpl(symbol.getBinaryObject(), symbolName, project);
     }
 
     /**
@@ -185,26 +213,86 @@ public class STSymbolManager {
      * @param project
      * @return The demangled symbol.
      */
-    public synchronized String demangle(IBinaryObject program, String symbolName, IProject project) {
+    public String demangle(IBinaryObject program, String symbolName, IProject project) {
+        return demangleImpl(program, symbolName, project);
+    }
+
+    /**
+     * Demangles a batch of symbols. Symbols which are not already cached are demangled in one go by the c++filt
+     * process of the given program.
+     * @param program
+     * @param symbolNames
+     * @param project
+     * @return the demangled symbols, in the order of the given ones
+     * @since 6.1
+     */
+    public String[] demangle(IBinaryObject program, String[] symbolNames, IProject project) {
+        String[] ret = symbolNames.clone();
+        Addr2linePool pool = getAddr2linePool(program);
+        List<Integer> pending = new ArrayList<>();
+        for (int i = 0; i < ret.length; i++) {
+            String symbolName = ret[i];
+            if (!symbolName.startsWith("_Z") && !symbolName.startsWith("_G")) { //$NON-NLS-1$ //$NON-NLS-2$
+                continue;
+            }
+            String demangled = pool.getDemangledName(symbolName);
+            if (demangled != null) {
+                ret[i] = demangled;
+            } else {
+                pending.add(i);
+            }
+        }
+        if (pending.isEmpty()) {
+            return ret;
+        }
         String cpu = program.getCPU();
-        return demangleImpl(symbolName, cpu, project);
+        AutoDisposeCPPFilt adCppfilt = cppfilts.computeIfAbsent(cpu, c -> new AutoDisposeCPPFilt());
+        synchronized (adCppfilt) {
+            CPPFilt cppfilt = getCppFilt(adCppfilt, cpu, project);
+            if (cppfilt != null) {
+                try {
+                    for (int i : pending) {
+                        String demangled = cppfilt.getFunction(symbolNames[i]);
+                        pool.putDemangledName(symbolNames[i], demangled);
+                        ret[i] = demangled;
+                    }
+                } catch (IOException e) {
+                    // TODO: log the error ?
+                }
+            }
+        }
+        return ret;
     }
 
     /**
      * Demangle the given symbol
+     * @param program
      * @param symbolName
-     * @param cpu
      * @param project
-     * @param symbol
      * @return
      */
-    private synchronized String demangleImpl(String symbolName, String cpu, IProject project) {
-        CPPFilt cppfilt = getCppFilt(cpu, project);
-        if (cppfilt != null && (symbolName.startsWith("_Z") || symbolName.startsWith("_G"))) { //$NON-NLS-1$ //$NON-NLS-2$
-            try {
-                symbolName = cppfilt.getFunction(symbolName);
-            } catch (IOException e) {
-                // TODO: log the error ?
+    private String demangleImpl(IBinaryObject program, String symbolName, IProject project) {
+        if (!symbolName.startsWith("_Z") && !symbolName.startsWith("_G")) { //$NON-NLS-1$ //$NON-NLS-2$
+            return symbolName;
+        }
+        Addr2linePool pool = getAddr2linePool(program);
+        String demangled = pool.getDemangledName(symbolName);
+        if (demangled != null) {
+            return demangled;
+        }
+        String cpu = program.getCPU();
+        AutoDisposeCPPFilt adCppfilt = cppfilts.computeIfAbsent(cpu, c -> new AutoDisposeCPPFilt());
+        // c++filt processes are shared per cpu: lock only the one in use.
+        synchronized (adCppfilt) {
+            CPPFilt cppfilt = getCppFilt(adCppfilt, cpu, project);
+            if (cppfilt != null) {
+                try {
+                    demangled = cppfilt.getFunction(symbolName);
+                    pool.putDemangledName(symbolName, demangled);
+                    return demangled;
+                } catch (IOException e) {
+                    // TODO: log the error ?
+                }
             }
         }
         return symbolName;
@@ -216,19 +304,8 @@ public class STSymbolManager {
      * @param project
      * @return the line number of the given address
      */
-    public synchronized int getLineNumber(IBinaryObject program, IAddress address, IProject project) {
-        Addr2line addr2line = getAddr2line(program, project);
-        if (addr2line == null) {
-            return -1;
-        }
-        try {
-            return addr2line.getLineNumber(address);
-        } catch (IOException e) {
-            // TODO: log the error ?;
-            // Perhaps log the error only once, because
-            // this method is called many many times...
-            return -1;
-        }
+    public int getLineNumber(IBinaryObject program, IAddress address, IProject project) {
+        return getAddr2linePool(program).getLineNumber(address, project);
     }
 
     /**
@@ -248,19 +325,8 @@ public class STSymbolManager {
      * @param project
      * @return the file name of the given address
      */
-    public synchronized String getFileName(IBinaryObject program, IAddress address, IProject project) {
-        Addr2line addr2line = getAddr2line(program, project);
-        if (addr2line == null) {
-            return null;
-        }
-        try {
-            return addr2line.getFileName(address);
-        } catch (IOException e) {
-            // TODO: log the error ?;
-            // Perhaps log the error only once, because
-            // this method is called many many times...
-            return null;
-        }
+    public String getFileName(IBinaryObject program, IAddress address, IProject project) {
+        return getAddr2linePool(program).getFileName(address, project);
     }
 
     /**
@@ -274,20 +340,41 @@ public class STSymbolManager {
         return getFileName(obj, address, project);
     }
 
+    /**
+     * Resolves the source locations of a batch of addresses. Addresses which are not already cached are split among
+     * the addr2line processes of the given program, and resolved concurrently.
+     * @param program
+     * @param addresses
+     * @param project
+     * @return the file names and line numbers of the given addresses
+     * @since 6.1
+     */
+    public STSourceLocations getSourceLocations(IBinaryObject program, long[] addresses, IProject project) {
+        STSourceLocations ret = new STSourceLocations(addresses);
+        Addr2linePool pool = getAddr2linePool(program);
+        int chunk = Math.max(MIN_BATCH_SIZE, (addresses.length + Addr2linePool.MAX_WORKERS - 1) / Addr2linePool.MAX_WORKERS);
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int start = chunk; start < addresses.length; start += chunk) {
+            final int from = start;
+            final int to = Math.min(start + chunk, addresses.length);
+            futures.add(CompletableFuture.runAsync(() -> pool.resolve(ret, from, to, project), resolvers));
+        }
+        pool.resolve(ret, 0, Math.min(chunk, addresses.length), project);
+        for (CompletableFuture<Void> future : futures) {
+            future.join();
+        }
+        return ret;
+    }
+
     /**
      * Gets the c++filt support for the given program Note that the instance if kept in a local hashmap, and discarded
-     * after 30 seconds of inactivity.
+     * after 30 seconds of inactivity. The caller must hold the lock of adCppfilt.
+     * @param adCppfilt
      * @param cpu
      * @param project
-     * @param program
      * @return an instance of CPPFilt suitable for the given program
      */
-    private synchronized CPPFilt getCppFilt(String cpu, IProject project) {
-        AutoDisposeCPPFilt adCppfilt = cppfilts.get(cpu);
-        if (adCppfilt == null) {
-            adCppfilt = new AutoDisposeCPPFilt();
-            cppfilts.put(cpu, adCppfilt);
-        }
+    private CPPFilt getCppFilt(AutoDisposeCPPFilt adCppfilt, String cpu, IProject project) {
         if (adCppfilt.cppfilt == null) {
             try {
                 adCppfilt.cppfilt = STBinutilsFactoryManager.getCPPFilt(cpu, project);
@@ -303,31 +390,48 @@ public class STSymbolManager {
     }
 
     /**
-     * Gets the addr2line support for the given program Note that the instance if kept in a local hashmap, and discarded
-     * after 30 seconds of inactivity.
+     * Gets the addr2line pool for the given program Note that the addr2line instances are discarded after 30 seconds
+     * of inactivity.
      * @param program
-     * @param project
-     * @return an instance of Addr2line suitable for the given program
+     * @return the pool of addr2line suitable for the given program
      */
-    private synchronized Addr2line getAddr2line(IBinaryObject program, IProject project) {
-        AutoDisposeAddr2line adAddr2line = addr2lines.get(program);
-        if (adAddr2line == null) {
-            adAddr2line = new AutoDisposeAddr2line();
-            addr2lines.put(program, adAddr2line);
+    private Addr2linePool getAddr2linePool(IBinaryObject program) {
+        Addr2linePool pool = addr2lines.get(program);
+        if (pool == null) {
+            // the store is read outside of the map, which would otherwise block the other binaries. If two threads
+            // create a pool, the one which is not registered has not started any process yet.
+            Addr2linePool created = new Addr2linePool(program, getStore());
+            pool = addr2lines.putIfAbsent(program, created);
+            if (pool == null) {
+                pool = created;
+            }
         }
-        if (adAddr2line.addr2line == null) {
-            try {
-                adAddr2line.addr2line = STBinutilsFactoryManager.getAddr2line(program.getCPU(), program.getPath()
-                        .toOSString(), project);
-            } catch (IOException e) {
-                // TODO: log the error ?;
-                // Perhaps log the error only once, because
-                // this method is called many many times...
-                return null;
+        return pool;
+    }
+
+    /**
+     * @return the persistent store of resolved symbols, in the plug-in state location. May be null if the plug-in
+     *         is not running.
+     */
+    private synchronized SymbolCacheStore getStore() {
+        if (store == null) {
+            Activator activator = Activator.getDefault();
+            if (activator != null) {
+                store = new SymbolCacheStore(activator.getStateLocation().append(SYMBOL_CACHE_DIRECTORY).toFile());
             }
         }
-        adAddr2line.startTime = System.currentTimeMillis();
-        return adAddr2line.addr2line;
+        return store;
+    }
+
+    /**
+     * Saves the resolved symbols of all the binaries in the persistent store, so that they can be reused without
+     * running binutils, e.g. after a restart.
+     * @since 6.1
+     */
+    public void saveCache() {
+        for (Addr2linePool pool : addr2lines.values()) {
+            pool.save();
+        }
     }
 
     /**
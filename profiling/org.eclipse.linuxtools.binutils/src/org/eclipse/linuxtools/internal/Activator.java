@@ -12,6 +12,7 @@
  *******************************************************************************/
 package org.eclipse.linuxtools.internal;
 
+import org.eclipse.linuxtools.binutils.utils.STSymbolManager;
 import org.eclipse.ui.plugin.AbstractUIPlugin;
 import org.osgi.framework.BundleContext;
 
@@ -34,6 +35,7 @@ public class Activator extends AbstractUIPlugin {
 
     @Override
     public void stop(BundleContext context) throws Exception {
+        STSymbolManager.sharedInstance.saveCache();
         plugin = null;
         super.stop(context);
     }
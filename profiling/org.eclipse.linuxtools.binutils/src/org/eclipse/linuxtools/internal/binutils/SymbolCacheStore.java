@@ -0,0 +1,498 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.linuxtools.internal.binutils;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.linuxtools.internal.Activator;
+
+/**
+ * Persistent store of resolved symbols (demangled names, source locations of addresses), with one file per binary.
+ * Binaries are identified by their ELF build-id, or by their path, modification time and size when they do not have
+ * one. The total size of the store is bounded: the least recently used files are deleted first.
+ * <p>
+ * Cache files are read in place: addresses and symbol names are sorted, so that a lookup is a binary search in the
+ * mapped file.
+ */
+public final class SymbolCacheStore {
+
+    private static final int MAGIC = 0x53544332; // "STC2"
+    private static final String SUFFIX = ".cache"; //$NON-NLS-1$
+    /** Suffix of the files being written, which are not cache files yet */
+    private static final String TMP_SUFFIX = ".tmp"; //$NON-NLS-1$
+
+    /** Maximum total size of the cache files, in bytes */
+    private static final long MAX_TOTAL_SIZE = 64L * 1024 * 1024;
+
+    /** Size of a location record: address, file name, line number */
+    private static final int LOCATION_SIZE = 16;
+    /** Size of a demangled name record: symbol name, demangled name */
+    private static final int NAME_SIZE = 8;
+    /** File name of an address whose file name is not cached */
+    private static final int NO_FILE_NAME = -2;
+    /** File name of an address without source location */
+    private static final int NULL_FILE_NAME = -1;
+    /** Line number of an address whose line number is not cached */
+    private static final int NO_LINE_NUMBER = Integer.MIN_VALUE;
+
+    private static final int SHT_NOTE = 7;
+    private static final int NT_GNU_BUILD_ID = 3;
+
+    private final File directory;
+
+    /**
+     * @param directory the directory of the cache files
+     */
+    public SymbolCacheStore(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Resolved symbols to save in a cache file.
+     */
+    public static final class Content {
+        /** source file names by address, null if the address has no source location */
+        public final Map<Long, String> fileNames = new HashMap<>();
+        /** line numbers by address */
+        public final Map<Long, Integer> lineNumbers = new HashMap<>();
+        /** demangled names by symbol name */
+        public final Map<String, String> demangledNames = new HashMap<>();
+    }
+
+    /**
+     * Resolved symbols of a cache file, read from the mapped file when they are looked up. A corrupted file is
+     * detected when it is loaded, or else its symbols are not found.
+     */
+    public static final class Entries {
+        private final ByteBuffer buffer;
+        private final int stringCount;
+        private final int locations;
+        private final int locationCount;
+        private final int names;
+        private final int nameCount;
+
+        private Entries(ByteBuffer buffer) throws IOException {
+            this.buffer = buffer;
+            int limit = buffer.limit();
+            if (limit < 8 || buffer.getInt(0) != MAGIC) {
+                throw new IOException();
+            }
+            stringCount = buffer.getInt(4);
+            // the offsets of the strings, then the strings
+            int pos = 8 + 4 * checkCount(stringCount, 4, 8, limit);
+            for (int i = 0; i < stringCount; i++) {
+                int offset = buffer.getInt(8 + 4 * i);
+                if (offset < pos || offset > limit - 4 || buffer.getInt(offset) < 0
+                        || buffer.getInt(offset) > limit - offset - 4) {
+                    throw new IOException();
+                }
+            }
+            pos = stringCount == 0 ? pos : Math.max(pos, getStringEnd(stringCount - 1));
+            locationCount = checkCount(getInt(pos, limit), LOCATION_SIZE, pos + 4, limit);
+            locations = pos + 4;
+            pos = locations + LOCATION_SIZE * locationCount;
+            nameCount = checkCount(getInt(pos, limit), NAME_SIZE, pos + 4, limit);
+            names = pos + 4;
+        }
+
+        private int getInt(int pos, int limit) throws IOException {
+            if (pos > limit - 4) {
+                throw new IOException();
+            }
+            return buffer.getInt(pos);
+        }
+
+        private int getStringEnd(int index) {
+            int offset = buffer.getInt(8 + 4 * index);
+            return offset + 4 + buffer.getInt(offset);
+        }
+
+        private static int checkCount(int count, int recordSize, int pos, int limit) throws IOException {
+            if (count < 0 || count > (limit - pos) / recordSize) {
+                throw new IOException();
+            }
+            return count;
+        }
+
+        private String getString(int index) {
+            if (index < 0 || index >= stringCount) {
+                return null;
+            }
+            int offset = buffer.getInt(8 + 4 * index);
+            byte[] bytes = new byte[buffer.getInt(offset)];
+            buffer.get(offset + 4, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * @return the position of the location record of the given address, or -1 if there is none
+         */
+        private int findLocation(long address) {
+            int low = 0;
+            int high = locationCount - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int pos = locations + mid * LOCATION_SIZE;
+                int cmp = Long.compare(buffer.getLong(pos), address);
+                if (cmp == 0) {
+                    return pos;
+                } else if (cmp < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * @param address
+         * @return whether the file name of the given address is cached
+         */
+        public boolean hasFileName(long address) {
+            int pos = findLocation(address);
+            return pos >= 0 && buffer.getInt(pos + 8) != NO_FILE_NAME;
+        }
+
+        /**
+         * @param address
+         * @return the cached file name of the given address, or null if it is not cached or the address has no
+         *         source location
+         */
+        public String getFileName(long address) {
+            int pos = findLocation(address);
+            return pos < 0 ? null : getString(buffer.getInt(pos + 8));
+        }
+
+        /**
+         * @param address
+         * @return the cached line number of the given address, or null if it is not cached
+         */
+        public Integer getLineNumber(long address) {
+            int pos = findLocation(address);
+            if (pos < 0 || buffer.getInt(pos + 12) == NO_LINE_NUMBER) {
+                return null;
+            }
+            return buffer.getInt(pos + 12);
+        }
+
+        /**
+         * @param symbolName
+         * @return the cached demangled name of the given symbol, or null if it is not cached
+         */
+        public String getDemangledName(String symbolName) {
+            int low = 0;
+            int high = nameCount - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int pos = names + mid * NAME_SIZE;
+                String name = getString(buffer.getInt(pos));
+                int cmp = name == null ? -1 : name.compareTo(symbolName);
+                if (cmp == 0) {
+                    return getString(buffer.getInt(pos + 4));
+                } else if (cmp < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * @return the number of cached addresses
+         */
+        public int getAddressCount() {
+            return locationCount;
+        }
+
+        /**
+         * @return the number of cached demangled names
+         */
+        public int getDemangledNameCount() {
+            return nameCount;
+        }
+
+        /**
+         * Adds all the entries to the given content, e.g. to save them again with new ones.
+         * @param content
+         */
+        public void copyTo(Content content) {
+            for (int i = 0; i < locationCount; i++) {
+                int pos = locations + i * LOCATION_SIZE;
+                long address = buffer.getLong(pos);
+                int fileName = buffer.getInt(pos + 8);
+                int lineNumber = buffer.getInt(pos + 12);
+                if (fileName != NO_FILE_NAME) {
+                    content.fileNames.put(address, getString(fileName));
+                }
+                if (lineNumber != NO_LINE_NUMBER) {
+                    content.lineNumbers.put(address, lineNumber);
+                }
+            }
+            for (int i = 0; i < nameCount; i++) {
+                int pos = names + i * NAME_SIZE;
+                String name = getString(buffer.getInt(pos));
+                if (name != null) {
+                    content.demangledNames.put(name, getString(buffer.getInt(pos + 4)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes the key of the given binary file.
+     * @param file
+     * @return the key, or null if the file does not exist
+     */
+    public static String getKey(File file) {
+        if (!file.isFile()) {
+            return null;
+        }
+        byte[] buildId = null;
+        try {
+            buildId = readBuildId(file);
+        } catch (IOException | RuntimeException e) {
+            // not an ELF file, or a corrupted one: use the fallback key.
+        }
+        if (buildId != null) {
+            StringBuilder sb = new StringBuilder("b"); //$NON-NLS-1$
+            for (byte b : buildId) {
+                sb.append(String.format("%02x", b)); //$NON-NLS-1$
+            }
+            return sb.toString();
+        }
+        return "p" + Integer.toHexString(file.getAbsolutePath().hashCode()) //$NON-NLS-1$
+                + '-' + Long.toHexString(file.lastModified()) + '-' + Long.toHexString(file.length());
+    }
+
+    /**
+     * Reads the GNU build-id note of an ELF file.
+     * @param file
+     * @return the build-id, or null if the file has none
+     * @throws IOException
+     */
+    private static byte[] readBuildId(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.limit() < 0x40 || buffer.get(0) != 0x7f || buffer.get(1) != 'E' || buffer.get(2) != 'L'
+                    || buffer.get(3) != 'F') {
+                return null;
+            }
+            boolean is64 = buffer.get(4) == 2;
+            buffer.order(buffer.get(5) == 2 ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN);
+            long shoff = is64 ? buffer.getLong(0x28) : buffer.getInt(0x20) & 0xFFFFFFFFL;
+            int shentsize = buffer.getShort(is64 ? 0x3A : 0x2E) & 0xFFFF;
+            int shnum = buffer.getShort(is64 ? 0x3C : 0x30) & 0xFFFF;
+            for (int i = 0; i < shnum; i++) {
+                int sh = (int) (shoff + (long) i * shentsize);
+                if (buffer.getInt(sh + 4) != SHT_NOTE) {
+                    continue;
+                }
+                long offset = is64 ? buffer.getLong(sh + 0x18) : buffer.getInt(sh + 0x10) & 0xFFFFFFFFL;
+                long size = is64 ? buffer.getLong(sh + 0x20) : buffer.getInt(sh + 0x14) & 0xFFFFFFFFL;
+                int pos = (int) offset;
+                int end = (int) (offset + size);
+                while (pos + 12 <= end) {
+                    int namesz = buffer.getInt(pos);
+                    int descsz = buffer.getInt(pos + 4);
+                    int type = buffer.getInt(pos + 8);
+                    int name = pos + 12;
+                    int desc = name + ((namesz + 3) & ~3);
+                    if (type == NT_GNU_BUILD_ID && namesz == 4 && buffer.get(name) == 'G'
+                            && buffer.get(name + 1) == 'N' && buffer.get(name + 2) == 'U') {
+                        byte[] ret = new byte[descsz];
+                        for (int j = 0; j < descsz; j++) {
+                            ret[j] = buffer.get(desc + j);
+                        }
+                        return ret;
+                    }
+                    pos = desc + ((descsz + 3) & ~3);
+                }
+            }
+            return null;
+        }
+    }
+
+    private File getFile(String key) {
+        return new File(directory, key + SUFFIX);
+    }
+
+    /**
+     * Maps the cache file of the given key.
+     * @param key
+     * @return the entries of the file, or null if there is no (valid) cache file for this key
+     */
+    public Entries load(String key) {
+        File file = getFile(key);
+        if (!file.isFile()) {
+            return null;
+        }
+        Entries ret;
+        // the mapping stays valid once the channel is closed, and once the file is replaced or deleted
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            ret = new Entries(buffer);
+        } catch (IOException | RuntimeException e) {
+            // corrupted file: forget it.
+            file.delete();
+            return null;
+        }
+        // LRU eviction is based on the modification time of files.
+        file.setLastModified(System.currentTimeMillis());
+        return ret;
+    }
+
+    /**
+     * Saves the given content in the cache file of the given key, and evicts the least recently used files if the
+     * store is too large.
+     * @param key
+     * @param content
+     */
+    public void save(String key, Content content) {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            return;
+        }
+        Map<String, Integer> stringIndexes = new HashMap<>();
+        Set<Long> addressSet = new HashSet<>(content.fileNames.keySet());
+        addressSet.addAll(content.lineNumbers.keySet());
+        long[] addresses = new long[addressSet.size()];
+        int n = 0;
+        for (Long address : addressSet) {
+            addresses[n++] = address;
+        }
+        Arrays.sort(addresses);
+        String[] symbolNames = content.demangledNames.keySet().toArray(new String[0]);
+        Arrays.sort(symbolNames);
+        for (String s : content.fileNames.values()) {
+            intern(s, stringIndexes);
+        }
+        for (String symbolName : symbolNames) {
+            intern(symbolName, stringIndexes);
+            intern(content.demangledNames.get(symbolName), stringIndexes);
+        }
+        byte[][] strings = new byte[stringIndexes.size()][];
+        for (Map.Entry<String, Integer> e : stringIndexes.entrySet()) {
+            strings[e.getValue()] = e.getKey().getBytes(StandardCharsets.UTF_8);
+        }
+        File file = getFile(key);
+        File tmp = null;
+        try {
+            tmp = File.createTempFile(key, TMP_SUFFIX, directory);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(strings.length);
+                int offset = 8 + 4 * strings.length;
+                for (byte[] bytes : strings) {
+                    out.writeInt(offset);
+                    offset += 4 + bytes.length;
+                }
+                for (byte[] bytes : strings) {
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                }
+                out.writeInt(addresses.length);
+                for (long address : addresses) {
+                    out.writeLong(address);
+                    if (!content.fileNames.containsKey(address)) {
+                        out.writeInt(NO_FILE_NAME);
+                    } else {
+                        String s = content.fileNames.get(address);
+                        out.writeInt(s == null ? NULL_FILE_NAME : stringIndexes.get(s));
+                    }
+                    Integer line = content.lineNumbers.get(address);
+                    out.writeInt(line == null ? NO_LINE_NUMBER : line);
+                }
+                out.writeInt(symbolNames.length);
+                for (String symbolName : symbolNames) {
+                    String demangledName = content.demangledNames.get(symbolName);
+                    out.writeInt(stringIndexes.get(symbolName));
+                    out.writeInt(demangledName == null ? NULL_FILE_NAME : stringIndexes.get(demangledName));
+                }
+            }
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            if (tmp != null) {
+                tmp.delete();
+            }
+            Activator.getDefault().getLog().log(Status.warning(e.getMessage(), e));
+            return;
+        }
+        evict();
+    }
+
+    private static void intern(String s, Map<String, Integer> stringIndexes) {
+        if (s != null && !stringIndexes.containsKey(s)) {
+            stringIndexes.put(s, stringIndexes.size());
+        }
+    }
+
+    /**
+     * Deletes the least recently used cache files, until the store size is under {@link #MAX_TOTAL_SIZE}.
+     */
+    private void evict() {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(SUFFIX));
+        if (files == null) {
+            return;
+        }
+        long total = 0;
+        for (File f : files) {
+            total += f.length();
+        }
+        if (total <= MAX_TOTAL_SIZE) {
+            return;
+        }
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (int i = 0; i < files.length && total > MAX_TOTAL_SIZE; i++) {
+            total -= files[i].length();
+            files[i].delete();
+        }
+    }
+
+    /**
+     * Deletes all the cache files.
+     */
+    public void clear() {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(SUFFIX));
+        if (files == null) {
+            return;
+        }
+        for (File f : files) {
+            if (!f.delete()) {
+                IStatus s = Status.warning(f.getAbsolutePath());
+                Activator.getDefault().getLog().log(s);
+            }
+        }
+    }
+}
@@ -16,6 +16,14 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
@@ -24,6 +32,9 @@ import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
 
 public abstract class SystemTapParser extends Job {
+    /** The longest time a real-time parser waits for its source to change, in ms. */
+    protected static final int POLL_INTERVAL = 500;
+
     protected IProgressMonitor monitor;
     protected String sourcePath;
     protected String viewID;
@@ -32,8 +43,9 @@ public abstract class SystemTapParser extends Job {
     protected Object data;
     protected BufferedReader internalData;
     private String secondaryID = ""; //$NON-NLS-1$
+    private volatile WatchService watcher;
 
-    public boolean done;
+    public volatile boolean done;
 
     public SystemTapParser() {
         super("Parsing data"); //$NON-NLS-1$
@@ -83,7 +95,9 @@ public abstract class SystemTapParser extends Job {
 
     /**
      * Implement this method if your parser is to execute in realtime. This method
-     * will be called as part of a while loop in a separate Job. Use the setInternalData
+     * will be called as part of a while loop in a separate Job, and should parse
+     * the data available and return rather than wait for more: the loop calls it
+     * again once the source file changes. Use the setInternalData
      * method to initialize some data object for use in realTimeParsing. The default
      * setInternalMethod method will set internalData to a BufferedReader
      * <br> <br>
@@ -162,6 +176,7 @@ public abstract class SystemTapParser extends Job {
         if (realTime) {
             try {
                 setInternalData();
+                watcher = watchSource();
                 while (!done){
                     returnStatus = realTimeParsing();
                     if (monitor.isCanceled() || returnStatus == Status.CANCEL_STATUS) {
@@ -169,7 +184,7 @@ public abstract class SystemTapParser extends Job {
                         return Status.CANCEL_STATUS;
                     }
 
-                    Thread.sleep(500);
+                    waitForData();
                 }
                 if (!monitor.isCanceled()) returnStatus = realTimeParsing();
                 done = true;
@@ -188,6 +203,8 @@ public abstract class SystemTapParser extends Job {
                         Messages.getString("SystemTapParser.FailedToSetDataMessage")); //$NON-NLS-1$
                 m.schedule();
                 return Status.CANCEL_STATUS;
+            } finally {
+                closeWatcher();
             }
         } else {
             returnStatus = nonRealTimeParsing();
@@ -201,6 +218,94 @@ public abstract class SystemTapParser extends Job {
 
     }
 
+    /**
+     * Watches the directory of the source file, so that the real-time loop
+     * can wake up as soon as the file is written to.
+     *
+     * @return The watch service, or <code>null</code> if the directory cannot
+     * be watched.
+     */
+    private WatchService watchSource() {
+        Path dir = new File(sourcePath).getAbsoluteFile().toPath().getParent();
+        if (dir == null) {
+            return null;
+        }
+        WatchService service = null;
+        try {
+            service = dir.getFileSystem().newWatchService();
+            dir.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+            return service;
+        } catch (IOException | UnsupportedOperationException e) {
+            if (service != null) {
+                try {
+                    service.close();
+                } catch (IOException e1) {
+                    // Do nothing
+                }
+            }
+            return null;
+        }
+    }
+
+    private void closeWatcher() {
+        WatchService service = watcher;
+        watcher = null;
+        if (service != null) {
+            try {
+                service.close();
+            } catch (IOException e) {
+                // Do nothing
+            }
+        }
+    }
+
+    /**
+     * @return The longest time the real-time loop waits for the source file
+     * to change, in ms. {@link #POLL_INTERVAL} by default.
+     */
+    protected long getPollInterval() {
+        return POLL_INTERVAL;
+    }
+
+    /**
+     * Blocks until the source file changes, {@link #getPollInterval()} ms pass
+     * or the parser is cancelled.
+     *
+     * @throws InterruptedException
+     */
+    protected void waitForData() throws InterruptedException {
+        WatchService service = watcher;
+        long interval = getPollInterval();
+        if (service == null) {
+            if (!done) {
+                Thread.sleep(interval);
+            }
+            return;
+        }
+        Path name = new File(sourcePath).toPath().getFileName();
+        long end = System.currentTimeMillis() + interval;
+        try {
+            for (long wait = interval; wait > 0 && !done; wait = end - System.currentTimeMillis()) {
+                WatchKey key = service.poll(wait, TimeUnit.MILLISECONDS);
+                if (key == null) {
+                    return;
+                }
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    changed |= event.kind() == StandardWatchEventKinds.OVERFLOW
+                            || name.equals(event.context());
+                }
+                key.reset();
+                if (changed) {
+                    return;
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            // Cancelled
+        }
+    }
+
     /**
      * For easier JUnit testing only. Allows public access to run method without
      * scheduling an extra job.
@@ -261,7 +366,7 @@ public abstract class SystemTapParser extends Job {
     }
 
     /**
-     * Will terminate the parser at the next opportunity (~once every 0.5s)s
+     * Will terminate the parser at the next opportunity (at most 0.5s later)
      *
      * @param val
      */
@@ -310,6 +415,8 @@ public abstract class SystemTapParser extends Job {
      */
     public void cancelJob() {
         done = true;
+        // Wake up the real-time loop
+        closeWatcher();
     }
 
     public boolean isDone() {
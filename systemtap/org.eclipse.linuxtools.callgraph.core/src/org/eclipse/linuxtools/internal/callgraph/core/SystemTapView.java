@@ -21,6 +21,7 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.eclipse.core.commands.ExecutionException;
 import org.eclipse.core.commands.NotEnabledException;
@@ -62,6 +63,12 @@ public abstract class SystemTapView extends ViewPart {
     protected IMenuManager file;
     private SystemTapParser parser;
 
+    /** The number of updates per second scheduled by {@link #scheduleUpdate()} by default. */
+    public static final int DEFAULT_FRAME_RATE = 10;
+    private int frameRate = DEFAULT_FRAME_RATE;
+    private final AtomicBoolean updatePending = new AtomicBoolean();
+    private volatile long lastUpdate;
+
 
     /**
      * This method will be called from GraphUIJob to load the view
@@ -105,6 +112,31 @@ public abstract class SystemTapView extends ViewPart {
         updater.join();
     }
 
+    /**
+     * Schedules the updateMethod job in a UI Thread and returns immediately.
+     * Requests made while an update is pending are coalesced into it, and
+     * updates are run at most {@link #getFrameRate()} times per second.
+     */
+    public void scheduleUpdate() {
+        if (updatePending.compareAndSet(false, true)) {
+            long delay = lastUpdate + 1000 / frameRate - System.currentTimeMillis();
+            ViewUIUpdater updater = new ViewUIUpdater("SystemTapView.update"); //$NON-NLS-1$
+            updater.schedule(Math.max(0, delay));
+        }
+    }
+
+    public int getFrameRate() {
+        return frameRate;
+    }
+
+    /**
+     * @param frameRate The maximum number of updates per second scheduled by
+     * {@link #scheduleUpdate()}.
+     */
+    public void setFrameRate(int frameRate) {
+        this.frameRate = Math.max(1, frameRate);
+    }
+
     private class ViewUIUpdater extends UIJob {
 
         public ViewUIUpdater(String name) {
@@ -113,6 +145,9 @@ public abstract class SystemTapView extends ViewPart {
 
         @Override
         public IStatus runInUIThread(IProgressMonitor monitor) {
+            // Requests made from now on need another update
+            updatePending.set(false);
+            lastUpdate = System.currentTimeMillis();
             updateMethod();
             return Status.OK_STATUS;
         }
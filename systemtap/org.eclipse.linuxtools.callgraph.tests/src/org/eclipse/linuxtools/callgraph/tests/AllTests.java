@@ -16,6 +16,7 @@ package org.eclipse.linuxtools.callgraph.tests;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 @RunWith(Suite.class)
-@Suite.SuiteClasses({MouseListenerTest.class, StapGraphParserTest.class, SystemTapGraphTest.class, SystemTapGraphViewTest.class })
+@Suite.SuiteClasses({MouseListenerTest.class, StapGraphParserTest.class, SystemTapGraphTest.class, SystemTapGraphViewTest.class,
+        RealTimeParsingTest.class, TreeLayoutTest.class, VisibleNodesTest.class })
 public class AllTests {
 }
@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.linuxtools.callgraph.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.linuxtools.internal.callgraph.core.SystemTapParser;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The real-time loop of {@link SystemTapParser}: the parser waits for its
+ * source file to change much longer than these tests do, so a test only
+ * passes if the loop is woken by the change or by the cancellation.
+ */
+public class RealTimeParsingTest {
+
+    private static final long TIMEOUT = 30;
+
+    /**
+     * Hands the lines read in each round of the loop to the test.
+     */
+    private static class LineParser extends SystemTapParser {
+        private final BlockingQueue<List<String>> rounds = new LinkedBlockingQueue<>();
+
+        public LineParser(String filePath) {
+            super("Test parser", filePath); //$NON-NLS-1$
+        }
+
+        @Override
+        protected void initialize() {
+        }
+
+        @Override
+        public IStatus nonRealTimeParsing() {
+            return Status.OK_STATUS;
+        }
+
+        @Override
+        public IStatus realTimeParsing() {
+            List<String> lines = new ArrayList<>();
+            try {
+                String line;
+                while ((line = internalData.readLine()) != null) {
+                    lines.add(line);
+                }
+            } catch (IOException e) {
+                return Status.CANCEL_STATUS;
+            }
+            rounds.add(lines);
+            return Status.OK_STATUS;
+        }
+
+        @Override
+        protected long getPollInterval() {
+            return TimeUnit.MINUTES.toMillis(10);
+        }
+
+        private void runRealTime() {
+            setRealTime(true);
+            run(new NullProgressMonitor());
+        }
+
+        /**
+         * @return The lines of the next round which read any.
+         */
+        private List<String> nextLines() throws InterruptedException {
+            List<String> lines;
+            do {
+                lines = rounds.poll(TIMEOUT, TimeUnit.SECONDS);
+                assertNotNull(lines);
+            } while (lines.isEmpty());
+            return lines;
+        }
+    }
+
+    private Path dir;
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("callgraph"); //$NON-NLS-1$
+        file = dir.resolve("data.graph"); //$NON-NLS-1$
+        Files.write(file, Arrays.asList("first")); //$NON-NLS-1$
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(dir);
+    }
+
+    @Test
+    public void testFileChangeWakesLoop() throws InterruptedException, IOException {
+        LineParser parser = new LineParser(file.toString());
+        Thread thread = new Thread(parser::runRealTime);
+        thread.start();
+        try {
+            assertEquals(Arrays.asList("first"), parser.nextLines()); //$NON-NLS-1$
+            Files.write(file, "second\nthird\n".getBytes(StandardCharsets.UTF_8), //$NON-NLS-1$
+                    StandardOpenOption.APPEND);
+            assertEquals(Arrays.asList("second", "third"), parser.nextLines()); //$NON-NLS-1$ //$NON-NLS-2$
+        } finally {
+            parser.cancelJob();
+            thread.join(TimeUnit.SECONDS.toMillis(TIMEOUT));
+        }
+        assertFalse(thread.isAlive());
+    }
+
+    @Test
+    public void testCancelWakesLoop() throws InterruptedException {
+        LineParser parser = new LineParser(file.toString());
+        Thread thread = new Thread(parser::runRealTime);
+        thread.start();
+        assertEquals(Arrays.asList("first"), parser.nextLines()); //$NON-NLS-1$
+        parser.cancelJob();
+        thread.join(TimeUnit.SECONDS.toMillis(TIMEOUT));
+        assertFalse(thread.isAlive());
+        assertTrue(parser.isDone());
+    }
+}
@@ -14,12 +14,19 @@ package org.eclipse.linuxtools.callgraph.tests;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
-import java.util.ArrayList;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.util.HashMap;
+import java.util.Map;
 
+import org.eclipse.linuxtools.internal.callgraph.CallBatch;
+import org.eclipse.linuxtools.internal.callgraph.CallTree;
 import org.eclipse.linuxtools.internal.callgraph.StapGraphParser;
 import org.junit.Test;
 
@@ -34,60 +41,61 @@ public class StapGraphParserTest {
     }
 
     public static void assertSanity(StapGraphParser grph){
-        /*if (grph.serialMap.size() == 0 || grph.timeMap.size() == 0
-                || grph.outNeighbours.size() == 0 || grph.countMap.size() == 0
-                || grph.aggregateTimeMap.size() == 0){
-            fail("Parsing Error : One or more data structures were empty.");
-        }*/
+        CallTree calls = grph.callTree;
+        Map<String, Long> aggregateTime = new HashMap<>();
+        Map<String, Integer> aggregateCount = new HashMap<>();
+        calls.aggregate(aggregateTime, aggregateCount);
 
         //SAME NUMBER OF NODES ENTRIES
-        assertEquals(grph.serialMap.size(),grph.timeMap.size());
         int nsize = 0;
-        for (int key : grph.neighbourMaps.keySet())
-            if (grph.neighbourMaps.get(key)!= null)
-                nsize+=grph.neighbourMaps.get(key).size();
-        assertEquals(grph.serialMap.size(),nsize);
+        for (int i = 0; i < calls.size(); i++) {
+            for (int child = calls.getFirstChild(i); child != CallTree.NONE; child = calls.getNextSibling(child)) {
+                assertEquals(i, calls.getParent(child));
+                nsize++;
+            }
+            if (calls.getParent(i) == CallTree.NONE) {
+                nsize++;
+            }
+        }
+        assertEquals(calls.size(), nsize);
         //ALL UNIQUE FUNCTIONS HAVE A TIME
         //ALL FUNCTIONS HAVE A CUMULATIVE TIME
-        for (int val : grph.serialMap.keySet()){
-            String fname = grph.serialMap.get(val);
-            assertNotNull(grph.timeMap.get(val));
-            assertNotNull(grph.aggregateTimeMap.get(fname));
+        for (int i = 0; i < calls.size(); i++) {
+            assertNotNull(calls.getName(i));
+            assertNotNull(aggregateTime.get(calls.getName(i)));
+            assertEquals(i, calls.indexOf(calls.getId(i)));
+        }
+        int count = 0;
+        for (int val : aggregateCount.values()) {
+            count += val;
         }
+        assertTrue(count >= calls.size());
     }
 
 
     public static void assertTimes(StapGraphParser grph){
+        CallTree calls = grph.callTree;
+        Map<String, Long> aggregateTime = new HashMap<>();
+        calls.aggregate(aggregateTime, new HashMap<>());
+
         //NO FUNCTION HAS TIME/CUMULATIVE TIME LARGER THAN TOTAL
-        for (int val : grph.serialMap.keySet()){
-            String fname = grph.serialMap.get(val);
-            assertTrue(grph.totalTime >= grph.timeMap.get(val));
-            assertTrue(grph.totalTime >= grph.aggregateTimeMap.get(fname));
+        for (int i = 0; i < calls.size(); i++) {
+            assertTrue(grph.totalTime >= calls.getDuration(i));
+            assertTrue(grph.totalTime >= aggregateTime.get(calls.getName(i)));
         }
     }
 
 
     public static void assertConnectedness (StapGraphParser grph){
-        boolean hasParent;
+        CallTree calls = grph.callTree;
         //ALL NODES MUST HAVE A PARENT EXCEPT THE ROOT
-        for (int key : grph.serialMap.keySet()){
-            hasParent = false;
-            for (int k:grph.neighbourMaps.keySet()) {
-                HashMap<Integer, ArrayList<Integer>> outNeighbours = grph.neighbourMaps.get(k);
-                if (outNeighbours != null && outNeighbours.size() > 0)
-                for (ArrayList<Integer> list : outNeighbours.values()){
-                    if (list.contains(key)){
-                        hasParent = true;
-                        break;
-                    }
-                }
-
-                if (!hasParent){
-                    for (int other : grph.serialMap.keySet()){
-                        if (key > other){
-                            fail(key + " " + grph.serialMap.get(key) + " had no parent");
-                        }
-                    }
+        for (int i = 0; i < calls.size(); i++) {
+            if (calls.getParent(i) != CallTree.NONE) {
+                continue;
+            }
+            for (int other = 0; other < calls.size(); other++) {
+                if (calls.getId(i) > calls.getId(other)) {
+                    fail(calls.getId(i) + " " + calls.getName(i) + " had no parent");
                 }
             }
         }
@@ -138,4 +146,126 @@ public class StapGraphParserTest {
         executeGraphTests();
     }
 
+    /**
+     * Writes a trace of main calling f the given number of times, with a
+     * marker on main.
+     */
+    private static File writeTrace(int calls) throws IOException {
+        File file = File.createTempFile("calls", ".graph");
+        file.deleteOnExit();
+        try (BufferedWriter out = Files.newBufferedWriter(file.toPath())) {
+            out.write("<main,,1,,1,,1\n");
+            out.write("?1,,marked\n");
+            long time = 2;
+            for (int i = 0; i < calls; i++) {
+                out.write("<f,," + (i + 2) + ",," + time++ + ",,1\n");
+                out.write(">f,," + time++ + ",,1\n");
+            }
+            out.write(">main,," + time + ",,1\n");
+            out.write("-" + time + "\n");
+            out.write("+" + time + "\n");
+        }
+        return file;
+    }
+
+    /**
+     * Checks that batches hold consecutive calls, starting from the given id.
+     *
+     * @return The id of the call after the batch.
+     */
+    private static int assertBatch(CallBatch batch, int firstId) {
+        for (int i = 0; i < batch.size; i++) {
+            assertEquals(firstId + i, batch.ids[i]);
+            assertEquals(firstId + i == 1 ? "main" : "f", batch.names[i]);
+            assertEquals(firstId + i == 1 ? 0 : 1, batch.callers[i]);
+        }
+        return firstId + batch.size;
+    }
+
+    @Test
+    public void testBatches() throws IOException {
+        StapGraphParser grph = initializeGraph(writeTrace(10000).getPath());
+
+        // batches of 4096 calls, and the rest with aggregates
+        CallBatch batch = grph.pollBatch();
+        assertEquals(4096, batch.size);
+        assertNull(batch.aggregateTime);
+        assertTrue(batch.messages.get(1).contains("marked"));
+        int id = assertBatch(batch, 1);
+        batch = grph.pollBatch();
+        assertEquals(4096, batch.size);
+        assertNull(batch.aggregateTime);
+        id = assertBatch(batch, id);
+        batch = grph.pollBatch();
+        assertEquals(10001 - 2 * 4096, batch.size);
+        id = assertBatch(batch, id);
+        assertEquals(10002, id);
+        assertEquals(Integer.valueOf(10000), batch.aggregateCount.get("f"));
+        assertEquals(Integer.valueOf(1), batch.aggregateCount.get("main"));
+        assertNull(grph.pollBatch());
+        assertNull(grph.takeUnpublished());
+    }
+
+    @Test
+    public void testBatchesWithoutView() throws IOException {
+        // more batches than may be queued: a parser without view must not wait
+        int calls = 64 * 4096 + 1000;
+        StapGraphParser grph = initializeGraph(writeTrace(calls).getPath());
+
+        int id = 1;
+        for (int i = 0; i < 64; i++) {
+            CallBatch batch = grph.pollBatch();
+            assertEquals(4096, batch.size);
+            id = assertBatch(batch, id);
+        }
+        assertNull(grph.pollBatch());
+        // the calls which could not be queued are kept for a view
+        CallBatch batch = grph.takeUnpublished();
+        id = assertBatch(batch, id);
+        assertEquals(calls + 2, id);
+        assertEquals(Integer.valueOf(calls), batch.aggregateCount.get("f"));
+        assertNull(grph.takeUnpublished());
+    }
+
+    @Test
+    public void testRunningAggregates() {
+        CallTree calls = new CallTree();
+        int main = calls.add(1, "main", CallTree.NONE, 0);
+        int f = calls.add(2, "f", main, 1);
+        // f calling itself: counted, but its time is part of the outer call
+        int inner = calls.add(3, "f", f, 2);
+        calls.setRecursive(inner);
+        calls.setDuration(inner, 3);
+        calls.setDuration(f, 5);
+        int g = calls.add(4, "g", main, 6);
+        calls.setDuration(g, 2);
+        // the time of a call may be set again, e.g. at the end of the trace
+        calls.setDuration(g, 4);
+        int h = calls.add(5, "h", main, 10);
+        calls.setDuration(main, 11);
+        // h did not return, and stands for several calls of a collapsed graph
+        calls.setCalls(h, 3);
+
+        Map<String, Long> aggregateTime = new HashMap<>();
+        Map<String, Integer> aggregateCount = new HashMap<>();
+        calls.aggregate(aggregateTime, aggregateCount);
+        assertEquals(Long.valueOf(11), aggregateTime.get("main"));
+        assertEquals(Long.valueOf(5), aggregateTime.get("f"));
+        assertEquals(Long.valueOf(4), aggregateTime.get("g"));
+        assertEquals(Long.valueOf(0), aggregateTime.get("h"));
+        assertEquals(Integer.valueOf(1), aggregateCount.get("main"));
+        assertEquals(Integer.valueOf(2), aggregateCount.get("f"));
+        assertEquals(Integer.valueOf(1), aggregateCount.get("g"));
+        assertEquals(Integer.valueOf(3), aggregateCount.get("h"));
+
+        calls.clear();
+        calls.add(1, "g", CallTree.NONE, 0);
+        aggregateTime.clear();
+        aggregateCount.clear();
+        calls.aggregate(aggregateTime, aggregateCount);
+        assertEquals(1, aggregateTime.size());
+        assertEquals(Long.valueOf(0), aggregateTime.get("g"));
+        assertEquals(Integer.valueOf(1), aggregateCount.get("g"));
+    }
+
 }
@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.linuxtools.callgraph.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.linuxtools.internal.callgraph.TreeLayout;
+import org.junit.Test;
+
+/**
+ * Lays out a trace of 1M calls and scrolls a viewport across it, as the tree
+ * view does. Not part of {@link AllTests}: run it on its own to profile the
+ * layout of large traces.
+ */
+public class TreeLayoutBenchmarkTest {
+    private static final int CALLERS = 1000;
+    private static final int CALLS = 1000;
+    private static final int VIEWPORT = 1000;
+    private static final long TIMEOUT = 120000; // ms
+
+    @Test(timeout = TIMEOUT)
+    public void testScroll() {
+        TreeLayout layout = TreeLayoutTest.layOut(new TreeLayoutTest.Trace(CALLERS, CALLS), false);
+        assertEquals(3, layout.getRowCount());
+        assertEquals(CALLERS * (CALLS - 1), layout.getSize(2));
+
+        for (long x = 0; x < layout.getWidth(); x += VIEWPORT / 2) {
+            int nodes = 0;
+            for (int row = 0; row < layout.getRowCount(); row++) {
+                int size = layout.getSize(row);
+                int from = layout.indexAt(row, x);
+                int to = Math.min(size, layout.indexAt(row, x + VIEWPORT) + 1);
+                nodes += to - from;
+                // The summary nodes on either side stand for the other calls
+                assertEquals(layout.getCalls(row, 0, size), layout.getCalls(row, 0, from)
+                        + layout.getCalls(row, from, to) + layout.getCalls(row, to, size));
+            }
+            // No more nodes than fit in the viewport, whatever the size of
+            // the trace
+            assertTrue(nodes <= 3 * (VIEWPORT / 100 + 1));
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testExpand() {
+        TreeLayout layout = new TreeLayout(new TreeLayoutTest.Trace(CALLERS, CALLS), 16, false);
+        layout.setRoots(new int[] {0}, 1);
+        layout.addRow();
+        long width = layout.getWidth();
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(layout.addRow());
+            layout.removeRow();
+        }
+        assertEquals(2, layout.getRowCount());
+        assertEquals(width, layout.getWidth());
+        assertEquals(CALLERS * CALLS, layout.getTime(1, 0, CALLERS));
+    }
+}
@@ -0,0 +1,205 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.linuxtools.callgraph.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.linuxtools.internal.callgraph.TreeLayout;
+import org.junit.Test;
+
+/**
+ * Lays out a trace one row per level and scrolls a viewport across it, as the
+ * tree and level drawings do.
+ */
+public class TreeLayoutTest {
+    private static final int CALLERS = 100;
+    private static final int CALLS = 50;
+    private static final int SPACING = 16;
+    private static final int VIEWPORT = 1000;
+
+    /**
+     * main calls 100 functions which call 49 functions each, or the given
+     * numbers of functions.
+     */
+    static class Trace implements TreeLayout.Model {
+        private final List<List<Integer>> children = new ArrayList<>();
+        private final int calls;
+        final int size;
+
+        Trace() {
+            this(CALLERS, CALLS);
+        }
+
+        Trace(int callerCount, int calls) {
+            this.calls = calls;
+            List<Integer> callers = new ArrayList<>();
+            children.add(callers);
+            int id = 1;
+            for (int i = 0; i < callerCount; i++) {
+                callers.add(id++);
+            }
+            for (int i = 0; i < callerCount; i++) {
+                List<Integer> callees = new ArrayList<>();
+                for (int j = 1; j < calls; j++) {
+                    callees.add(id++);
+                }
+                children.add(callees);
+            }
+            size = id;
+        }
+
+        @Override
+        public List<Integer> getChildren(int id) {
+            return id < children.size() ? children.get(id) : Collections.emptyList();
+        }
+
+        @Override
+        public int getWidth(int id) {
+            return 100 + id % 50;
+        }
+
+        @Override
+        public long getTime(int id) {
+            return id < children.size() ? calls : 1;
+        }
+
+        @Override
+        public int getCalls(int id) {
+            return 1 + id % 3;
+        }
+    }
+
+    static TreeLayout layOut(Trace trace, boolean spread) {
+        TreeLayout layout = new TreeLayout(trace, spread ? 0 : SPACING, spread);
+        layout.setRoots(new int[] {0}, 1);
+        while (layout.addRow()) {
+            // Lay out every level
+        }
+        return layout;
+    }
+
+    @Test
+    public void testRows() {
+        Trace trace = new Trace();
+        TreeLayout layout = layOut(trace, false);
+        assertEquals(3, layout.getRowCount());
+        assertEquals(1, layout.getSize(0));
+        assertEquals(CALLERS, layout.getSize(1));
+        assertEquals(CALLERS * (CALLS - 1), layout.getSize(2));
+
+        // The calls of each row in order, with the calls made by each call
+        // followed by a blank space
+        long width = 0;
+        long calls = 0;
+        int row = 2;
+        for (int i = 0; i < layout.getSize(row); i++) {
+            int id = CALLERS + 1 + i;
+            assertEquals(id, layout.getId(row, i));
+            assertEquals(width, layout.getX(row, i));
+            width += trace.getWidth(id);
+            if ((i + 1) % (CALLS - 1) == 0) {
+                width += SPACING;
+            }
+            calls += trace.getCalls(id);
+        }
+        assertEquals(width, layout.getWidth(row));
+        assertEquals(width, layout.getWidth());
+        assertEquals(trace.size - 1 - CALLERS, layout.getTime(row, 0, layout.getSize(row)));
+        assertEquals(calls, layout.getCalls(row, 0, layout.getSize(row)));
+        assertEquals(CALLERS * CALLS, layout.getTime(1, 0, CALLERS));
+    }
+
+    @Test
+    public void testViewport() {
+        TreeLayout layout = layOut(new Trace(), false);
+        int steps = 0;
+        for (long x = 0; x < layout.getWidth(); x += VIEWPORT / 2) {
+            for (int row = 0; row < layout.getRowCount(); row++) {
+                int size = layout.getSize(row);
+                int from = layout.indexAt(row, x);
+                int to = Math.min(size, layout.indexAt(row, x + VIEWPORT) + 1);
+
+                // Exactly the nodes that overlap the viewport
+                if (from > 0) {
+                    assertTrue(layout.getX(row, from) <= x);
+                }
+                if (from < size) {
+                    assertTrue(layout.getX(row, from + 1) > x);
+                }
+                if (to > from) {
+                    assertTrue(layout.getX(row, to - 1) <= x + VIEWPORT);
+                }
+                if (to < size) {
+                    assertTrue(layout.getX(row, to) > x + VIEWPORT);
+                }
+                // No more nodes than fit in the viewport, whatever the size
+                // of the row
+                assertTrue(to - from <= VIEWPORT / 100 + 1);
+
+                // The summary nodes on either side stand for the other calls
+                assertEquals(layout.getCalls(row, 0, size), layout.getCalls(row, 0, from)
+                        + layout.getCalls(row, from, to) + layout.getCalls(row, to, size));
+                assertEquals(layout.getTime(row, 0, size), layout.getTime(row, 0, from)
+                        + layout.getTime(row, from, to) + layout.getTime(row, to, size));
+            }
+            steps++;
+        }
+        assertEquals((layout.getWidth() + VIEWPORT / 2 - 1) / (VIEWPORT / 2), steps);
+        assertEquals(layout.getSize(2), layout.indexAt(2, layout.getWidth()));
+    }
+
+    @Test
+    public void testSpread() {
+        TreeLayout layout = layOut(new Trace(), true);
+        for (int row = 0; row < layout.getRowCount(); row++) {
+            assertEquals(layout.getWidth(), layout.getWidth(row));
+            for (int i = 0; i < layout.getSize(row); i++) {
+                assertTrue(layout.getX(row, i) < layout.getX(row, i + 1));
+                assertEquals(i, layout.indexAt(row, layout.getX(row, i)));
+            }
+            assertEquals(layout.getWidth(), layout.getX(row, layout.getSize(row)));
+        }
+    }
+
+    @Test
+    public void testExpand() {
+        TreeLayout layout = new TreeLayout(new Trace(), SPACING, false);
+        layout.setRoots(new int[] {0}, 1);
+        layout.addRow();
+        long width = layout.getWidth();
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(layout.addRow());
+            assertTrue(layout.getWidth() > width);
+            layout.removeRow();
+        }
+        assertEquals(2, layout.getRowCount());
+        assertEquals(width, layout.getWidth());
+        assertEquals(CALLERS * CALLS, layout.getTime(1, 0, CALLERS));
+
+        layout.removeRow();
+        layout.removeRow();
+        // The first row is never removed
+        assertEquals(1, layout.getRowCount());
+        assertTrue(layout.addRow());
+        assertTrue(layout.addRow());
+        assertFalse(layout.addRow());
+        assertEquals(3, layout.getRowCount());
+    }
+}
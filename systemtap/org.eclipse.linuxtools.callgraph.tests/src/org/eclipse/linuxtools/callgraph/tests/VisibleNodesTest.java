@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.linuxtools.callgraph.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.linuxtools.internal.callgraph.CallGraphConstants;
+import org.eclipse.linuxtools.internal.callgraph.CallgraphView;
+import org.eclipse.linuxtools.internal.callgraph.StapGraph;
+import org.eclipse.linuxtools.internal.callgraph.StapGraphParser;
+import org.eclipse.linuxtools.internal.callgraph.StapNode;
+import org.eclipse.linuxtools.internal.callgraph.core.StapUIJob;
+import org.eclipse.linuxtools.internal.callgraph.core.ViewFactory;
+import org.eclipse.zest.core.widgets.GraphNode;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The tree drawing of a call with many callees: only the callees around the
+ * viewport get a node, and the others are summed up by summary nodes.
+ */
+public class VisibleNodesTest {
+    private static final int CALLS = 1000;
+
+    private Path dir;
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("callgraph"); //$NON-NLS-1$
+        file = dir.resolve("wide.graph"); //$NON-NLS-1$
+        long time = 1257346369862712856L;
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file))) {
+            out.println("PROBE_BEGIN"); //$NON-NLS-1$
+            out.println("<main,,1,," + time + ",,1"); //$NON-NLS-1$ //$NON-NLS-2$
+            for (int i = 0; i < CALLS; i++) {
+                out.println("<f" + i + ",,"  + (i + 2) + ",," + (time += 10) + ",,1"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+                out.println(">f" + i + ",," + (time += 10) + ",,1"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            }
+            out.println(">main,," + (time += 10) + ",,1"); //$NON-NLS-1$ //$NON-NLS-2$
+            out.println("-" + time); //$NON-NLS-1$
+            out.println("+" + (20 * CALLS + 10)); //$NON-NLS-1$
+        }
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(dir);
+    }
+
+    private static long getSummarizedCalls(GraphNode summary) {
+        String[] lines = summary.getText().split("\n"); //$NON-NLS-1$
+        return Long.parseLong(lines[lines.length - 1]);
+    }
+
+    /**
+     * @return The lowest id of the callees that have a node
+     */
+    private static int checkNodes(StapGraph g, int main) {
+        int calleeLevel = g.getLevelOfNode(main) + 1;
+        int callees = 0;
+        int first = Integer.MAX_VALUE;
+        for (StapNode n : g.nodeMap.values()) {
+            if (g.getLevelOfNode(n.id) == calleeLevel) {
+                callees++;
+                first = Math.min(first, n.id);
+            }
+        }
+        // Far fewer nodes than calls
+        assertTrue(callees < CALLS / 2);
+
+        // The summary nodes stand for the other calls, one on either side
+        assertTrue(g.getSummaryNodes().size() <= 2);
+        long summarized = 0;
+        for (GraphNode summary : g.getSummaryNodes()) {
+            summarized += getSummarizedCalls(summary);
+        }
+        assertEquals(CALLS, callees + summarized);
+        return first;
+    }
+
+    @Test
+    public void testSummaryNodes() {
+        StapGraphParser parse = new StapGraphParser();
+        parse.setSourcePath(file.toString());
+        assertEquals(Status.OK_STATUS, parse.testRun(new NullProgressMonitor(), true));
+
+        CallgraphView cView = (CallgraphView) ViewFactory.createView(CallGraphConstants.VIEW_ID);
+        StapUIJob j = new StapUIJob("Test Graph UI Job", parse, CallGraphConstants.VIEW_ID); //$NON-NLS-1$
+        j.runInUIThread(new NullProgressMonitor());
+
+        StapGraph g = cView.getGraph();
+        int main = g.getFirstUsefulNode();
+        assertEquals("main", g.getNodeData(main).name); //$NON-NLS-1$
+        // Draw the callees, however many they are
+        g.setMaxNodes(2 * CALLS);
+        g.setLevelBuffer(10);
+        g.draw(StapGraph.CONSTANT_DRAWMODE_TREE, StapGraph.CONSTANT_ANIMATION_FASTEST, main);
+        assertEquals(CALLS, g.getNodeData(main).children.size());
+        assertTrue(g.getSummaryNodes().size() > 0);
+        int first = checkNodes(g, main);
+
+        // Scroll right a few screens, as clicking the right summary node does
+        for (int i = 0; i < 3; i++) {
+            GraphNode right = null;
+            for (GraphNode summary : g.getSummaryNodes()) {
+                if (right == null || summary.getLocation().x > right.getLocation().x) {
+                    right = summary;
+                }
+            }
+            g.showSummarizedNodes(right);
+            checkNodes(g, main);
+        }
+        assertTrue(checkNodes(g, main) > first);
+
+        // Other modes have no summary nodes
+        g.draw(StapGraph.CONSTANT_DRAWMODE_AGGREGATE, StapGraph.CONSTANT_ANIMATION_FASTEST, main);
+        assertEquals(0, g.getSummaryNodes().size());
+    }
+}
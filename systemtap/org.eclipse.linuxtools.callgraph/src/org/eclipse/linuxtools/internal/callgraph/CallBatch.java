@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.linuxtools.internal.callgraph;
+
+import java.util.Map;
+
+/**
+ * Calls parsed by a {@link StapGraphParser} since its previous batch, copied
+ * out of its {@link CallTree} so that the view can load them in the UI thread
+ * while the parser goes on.
+ */
+public class CallBatch {
+    public final int size;
+    public final int[] ids;
+    public final String[] names;
+    public final long[] times;
+    public final int[] calls;
+    public final int[] callers;
+
+    /** Marker messages, by call id, of these calls or of earlier ones. */
+    public final Map<Integer, String> messages;
+    public final boolean threaded;
+
+    /** The time spent in each function so far, or <code>null</code>. */
+    public Map<String, Long> aggregateTime;
+    /** The number of calls of each function so far, or <code>null</code>. */
+    public Map<String, Integer> aggregateCount;
+
+    /**
+     * Copies calls out of a tree.
+     *
+     * @param tree The calls.
+     * @param start The index of the first call to copy.
+     * @param now The time of the last event, which calls that did not return
+     * yet are timed until.
+     * @param messages The marker messages to hand over.
+     * @param threaded Whether calls were made from more than one thread.
+     */
+    CallBatch(CallTree tree, int start, long now, Map<Integer, String> messages, boolean threaded) {
+        size = tree.size() - start;
+        ids = new int[size];
+        names = new String[size];
+        times = new long[size];
+        calls = new int[size];
+        callers = new int[size];
+        for (int i = 0; i < size; i++) {
+            int index = start + i;
+            ids[i] = tree.getId(index);
+            names[i] = tree.getName(index);
+            long time = tree.getDuration(index);
+            times[i] = time == CallTree.NONE ? now - tree.getStart(index) : time;
+            calls[i] = tree.getCalls(index);
+            int parent = tree.getParent(index);
+            callers[i] = parent == CallTree.NONE ? 0 : tree.getId(parent);
+        }
+        this.messages = messages;
+        this.threaded = threaded;
+    }
+}
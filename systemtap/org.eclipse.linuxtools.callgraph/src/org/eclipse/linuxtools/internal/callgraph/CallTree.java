@@ -0,0 +1,283 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.linuxtools.internal.callgraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The calls of a call graph, in the order they were made. Each call is
+ * identified by its index in the tree and its fields are kept in parallel
+ * arrays, so that a trace of millions of calls takes a few dozen bytes per
+ * call rather than a handful of boxed map entries. Function names are kept
+ * once each in a string table.
+ */
+public class CallTree {
+    /** Index of a missing call, such as the parent of a root. */
+    public static final int NONE = -1;
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private int size;
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private int[] parents = new int[INITIAL_CAPACITY];
+    private int[] firstChildren = new int[INITIAL_CAPACITY];
+    private int[] lastChildren = new int[INITIAL_CAPACITY];
+    private int[] nextSiblings = new int[INITIAL_CAPACITY];
+    private int[] functions = new int[INITIAL_CAPACITY];
+    private int[] calls = new int[INITIAL_CAPACITY];
+    private long[] starts = new long[INITIAL_CAPACITY];
+    private long[] durations = new long[INITIAL_CAPACITY];
+    private final BitSet recursive = new BitSet();
+
+    private final List<String> functionNames = new ArrayList<>();
+    private final Map<String, Integer> functionIds = new HashMap<>();
+    // Running aggregates of each function, see aggregate()
+    private long[] functionTimes = new long[INITIAL_CAPACITY];
+    private int[] functionCounts = new int[INITIAL_CAPACITY];
+
+    // Open addressing table of call ids to indices, holding index + 1
+    private int[] idKeys = new int[2 * INITIAL_CAPACITY];
+    private int[] idSlots = new int[2 * INITIAL_CAPACITY];
+
+    /**
+     * Adds a call as the last child of its parent.
+     *
+     * @param id The id of the call in the trace.
+     * @param name The name of the function called.
+     * @param parent The index of the calling call, or {@link #NONE}.
+     * @param start The time the call was made at.
+     * @return The index of the call.
+     */
+    public int add(int id, String name, int parent, long start) {
+        if (size == ids.length) {
+            grow();
+        }
+        int index = size;
+        ids[index] = id;
+        parents[index] = NONE;
+        firstChildren[index] = NONE;
+        lastChildren[index] = NONE;
+        nextSiblings[index] = NONE;
+        int function = getFunction(name);
+        functions[index] = function;
+        calls[index] = 1;
+        functionCounts[function]++;
+        starts[index] = start;
+        durations[index] = NONE;
+        putIndex(id, index);
+        size = index + 1;
+        setParent(index, parent);
+        return index;
+    }
+
+    /**
+     * Makes a call without a parent the last child of a parent.
+     *
+     * @param index The index of the call.
+     * @param parent The index of the calling call, or {@link #NONE}.
+     */
+    public void setParent(int index, int parent) {
+        if (parent == NONE || parents[index] != NONE) {
+            return;
+        }
+        parents[index] = parent;
+        if (lastChildren[parent] == NONE) {
+            firstChildren[parent] = index;
+        } else {
+            nextSiblings[lastChildren[parent]] = index;
+        }
+        lastChildren[parent] = index;
+    }
+
+    private void grow() {
+        int capacity = ids.length + (ids.length >> 1);
+        ids = Arrays.copyOf(ids, capacity);
+        parents = Arrays.copyOf(parents, capacity);
+        firstChildren = Arrays.copyOf(firstChildren, capacity);
+        lastChildren = Arrays.copyOf(lastChildren, capacity);
+        nextSiblings = Arrays.copyOf(nextSiblings, capacity);
+        functions = Arrays.copyOf(functions, capacity);
+        calls = Arrays.copyOf(calls, capacity);
+        starts = Arrays.copyOf(starts, capacity);
+        durations = Arrays.copyOf(durations, capacity);
+
+        int[] keys = idKeys;
+        int[] slots = idSlots;
+        idKeys = new int[Integer.highestOneBit(capacity) << 2];
+        idSlots = new int[idKeys.length];
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] != 0) {
+                putIndex(keys[i], slots[i] - 1);
+            }
+        }
+    }
+
+    private int getFunction(String name) {
+        Integer function = functionIds.get(name);
+        if (function == null) {
+            function = functionNames.size();
+            functionNames.add(name);
+            functionIds.put(name, function);
+            if (function == functionTimes.length) {
+                functionTimes = Arrays.copyOf(functionTimes, function + (function >> 1));
+                functionCounts = Arrays.copyOf(functionCounts, functionTimes.length);
+            }
+            functionTimes[function] = 0;
+            functionCounts[function] = 0;
+        }
+        return function;
+    }
+
+    private int slotOf(int id) {
+        int mask = idKeys.length - 1;
+        int hash = id * 0x9E3779B9;
+        int slot = (hash ^ hash >>> 16) & mask;
+        while (idSlots[slot] != 0 && idKeys[slot] != id) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void putIndex(int id, int index) {
+        int slot = slotOf(id);
+        idKeys[slot] = id;
+        idSlots[slot] = index + 1;
+    }
+
+    /**
+     * @param id The id of a call in the trace.
+     * @return The index of the last call with this id, or {@link #NONE}.
+     */
+    public int indexOf(int id) {
+        return idSlots[slotOf(id)] - 1;
+    }
+
+    /**
+     * Removes all the calls.
+     */
+    public void clear() {
+        size = 0;
+        recursive.clear();
+        functionNames.clear();
+        functionIds.clear();
+        Arrays.fill(idSlots, 0);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getId(int index) {
+        return ids[index];
+    }
+
+    public int getParent(int index) {
+        return parents[index];
+    }
+
+    public int getFirstChild(int index) {
+        return firstChildren[index];
+    }
+
+    public int getNextSibling(int index) {
+        return nextSiblings[index];
+    }
+
+    /**
+     * @return The index of the function called in the string table.
+     */
+    public int getFunction(int index) {
+        return functions[index];
+    }
+
+    public String getName(int index) {
+        return functionNames.get(functions[index]);
+    }
+
+    public int getFunctionCount() {
+        return functionNames.size();
+    }
+
+    public String getFunctionName(int function) {
+        return functionNames.get(function);
+    }
+
+    public long getStart(int index) {
+        return starts[index];
+    }
+
+    /**
+     * @return The time spent in the call, or {@link #NONE} if it did not return.
+     */
+    public long getDuration(int index) {
+        return durations[index];
+    }
+
+    public void setDuration(int index, long duration) {
+        if (!recursive.get(index)) {
+            functionTimes[functions[index]] += Math.max(duration, 0) - Math.max(durations[index], 0);
+        }
+        durations[index] = duration;
+    }
+
+    /**
+     * @return The number of calls this call stands for, more than one for the
+     * calls of a collapsed graph.
+     */
+    public int getCalls(int index) {
+        return calls[index];
+    }
+
+    public void setCalls(int index, int count) {
+        functionCounts[functions[index]] += count - calls[index];
+        calls[index] = count;
+    }
+
+    /**
+     * @return <code>true</code> if the call was made from within another call
+     * of the same function, so that its time is already part of that call.
+     */
+    public boolean isRecursive(int index) {
+        return recursive.get(index);
+    }
+
+    public void setRecursive(int index) {
+        if (!recursive.get(index)) {
+            functionTimes[functions[index]] -= Math.max(durations[index], 0);
+            recursive.set(index);
+        }
+    }
+
+    /**
+     * Gives the number of calls of each function and the time spent in them.
+     * Recursive calls are counted but their time is not, and neither is the
+     * time of calls that did not return. The aggregates are kept up to date
+     * as calls are added, so this takes a step per function rather than per
+     * call.
+     *
+     * @param time Filled with the time spent in each function.
+     * @param count Filled with the number of calls of each function.
+     */
+    public void aggregate(Map<String, Long> time, Map<String, Integer> count) {
+        for (int function = 0; function < functionNames.size(); function++) {
+            String name = functionNames.get(function);
+            time.put(name, functionTimes[function]);
+            count.put(name, functionCounts[function]);
+        }
+    }
+}
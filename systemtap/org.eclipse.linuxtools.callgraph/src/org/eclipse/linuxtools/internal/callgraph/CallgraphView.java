@@ -17,8 +17,7 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -89,6 +88,8 @@ public class CallgraphView extends SystemTapView {
     private Composite treeComp;
 
     private StapGraph g;
+    private CallBatch batch;
+    private int loadedCalls;
     private static final int TREE_SIZE = 200;
 
     /**
@@ -163,16 +164,20 @@ public class CallgraphView extends SystemTapView {
         thumb.setSource(g.getContents());
         lws.setContents(thumb);
 
-        loadData(monitor);
+        batch = null;
+        loadedCalls = 0;
+        loadData(monitor, true);
         return finishLoad(monitor);
     }
 
     /**
      * Load data.
      * @param mon -- Progress monitor.
+     * @param attach -- Whether the view is being attached to its parser: the
+     * calls the parser kept while it had no view are loaded too.
      * @return
      */
-    private IStatus loadData(IProgressMonitor mon) {
+    private IStatus loadData(IProgressMonitor mon, boolean attach) {
         IProgressMonitor monitor = mon;
         //Dummy node, set start time
         if (g.getNodeData(0) == null) {
@@ -184,87 +189,50 @@ public class CallgraphView extends SystemTapView {
 
 
         /*
-         * Load graph data
+         * Load the calls parsed since the last update, in the order they
+         * were made so that callers are loaded before their callees
          */
-        for (int id_parent : parser.serialMap.keySet()) {
-            if (id_parent < 0) {
-                continue;
-            }
-            boolean marked = false;
-            String msg = ""; //$NON-NLS-1$
-            if (g.getNodeData(id_parent) == null) {
-                if (parser.markedMap.get(id_parent) != null) {
-                    marked = true;
-                    msg = parser.markedMap.remove(id_parent);
-                }
-                g.loadData(SWT.NONE, id_parent, parser.serialMap.get(id_parent), parser.timeMap.get(id_parent),
-                        1, 0, marked, msg);
-            }
-
-            for (int key :parser.neighbourMaps.keySet()) {
-                HashMap<Integer, ArrayList<Integer>> outNeighbours = parser.neighbourMaps.get(key);
-                if (outNeighbours == null || outNeighbours.get(id_parent) == null) {
+        if (batch == null) {
+            batch = nextBatch(attach);
+        }
+        for (; batch != null; batch = nextBatch(attach), loadedCalls = 0) {
+            for (; loadedCalls < batch.size; loadedCalls++) {
+                int id = batch.ids[loadedCalls];
+                if (id == -1 || g.getNodeData(id) != null) {
                     continue;
                 }
-                for (int id_child : outNeighbours.get(id_parent)) {
-                    if (g.getNodeData(id_child) != null && id_child < 0) {
-                        //Assume this is an additional call of the same node
-                        //Should only happen in dot-files!!
-                        g.addCalled(id_child);
-                        continue;
-                    } else if (g.getNodeData(id_child) != null) {
-                        continue;
-                    }
-                    if (monitor.isCanceled()) {
-                        return Status.CANCEL_STATUS;
-                    }
+                if (monitor.isCanceled()) {
+                    return Status.CANCEL_STATUS;
+                }
 
-                    marked = false;
+                boolean marked = false;
+                String msg = batch.messages.remove(id);
+                if (msg != null) {
+                    marked = true;
+                } else {
                     msg = ""; //$NON-NLS-1$
-                    if (parser.markedMap.get(id_child) != null) {
-                        marked = true;
-                        msg = parser.markedMap.remove(id_child);
-                    }
-                    if (id_child != -1) {
-                        if (parser.timeMap.get(id_child) == null){
-                            g.loadData(SWT.NONE, id_child, parser.serialMap
-                                    .get(id_child), parser.timeMap.get(0),
-                                    1, id_parent, marked,msg);
-                        }else{
-                            g.loadData(SWT.NONE, id_child, parser.serialMap
-                                    .get(id_child), parser.timeMap.get(id_child),
-                                    1, id_parent, marked,msg);
-                        }
-                    }
                 }
+                g.loadData(SWT.NONE, id, batch.names[loadedCalls], batch.times[loadedCalls],
+                        batch.calls[loadedCalls], batch.callers[loadedCalls], marked, msg);
             }
 
-            if (parser.neighbourMaps.size() > 1) {
+            g.addCalls(batch.ids, batch.size);
+            if (batch.threaded) {
                 g.setThreaded();
             }
-        }
 
-        monitor.worked(1);
-        if (parser.markedMap.size() > 0) {
-            //Still some markers left
-            for (int key : parser.markedMap.keySet()) {
-                g.insertMessage(key, parser.markedMap.get(key));
+            //Markers of calls loaded earlier
+            for (Map.Entry<Integer, String> entry : batch.messages.entrySet()) {
+                g.insertMessage(entry.getKey(), entry.getValue());
             }
 
-            //Erase the remaining nodes, just in case
-            parser.markedMap.clear();
-        }
-
-
-        if (g.aggregateTime == null) {
-            g.aggregateTime = new HashMap<>();
-        }
-        if (g.aggregateCount == null) {
-            g.aggregateCount = new HashMap<>();
+            if (batch.aggregateTime != null) {
+                g.aggregateTime.putAll(batch.aggregateTime);
+                g.aggregateCount.putAll(batch.aggregateCount);
+            }
         }
 
-        g.aggregateCount.putAll(parser.countMap);
-        g.aggregateTime.putAll(parser.aggregateTimeMap);
+        monitor.worked(1);
         //TODO: Do not set to 0.
         g.setLastFunctionCalled(0);
 
@@ -280,25 +248,22 @@ public class CallgraphView extends SystemTapView {
         return Status.OK_STATUS;
     }
 
+    private CallBatch nextBatch(boolean attach) {
+        CallBatch next = parser.pollBatch();
+        if (next == null && attach) {
+            next = parser.takeUnpublished();
+        }
+        return next;
+    }
+
     /**
-     * Completes the loading process by calculating aggregate data.
+     * Completes the loading process by setting the total time.
      *
      * @param monitor
      * @return
      */
     private IStatus finishLoad(IProgressMonitor monitor) {
 
-        if (g.aggregateCount == null) {
-            g.aggregateCount = new HashMap<>();
-        }
-
-        g.aggregateCount.putAll(parser.countMap);
-
-        if (g.aggregateTime == null) {
-            g.aggregateTime = new HashMap<>();
-        }
-        g.aggregateTime.putAll(parser.aggregateTimeMap);
-
         //Set total time
         if (parser.totalTime != -1) {
             g.setTotalTime(parser.totalTime);
@@ -315,7 +280,7 @@ public class CallgraphView extends SystemTapView {
         if (monitor.isCanceled()) {
             return Status.CANCEL_STATUS;
         }
-        g.setCallOrderList(parser.callOrderList);
+
         g.setProject(parser.project);
 
 
@@ -958,7 +923,7 @@ public class CallgraphView extends SystemTapView {
         IProgressMonitor m = new NullProgressMonitor();
         m.beginTask("Updating callgraph", 4); //$NON-NLS-1$
 
-        loadData(m);
+        loadData(m, false);
         m.worked(1);
         if (parser.totalTime > 0) {
             finishLoad(m);
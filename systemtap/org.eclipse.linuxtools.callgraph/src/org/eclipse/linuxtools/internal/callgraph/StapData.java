@@ -25,6 +25,7 @@ public class StapData {
     public int id;
     public int timesCalled, parent, style;
     public int levelOfRecursion;
+    public int callIndex;    //position in the order of calls, or -1
     public int collapsedParent, uncollapsedPiece, partOfCollapsedNode;
     private long time;    //execution time of this node
     public String markedMessage;    //alt text for this node
@@ -63,6 +64,7 @@ public class StapData {
         this.levelOfRecursion = 0;
         this.marked = isMarked;
         this.uncollapsedPiece = -1;
+        this.callIndex = -1;
 
 
         //Add this data to the caller's list of IDs
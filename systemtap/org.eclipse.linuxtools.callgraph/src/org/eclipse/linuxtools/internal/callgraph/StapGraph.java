@@ -14,8 +14,11 @@ package org.eclipse.linuxtools.internal.callgraph;
 
 import java.text.NumberFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -26,6 +29,8 @@ import org.eclipse.cdt.core.model.ICProject;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.draw2d.Animation;
 import org.eclipse.draw2d.Label;
+import org.eclipse.draw2d.Viewport;
+import org.eclipse.draw2d.geometry.Point;
 import org.eclipse.jface.viewers.IDoubleClickListener;
 import org.eclipse.jface.viewers.StructuredSelection;
 import org.eclipse.jface.viewers.TreeViewer;
@@ -38,7 +43,9 @@ import org.eclipse.linuxtools.internal.callgraph.treeviewer.StapTreeDoubleClickL
 import org.eclipse.linuxtools.internal.callgraph.treeviewer.StapTreeLabelProvider;
 import org.eclipse.linuxtools.internal.callgraph.treeviewer.StapTreeListener;
 import org.eclipse.swt.SWT;
+import org.eclipse.swt.events.ControlListener;
 import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.Rectangle;
 import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.widgets.Canvas;
 import org.eclipse.swt.widgets.Composite;
@@ -70,6 +77,10 @@ public class StapGraph extends Graph {
             Display.getCurrent(), 200, 250, 200);
     public static final Color CONSTANT_MARKED = new Color(Display.getCurrent(),
             210, 112, 214);
+    public static final Color CONSTANT_SUMMARY = new Color(
+            Display.getCurrent(), 220, 220, 220);
+    private static final int CONSTANT_CHARACTER_WIDTH = 8;
+    private static final String SUMMARY_DIRECTION = "SUMMARY_DIRECTION"; //$NON-NLS-1$
     private int ANIMATION_TIME = 500;
     // Draw level management
     private int topLevelToDraw;
@@ -90,6 +101,7 @@ public class StapGraph extends Graph {
     // uncollapsed
 
     public List<GraphNode> aggregateNodes;
+    private List<GraphNode> summaryNodes;
     public Map<String, Long> aggregateTime;
     public Map<String, Integer> aggregateCount;
     private Map<Integer, Integer> collapsedLevelSize;
@@ -125,13 +137,25 @@ public class StapGraph extends Graph {
     // Zooming factor
     public double scale;
 
-    private List<Integer> callOrderList;
+    // Positions of the tree and level drawings, whose nodes are only created
+    // inside the viewport
+    private TreeLayout layout;
+    private int layoutMode;
+    private int layoutRoot; // Root node in tree mode, top level in level mode
+    private boolean layoutCollapsed;
+    private int layoutX;
+    private int layoutY;
+    private int rowHeight;
+    private Rectangle nodeArea; // Area the nodes were created for
+    private boolean showingNodes;
+
+    private int[] callOrder; // ids of the calls in the order they were made
+    private int callCount;
     private int lastFunctionCalled;
     private int treeLevelFromRoot;
     private Canvas thumbCanvas;
     private ICProject project;
     private boolean threaded;
-    private int counter; // All purpose counting variable
 
     public StapGraphMouseListener getMouseListener() {
         return mListener;
@@ -152,10 +176,12 @@ public class StapGraph extends Graph {
         nodeDataMap = new HashMap<>();
         aggregateTime = new HashMap<>();
         aggregateCount = new HashMap<>();
+        summaryNodes = new ArrayList<>();
         currentPositionInLevel = new HashMap<>();
         collapsedLevelSize = new HashMap<>();
         markedNodes = new ArrayList<>();
         markedCollapsedNodes = new ArrayList<>();
+        callOrder = new int[64];
         animation_mode = 1;
         idOfLastNode = 0;
         rootVisibleNodeNumber = 0;
@@ -182,7 +208,10 @@ public class StapGraph extends Graph {
         this.addMouseListener(mListener);
         this.addKeyListener(new StapGraphKeyListener(this));
         this.addMouseWheelListener(new StapGraphMouseWheelListener(this));
-
+        this.getViewport().addPropertyChangeListener(
+                Viewport.PROPERTY_VIEW_LOCATION, e -> showVisibleNodes(false));
+        this.addControlListener(ControlListener
+                .controlResizedAdapter(e -> showVisibleNodes(false)));
     }
 
     /**
@@ -253,6 +282,7 @@ public class StapGraph extends Graph {
             markedNodes.add(id);
         }
         nodeDataMap.put(id, n);
+        layout = null;
 
         // Make no assumptions about the order that data is input
         if (id > idOfLastNode) {
@@ -518,94 +548,27 @@ public class StapGraph extends Graph {
     }
 
     /**
-     * Draws a tree starting with node id, putting node id at location x,y
+     * Draws a tree starting with node id, putting node id at location x,y.
+     * Rows that were already laid out for node id are kept, so that extending
+     * the tree only lays out the new level.
      *
      * @param id
      * @param x
      * @param y
      */
     private void drawTree(int id, int x, int y) {
-
-        // -------------Create node id
-        // Create and set
-        if (nodeMap.get(id) == null) {
-            nodeMap.put(id, getNodeData(id).makeNode(this));
+        if (!isLaidOut(CONSTANT_DRAWMODE_TREE, id)) {
+            setLayout(new TreeLayout(new LayoutModel(false),
+                    CONSTANT_HORIZONTAL_SPACING / 3, false),
+                    CONSTANT_DRAWMODE_TREE, id, new int[] { id }, 1);
         }
-        StapNode n = getNode(id);
-        n.setLocation(x, y);
-        n.setSize(n.getSize().width / scale, n.getSize().height / scale);
-
-        // This is the lowest level of nodes to draw, and it still has kids
-        if (getLevelOfNode(id) == bottomLevelToDraw
-                && getNodeData(id).children.size() > 0) {
-            n.setBackgroundColor(CONSTANT_HAS_CHILDREN);
-        }
-
-        if (getNodeData(id).isMarked()) {
-            n.setBackgroundColor(CONSTANT_MARKED);
-        }
-
-        // -------------Get appropriate list of children
-        List<Integer> callees = null;
-        int usefulSize = 0;
+        layoutRows(bottomLevelToDraw - getLevelOfNode(id) + 1);
 
-        // Determine which list of callees to use
-        if (!collapseMode) {
-            callees = getNodeData(id).children;
-        } else {
-            callees = getNodeData(id).collapsedChildren;
-        }
-        if (callees == null) {
-            return;
-        }
-
-        int cLevel = getLevelOfNode(id) + 1;
-
-        if (!collapseMode) {
-            if (levels.get(cLevel) != null) {
-                usefulSize = levels.get(cLevel).size()
-                        - collapsedLevelSize.get(cLevel);
-            }
-        } else {
-            if (collapsedLevelSize.get(cLevel) != null) {
-                usefulSize = collapsedLevelSize.get(cLevel);
-            }
-        }
-        // -------------Draw all children
-        for (int i = 0; i < callees.size(); i++) {
-            // Find the number of nodes on this level for spacing purposes
-            int childID = callees.get(i);
-            int childLevel = getLevelOfNode(childID);
-
-            // Initialise the offset to roughly centre the nodes
-            if (currentPositionInLevel.get(getLevelOfNode(childID)) == null) {
-                int tmp = (int) (CONSTANT_HORIZONTAL_SPACING * (usefulSize - 1)
-                        * -1 / scale);
-                currentPositionInLevel.put(childLevel,
-                        getNode(rootVisibleNodeNumber).getLocation().x + tmp);
-            }
-
-            // Recursive iteration
-            if (childLevel <= bottomLevelToDraw
-                    && childLevel <= lowestLevelOfNodesAdded) {
-                drawTree(callees.get(i),
-                        currentPositionInLevel.get(childLevel), y
-                                + (int) (CONSTANT_VERTICAL_INCREMENT / scale));
-
-                // Do not scale newSize or nodes will no longer be adjacent
-                int newSize = currentPositionInLevel
-                        .get(getLevelOfNode(childID))
-                        + getNode(childID).getSize().width;
-
-                // Leave a small blank space between nodes for aesthetic
-                // purposes
-                if (i == callees.size() - 1) {
-                    newSize += CONSTANT_HORIZONTAL_SPACING / 3;
-                }
-                currentPositionInLevel.put(getLevelOfNode(childID), newSize);
-            }
-
-        }
+        // Centre the rows under node id
+        rowHeight = CONSTANT_VERTICAL_INCREMENT;
+        layoutX = x + (int) (layout.getWidth(0) / 2 / scale);
+        layoutY = y;
+        showVisibleNodes(true);
     }
 
     /**
@@ -636,17 +599,10 @@ public class StapGraph extends Graph {
             return;
         }
 
-        List<Integer> bottomList = levels.get(bottomLevelToDraw);
         bottomLevelToDraw++;
-
-        for (int i : bottomList) {
-            if (getNode(i) != null) {
-                getNode(i).setBackgroundColor(DEFAULT_NODE_COLOR);
-                getParentNode(i).setBackgroundColor(DEFAULT_NODE_COLOR);
-                drawTree(i, getNode(i).getLocation().x, getNode(i)
-                        .getLocation().y);
-            }
-        }
+        StapNode root = getNode(rootVisibleNodeNumber);
+        drawTree(rootVisibleNodeNumber, root.getLocation().x,
+                root.getLocation().y);
 
         treeLevelFromRoot++;
     }
@@ -660,11 +616,11 @@ public class StapGraph extends Graph {
         }
 
         bottomLevelToDraw--;
-        deleteAll(rootVisibleNodeNumber);
+        deleteNodesOutsideLevels();
 
-        int i = rootVisibleNodeNumber;
-        currentPositionInLevel.clear();
-        drawTree(i, getNode(i).getLocation().x, getNode(i).getLocation().y);
+        StapNode root = getNode(rootVisibleNodeNumber);
+        drawTree(rootVisibleNodeNumber, root.getLocation().x,
+                root.getLocation().y);
 
         treeLevelFromRoot--;
     }
@@ -697,23 +653,17 @@ public class StapGraph extends Graph {
     }
 
     /**
-     * Draws a tree roughly starting from node id
+     * Draws a tree roughly starting from node id, spreading the nodes of each
+     * level from topLevelToDraw to bottomLevelToDraw across the widest level.
      */
     private void drawBox(int id, int y) {
         setLevelLimits(id);
-        int MaxLevelPixelWidth = 1;
-        int currPixelWidth = 1;
-
-        // FIND THE LEVEL THAT WILL BE THE WIDEST
-        // WILL BE A USEFUL VALUE LATER ON
-        int count;
-
-        for (int i = topLevelToDraw; i <= bottomLevelToDraw; i++) {
-            count = 0;
-            levels.get(i).add(0, count);
-            int size = levels.get(i).size();
-            for (int j = 1; j < size; j++) {
-                int val = levels.get(i).get(j);
+
+        if (!isLaidOut(CONSTANT_DRAWMODE_LEVEL, topLevelToDraw)) {
+            List<Integer> level = levels.get(topLevelToDraw);
+            int[] roots = new int[level.size()];
+            int count = 0;
+            for (int val : level) {
                 StapData data = nodeDataMap.get(val);
                 if (!data.isOnlyChildWithThisName()) {
                     if (collapseMode && data.isPartOfCollapsedNode()) {
@@ -723,124 +673,274 @@ public class StapGraph extends Graph {
                         continue;
                     }
                 }
+                roots[count++] = val;
+            }
+            setLayout(new TreeLayout(new LayoutModel(true), 0, true),
+                    CONSTANT_DRAWMODE_LEVEL, topLevelToDraw, roots, count);
+        }
+        layoutRows(bottomLevelToDraw - topLevelToDraw + 1);
+
+        rowHeight = 3 * CONSTANT_VERTICAL_INCREMENT;
+        layoutX = 150;
+        layoutY = y;
+        if (getAnimationMode() == CONSTANT_ANIMATION_SLOW) {
+            Animation.markBegin();
+            showVisibleNodes(true);
+            Animation.run(ANIMATION_TIME);
+        } else {
+            showVisibleNodes(true);
+        }
+    }
 
-                currPixelWidth += data.name.length() * 10
-                        + StapGraph.CONSTANT_HORIZONTAL_SPACING_FOR_LEVEL;
-                if (MaxLevelPixelWidth < currPixelWidth) {
-                    MaxLevelPixelWidth = currPixelWidth;
-                }
-                count++;
-                levels.get(i).remove(0);
-                levels.get(i).add(0, count);
+    /*
+     * Virtualized drawing
+     */
+
+    /**
+     * The calls of the graph, as laid out by the tree and level drawings.
+     */
+    private class LayoutModel implements TreeLayout.Model {
+        private final boolean level;
+
+        public LayoutModel(boolean level) {
+            this.level = level;
+        }
+
+        @Override
+        public List<Integer> getChildren(int id) {
+            if (collapseMode) {
+                return getNodeData(id).collapsedChildren;
             }
-            currPixelWidth = 1;
+            return getNodeData(id).children;
         }
 
-        MaxLevelPixelWidth = (int) (MaxLevelPixelWidth / scale);
-        counter = 0;
-        if (id == getFirstUsefulNode()) {
-            nodeMap.get(id).setLocation(150 + (MaxLevelPixelWidth / 2), y);
+        @Override
+        public int getWidth(int id) {
+            String name = getNodeData(id).name;
+            if (level) {
+                return name.length() * 10
+                        + CONSTANT_HORIZONTAL_SPACING_FOR_LEVEL;
+            }
+            // Function name, shortened by StapNode, and percentage of time
+            return (Math.min(name.length(), 20) + 8) * CONSTANT_CHARACTER_WIDTH;
         }
 
-        drawFromBottomToTop(
-                bottomLevelToDraw,
-                y
-                        + ((bottomLevelToDraw - topLevelToDraw) * 3 * (int) (CONSTANT_VERTICAL_INCREMENT / scale)),
-                MaxLevelPixelWidth);
+        @Override
+        public long getTime(int id) {
+            return getNodeData(id).getTime();
+        }
 
-        if (id == getFirstUsefulNode()) {
-            nodeMap.get(id).setLocation(150 + (MaxLevelPixelWidth / 2), y);
+        @Override
+        public int getCalls(int id) {
+            return getNodeData(id).timesCalled;
         }
     }
 
-    private void drawFromBottomToTop(int level, int height,
-            int maxLevelPixelWidth) {
+    private boolean isLaidOut(int mode, int root) {
+        return layout != null && layoutMode == mode && layoutRoot == root
+                && layoutCollapsed == collapseMode;
+    }
 
-        // FINISHED DRAWING THE ROOT IN THE LAST RECURSIVE CALL
-        if (level == 0 || level < topLevelToDraw) {
-            return;
+    private void setLayout(TreeLayout newLayout, int mode, int root,
+            int[] roots, int count) {
+        layout = newLayout;
+        layoutMode = mode;
+        layoutRoot = root;
+        layoutCollapsed = collapseMode;
+        layout.setRoots(roots, count);
+    }
+
+    /**
+     * Adds or removes rows of the layout until it has the given number of
+     * rows, or no more levels of calls.
+     *
+     * @param rows
+     */
+    private void layoutRows(int rows) {
+        while (layout.getRowCount() > Math.max(1, rows)) {
+            layout.removeRow();
+        }
+        while (layout.getRowCount() < rows && layout.addRow()) {
+            // Lay out the next level
         }
+    }
 
-        // FIND ALL THE CHILDREN AT LEVEL 'level'
-        int total = levels.get(level).remove(0);
-        int count = 1;
+    private int getLayoutX(int row, int i) {
+        long x = layout.getX(row, i);
+        if (layoutMode == CONSTANT_DRAWMODE_TREE) {
+            x -= layout.getWidth(row) / 2;
+        }
+        return layoutX + (int) (x / scale);
+    }
 
-        // CREATE THE NODES
-        for (int i = 0; i < levels.get(level).size(); i++) {
-            int id = levels.get(level).get(i);
+    private int getLayoutIndex(int row, int x) {
+        long layoutPosition = (long) ((x - layoutX) * scale);
+        if (layoutMode == CONSTANT_DRAWMODE_TREE) {
+            layoutPosition += layout.getWidth(row) / 2;
+        }
+        return layout.indexAt(row, layoutPosition);
+    }
 
-            StapData data = nodeDataMap.get(id);
-            if (!data.isOnlyChildWithThisName()) {
-                if (collapseMode && data.isPartOfCollapsedNode()) {
-                    continue;
-                }
-                if (!collapseMode && nodeDataMap.get(id).isCollapsed) {
-                    continue;
-                }
-            }
+    /**
+     * Creates the nodes of the tree or level drawing that are in or around the
+     * viewport, and disposes of the others. The nodes left out on either side
+     * of each level are shown as a summary node with their number of calls
+     * and time.
+     *
+     * @param force
+     *            - update the nodes even if the viewport is still inside the
+     *            area they were created for
+     */
+    private void showVisibleNodes(boolean force) {
+        if (layout == null || showingNodes || draw_mode != layoutMode) {
+            return;
+        }
 
-            if (nodeMap.get(id) == null) {
-                nodeMap.put(id, getNodeData(id).makeNode(this));
+        Rectangle client = getClientArea();
+        Point view = getViewport().getViewLocation();
+        Rectangle visible = new Rectangle(view.x, view.y, client.width,
+                client.height);
+        if (!force && nodeArea != null
+                && nodeArea.intersection(visible).equals(visible)) {
+            return;
+        }
+
+        // Also create the nodes a screen away, so that scrolling a little
+        // does not create any
+        Rectangle area = new Rectangle(visible.x - visible.width, visible.y
+                - visible.height, 3 * visible.width, 3 * visible.height);
+        showingNodes = true;
+        try {
+            // -------------Delete nodes outside the area
+            for (GraphNode n : summaryNodes) {
+                n.dispose();
+            }
+            summaryNodes.clear();
+            Iterator<StapNode> it = nodeMap.values().iterator();
+            while (it.hasNext()) {
+                StapNode n = it.next();
+                Point p = n.getLocation();
+                if (n.id != rootVisibleNodeNumber && !area.contains(p.x, p.y)) {
+                    n.dispose();
+                    it.remove();
+                }
             }
 
-            StapNode n = nodeMap.get(id);
+            // -------------Create nodes inside the area
+            int rows = layout.getRowCount();
+            for (int row = 0; row < rows; row++) {
+                int y = layoutY + (int) (row * rowHeight / scale);
+                if (y < area.y || y > area.y + area.height) {
+                    continue;
+                }
 
-            n.setVisible(true);
-            n.setSize(n.getSize().width / scale, n.getSize().height / scale);
-            // Placement algorithm
-            if (getAnimationMode() == CONSTANT_ANIMATION_SLOW) {
+                int size = layout.getSize(row);
+                int from = getLayoutIndex(row, area.x);
+                int to = Math.min(size,
+                        getLayoutIndex(row, area.x + area.width) + 1);
+                for (int i = from; i < to; i++) {
+                    int id = layout.getId(row, i);
+                    StapNode n = nodeMap.get(id);
+                    if (n == null) {
+                        n = getNodeData(id).makeNode(this);
+                        n.setSize(n.getSize().width / scale, n.getSize().height
+                                / scale);
+                        nodeMap.put(id, n);
+                    }
+                    n.setLocation(getLayoutX(row, i), y);
+
+                    // Colour nodes on the bottom level that still have
+                    // children
+                    if (getNodeData(id).isMarked()) {
+                        n.setBackgroundColor(CONSTANT_MARKED);
+                    } else if (row == rows - 1 && hasChildren(id)) {
+                        n.setBackgroundColor(CONSTANT_HAS_CHILDREN);
+                    } else {
+                        n.setBackgroundColor(DEFAULT_NODE_COLOR);
+                    }
+                }
 
-                if (counter <= ANIMATION_TIME) {
-                    Animation.markBegin();
+                if (from > 0) {
+                    GraphNode n = makeSummaryNode(row, 0, from, -1);
+                    n.setLocation(getLayoutX(row, from) - n.getSize().width, y);
                 }
-                n.setLocation(150 + (nodeMap.get(getRootVisibleNodeNumber())
-                        .getLocation().x),
-                        nodeMap.get(getRootVisibleNodeNumber()).getLocation().y);
-                n.setLocation(150 + (maxLevelPixelWidth / (total + 1) * count),
-                        height);
-
-                if (counter <= ANIMATION_TIME) {
-                    Animation.run(ANIMATION_TIME / nodeMap.size() / 3);
-                    counter += ANIMATION_TIME / nodeMap.size();
+                if (to < size) {
+                    GraphNode n = makeSummaryNode(row, to, size, 1);
+                    n.setLocation(getLayoutX(row, to), y);
                 }
-
-            } else {
-                n.setLocation(150 + (maxLevelPixelWidth / (total + 1) * count),
-                        height);
-            }
-
-            // IF WE CANNOT DISPLAY ALL NODES COLOUR NODES ON BOTTOM THAT STILL
-            // HAVE CHILDREN
-            if (level == bottomLevelToDraw
-                    && nodeDataMap.get(id).children.size() != 0) {
-                n.setBackgroundColor(CONSTANT_HAS_CHILDREN);
             }
 
-            if (getNodeData(n.id).isMarked()) {
-                n.setBackgroundColor(CONSTANT_MARKED);
+            // -------------Connect nodes created before their caller
+            for (StapNode n : nodeMap.values()) {
+                if (n.connection != null && !n.connection.isDisposed()) {
+                    continue;
+                }
+                StapData data = getNodeData(n.id);
+                StapNode caller = nodeMap.get(data.parent);
+                if (caller == null) {
+                    caller = nodeMap.get(data.collapsedParent);
+                }
+                if (caller != null) {
+                    n.makeConnection(SWT.NONE, caller, data.timesCalled);
+                }
             }
+            nodeArea = area;
+        } finally {
+            showingNodes = false;
+        }
+    }
 
-            // FIND ALL THE NODES THAT THIS NODE CALLS AND MAKE CONNECTIONS
-            List<Integer> setOfCallees = null;
-            if (collapseMode) {
-                setOfCallees = nodeDataMap.get(id).collapsedChildren;
-            } else {
-                setOfCallees = nodeDataMap.get(id).children;
-            }
+    /**
+     * Creates a node standing for the nodes of a row that are not shown.
+     *
+     * @param row
+     * @param from
+     *            - index of the first node
+     * @param to
+     *            - index after the last node
+     * @param direction
+     *            - -1 if the nodes are on the left, 1 if they are on the right
+     * @return The node
+     */
+    private GraphNode makeSummaryNode(int row, int from, int to, int direction) {
+        NumberFormat num = NumberFormat.getInstance(Locale.CANADA);
+        num.setMinimumFractionDigits(2);
+        num.setMaximumFractionDigits(2);
+        String time = num.format((float) layout.getTime(row, from, to)
+                / getTotalTime() * 100) + "%"; //$NON-NLS-1$
+        long calls = layout.getCalls(row, from, to);
+
+        GraphNode n = new GraphNode(this.getGraphModel(), SWT.NONE);
+        n.setText(Messages.getString("StapGraph.HiddenCalls") + "\n" //$NON-NLS-1$ //$NON-NLS-2$
+                + time + "\n" + calls); //$NON-NLS-1$
+        n.setTooltip(new Label(Messages.getString("StapGraph.Time") + time + "\n" //$NON-NLS-1$ //$NON-NLS-2$
+                + Messages.getString("StapGraph.NumOfCalls") + calls)); //$NON-NLS-1$
+        n.setBackgroundColor(CONSTANT_SUMMARY);
+        n.setSize(n.getSize().width / scale, n.getSize().height / scale);
+        n.setData(SUMMARY_DIRECTION, direction);
+        summaryNodes.add(n);
+        return n;
+    }
 
-            for (int val : setOfCallees) {
-                if (nodeMap.get(val) != null) {
-                    nodeMap.get(val).makeConnection(SWT.NONE, n,
-                            nodeDataMap.get(val).timesCalled);
-                }
-            }
+    /**
+     * @return The nodes standing for the calls of the tree or level drawing
+     *         that are not shown.
+     */
+    public List<GraphNode> getSummaryNodes() {
+        return Collections.unmodifiableList(summaryNodes);
+    }
 
-            count++;
+    /**
+     * Scrolls towards the nodes a summary node stands for, so that they are
+     * created. Does nothing for other nodes.
+     *
+     * @param item
+     */
+    public void showSummarizedNodes(GraphItem item) {
+        Object direction = item.getData(SUMMARY_DIRECTION);
+        if (direction instanceof Integer) {
+            scrollSmoothBy((Integer) direction * getClientArea().width, 0);
         }
-        // DRAW THE NEXT LEVEL UP
-        drawFromBottomToTop(level - 1, height
-                - (3 * (int) (CONSTANT_VERTICAL_INCREMENT / scale)),
-                maxLevelPixelWidth);
     }
 
     /*
@@ -854,13 +954,18 @@ public class StapGraph extends Graph {
      *            - id of node NOT to delete (use -1 for 'no exceptions')
      */
     private void deleteAll(int exception) {
-        // -------------Delete aggregate nodes
+        // -------------Delete aggregate and summary nodes
         if (aggregateNodes != null) {
             for (GraphNode n : aggregateNodes) {
                 n.dispose();
             }
             aggregateNodes.clear();
         }
+        for (GraphNode n : summaryNodes) {
+            n.dispose();
+        }
+        summaryNodes.clear();
+        nodeArea = null;
 
         // -------------Save exception node's location
         int x = -1;
@@ -901,15 +1006,8 @@ public class StapGraph extends Graph {
             return;
         }
 
-        for (int i = 0; i < numberOfLevelsToDelete; i++) {
-            List<Integer> level = levels.get(topLevelToDraw);
-            for (int j = 0; j < level.size(); j++) {
-                if (nodeMap.get(level.get(j)) != null) {
-                    nodeMap.remove(level.get(j)).dispose();
-                }
-            }
-            topLevelToDraw++;
-        }
+        topLevelToDraw += numberOfLevelsToDelete;
+        deleteNodesOutsideLevels();
     }
 
     /**
@@ -923,15 +1021,23 @@ public class StapGraph extends Graph {
             return;
         }
 
-        for (int i = 0; i < numberOfLevelsToDelete; i++) {
-            List<Integer> level = levels.get(bottomLevelToDraw);
+        bottomLevelToDraw -= numberOfLevelsToDelete;
+        deleteNodesOutsideLevels();
+    }
 
-            for (int j = 0; j < level.size(); j++) {
-                if (nodeMap.get(level.get(j)) != null) {
-                    nodeMap.remove(level.get(j)).dispose();
-                }
+    /**
+     * Deletes the nodes above topLevelToDraw or below bottomLevelToDraw. Only
+     * the nodes that exist are looked at, rather than whole levels.
+     */
+    private void deleteNodesOutsideLevels() {
+        Iterator<StapNode> it = nodeMap.values().iterator();
+        while (it.hasNext()) {
+            StapNode n = it.next();
+            int level = getLevelOfNode(n.id);
+            if (level < topLevelToDraw || level > bottomLevelToDraw) {
+                n.dispose();
+                it.remove();
             }
-            bottomLevelToDraw--;
         }
     }
 
@@ -1613,9 +1719,8 @@ public class StapGraph extends Graph {
             draw();
         }
 
-        for (int count = callOrderList.indexOf(id) + 1; count < callOrderList
-                .size(); count++) {
-            int next = callOrderList.get(count);
+        for (int count = getCallIndex(id) + 1; count < callCount; count++) {
+            int next = callOrder[count];
             if (getNodeData(id) == null) {
                 continue;
             }
@@ -1637,13 +1742,13 @@ public class StapGraph extends Graph {
     public int getPreviousCalledNode(int id) {
         int returnID = -1;
 
-        for (int count = callOrderList.indexOf(id) - 1; count > -1; count--) {
+        for (int count = getCallIndex(id) - 1; count > -1; count--) {
             if (getNodeData(id) == null) {
                 continue;
             }
             if (!getNodeData(id).isCollapsed
                     || getNodeData(id).isOnlyChildWithThisName()) {
-                returnID = callOrderList.get(count);
+                returnID = callOrder[count];
                 return returnID;
             }
         }
@@ -1739,8 +1844,29 @@ public class StapGraph extends Graph {
         maxNodes = val;
     }
 
-    public void setCallOrderList(List<Integer> callOrderList) {
-        this.callOrderList = callOrderList;
+    /**
+     * Appends calls to the order the calls were made in, for
+     * {@link #getPreviousCalledNode(int)} and getNextCalledNode.
+     *
+     * @param ids The ids of the calls, which have been loaded.
+     * @param count The number of ids.
+     */
+    public void addCalls(int[] ids, int count) {
+        if (callCount + count > callOrder.length) {
+            callOrder = Arrays.copyOf(callOrder, Math.max(callCount + count, 2 * callOrder.length));
+        }
+        for (int i = 0; i < count; i++) {
+            StapData data = getNodeData(ids[i]);
+            if (data != null && data.callIndex == -1) {
+                data.callIndex = callCount;
+            }
+            callOrder[callCount++] = ids[i];
+        }
+    }
+
+    private int getCallIndex(int id) {
+        StapData data = getNodeData(id);
+        return data == null ? -1 : data.callIndex;
     }
 
     public int getLastFunctionCalled() {
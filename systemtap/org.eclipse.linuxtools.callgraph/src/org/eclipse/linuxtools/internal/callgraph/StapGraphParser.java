@@ -16,10 +16,13 @@ import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.cdt.core.model.CoreModel;
 import org.eclipse.cdt.core.model.ICProject;
@@ -38,48 +41,44 @@ import org.eclipse.swt.widgets.Shell;
  *
  * After a stap command is sent to be executed, and after data is stored
  * into some temporary file, the data must be parsed to be used. This class
- * handles all of the parsing. All data is stored into Maps and this class
- * also starts the job responsible for taking the parsed data and rendering it.
+ * handles all of the parsing. The calls are stored into a {@link CallTree} and
+ * this class also starts the job responsible for taking the parsed data and
+ * rendering it.
  */
 public class StapGraphParser extends SystemTapParser {
 
-    public Map<Integer, Long> timeMap;
-    public Map<Integer, String> serialMap;
-    public Map<Integer, HashMap<Integer, ArrayList<Integer>>> neighbourMaps;
-    public Map<String, Long> aggregateTimeMap;
-    public Map<String, Integer> countMap;
-    public List<Integer> callOrderList;
+    public CallTree callTree;
     public Map<Integer, String> markedMap;
     public Long endingTimeInNS;
     public long totalTime;
     public Map<Integer, Integer> lastFunctionMap;
     public ICProject project;
     private static final String DELIM = ",,"; //$NON-NLS-1$
+    /** The number of calls parsed before they are handed to the view. */
+    private static final int BATCH_SIZE = 4096;
+    /** The number of batches the view may fall behind before the parser waits. */
+    private static final int MAX_PENDING_BATCHES = 64;
 
     private boolean encounteredMain = false;
-    private List<Integer> shouldGetEndingTimeForID = new ArrayList <>();
 
-    private Map<Integer, List<String>> nameMaps;
-    private Map<Integer, List<Integer>> idMaps;
+    private Map<Integer, CallStack> stacks;
     private boolean skippedDirectives = false;
-    private int firstNode = -1;
+    private int firstNode = CallTree.NONE;
+
+    private BlockingQueue<CallBatch> batches;
+    private int publishedCalls;
 
     public long startTime = -1;
 
     @Override
     protected void initialize() {
         //INITIALIZE MAPS
-        neighbourMaps = new HashMap<>();
-        timeMap = new HashMap<>();
-        serialMap = new TreeMap<>();
-        aggregateTimeMap = new HashMap<>();
-        countMap = new HashMap<>();
+        callTree = new CallTree();
         endingTimeInNS = 0l;
-        callOrderList = new ArrayList<>();
         markedMap = new HashMap<>();
         lastFunctionMap = new HashMap<>();
-        nameMaps = new HashMap<>();
-        idMaps = new HashMap<>();
+        stacks = new HashMap<>();
+        batches = new ArrayBlockingQueue<>(MAX_PENDING_BATCHES);
         project = null;
         startTime = -1;
     }
@@ -88,18 +87,13 @@ public class StapGraphParser extends SystemTapParser {
     @Override
     public IStatus nonRealTimeParsing(){
         //Clear maps (in case a previous execution left values hanging)
-        neighbourMaps.clear();
-        timeMap.clear();
-        serialMap.clear();
-        aggregateTimeMap.clear();
-        countMap.clear();
-        callOrderList.clear();
-        shouldGetEndingTimeForID.clear();
-        nameMaps.clear();
-        idMaps.clear();
+        callTree.clear();
+        stacks.clear();
+        batches.clear();
+        publishedCalls = 0;
         encounteredMain = false;
         skippedDirectives = false;
-        firstNode = -1;
+        firstNode = CallTree.NONE;
         startTime = -1;
 
         BufferedReader buff = null;
@@ -118,24 +112,19 @@ public class StapGraphParser extends SystemTapParser {
     private void parseEnd() {
 
         //CHECK FOR EXIT() CALL
-        for (Map.Entry<Integer, List<Integer>> entry : idMaps.entrySet()) {
-            List<Integer> idList = entry.getValue();
+        for (Map.Entry<Integer, CallStack> entry : stacks.entrySet()) {
+            CallStack stack = entry.getValue();
             int lastFunctionCalled = lastFunctionMap.get(entry.getKey());
-            if (idList.size() > 1) {
-                for (int val : idList) {
-                    String name = serialMap.get(val);
-                    long time = endingTimeInNS - timeMap.get(val);
-                    timeMap.put(val, time);
-                    if (val == firstNode) {
-                        showTime(val, time);
-                    }
-                    if (shouldGetEndingTimeForID.contains(val)) {
-                        long cumulativeTime = aggregateTimeMap.get(name)
-                                + endingTimeInNS;
-                        aggregateTimeMap.put(name, cumulativeTime);
+            if (stack.size > 1) {
+                for (int i = 0; i < stack.size; i++) {
+                    int index = stack.calls[i];
+                    long time = endingTimeInNS - callTree.getStart(index);
+                    callTree.setDuration(index, time);
+                    if (index == firstNode) {
+                        showTime(callTree.getId(index), time);
                     }
 
-                    lastFunctionCalled = val;
+                    lastFunctionCalled = callTree.getId(index);
                 }
                 String tmp = markedMap.get(lastFunctionCalled);
                 if (tmp == null) {
@@ -148,20 +137,26 @@ public class StapGraphParser extends SystemTapParser {
             }
         }
 
+        if (firstNode == CallTree.NONE) {
+            return;
+        }
+        int firstID = callTree.getId(firstNode);
+        long firstTime = callTree.getDuration(firstNode);
+
         //timecheck is true if the total execution time is less than 10ms
         //and the first function is more than 1% off from the total time.
         boolean timeCheck = totalTime < 50000000 &&
-                            (((float)timeMap.get(firstNode)/totalTime) > 1.01 ||
-                            ((float)timeMap.get(firstNode)/totalTime) < 0.99);
+                            (((float)firstTime/totalTime) > 1.01 ||
+                            ((float)firstTime/totalTime) < 0.99);
 
         /*
          * Indicate whether or not we had to manipulate total time, and why
          */
         if (skippedDirectives || timeCheck) {
-            totalTime = timeMap.get(firstNode);
+            totalTime = firstTime;
             String markedMessage = ""; //$NON-NLS-1$
-            if (markedMap.containsKey(firstNode)) {
-                markedMessage = markedMap.get(firstNode) + "\n"; //$NON-NLS-1$
+            if (markedMap.containsKey(firstID)) {
+                markedMessage = markedMap.get(firstID) + "\n"; //$NON-NLS-1$
             }
             if (skippedDirectives) {
                 markedMessage += Messages.getString("StapGraphParser.CDirectives"); //$NON-NLS-1$
@@ -172,7 +167,7 @@ public class StapGraphParser extends SystemTapParser {
 
             markedMessage += Messages.getString("StapGraphParser.TimeForThisNode"); //$NON-NLS-1$
 
-            markedMap.put(firstNode, markedMessage);
+            markedMap.put(firstID, markedMessage);
         }
     }
 
@@ -184,11 +179,11 @@ public class StapGraphParser extends SystemTapParser {
 
         int key = Integer.parseInt(parsed[0]);
 
-        List<Integer> idList = idMaps.get(key);
-        if (idList == null || msg.length() < 1 || idList.size() < 1) {
+        CallStack stack = stacks.get(key);
+        if (stack == null || msg.length() < 1 || stack.size < 1) {
             return;
         }
-        int id = idList.get(idList.size() -1);
+        int id = callTree.getId(stack.calls[stack.size - 1]);
         if (parsed[1].equals("<unknown>")) { //$NON-NLS-1$
             parsed[1] = parsed[1] + Messages.getString("StapGraphParser.UnknownMarkers"); //$NON-NLS-1$
         }
@@ -225,20 +220,7 @@ public class StapGraphParser extends SystemTapParser {
                     break;
                 }
 
-                List<String> nameList = nameMaps.get(tid);
-                if (nameList == null) {
-                    nameList = new ArrayList<>();
-                }
-
-                List<Integer> idList = idMaps.get(tid);
-                if (idList == null) {
-                    idList = new ArrayList<>();
-                }
-
-                HashMap<Integer, ArrayList<Integer>> outNeighbours = neighbourMaps.get(tid);
-                if (outNeighbours == null) {
-                    outNeighbours = new HashMap<>();
-                }
+                CallStack stack = getStack(tid);
 
                 if (startTime < 1) {
                     startTime = time;
@@ -249,54 +231,21 @@ public class StapGraphParser extends SystemTapParser {
                 if (name.equals("main")) { //$NON-NLS-1$
                     encounteredMain = true;
                 }
-                if (firstNode == -1) {
-                    firstNode = id;
-                }
-
-                serialMap.put(id, name);
-                timeMap.put(id, time);
-
-                if (aggregateTimeMap.get(name) == null){
-                    aggregateTimeMap.put(name, (long) 0);
+                int parent = stack.size > 0 ? stack.calls[stack.size - 1] : CallTree.NONE;
+                int index = callTree.add(id, name, parent, time);
+                if (firstNode == CallTree.NONE) {
+                    firstNode = index;
                 }
 
                 //IF THERE ARE PREVIOUS FUNCTIONS WITH THE SAME NAME
                 //WE ARE IN ONE OF THEM SO DO NOT ADD TO CUMULATIVE TIME
-
-
-                if (nameList.indexOf(name) == -1) {
-                    long cumulativeTime = aggregateTimeMap.get(name) - time;
-                    aggregateTimeMap.put(name, cumulativeTime);
-                    shouldGetEndingTimeForID.add(id);
-                }
-
-
-                if (countMap.get(name) == null){
-                    countMap.put(name, 0);
-                }
-                countMap.put(name, countMap.get(name) + 1);
-
-                nameList.add(name);
-                idList.add(id);
-
-
-                if (outNeighbours.get(id) == null){
-                    outNeighbours.put(id, new ArrayList<>());
-                }
-
-                if (idList.size() > 1) {
-                    int parentID = idList.get(idList.size() - 2);
-                    outNeighbours.get(parentID).add(id);
+                if (stack.lastIndexOf(callTree, name) != -1) {
+                    callTree.setRecursive(index);
                 }
 
-
-                callOrderList.add(id);
+                stack.push(index);
                 lastFunctionMap.put(tid,id);
 
-                neighbourMaps.put(tid, outNeighbours);
-                nameMaps.put(tid, nameList);
-                idMaps.put(tid, idList);
-
                 break;
             case '>' :
 
@@ -312,16 +261,7 @@ public class StapGraphParser extends SystemTapParser {
                 name = args[0];
                 tid = Integer.parseInt(args[2]);
 
-                nameList = nameMaps.get(tid);
-                if (nameList == null) {
-                    nameList = new ArrayList<>();
-                }
-
-                idList = idMaps.get(tid);
-                if (idList == null) {
-                    idList = new ArrayList<>();
-                }
-
+                stack = stacks.get(tid);
 
                 //If we haven't encountered a main function yet and the name isn't clean,
                 //and the name contains "__", then this is probably a C directive
@@ -331,37 +271,19 @@ public class StapGraphParser extends SystemTapParser {
                 }
 
                 name = cleanFunctionName(name);
-                int lastOccurance = nameList.lastIndexOf(name);
+                int lastOccurance = stack == null ? -1 : stack.lastIndexOf(callTree, name);
                 if (lastOccurance < 0) {
                     parsingError(Messages.getString("StapGraphParser.RetMismatch") + name); //$NON-NLS-1$
                     return Status.CANCEL_STATUS;
                 }
 
-                nameList.remove(lastOccurance);
-                id = idList.remove(lastOccurance);
-
-
-                if (timeMap.get(id) == null) {
-                    parsingError(Messages.getString("StapGraphParser.NoStartTime") + name); //$NON-NLS-1$
-                    return Status.CANCEL_STATUS;
-                }
+                index = stack.remove(lastOccurance);
                 endingTimeInNS=Long.parseLong(args[1]);
-                time = endingTimeInNS - timeMap.get(id);
-                timeMap.put(id, time);
-                if (id == firstNode) {
-                    showTime(id, time);
+                time = endingTimeInNS - callTree.getStart(index);
+                callTree.setDuration(index, time);
+                if (index == firstNode) {
+                    showTime(callTree.getId(index), time);
                 }
-
-
-                //IF AN ID IS IN THIS ARRAY IT IS BECAUSE WE NEED THE ENDING TIME
-                // TO BE ADDED TO THE CUMULATIVE TIME FOR FUNCTIONS OF THIS NAME
-                if (shouldGetEndingTimeForID.contains(id)){
-                    long cumulativeTime = aggregateTimeMap.get(name) + Long.parseLong(args[1]);
-                    aggregateTimeMap.put(name, cumulativeTime);
-                }
-
-                nameMaps.put(tid, nameList);
-                idMaps.put(tid, idList);
                 break;
             default :
                 /*
@@ -392,9 +314,8 @@ public class StapGraphParser extends SystemTapParser {
     private IStatus parseDotFile() {
         BufferedReader buff = internalData;
 
-        HashMap <Integer, ArrayList<Integer>> outNeighbours= new HashMap<>();
-        ArrayList<String> nameList = new ArrayList<>();
-        ArrayList<Integer> idList = new ArrayList<>();
+        // Connections may name nodes that come later, so they are made at the end
+        List<int[]> connections = new ArrayList<>();
         endingTimeInNS =0l;
         totalTime=10000l;
         try {
@@ -430,40 +351,22 @@ public class StapGraphParser extends SystemTapParser {
                     }
 
                     //Set neighbour
-                    ArrayList<Integer> tmpList = outNeighbours.get(ids[0]);
-                    if (tmpList == null) {
-                        tmpList = new ArrayList<>();
-                    }
-
-                    for (int i = 0; i < called; i++) {
-                        tmpList.add(ids[1]);
-                    }
-
-                    outNeighbours.put(ids[0], tmpList);
+                    connections.add(new int[] {ids[0], ids[1], called});
                 } else {
                     //node
                     try {
                         int id = Integer.parseInt(args[0]);
-                        if (firstNode == -1) {
-                            firstNode = id;
-                        }
                         int index = args[1].indexOf("=\""); //$NON-NLS-1$
                         String name = args[1].substring(index + 2, args[1].indexOf(' ', index));
                         double dtime = 0.0;
                         dtime = Double.parseDouble(args[1].substring(args[1].indexOf(' ') + 1, args[1].indexOf('%')));
                         long time = (long) (dtime*100);
 
-                        nameList.add(name);
-                        idList.add(id);
-                        timeMap.put(id, time);
-                        serialMap.put(id, name);
-                        if (countMap.get(name) == null){
-                            countMap.put(name, 0);
+                        int call = callTree.add(id, name, CallTree.NONE, 0);
+                        callTree.setDuration(call, time);
+                        if (firstNode == CallTree.NONE) {
+                            firstNode = call;
                         }
-                        countMap.put(name, countMap.get(name) + 1);
-
-                        long cumulativeTime = (aggregateTimeMap.get(name) != null ? aggregateTimeMap.get(name) : 0) + time;
-                        aggregateTimeMap.put(name, cumulativeTime);
                     } catch (NumberFormatException e) {
                         SystemTapUIErrorMessages m = new SystemTapUIErrorMessages(
                                 Messages.getString("StapGraphParser.idOrTime"), Messages.getString("StapGraphParser.idOrTime"),  //$NON-NLS-1$ //$NON-NLS-2$
@@ -485,11 +388,16 @@ public class StapGraphParser extends SystemTapParser {
                 //Do nothing
             }
         }
-        neighbourMaps.put(0, outNeighbours);
-        nameMaps.put(0, nameList);
-        idMaps.put(0, idList);
+        for (int[] connection : connections) {
+            int parent = callTree.indexOf(connection[0]);
+            int child = callTree.indexOf(connection[1]);
+            if (parent != CallTree.NONE && child != CallTree.NONE) {
+                callTree.setParent(child, parent);
+                callTree.setCalls(child, connection[2]);
+            }
+        }
         try {
-            view.update();
+            publish(true);
         } catch (InterruptedException e) {
             e.printStackTrace();
         }
@@ -497,6 +405,81 @@ public class StapGraphParser extends SystemTapParser {
         return Status.OK_STATUS;
     }
 
+    /**
+     * Hands the calls parsed since the previous batch to the view, and
+     * schedules an update of the view. Waits while the view is
+     * {@link #MAX_PENDING_BATCHES} batches behind.
+     *
+     * Without a view, batches are queued as long as there is room, and the
+     * calls parsed after that are kept for {@link #takeUnpublished()}.
+     *
+     * @param aggregate Whether to add the aggregate time and count of each
+     * function, at the end of the data available.
+     * @throws InterruptedException
+     */
+    private void publish(boolean aggregate) throws InterruptedException {
+        if (view == null) {
+            if (batches.remainingCapacity() > 0) {
+                batches.offer(newBatch(aggregate));
+            }
+            return;
+        }
+        CallBatch batch = newBatch(aggregate);
+        while (!batches.offer(batch, POLL_INTERVAL, TimeUnit.MILLISECONDS)) {
+            if (monitor.isCanceled() || view.masterComposite == null
+                    || view.masterComposite.isDisposed()) {
+                return;
+            }
+            view.scheduleUpdate();
+        }
+        view.scheduleUpdate();
+    }
+
+    /**
+     * Copies the calls parsed since the previous batch out of the call tree.
+     *
+     * @param aggregate Whether to add the aggregate time and count of each
+     * function.
+     */
+    private synchronized CallBatch newBatch(boolean aggregate) {
+        CallBatch batch = new CallBatch(callTree, publishedCalls, endingTimeInNS,
+                new HashMap<>(markedMap), isThreaded());
+        markedMap.clear();
+        publishedCalls = callTree.size();
+        if (aggregate) {
+            batch.aggregateTime = new HashMap<>();
+            batch.aggregateCount = new HashMap<>();
+            callTree.aggregate(batch.aggregateTime, batch.aggregateCount);
+        }
+        return batch;
+    }
+
+    /**
+     * @return The oldest batch of calls not loaded by the view yet, or
+     * <code>null</code>.
+     */
+    public CallBatch pollBatch() {
+        return batches.poll();
+    }
+
+    /**
+     * Copies the calls parsed while there was no view to hand them to, and
+     * which were not queued, into a last batch. To be called once the queued
+     * batches are loaded, when a view is attached to a parser that is not
+     * running.
+     *
+     * @return The calls not handed to a view yet, with the aggregate time
+     * and count of each function, or <code>null</code> if there are none.
+     */
+    public CallBatch takeUnpublished() {
+        synchronized (this) {
+            if (publishedCalls == callTree.size() && markedMap.isEmpty()) {
+                return null;
+            }
+        }
+        return newBatch(true);
+    }
+
     @Override
     public IStatus realTimeParsing() {
         BufferedReader buff = internalData;
@@ -541,16 +524,16 @@ public class StapGraphParser extends SystemTapParser {
                     if (line.length() > 1) {
                         parseMarked(line.substring(1));
                     }
-                } else {
-                    if (parse(line) == Status.CANCEL_STATUS) {
-                        break;
-                    }
+                } else if (parse(line) == Status.CANCEL_STATUS) {
+                    //Skip the line
+                    continue;
+                }
+                if (callTree.size() - publishedCalls >= BATCH_SIZE) {
+                    publish(false);
                 }
             }
-            if (draw && view != null) {
-                view.update();
-                //Repeat until all lines are read
-                realTimeParsing();
+            if (draw) {
+                publish(true);
             }
         } catch (IOException e) {
             e.printStackTrace();
@@ -561,6 +544,22 @@ public class StapGraphParser extends SystemTapParser {
         return Status.OK_STATUS;
     }
 
+    /**
+     * @return <code>true</code> if calls were made from more than one thread.
+     */
+    public boolean isThreaded() {
+        return stacks.size() > 1;
+    }
+
+    private CallStack getStack(int tid) {
+        CallStack stack = stacks.get(tid);
+        if (stack == null) {
+            stack = new CallStack();
+            stacks.put(tid, stack);
+        }
+        return stack;
+    }
+
     /**
      * Mark node id with a message giving its actual time.
      */
@@ -574,5 +573,37 @@ public class StapGraphParser extends SystemTapParser {
                 + Messages.getString("StapGraphParser.TimeUnits")); //$NON-NLS-1$
     }
 
+    /**
+     * The indices of the calls of a thread which have not returned yet.
+     */
+    private static class CallStack {
+        private int[] calls = new int[16];
+        private int size;
+
+        private void push(int index) {
+            if (size == calls.length) {
+                calls = Arrays.copyOf(calls, 2 * size);
+            }
+            calls[size++] = index;
+        }
+
+        private int remove(int i) {
+            int index = calls[i];
+            System.arraycopy(calls, i + 1, calls, i, size - i - 1);
+            size--;
+            return index;
+        }
 
+        /**
+         * @return The position of the innermost call of the named function, or -1.
+         */
+        private int lastIndexOf(CallTree callTree, String name) {
+            for (int i = size - 1; i >= 0; i--) {
+                if (callTree.getName(calls[i]).equals(name)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
 }
@@ -0,0 +1,255 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.linuxtools.internal.callgraph;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The positions of the calls of a graph drawn one level per row. Rows are laid
+ * out one at a time, when they are first drawn, and their positions, times and
+ * numbers of calls are kept in arrays of running sums. The calls of a row that
+ * fall inside a viewport, and the time and number of the calls on either side
+ * of it, are then found with a binary search rather than by walking the row.
+ *
+ * Positions are in unscaled pixels from the left of the row.
+ */
+public class TreeLayout {
+
+    /**
+     * The calls to lay out.
+     */
+    public interface Model {
+        /**
+         * @return The ids of the calls made by a call, in order.
+         */
+        List<Integer> getChildren(int id);
+
+        /**
+         * @return The width of the node of a call, spacing included.
+         */
+        int getWidth(int id);
+
+        /**
+         * @return The time spent in a call.
+         */
+        long getTime(int id);
+
+        /**
+         * @return The number of calls a call stands for.
+         */
+        int getCalls(int id);
+    }
+
+    private final Model model;
+    private final int spacing;
+    private final boolean spread;
+
+    private int rowCount;
+    private int[][] ids = new int[8][];
+    private int[] sizes = new int[8];
+    // The left of each node of a row, followed by the width of the row
+    private long[][] lefts = new long[8][];
+    // The time and the number of calls of the nodes before each node of a row
+    private long[][] times = new long[8][];
+    private long[][] calls = new long[8][];
+    private long width;
+
+    /**
+     * @param model The calls to lay out.
+     * @param spacing The space left after the calls made by each call.
+     * @param spread <code>true</code> to spread the nodes of every row evenly
+     * across the width of the widest row, <code>false</code> to put them side
+     * by side.
+     */
+    public TreeLayout(Model model, int spacing, boolean spread) {
+        this.model = model;
+        this.spacing = spacing;
+        this.spread = spread;
+    }
+
+    /**
+     * Removes all the rows and makes the given calls the first one.
+     *
+     * @param roots The ids of the calls of the first row.
+     * @param count The number of calls.
+     */
+    public void setRoots(int[] roots, int count) {
+        rowCount = 0;
+        width = 0;
+        int[] row = Arrays.copyOf(roots, Math.max(1, count));
+        long[] left = new long[count + 1];
+        for (int i = 0; i < count; i++) {
+            left[i + 1] = left[i] + model.getWidth(row[i]);
+        }
+        addRow(row, count, left);
+    }
+
+    /**
+     * Lays out the calls made by the calls of the last row as a new row.
+     *
+     * @return <code>false</code> if the calls of the last row made no calls,
+     * in which case no row is added.
+     */
+    public boolean addRow() {
+        if (rowCount == 0) {
+            return false;
+        }
+        int parentRow = rowCount - 1;
+        int parentSize = sizes[parentRow];
+        int[] parents = ids[parentRow];
+        int[] row = new int[Math.max(16, parentSize)];
+        long[] left = new long[row.length + 1];
+        int size = 0;
+        for (int i = 0; i < parentSize; i++) {
+            List<Integer> children = model.getChildren(parents[i]);
+            if (children == null || children.isEmpty()) {
+                continue;
+            }
+            for (int child : children) {
+                if (size == row.length) {
+                    row = Arrays.copyOf(row, row.length * 2);
+                    left = Arrays.copyOf(left, row.length + 1);
+                }
+                row[size] = child;
+                left[size + 1] = left[size] + model.getWidth(child);
+                size++;
+            }
+            // Leave a small blank space after the calls of each call
+            left[size] += spacing;
+        }
+        if (size == 0) {
+            return false;
+        }
+        addRow(row, size, left);
+        return true;
+    }
+
+    private void addRow(int[] row, int size, long[] left) {
+        if (rowCount == ids.length) {
+            int capacity = 2 * rowCount;
+            ids = Arrays.copyOf(ids, capacity);
+            sizes = Arrays.copyOf(sizes, capacity);
+            lefts = Arrays.copyOf(lefts, capacity);
+            times = Arrays.copyOf(times, capacity);
+            calls = Arrays.copyOf(calls, capacity);
+        }
+        long[] time = new long[size + 1];
+        long[] count = new long[size + 1];
+        for (int i = 0; i < size; i++) {
+            time[i + 1] = time[i] + model.getTime(row[i]);
+            count[i + 1] = count[i] + model.getCalls(row[i]);
+        }
+        ids[rowCount] = row;
+        sizes[rowCount] = size;
+        lefts[rowCount] = left;
+        times[rowCount] = time;
+        calls[rowCount] = count;
+        width = Math.max(width, left[size]);
+        rowCount++;
+    }
+
+    /**
+     * Removes the last row.
+     */
+    public void removeRow() {
+        if (rowCount <= 1) {
+            return;
+        }
+        rowCount--;
+        ids[rowCount] = null;
+        lefts[rowCount] = null;
+        times[rowCount] = null;
+        calls[rowCount] = null;
+        width = 0;
+        for (int row = 0; row < rowCount; row++) {
+            width = Math.max(width, lefts[row][sizes[row]]);
+        }
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return The number of calls on a row.
+     */
+    public int getSize(int row) {
+        return sizes[row];
+    }
+
+    public int getId(int row, int i) {
+        return ids[row][i];
+    }
+
+    /**
+     * @return The width of the widest row.
+     */
+    public long getWidth() {
+        return width;
+    }
+
+    /**
+     * @return The width of a row, or of the widest row if nodes are spread.
+     */
+    public long getWidth(int row) {
+        return spread ? width : lefts[row][sizes[row]];
+    }
+
+    /**
+     * @param row The row of the node.
+     * @param i The index of the node on the row, or the size of the row for
+     * the right of its last node.
+     * @return The position of the left of the node.
+     */
+    public long getX(int row, int i) {
+        if (spread) {
+            return width * (i + 1) / (sizes[row] + 1);
+        }
+        return lefts[row][i];
+    }
+
+    /**
+     * @return The index of the first node of a row that ends after the given
+     * position, or the size of the row if there is none.
+     */
+    public int indexAt(int row, long x) {
+        int low = 0;
+        int high = sizes[row];
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (getX(row, mid + 1) > x) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return The time spent in the nodes of a row from index <code>from</code>
+     * up to index <code>to</code>, excluded.
+     */
+    public long getTime(int row, int from, int to) {
+        return times[row][to] - times[row][from];
+    }
+
+    /**
+     * @return The number of calls the nodes of a row from index
+     * <code>from</code> up to index <code>to</code>, excluded, stand for.
+     */
+    public long getCalls(int row, int from, int to) {
+        return calls[row][to] - calls[row][from];
+    }
+}
@@ -104,9 +104,12 @@ public class StapGraphMouseListener implements MouseListener {
 
         if (list.size() == 1) {
             int id;
-            if (list.get(0) != null) {
+            if (list.get(0) instanceof StapNode) {
                 id = ((StapNode)list.get(0)).id;
             } else {
+                if (list.get(0) != null) {
+                    graph.showSummarizedNodes(list.get(0));
+                }
                 graph.setSelection(null);
                 return;
             }
@@ -115,8 +118,10 @@ public class StapGraphMouseListener implements MouseListener {
             // ------------Highlighting
             if (graph.getDrawMode() == StapGraph.CONSTANT_DRAWMODE_TREE
                     || graph.getDrawMode() == StapGraph.CONSTANT_DRAWMODE_LEVEL) {
-                for (StapNode n : (List<StapNode>) graph.getNodes()) {
-                    unhighlightall(n);
+                for (Object n : graph.getNodes()) {
+                    if (n instanceof StapNode) {
+                        unhighlightall((StapNode) n);
+                    }
                 }
 
                 List<Integer> callees = null;
@@ -141,8 +146,10 @@ public class StapGraphMouseListener implements MouseListener {
             }
 
         } else if (list.size() == 0 && ! (graph.getDrawMode() == StapGraph.CONSTANT_DRAWMODE_AGGREGATE)) {
-            for (StapNode n : (List<StapNode>) graph.getNodes()) {
-                unhighlightall(n);
+            for (Object n : graph.getNodes()) {
+                if (n instanceof StapNode) {
+                    unhighlightall((StapNode) n);
+                }
             }
 
         }
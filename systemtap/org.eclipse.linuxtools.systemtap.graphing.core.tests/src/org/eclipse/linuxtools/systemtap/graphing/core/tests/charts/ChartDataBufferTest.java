@@ -0,0 +1,229 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Red Hat - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.linuxtools.systemtap.graphing.core.tests.charts;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.linuxtools.internal.systemtap.graphing.core.charts.ChartDataBuffer;
+import org.eclipse.linuxtools.systemtap.graphing.core.adapters.IAdapter;
+import org.eclipse.linuxtools.systemtap.graphing.core.adapters.ScrollAdapter;
+import org.eclipse.linuxtools.systemtap.graphing.core.datasets.row.RingRowDataSet;
+import org.eclipse.linuxtools.systemtap.graphing.core.datasets.row.RowDataSet;
+import org.eclipse.linuxtools.systemtap.graphing.core.datasets.row.RowEntry;
+import org.junit.Test;
+
+/**
+ * Checks that the records kept by a chart are the last records of its data,
+ * however the data changed since the previous update.
+ */
+public class ChartDataBufferTest {
+    private static final String[] TITLES = {"x", "y"};
+    private static final int CAPACITY = 10;
+
+    private static void append(RowDataSet data, Object... values) {
+        RowEntry entry = new RowEntry();
+        entry.putRow(0, values);
+        data.append(entry);
+    }
+
+    private static void append(RowDataSet data, int from, int to) {
+        for (int i = from; i < to; i++) {
+            append(data, Integer.toString(i), Integer.toString(i * i));
+        }
+    }
+
+    private static IAdapter adapter(RowDataSet data) {
+        return new ScrollAdapter(data, 0, new int[] {1}, null);
+    }
+
+    private static double toDouble(Object o) {
+        try {
+            return Double.parseDouble(o.toString());
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Checks that the buffer holds the last records of the adapter.
+     */
+    private static void check(ChartDataBuffer buffer, IAdapter adapter, int capacity) {
+        int count = adapter.getRecordCount();
+        Object[][] records = adapter.getData(Math.max(0, count - capacity), count);
+        assertEquals(records.length, buffer.size());
+        assertEquals(1, buffer.getSeriesCount());
+        for (int i = 0; i < records.length; i++) {
+            assertEquals(records[i][0], buffer.getKey(i));
+            assertEquals(toDouble(records[i][0]), buffer.getX(i), 0);
+            assertEquals(toDouble(records[i][1]), buffer.getY(0, i), 0);
+        }
+    }
+
+    @Test
+    public void testAppend() {
+        RowDataSet data = new RowDataSet(TITLES);
+        IAdapter adapter = adapter(data);
+        ChartDataBuffer buffer = new ChartDataBuffer();
+        assertFalse(buffer.update(adapter, CAPACITY));
+        assertEquals(0, buffer.size());
+
+        append(data, 0, 5);
+        assertTrue(buffer.update(adapter, CAPACITY));
+        check(buffer, adapter, CAPACITY);
+        // nothing appended
+        assertFalse(buffer.update(adapter, CAPACITY));
+
+        // more records than kept: the oldest ones are overwritten
+        append(data, 5, 27);
+        assertTrue(buffer.update(adapter, CAPACITY));
+        check(buffer, adapter, CAPACITY);
+        append(data, 27, 30);
+        append(data, "30", "not a number"); //$NON-NLS-1$ //$NON-NLS-2$
+        assertTrue(buffer.update(adapter, CAPACITY));
+        check(buffer, adapter, CAPACITY);
+        assertTrue(Double.isNaN(buffer.getY(0, CAPACITY - 1)));
+
+        // fewer records kept
+        assertTrue(buffer.update(adapter, 4));
+        check(buffer, adapter, 4);
+    }
+
+    @Test
+    public void testChangedLastRecord() {
+        RowDataSet data = new RowDataSet(TITLES);
+        IAdapter adapter = adapter(data);
+        ChartDataBuffer buffer = new ChartDataBuffer();
+        append(data, 0, 5);
+        buffer.update(adapter, CAPACITY);
+
+        // as many records, the last one replaced
+        data.remove(4);
+        append(data, "4", "-1"); //$NON-NLS-1$ //$NON-NLS-2$
+        assertTrue(buffer.update(adapter, CAPACITY));
+        check(buffer, adapter, CAPACITY);
+        assertEquals(-1, buffer.getY(0, 4), 0);
+
+        // more records, the last one seen before replaced too
+        data.remove(4);
+        append(data, "4", "-2"); //$NON-NLS-1$ //$NON-NLS-2$
+        append(data, 5, 7);
+        assertTrue(buffer.update(adapter, CAPACITY));
+        check(buffer, adapter, CAPACITY);
+        assertEquals(-2, buffer.getY(0, 4), 0);
+    }
+
+    @Test
+    public void testDroppedRows() {
+        RingRowDataSet data = new RingRowDataSet(TITLES, 8);
+        IAdapter adapter = adapter(data);
+        ChartDataBuffer buffer = new ChartDataBuffer();
+        append(data, 0, 8);
+        assertTrue(buffer.update(adapter, CAPACITY));
+        check(buffer, adapter, CAPACITY);
+
+        // the oldest rows are dropped: as many records, all of them moved
+        append(data, 8, 11);
+        assertEquals(8, adapter.getRecordCount());
+        assertTrue(buffer.update(adapter, CAPACITY));
+        check(buffer, adapter, CAPACITY);
+        assertEquals(3, buffer.getX(0), 0);
+        assertEquals(10, buffer.getX(7), 0);
+    }
+
+    @Test
+    public void testShrink() {
+        RowDataSet data = new RowDataSet(TITLES);
+        IAdapter adapter = adapter(data);
+        ChartDataBuffer buffer = new ChartDataBuffer();
+        append(data, 0, 12);
+        buffer.update(adapter, CAPACITY);
+
+        data.remove(11);
+        data.remove(10);
+        assertTrue(buffer.update(adapter, CAPACITY));
+        check(buffer, adapter, CAPACITY);
+
+        while (data.getRowCount() > 0) {
+            data.remove(0);
+        }
+        assertTrue(buffer.update(adapter, CAPACITY));
+        assertEquals(0, buffer.size());
+        assertFalse(buffer.update(adapter, CAPACITY));
+    }
+
+    @Test
+    public void testDownsample() {
+        int length = 1000;
+        int buckets = 30;
+        double[] valx = new double[length];
+        double[] valy = new double[length];
+        for (int i = 0; i < length; i++) {
+            valx[i] = i;
+            valy[i] = Math.sin(i / 7.0) * i;
+        }
+        double[][] points = ChartDataBuffer.downsample(valx, valy, length, buckets);
+        double[] outx = points[0];
+        double[] outy = points[1];
+        assertEquals(outx.length, outy.length);
+        assertTrue(outx.length <= 2 * buckets);
+
+        // points of the series, in their order
+        for (int i = 0; i < outx.length; i++) {
+            assertEquals(valy[(int) outx[i]], outy[i], 0);
+            if (i > 0) {
+                assertTrue(outx[i - 1] < outx[i]);
+            }
+        }
+        // the smallest and the largest value of each bucket are kept
+        for (int b = 0; b < buckets; b++) {
+            int start = b * length / buckets;
+            int end = (b + 1) * length / buckets;
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (int i = start; i < end; i++) {
+                min = Math.min(min, valy[i]);
+                max = Math.max(max, valy[i]);
+            }
+            boolean hasMin = false;
+            boolean hasMax = false;
+            for (int i = 0; i < outx.length; i++) {
+                if (outx[i] >= start && outx[i] < end) {
+                    hasMin |= outy[i] == min;
+                    hasMax |= outy[i] == max;
+                }
+            }
+            assertTrue(hasMin);
+            assertTrue(hasMax);
+        }
+        double globalMin = Double.POSITIVE_INFINITY;
+        for (double y : valy) {
+            globalMin = Math.min(globalMin, y);
+        }
+        double outMin = Double.POSITIVE_INFINITY;
+        for (double y : outy) {
+            outMin = Math.min(outMin, y);
+        }
+        assertEquals(globalMin, outMin, 0);
+
+        // not more points than twice the number of buckets: kept as they are
+        points = ChartDataBuffer.downsample(valx, valy, 2 * buckets, buckets);
+        assertEquals(2 * buckets, points[0].length);
+        for (int i = 0; i < 2 * buckets; i++) {
+            assertEquals(valx[i], points[0][i], 0);
+            assertEquals(valy[i], points[1][i], 0);
+        }
+    }
+}
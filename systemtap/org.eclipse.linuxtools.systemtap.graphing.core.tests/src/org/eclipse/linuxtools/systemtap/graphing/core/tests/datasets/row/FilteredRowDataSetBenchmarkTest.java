@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Red Hat - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.linuxtools.systemtap.graphing.core.tests.datasets.row;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.linuxtools.systemtap.graphing.core.aggregates.SumAggregate;
+import org.eclipse.linuxtools.systemtap.graphing.core.datasets.row.FilteredRowDataSet;
+import org.eclipse.linuxtools.systemtap.graphing.core.datasets.row.RowDataSet;
+import org.eclipse.linuxtools.systemtap.graphing.core.datasets.row.RowEntry;
+import org.eclipse.linuxtools.systemtap.graphing.core.filters.IDataSetFilter;
+import org.eclipse.linuxtools.systemtap.graphing.core.filters.RangeFilter;
+import org.eclipse.linuxtools.systemtap.graphing.core.filters.SortFilter;
+import org.eclipse.linuxtools.systemtap.graphing.core.filters.UniqueFilter;
+import org.eclipse.linuxtools.systemtap.graphing.core.tests.MockDataSet;
+import org.junit.Test;
+
+/**
+ * Appends 1M rows to a filtered data set in batches, reading the filtered
+ * rows after each batch as a live graph does, and checks that they are the
+ * rows given by filtering all of them at once. Excluded from the build's test
+ * run: run it on its own to profile the filters on large data sets.
+ */
+public class FilteredRowDataSetBenchmarkTest {
+    private static final String[] TITLES = {"key", "value"};
+    private static final int ROWS = 1000000;
+    private static final int BATCH = 10000;
+    private static final long TIMEOUT = 300000; // ms
+
+    private static FilteredRowDataSet run(IDataSetFilter... filters) {
+        RowDataSet data = new RowDataSet(TITLES);
+        FilteredRowDataSet fdata = new FilteredRowDataSet(data);
+        for (IDataSetFilter filter : filters) {
+            fdata.addFilter(filter);
+        }
+        for (int i = 0; i < ROWS; i++) {
+            RowEntry entry = new RowEntry();
+            entry.putRow(0, new Object[] {Integer.toString(i % 1000), Integer.toString(i)});
+            data.append(entry);
+            if ((i + 1) % BATCH == 0) {
+                fdata.getRow(fdata.getRowCount() - 1);
+            }
+        }
+
+        List<Object>[] columns = MockDataSet.createArrayList(TITLES.length, new Object());
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = new ArrayList<>();
+            for (Object value : data.getColumn(i)) {
+                columns[i].add(value);
+            }
+        }
+        for (IDataSetFilter filter : filters) {
+            columns = filter.filter(columns);
+        }
+        assertEquals(columns[0].size(), fdata.getRowCount());
+        for (int i = 0; i < columns.length; i++) {
+            assertArrayEquals(columns[i].toArray(), fdata.getColumn(i));
+        }
+        return fdata;
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testRangeSort() {
+        FilteredRowDataSet fdata = run(
+                new RangeFilter(1, 0, ROWS / 2, RangeFilter.INSIDE_BOUNDS | RangeFilter.INCLUSIVE),
+                new SortFilter(0, SortFilter.DESCENDING));
+        assertEquals(ROWS / 2 + 1, fdata.getRowCount());
+        assertEquals("999", fdata.getRow(0)[0]); //$NON-NLS-1$
+        assertEquals("0", fdata.getRow(ROWS / 2)[0]); //$NON-NLS-1$
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testUnique() {
+        FilteredRowDataSet fdata = run(new UniqueFilter(0, new SumAggregate()));
+        assertEquals(1000, fdata.getRowCount());
+        // the sum of i for i % 1000 == 0
+        assertEquals(Long.valueOf(499500000L), fdata.getRow(0)[1]);
+    }
+}
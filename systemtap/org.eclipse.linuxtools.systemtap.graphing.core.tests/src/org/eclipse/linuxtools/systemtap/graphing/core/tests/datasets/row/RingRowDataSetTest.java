@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Red Hat - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.linuxtools.systemtap.graphing.core.tests.datasets.row;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.linuxtools.systemtap.graphing.core.adapters.ScrollAdapter;
+import org.eclipse.linuxtools.systemtap.graphing.core.datasets.IDataEntry;
+import org.eclipse.linuxtools.systemtap.graphing.core.datasets.IDataSet;
+import org.eclipse.linuxtools.systemtap.graphing.core.datasets.row.FilteredRowDataSet;
+import org.eclipse.linuxtools.systemtap.graphing.core.datasets.row.RingRowDataSet;
+import org.eclipse.linuxtools.systemtap.graphing.core.datasets.row.RowEntry;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RingRowDataSetTest {
+
+    @Before
+    public void setUp() {
+        data = new RingRowDataSet(new String[] {"a", "b", "c"}, 3);
+        append("1", "0.5", "x");
+        append("2", "1.5", "y");
+    }
+
+    private void append(Object... values) {
+        RowEntry entry = new RowEntry();
+        entry.putRow(0, values);
+        data.append(entry);
+    }
+
+    @Test
+    public void testValues() {
+        assertArrayEquals(new Object[] {Long.valueOf(1), Double.valueOf(0.5), "x"}, data.getRow(0));
+        assertArrayEquals(new Object[] {Long.valueOf(2), Double.valueOf(1.5), "y"}, data.getRow(1));
+        assertNull(data.getRow(2));
+    }
+
+    @Test
+    public void testConvertToString() {
+        // not written as a long would be
+        append("03", "2.50", "z");
+        assertArrayEquals(new Object[] {"1", "2", "03"}, data.getColumn(0));
+        assertArrayEquals(new Object[] {"0.5", "1.5", "2.50"}, data.getColumn(1));
+    }
+
+    @Test
+    public void testRetention() {
+        append("3", "2.5", "x");
+        append("4", "3.5", "z");
+        assertEquals(3, data.getRowCount());
+        assertEquals(1, data.getDroppedRowCount());
+        assertArrayEquals(new Object[] {Long.valueOf(2), Long.valueOf(3), Long.valueOf(4)}, data.getColumn(0));
+        assertArrayEquals(new Object[] {"y", "x", "z"}, data.getHistoricalData(null, 2, 0, 3));
+
+        Object[] rows = data.getColumn(IDataSet.COL_ROW_NUM);
+        assertArrayEquals(new Object[] {Integer.valueOf(2), Integer.valueOf(3), Integer.valueOf(4)}, rows);
+
+        assertNull(data.getHistoricalData(null, 0, 0, 4));
+    }
+
+    @Test
+    public void testColumnView() {
+        append("3", "2.5", "x");
+        append("4", "3.5", "z");
+        synchronized (data) {
+            RingRowDataSet.ColumnView view = data.getColumnView(1, 1, 3);
+            assertEquals(2, view.size());
+            assertTrue(view.isNumeric());
+            assertEquals(2.5, view.getDouble(0), 0);
+            assertEquals(Double.valueOf(3.5), view.get(1));
+            assertFalse(data.getColumnView(2, 0, 3).isNumeric());
+            assertNull(data.getColumnView(0, 2, 4));
+        }
+    }
+
+    @Test
+    public void testSeriesMax() {
+        append("3", "0.25", "x");
+        ScrollAdapter adapter = new ScrollAdapter(data, IDataSet.COL_ROW_NUM, new int[] {0, 1}, null);
+        assertEquals(3.0, adapter.getYSeriesMax(0, 0, 3).doubleValue(), 0);
+        assertEquals(1.5, adapter.getYSeriesMax(1, 0, 3).doubleValue(), 0);
+        assertEquals(0.5, adapter.getYSeriesMax(1, 0, 1).doubleValue(), 0);
+        assertNull(adapter.getYSeriesMax(0, 0, 4));
+    }
+
+    @Test
+    public void testFilteredDroppedRowCount() {
+        FilteredRowDataSet filtered = new FilteredRowDataSet(data);
+        assertEquals(0, filtered.getDroppedRowCount());
+        append("3", "2.5", "x");
+        append("4", "3.5", "z");
+        assertEquals(1, filtered.getDroppedRowCount());
+        assertEquals(3, filtered.getRowCount());
+        assertEquals(0, new FilteredRowDataSet(new String[] {"a"}).getDroppedRowCount());
+    }
+
+    @Test
+    public void testGetEntry() {
+        IDataEntry last = data.getEntry(1);
+        assertSame(last, data.getEntry(1));
+        append("3", "2.5", "x");
+        assertEquals(Long.valueOf(3), data.getEntry(2).get(null, 0));
+        assertNull(data.getEntry(3));
+    }
+
+    @Test
+    public void testRemove() {
+        append("3", "2.5", "x");
+        append("4", "3.5", "z");
+        RowEntry entry = new RowEntry();
+        entry.putRow(0, new String[] {"3", "2.5", "x"});
+        assertTrue(data.remove(entry));
+        assertFalse(data.remove(entry));
+        assertArrayEquals(new Object[] {Long.valueOf(2), Long.valueOf(4)}, data.getColumn(0));
+        append("5", "4.5", "w");
+        assertArrayEquals(new Object[] {"y", "z", "w"}, data.getColumn(2));
+        assertTrue(data.remove(0));
+        assertFalse(data.remove(2));
+        assertEquals(2, data.getEntryCount());
+    }
+
+    private RingRowDataSet data;
+}
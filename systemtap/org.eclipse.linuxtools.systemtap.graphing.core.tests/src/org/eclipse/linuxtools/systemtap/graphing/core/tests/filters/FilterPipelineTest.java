@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Red Hat - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.linuxtools.systemtap.graphing.core.tests.filters;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.linuxtools.systemtap.graphing.core.aggregates.AverageAggregate;
+import org.eclipse.linuxtools.systemtap.graphing.core.aggregates.MaxAggregate;
+import org.eclipse.linuxtools.systemtap.graphing.core.aggregates.SumAggregate;
+import org.eclipse.linuxtools.systemtap.graphing.core.datasets.row.FilteredRowDataSet;
+import org.eclipse.linuxtools.systemtap.graphing.core.datasets.row.RingRowDataSet;
+import org.eclipse.linuxtools.systemtap.graphing.core.datasets.row.RowDataSet;
+import org.eclipse.linuxtools.systemtap.graphing.core.datasets.row.RowEntry;
+import org.eclipse.linuxtools.systemtap.graphing.core.filters.IDataSetFilter;
+import org.eclipse.linuxtools.systemtap.graphing.core.filters.MatchFilter;
+import org.eclipse.linuxtools.systemtap.graphing.core.filters.RangeFilter;
+import org.eclipse.linuxtools.systemtap.graphing.core.filters.SortFilter;
+import org.eclipse.linuxtools.systemtap.graphing.core.filters.UniqueFilter;
+import org.eclipse.linuxtools.systemtap.graphing.core.tests.MockDataSet;
+import org.junit.Test;
+
+/**
+ * Checks that filtering the rows as they are appended, and dropped, gives
+ * the same rows as filtering all of them at once.
+ */
+public class FilterPipelineTest {
+    private static final String[] TITLES = {"key", "value", "name"};
+
+    private static RowEntry entry(Object... values) {
+        RowEntry entry = new RowEntry();
+        entry.putRow(0, values);
+        return entry;
+    }
+
+    private static void append(RowDataSet data, Random random, int rows) {
+        for (int i = 0; i < rows; i++) {
+            data.append(entry(Integer.toString(random.nextInt(50)),
+                    Integer.toString(random.nextInt(1000)),
+                    "n" + random.nextInt(5))); //$NON-NLS-1$
+        }
+    }
+
+    private static void check(RowDataSet data, FilteredRowDataSet fdata, IDataSetFilter... filters) {
+        List<Object>[] columns = MockDataSet.createArrayList(TITLES.length, new Object());
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = new ArrayList<>();
+            for (Object value : data.getColumn(i)) {
+                columns[i].add(value);
+            }
+        }
+        for (IDataSetFilter filter : filters) {
+            columns = filter.filter(columns);
+        }
+
+        assertEquals(columns[0].size(), fdata.getRowCount());
+        for (int i = 0; i < columns.length; i++) {
+            assertArrayEquals(columns[i].toArray(), fdata.getColumn(i));
+        }
+    }
+
+    private static void test(RowDataSet data, IDataSetFilter... filters) {
+        FilteredRowDataSet fdata = new FilteredRowDataSet(data);
+        for (IDataSetFilter filter : filters) {
+            fdata.addFilter(filter);
+        }
+        Random random = new Random(filters.length);
+        for (int i = 0; i < 20; i++) {
+            append(data, random, random.nextInt(100));
+            check(data, fdata, filters);
+        }
+    }
+
+    @Test
+    public void testMatchSort() {
+        IDataSetFilter[] filters = {
+                new MatchFilter(2, "n1", MatchFilter.REMOVE_MATCHING), //$NON-NLS-1$
+                new SortFilter(1, SortFilter.DESCENDING) };
+        test(new RowDataSet(TITLES), filters);
+        test(new RingRowDataSet(TITLES, 150), filters);
+    }
+
+    @Test
+    public void testRangeUnique() {
+        IDataSetFilter[] filters = {
+                new RangeFilter(1, 100, 800, RangeFilter.INSIDE_BOUNDS),
+                new UniqueFilter(0, new SumAggregate()) };
+        test(new RowDataSet(TITLES), filters);
+        test(new RingRowDataSet(TITLES, 150), filters);
+    }
+
+    @Test
+    public void testUniqueSort() {
+        IDataSetFilter[] filters = {
+                new UniqueFilter(0, new MaxAggregate()),
+                new SortFilter(1, SortFilter.ASCENDING) };
+        test(new RowDataSet(TITLES), filters);
+        test(new RingRowDataSet(TITLES, 150), filters);
+    }
+
+    @Test
+    public void testUniqueAverage() {
+        test(new RingRowDataSet(TITLES, 150), new UniqueFilter(2, new AverageAggregate()));
+    }
+
+    @Test
+    public void testSortTypeChange() {
+        RingRowDataSet data = new RingRowDataSet(TITLES, 4);
+        FilteredRowDataSet fdata = new FilteredRowDataSet(data);
+        fdata.addFilter(new SortFilter(0, SortFilter.ASCENDING));
+
+        data.append(entry("10", "0", "a")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        data.append(entry("9", "1", "b")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        assertArrayEquals(new Object[] {9L, 10L}, fdata.getColumn(0));
+
+        // sorted as strings while a value is not a number
+        data.append(entry("x", "2", "c")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        assertArrayEquals(new Object[] {"10", "9", "x"}, fdata.getColumn(0)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+
+        data.append(entry("8", "3", "d")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        data.append(entry("7", "4", "e")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        data.append(entry("6", "5", "f")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        data.append(entry("11", "6", "g")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        // sorted as numbers again once it is dropped
+        assertArrayEquals(new Object[] {"6", "7", "8", "11"}, fdata.getColumn(0)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+    }
+}
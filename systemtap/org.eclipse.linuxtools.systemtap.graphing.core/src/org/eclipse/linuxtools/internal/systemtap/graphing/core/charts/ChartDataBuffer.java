@@ -0,0 +1,209 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.linuxtools.internal.systemtap.graphing.core.charts;
+
+import java.util.Arrays;
+
+import org.eclipse.linuxtools.systemtap.graphing.core.adapters.IAdapter;
+
+/**
+ * The last records of the data of a chart, with their values converted to
+ * doubles. Records appended to the data since the last update are the only
+ * ones read from the adapter; all of them are read again if the records
+ * changed otherwise, such as when the data is sorted or its oldest records
+ * are dropped.
+ */
+public class ChartDataBuffer {
+    private int capacity;
+    private int seriesCount = -1;
+    private Object[] keys;
+    private double[] x;
+    private double[][] y;
+    private int head;
+    private int size;
+
+    private int recordCount;
+    private Object[] lastRecord;
+
+    /**
+     * Reads the records appended to the data of the adapter.
+     * @param adapter The adapter of the data.
+     * @param capacity The number of records to keep.
+     * @return <code>true</code> if the records changed.
+     */
+    public boolean update(IAdapter adapter, int capacity) {
+        capacity = Math.max(1, capacity);
+        int series = adapter.getSeriesCount();
+        if (capacity != this.capacity || series != seriesCount) {
+            this.capacity = capacity;
+            seriesCount = series;
+            keys = new Object[capacity];
+            x = new double[capacity];
+            y = new double[series][capacity];
+            clear();
+        }
+
+        int count = adapter.getRecordCount();
+        int start;
+        if (recordCount > 0 && count >= recordCount && Arrays.equals(getRecord(adapter, recordCount - 1), lastRecord)) {
+            if (count == recordCount) {
+                return false;
+            }
+            start = Math.max(recordCount, count - capacity);
+        } else {
+            if (0 == count && 0 == recordCount) {
+                return false;
+            }
+            clear();
+            start = Math.max(0, count - capacity);
+        }
+
+        Object[][] records = adapter.getData(start, count);
+        for (Object[] record : records) {
+            append(record);
+        }
+        recordCount = start + records.length;
+        if (records.length > 0) {
+            lastRecord = records[records.length - 1];
+        }
+        return true;
+    }
+
+    private static Object[] getRecord(IAdapter adapter, int i) {
+        Object[][] records = adapter.getData(i, i + 1);
+        return records != null && records.length == 1 ? records[0] : null;
+    }
+
+    private void clear() {
+        Arrays.fill(keys, null);
+        head = size = recordCount = 0;
+        lastRecord = null;
+    }
+
+    private void append(Object[] record) {
+        int slot;
+        if (size < capacity) {
+            slot = slot(size++);
+        } else {
+            // overwrite the oldest record
+            slot = head;
+            head = slot(1);
+        }
+        keys[slot] = record[0];
+        x[slot] = toDouble(record[0]);
+        for (int i = 0; i < seriesCount; i++) {
+            y[i][slot] = toDouble(record[i + 1]);
+        }
+    }
+
+    private int slot(int i) {
+        int slot = head + i;
+        return slot >= capacity ? slot - capacity : slot;
+    }
+
+    /**
+     * Converts a value to a double, as {@link Double#NaN} if it is <code>null</code>
+     * or not a number.
+     */
+    private static double toDouble(Object o) {
+        if (o == null) {
+            return Double.NaN;
+        }
+        if (o instanceof Number) {
+            return ((Number) o).doubleValue();
+        }
+        try {
+            return Double.parseDouble(o.toString());
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * @return The number of records kept.
+     */
+    public int size() {
+        return size;
+    }
+
+    public int getSeriesCount() {
+        return Math.max(0, seriesCount);
+    }
+
+    /**
+     * @param i The index of a record, from the oldest one kept.
+     * @return The x value of the record, which may be <code>null</code>.
+     */
+    public Object getKey(int i) {
+        return keys[slot(i)];
+    }
+
+    /**
+     * @param i The index of a record, from the oldest one kept.
+     * @return The x value of the record, or {@link Double#NaN} if it is not a number.
+     */
+    public double getX(int i) {
+        return x[slot(i)];
+    }
+
+    /**
+     * @param series The index of a y series.
+     * @param i The index of a record, from the oldest one kept.
+     * @return The y value of the record, or {@link Double#NaN} if it is not a number.
+     */
+    public double getY(int series, int i) {
+        return y[series][slot(i)];
+    }
+
+    /**
+     * Reduces the points of a series to the ones with the smallest and the
+     * largest y value of each of a number of buckets of consecutive points,
+     * so that the shape of the series is kept when it is drawn with one
+     * bucket per pixel.
+     * @param valx The x values of the points.
+     * @param valy The y values of the points.
+     * @param length The number of points.
+     * @param buckets The number of buckets.
+     * @return The x and y values of the points kept, or the given values if
+     * there are not more points than twice the number of buckets.
+     */
+    public static double[][] downsample(double[] valx, double[] valy, int length, int buckets) {
+        if (buckets <= 0 || length <= 2 * buckets) {
+            return new double[][] { Arrays.copyOf(valx, length), Arrays.copyOf(valy, length) };
+        }
+        double[] outx = new double[2 * buckets];
+        double[] outy = new double[2 * buckets];
+        int n = 0;
+        for (int b = 0; b < buckets; b++) {
+            int start = (int) ((long) b * length / buckets);
+            int end = (int) ((long) (b + 1) * length / buckets);
+            int min = start, max = start;
+            for (int i = start + 1; i < end; i++) {
+                if (valy[i] < valy[min]) {
+                    min = i;
+                } else if (valy[i] > valy[max]) {
+                    max = i;
+                }
+            }
+            // keep the points in their order
+            int first = Math.min(min, max), second = Math.max(min, max);
+            outx[n] = valx[first];
+            outy[n++] = valy[first];
+            if (second != first) {
+                outx[n] = valx[second];
+                outy[n++] = valy[second];
+            }
+        }
+        return new double[][] { Arrays.copyOf(outx, n), Arrays.copyOf(outy, n) };
+    }
+}
@@ -18,6 +18,7 @@ import java.util.Arrays;
 import org.eclipse.linuxtools.internal.systemtap.graphing.core.Localization;
 import org.eclipse.linuxtools.systemtap.graphing.core.datasets.IDataSet;
 import org.eclipse.linuxtools.systemtap.graphing.core.datasets.IHistoricalDataSet;
+import org.eclipse.linuxtools.systemtap.graphing.core.datasets.row.RingRowDataSet;
 
 public class ScrollAdapter implements IAdapter {
     public ScrollAdapter(IHistoricalDataSet data, int xSeries, int[] ySeries, String key) {
@@ -37,6 +38,23 @@ public class ScrollAdapter implements IAdapter {
         if(start < 0 || end > data.getRowCount() || start > end)
             return null;
 
+        if(data instanceof RingRowDataSet ring) {
+            // read the values in place instead of copying the column, while
+            // no row can be appended over them
+            synchronized(ring) {
+                RingRowDataSet.ColumnView view = ring.getColumnView(series, start, end);
+                if(null != view) {
+                    double max = Double.NEGATIVE_INFINITY;
+                    for(int i=0; i<view.size(); i++) {
+                        double cur = view.getDouble(i);
+                        if(max < cur)
+                            max = cur;
+                    }
+                    return Double.valueOf(max);
+                }
+            }
+        }
+
         Number max = Double.NEGATIVE_INFINITY;
         Number cur;
 
@@ -85,7 +103,7 @@ public class ScrollAdapter implements IAdapter {
         Object[][] o = new Object[Math.min(end-start,getRecordCount())][ySeries.length+1];
 
         Object[] x = data.getHistoricalData(key, xSeries, start, end);
-        Object[][] y = new Object[ySeries.length][data.getEntryCount()];
+        Object[][] y = new Object[ySeries.length][];
 
         for(int i=0; i<ySeries.length; i++)
             y[i] = data.getHistoricalData(key, ySeries[i], start, end);
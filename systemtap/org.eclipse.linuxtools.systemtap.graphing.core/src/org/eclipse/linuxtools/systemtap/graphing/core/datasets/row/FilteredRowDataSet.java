@@ -16,21 +16,20 @@ package org.eclipse.linuxtools.systemtap.graphing.core.datasets.row;
 import java.util.ArrayList;
 import java.util.List;
 
-import org.eclipse.linuxtools.internal.systemtap.graphing.core.GraphingCorePlugin;
 import org.eclipse.linuxtools.systemtap.graphing.core.datasets.IDataEntry;
 import org.eclipse.linuxtools.systemtap.graphing.core.datasets.IFilteredDataSet;
+import org.eclipse.linuxtools.systemtap.graphing.core.filters.FilterPipeline;
 import org.eclipse.linuxtools.systemtap.graphing.core.filters.IDataSetFilter;
 
 public class FilteredRowDataSet extends RowDataSet implements IFilteredDataSet {
     public FilteredRowDataSet(RowDataSet data) {
         super(data.getTitles());
         original = data;
-        this.data = data.data;
         filters = new ArrayList<>();
 
-        filtersChanged = false;
+        filtersChanged = true;
         topData = null;
-        dataCount = data.getRowCount();
+        dataCount = 0;
     }
 
     public FilteredRowDataSet(String[] titles) {
@@ -55,34 +54,67 @@ public class FilteredRowDataSet extends RowDataSet implements IFilteredDataSet {
     //End overwrite methods to insure data is removed from the original DataSet
 
      //Overwrite to ensure the data returned has all the filters applied
-    @Override
-    public Object[] getColumn(int col, int start, int end) {
-        rebuildDataSet();
-        return super.getColumn(col, start, end);
-    }
-
     @Override
     public Object[] getRow(int row) {
         rebuildDataSet();
-        return super.getRow(row);
+        if(row < 0 || row >= pipeline.getRowCount()) {
+            return null;
+        }
+        return pipeline.getRow(row);
     }
 
     @Override
     public Object[] getHistoricalData(String key, int col, int start, int end) {
         rebuildDataSet();
-        return super.getHistoricalData(key, col, start, end);
+        if(start > end || start < 0 || end > pipeline.getRowCount() || col < COL_ROW_NUM || col >= this.getColCount()) {
+            return null;
+        }
+
+        Object[] d;
+        if(COL_ROW_NUM == col) {
+            d = new Integer[end-start];
+            for(int i=0; i<d.length; i++) {
+                d[i] = Integer.valueOf(start+i+1);
+            }
+        } else {
+            d = new Object[end-start];
+            for(int i=0; i<d.length; i++) {
+                d[i] = pipeline.getValue(start+i, col);
+            }
+        }
+        return d;
     }
 
     @Override
     public int getEntryCount() {
         rebuildDataSet();
-        return super.getEntryCount();
+        return pipeline.getRowCount();
     }
 
     @Override
     public IDataEntry getEntry(int entry) {
         rebuildDataSet();
-        return super.getEntry(entry);
+        if(entry < 0 || entry >= pipeline.getRowCount()) {
+            return null;
+        }
+        // keep the last entry until the filtered rows change, as it is
+        // compared to detect changes by a data set over this one
+        int last = pipeline.getRowCount()-1;
+        if(entry == last && null != lastEntry) {
+            return lastEntry;
+        }
+        RowEntry e = new RowEntry();
+        e.putRow(0, pipeline.getRow(entry));
+        if(entry == last) {
+            lastEntry = e;
+        }
+        return e;
+    }
+
+    @Override
+    Object getValue(int row, int col) {
+        rebuildDataSet();
+        return pipeline.getValue(row, col);
     }
      //End overwrite to ensure the data returned has all the filters applied
 
@@ -113,58 +145,86 @@ public class FilteredRowDataSet extends RowDataSet implements IFilteredDataSet {
     }
     //End IFilteredDataSet Methods
 
-    private void rebuildDataSet() {
-        IDataEntry top = original.getEntry(original.getEntryCount()-1);
+    /**
+     * @return The number of rows dropped by the original data set, if it is
+     * a {@link RingRowDataSet} whose retention window was filled, 0 otherwise.
+     * @since 2.1
+     */
+    public long getDroppedRowCount() {
+        return original instanceof RingRowDataSet ? ((RingRowDataSet)original).getDroppedRowCount() : 0;
+    }
 
-        if(filtersChanged || dataCount != original.getRowCount() || topData != top) {
-            dataCount = original.getRowCount();
-            topData = top;
+    /**
+     * Filters the rows appended to the original data set since the last
+     * call, or all its rows if it was changed otherwise. Rows dropped by a
+     * {@link RingRowDataSet} are removed from the filtered rows.
+     */
+    private void rebuildDataSet() {
+        // hold the lock of a ring data set, so that rows are not appended while they are filtered
+        synchronized(original) {
+            int count = original.getRowCount();
+            long dropped = original instanceof RingRowDataSet ? ((RingRowDataSet)original).getDroppedRowCount() : 0;
+            int removals = original.getRemovalCount();
+
+            int droppedRows = (int)(dropped - droppedCount);
+            int appendedRows = count - (dataCount - droppedRows);
+            boolean reset = null == pipeline || filtersChanged || removals != removalCount
+                    || droppedRows > dataCount || appendedRows < 0 || !isTopUnchanged();
+            if(!reset && 0 == droppedRows && 0 == appendedRows) {
+                return;
+            }
 
-            List<Object>[] filterData = getFilterData();
-            for(int i=0; i<filters.size(); i++) {
-                filterData = filters.get(i).filter(filterData);
+            dataCount = count;
+            droppedCount = dropped;
+            removalCount = removals;
+            // ring data sets only change through append and remove
+            topData = original instanceof RingRowDataSet || 0 == count ? null : original.getEntry(count-1);
+            lastEntry = null;
+
+            if(reset) {
+                filtersChanged = false;
+                pipeline = new FilterPipeline(source, new ArrayList<>(filters));
+                pipeline.reset();
+            } else {
+                pipeline.update(droppedRows, appendedRows);
             }
-            setFilteredData(filterData);
         }
     }
 
-    private ArrayList<Object>[] getFilterData() {
-        ArrayList<Object>[] data = GraphingCorePlugin.createArrayList(original.getColCount());
-        for(int i=0; i<data.length; i++) {
-            data[i] = new ArrayList<>();
-        }
+    /**
+     * @return True if the last row filtered is still in the same place,
+     * which tells if rows were only appended to a data set other than a
+     * {@link RingRowDataSet}.
+     */
+    private boolean isTopUnchanged() {
+        return original instanceof RingRowDataSet || 0 == dataCount || original.getEntry(dataCount-1) == topData;
+    }
 
-        Object[] row;
-        for(int j,i=0; i<original.getRowCount(); i++) {
-            row = original.getRow(i);
-            for(j=0; j<data.length; j++) {
-                data[j].add(row[j]);
-            }
+    private final FilterPipeline.Source source = new FilterPipeline.Source() {
+        @Override
+        public int getRowCount() {
+            return dataCount;
         }
 
-        return data;
-    }
-
-    private void setFilteredData(List<?>[] data) {
-        this.data = new ArrayList<>();
+        @Override
+        public int getColCount() {
+            return original.getColCount();
+        }
 
-        RowEntry entry;
-        Object[] row;
-        for(int j,i=0; i<data[0].size(); i++) {
-            row = new Object[data.length];
-            entry = new RowEntry();
-            for(j=0; j<data.length; j++) {
-                row[j] = data[j].get(i);
-            }
-            entry.putRow(0, row);
-            this.data.add(entry);
+        @Override
+        public Object getValue(int row, int col) {
+            return original.getValue(row, col);
         }
-    }
+    };
 
     private RowDataSet original;
     private List<IDataSetFilter> filters;
+    private FilterPipeline pipeline;
+    private RowEntry lastEntry;
 
     private boolean filtersChanged;
     private int dataCount;
+    private long droppedCount;
+    private int removalCount;
     private Object topData;
 }
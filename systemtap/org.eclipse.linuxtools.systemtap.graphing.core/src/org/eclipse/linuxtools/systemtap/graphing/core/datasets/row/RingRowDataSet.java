@@ -0,0 +1,600 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.linuxtools.systemtap.graphing.core.datasets.row;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.linuxtools.internal.systemtap.graphing.core.Localization;
+import org.eclipse.linuxtools.systemtap.graphing.core.datasets.IDataEntry;
+
+/**
+ * A {@link RowDataSet} for the output of a running script, which only keeps
+ * its most recent rows. Rows are stored column by column in ring buffers:
+ * integer and decimal columns as primitive values, and other columns as
+ * codes into a dictionary of their distinct strings. A column whose value
+ * cannot be stored as its current type is converted to a string column.
+ * Values are returned as they were appended, except that numbers are
+ * returned as <code>Long</code> or <code>Double</code>.
+ *
+ * <p>Row numbers of {@link #COL_ROW_NUM} count the rows that were dropped,
+ * so that they keep increasing once the retention window is full.</p>
+ * @since 2.1
+ */
+public class RingRowDataSet extends RowDataSet {
+    /** Number of rows kept by default */
+    public static final int DEFAULT_RETENTION = 100000;
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    /**
+     * A read-only view of a range of a column, which reads the values from
+     * the column storage without copying them. Since appending a row may
+     * overwrite or move the values, the view must be created and read while
+     * holding the lock of the data set.
+     */
+    public final class ColumnView {
+        private final Column column;
+        private final int first;
+        private final int length;
+
+        private ColumnView(Column column, int first, int length) {
+            this.column = column;
+            this.first = first;
+            this.length = length;
+        }
+
+        public int size() {
+            return length;
+        }
+
+        /**
+         * @param i The index of the value in the view.
+         * @return The value, as returned by {@link RingRowDataSet#getHistoricalData(String, int)}.
+         */
+        public Object get(int i) {
+            return column.get(slot(first, i));
+        }
+
+        /**
+         * @param i The index of the value in the view.
+         * @return The value as a double, or NaN if it is not a number.
+         */
+        public double getDouble(int i) {
+            return column.getDouble(slot(first, i));
+        }
+
+        /**
+         * @return <code>true</code> if all the values are numbers.
+         */
+        public boolean isNumeric() {
+            return !(column instanceof StringColumn);
+        }
+    }
+
+    public RingRowDataSet(String[] titles) {
+        this(titles, DEFAULT_RETENTION);
+    }
+
+    /**
+     * @param titles The titles of the columns.
+     * @param retention The maximum number of rows kept. Appending a row to a
+     * full data set drops its oldest row.
+     */
+    public RingRowDataSet(String[] titles, int retention) {
+        super(titles);
+        this.retention = Math.max(1, retention);
+        int count = Math.max(0, getColCount());
+        columns = new Column[count];
+        for (int i = 0; i < count; i++) {
+            columns[i] = new LongColumn(Math.min(INITIAL_CAPACITY, this.retention));
+        }
+    }
+
+    /**
+     * @return The maximum number of rows kept.
+     */
+    public int getRetention() {
+        return retention;
+    }
+
+    /**
+     * @return The number of rows dropped because the retention window was full.
+     */
+    public synchronized long getDroppedRowCount() {
+        return dropped;
+    }
+
+    @Override
+    public synchronized void append(IDataEntry entry) {
+        Object[] row = entry.getRow(null);
+        if (row.length != this.getColCount())
+            throw new ArrayIndexOutOfBoundsException(Localization.getString("RowDataSet.ArraySizeMismatch") + row.length + " != " + this.getColCount()); //$NON-NLS-1$ //$NON-NLS-2$
+
+        int slot;
+        if (size < retention) {
+            slot = size++;
+            ensureCapacity(size);
+        } else {
+            // overwrite the oldest row
+            slot = head;
+            head = (head + 1) % retention;
+            dropped++;
+        }
+        for (int i = 0; i < columns.length; i++) {
+            setValue(i, slot, row[i]);
+        }
+        modified();
+    }
+
+    private void ensureCapacity(int capacity) {
+        // rows only wrap around once the retention is reached, so the
+        // buffers grow while the oldest row is still in the first slot
+        for (Column column : columns) {
+            if (column.capacity() < capacity) {
+                column.grow(Math.min(retention, Math.max(capacity, column.capacity() << 1)));
+            }
+        }
+    }
+
+    private void setValue(int col, int slot, Object value) {
+        if (!columns[col].set(slot, value)) {
+            // the first value decides if the column is decimal
+            Column column = size == 1 ? new DoubleColumn(columns[col].capacity()) : null;
+            if (null == column || !column.set(slot, value)) {
+                column = columns[col].toStringColumn(head, size, retention);
+                column.set(slot, value);
+            }
+            columns[col] = column;
+        }
+    }
+
+    @Override
+    public synchronized Object[] getRow(int row) {
+        if (row < 0 || row >= size) {
+            return null;
+        }
+        int slot = slot(head, row);
+        Object[] values = new Object[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            values[i] = columns[i].get(slot);
+        }
+        return values;
+    }
+
+    @Override
+    public synchronized Object[] getHistoricalData(String key, int col, int start, int end) {
+        if (start > end || start < 0 || end > size || col < COL_ROW_NUM || col >= this.getColCount()) {
+            return null;
+        }
+
+        if (COL_ROW_NUM == col) {
+            Integer[] rows = new Integer[end - start];
+            for (int i = 0; i < rows.length; i++) {
+                rows[i] = Integer.valueOf((int) (dropped + start + i + 1));
+            }
+            return rows;
+        }
+
+        Object[] d = new Object[end - start];
+        Column column = columns[col];
+        int first = slot(head, start);
+        for (int i = 0; i < d.length; i++) {
+            d[i] = column.get(slot(first, i));
+        }
+        return d;
+    }
+
+    @Override
+    synchronized Object getValue(int row, int col) {
+        return columns[col].get(slot(head, row));
+    }
+
+    /**
+     * Returns a view of a range of a column, without copying its values. The
+     * caller must hold the lock of the data set until it is done with the view:
+     * <pre>
+     * synchronized (data) {
+     *     ColumnView view = data.getColumnView(col, start, end);
+     *     ...
+     * }
+     * </pre>
+     * @param col The index of the column.
+     * @param start The first row of the range.
+     * @param end The end of the range, exclusive.
+     * @return The view, or <code>null</code> if the range is not valid.
+     */
+    public synchronized ColumnView getColumnView(int col, int start, int end) {
+        if (start > end || start < 0 || end > size || col < 0 || col >= columns.length) {
+            return null;
+        }
+        return new ColumnView(columns[col], slot(head, start), end - start);
+    }
+
+    @Override
+    public synchronized int getEntryCount() {
+        return size;
+    }
+
+    @Override
+    public synchronized IDataEntry getEntry(int entry) {
+        if (entry < 0 || entry >= size) {
+            return null;
+        }
+        // return the same last entry until the data set changes, as
+        // a data set over this one compares it to detect changes
+        if (entry == size - 1 && lastEntry != null) {
+            return lastEntry;
+        }
+        RowEntry e = new RowEntry();
+        e.putRow(0, getRow(entry));
+        if (entry == size - 1) {
+            lastEntry = e;
+        }
+        return e;
+    }
+
+    @Override
+    public synchronized boolean remove(IDataEntry entry) {
+        if (null == entry || null == entry.getRow(null)) {
+            return false;
+        }
+        Object[] values = entry.getRow(null);
+        for (int row = 0; row < size; row++) {
+            if (matches(row, values)) {
+                return remove(row);
+            }
+        }
+        return false;
+    }
+
+    private boolean matches(int row, Object[] values) {
+        if (values.length != columns.length) {
+            return false;
+        }
+        int slot = slot(head, row);
+        for (int i = 0; i < columns.length; i++) {
+            if (!String.valueOf(columns[i].get(slot)).equals(String.valueOf(values[i]))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized boolean remove(int entry) {
+        if (entry < 0 || entry >= size) {
+            return false;
+        }
+        // shift the following rows
+        for (int row = entry; row < size - 1; row++) {
+            int to = slot(head, row);
+            int from = slot(head, row + 1);
+            for (Column column : columns) {
+                column.copy(from, to);
+            }
+        }
+        size--;
+        removed();
+        if (size < retention) {
+            // keep the rows in the first slots, so that the buffers can grow
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = columns[i].unwrap(head, size, retention);
+            }
+            head = 0;
+        }
+        modified();
+        return true;
+    }
+
+    private void modified() {
+        lastEntry = null;
+    }
+
+    private int slot(int first, int row) {
+        int slot = first + row;
+        return slot >= retention ? slot - retention : slot;
+    }
+
+    /**
+     * Values of a column, indexed by slot.
+     */
+    private abstract static class Column {
+        abstract int capacity();
+        abstract void grow(int capacity);
+        /**
+         * @return <code>false</code> if the value cannot be stored in this column
+         */
+        abstract boolean set(int slot, Object value);
+        abstract Object get(int slot);
+        abstract double getDouble(int slot);
+        abstract void copy(int from, int to);
+        /**
+         * @return a column whose rows start at the first slot
+         */
+        abstract Column unwrap(int head, int size, int retention);
+
+        StringColumn toStringColumn(int head, int size, int retention) {
+            StringColumn column = new StringColumn(capacity());
+            for (int row = 0; row < size; row++) {
+                int slot = (head + row) % retention;
+                column.set(slot, get(slot));
+            }
+            return column;
+        }
+    }
+
+    private static final class LongColumn extends Column {
+        private long[] values;
+
+        LongColumn(int capacity) {
+            values = new long[capacity];
+        }
+
+        @Override
+        int capacity() {
+            return values.length;
+        }
+
+        @Override
+        void grow(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        boolean set(int slot, Object value) {
+            if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                values[slot] = ((Number) value).longValue();
+                return true;
+            }
+            if (value instanceof String s && isCanonicalLong(s)) {
+                values[slot] = Long.parseLong(s);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        Object get(int slot) {
+            return Long.valueOf(values[slot]);
+        }
+
+        @Override
+        double getDouble(int slot) {
+            return values[slot];
+        }
+
+        @Override
+        void copy(int from, int to) {
+            values[to] = values[from];
+        }
+
+        @Override
+        Column unwrap(int head, int size, int retention) {
+            LongColumn column = new LongColumn(values.length);
+            for (int row = 0; row < size; row++) {
+                column.values[row] = values[(head + row) % retention];
+            }
+            return column;
+        }
+
+        /**
+         * @return <code>true</code> if the string is a long written the way
+         * {@link Long#toString()} writes it, so that it is returned unchanged
+         */
+        private static boolean isCanonicalLong(String s) {
+            int length = s.length();
+            int i = length > 0 && s.charAt(0) == '-' ? 1 : 0;
+            if (i == length || length - i > 19 || (s.charAt(i) == '0' && (length - i > 1 || i > 0))) {
+                return false;
+            }
+            for (int j = i; j < length; j++) {
+                char c = s.charAt(j);
+                if (c < '0' || c > '9') {
+                    return false;
+                }
+            }
+            // out of range values have 19 digits
+            return length - i < 19 || s.compareTo(i > 0 ? "-9223372036854775808" : "9223372036854775807") <= 0; //$NON-NLS-1$ //$NON-NLS-2$
+        }
+    }
+
+    private static final class DoubleColumn extends Column {
+        private double[] values;
+
+        DoubleColumn(int capacity) {
+            values = new double[capacity];
+        }
+
+        @Override
+        int capacity() {
+            return values.length;
+        }
+
+        @Override
+        void grow(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        boolean set(int slot, Object value) {
+            if (value instanceof Double || value instanceof Float) {
+                values[slot] = ((Number) value).doubleValue();
+                return true;
+            }
+            Double d = value instanceof String s ? parseCanonicalDouble(s) : null;
+            if (d != null) {
+                values[slot] = d.doubleValue();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        Object get(int slot) {
+            return Double.valueOf(values[slot]);
+        }
+
+        @Override
+        double getDouble(int slot) {
+            return values[slot];
+        }
+
+        @Override
+        void copy(int from, int to) {
+            values[to] = values[from];
+        }
+
+        @Override
+        Column unwrap(int head, int size, int retention) {
+            DoubleColumn column = new DoubleColumn(values.length);
+            for (int row = 0; row < size; row++) {
+                column.values[row] = values[(head + row) % retention];
+            }
+            return column;
+        }
+    }
+
+    /**
+     * @return the decimal number, if the string is written the way
+     * {@link Double#toString()} writes it, <code>null</code> otherwise
+     */
+    private static Double parseCanonicalDouble(String s) {
+        if (s.indexOf('.') < 0) {
+            return null;
+        }
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if ((c < '0' || c > '9') && c != '.' && c != '-' && c != 'E') {
+                return null;
+            }
+        }
+        try {
+            Double d = Double.valueOf(s);
+            return d.toString().equals(s) ? d : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static final class StringColumn extends Column {
+        private static final int NULL = -1;
+        private int[] codes;
+        private List<String> dictionary = new ArrayList<>();
+        private Map<String, Integer> index = new HashMap<>();
+
+        StringColumn(int capacity) {
+            codes = new int[capacity];
+        }
+
+        @Override
+        int capacity() {
+            return codes.length;
+        }
+
+        @Override
+        void grow(int capacity) {
+            codes = Arrays.copyOf(codes, capacity);
+        }
+
+        @Override
+        boolean set(int slot, Object value) {
+            if (null == value) {
+                codes[slot] = NULL;
+                return true;
+            }
+            if (dictionary.size() >= 2 * codes.length) {
+                compact();
+            }
+            String s = value.toString();
+            Integer code = index.get(s);
+            if (null == code) {
+                code = Integer.valueOf(dictionary.size());
+                dictionary.add(s);
+                index.put(s, code);
+            }
+            codes[slot] = code.intValue();
+            return true;
+        }
+
+        /**
+         * Drops the strings which are no longer used by any slot. Unused
+         * slots keep old codes, so they are remapped too.
+         */
+        private void compact() {
+            List<String> used = new ArrayList<>();
+            Map<String, Integer> usedIndex = new HashMap<>();
+            for (int slot = 0; slot < codes.length; slot++) {
+                if (codes[slot] != NULL) {
+                    String s = dictionary.get(codes[slot]);
+                    Integer code = usedIndex.get(s);
+                    if (null == code) {
+                        code = Integer.valueOf(used.size());
+                        used.add(s);
+                        usedIndex.put(s, code);
+                    }
+                    codes[slot] = code.intValue();
+                }
+            }
+            dictionary = used;
+            index = usedIndex;
+        }
+
+        @Override
+        Object get(int slot) {
+            int code = codes[slot];
+            return code == NULL ? null : dictionary.get(code);
+        }
+
+        @Override
+        double getDouble(int slot) {
+            Object value = get(slot);
+            try {
+                return null == value ? Double.NaN : Double.parseDouble(value.toString());
+            } catch (NumberFormatException e) {
+                return Double.NaN;
+            }
+        }
+
+        @Override
+        void copy(int from, int to) {
+            codes[to] = codes[from];
+        }
+
+        @Override
+        Column unwrap(int head, int size, int retention) {
+            StringColumn column = new StringColumn(codes.length);
+            for (int row = 0; row < size; row++) {
+                column.set(row, get((head + row) % retention));
+            }
+            return column;
+        }
+
+        @Override
+        StringColumn toStringColumn(int head, int size, int retention) {
+            return this;
+        }
+    }
+
+    private final int retention;
+    private Column[] columns;
+    // slot of the oldest row
+    private int head;
+    private int size;
+    private long dropped;
+    private RowEntry lastEntry;
+}
@@ -183,7 +183,11 @@ public class RowDataSet implements IHistoricalDataSet {
 
     @Override
     public boolean remove(IDataEntry entry) {
-        return data.remove(entry);
+        if(data.remove(entry)) {
+            removals++;
+            return true;
+        }
+        return false;
     }
 
     @Override
@@ -191,6 +195,7 @@ public class RowDataSet implements IHistoricalDataSet {
         if(entry < 0 || entry >= data.size()) {
             return false;
         }
+        removals++;
         return (null != data.remove(entry));
     }
 
@@ -204,7 +209,27 @@ public class RowDataSet implements IHistoricalDataSet {
     }
     //End IHistoricalDataSet Methods
 
+    /**
+     * Returns a value without copying its row.
+     */
+    Object getValue(int row, int col) {
+        return getRow(row)[col];
+    }
+
+    /**
+     * Returns the number of times rows were removed, as opposed to appended,
+     * so that {@link FilteredRowDataSet} knows when to filter all the rows again.
+     */
+    int getRemovalCount() {
+        return removals;
+    }
+
+    void removed() {
+        removals++;
+    }
+
     protected List<IDataEntry> data;
     private String[] titles;
+    private int removals;
     public static final String ID = "org.eclipse.linuxtools.systemtap.graphing.core.datasets.rowdataset"; //$NON-NLS-1$
 }
@@ -0,0 +1,758 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.linuxtools.systemtap.graphing.core.filters;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.linuxtools.internal.systemtap.graphing.core.GraphingCorePlugin;
+import org.eclipse.linuxtools.systemtap.graphing.core.aggregates.AverageAggregate;
+import org.eclipse.linuxtools.systemtap.graphing.core.aggregates.CountAggregate;
+import org.eclipse.linuxtools.systemtap.graphing.core.aggregates.IDataAggregate;
+import org.eclipse.linuxtools.systemtap.graphing.core.aggregates.MaxAggregate;
+import org.eclipse.linuxtools.systemtap.graphing.core.aggregates.MinAggregate;
+import org.eclipse.linuxtools.systemtap.graphing.core.aggregates.SumAggregate;
+import org.eclipse.linuxtools.systemtap.graphing.core.structures.NumberType;
+
+/**
+ * Applies a list of filters to the rows of a source which grows at its end,
+ * and may drop its oldest rows. Each filter is a stage which keeps the
+ * indices of the rows of the previous stage that it outputs, rather than a
+ * copy of them, and which updates them when rows are appended or dropped:
+ * <ul>
+ * <li>{@link MatchFilter} and {@link RangeFilter} only test the new rows.</li>
+ * <li>{@link SortFilter} merges the new rows into its sorted indices.</li>
+ * <li>{@link UniqueFilter} folds the new rows into the running aggregate of
+ * their group, for the aggregates of this bundle.</li>
+ * </ul>
+ * Other filters are applied to a copy of the whole output of the previous
+ * stage, each time it changes.
+ * @since 2.1
+ */
+public class FilterPipeline {
+    /**
+     * The rows filtered by a pipeline.
+     */
+    public interface Source {
+        int getRowCount();
+        int getColCount();
+        Object getValue(int row, int col);
+    }
+
+    /**
+     * Changes of the output of a stage: the number of rows dropped from its
+     * start, then the number of rows appended to its end.
+     */
+    private static final class Change {
+        static final Change RESET = new Change(-1, -1);
+
+        final int dropped;
+        final int appended;
+
+        Change(int dropped, int appended) {
+            this.dropped = dropped;
+            this.appended = appended;
+        }
+
+        boolean isReset() {
+            return this == RESET;
+        }
+
+        boolean isEmpty() {
+            return dropped == 0 && appended == 0;
+        }
+    }
+
+    public FilterPipeline(Source source, List<IDataSetFilter> filters) {
+        this.source = source;
+        stages = new Stage[filters.size()];
+        Source in = source;
+        for (int i = 0; i < stages.length; i++) {
+            stages[i] = createStage(filters.get(i), in);
+            in = stages[i];
+        }
+        output = in;
+    }
+
+    private static Stage createStage(IDataSetFilter filter, Source in) {
+        int column = filter.getColumn();
+        if (column < 0 || column >= in.getColCount()) {
+            return new FallbackStage(filter, in);
+        }
+        if (filter instanceof MatchFilter) {
+            MatchFilter match = (MatchFilter) filter;
+            return new PredicateStage(in, column) {
+                @Override
+                boolean accept(Object value) {
+                    return match.accept(value);
+                }
+            };
+        } else if (filter instanceof RangeFilter) {
+            RangeFilter range = (RangeFilter) filter;
+            return new PredicateStage(in, column) {
+                @Override
+                boolean accept(Object value) {
+                    return range.accept(value);
+                }
+            };
+        } else if (filter instanceof SortFilter) {
+            return new SortStage(in, column, ((SortFilter) filter).isDescending());
+        } else if (filter instanceof UniqueFilter) {
+            return new UniqueStage(in, column, ((UniqueFilter) filter).getAggregate());
+        }
+        return new FallbackStage(filter, in);
+    }
+
+    /**
+     * Filters all the rows of the source again.
+     */
+    public void reset() {
+        propagate(Change.RESET);
+    }
+
+    /**
+     * Updates the filtered rows, once the oldest rows of the source are
+     * dropped and new rows are appended to it.
+     *
+     * @param dropped The number of rows dropped from the start of the source.
+     * @param appended The number of rows appended to the end of the source.
+     */
+    public void update(int dropped, int appended) {
+        propagate(new Change(dropped, appended));
+    }
+
+    private void propagate(Change change) {
+        for (int i = 0; i < stages.length && !change.isEmpty(); i++) {
+            change = stages[i].update(change);
+        }
+    }
+
+    public int getRowCount() {
+        return output.getRowCount();
+    }
+
+    public int getColCount() {
+        return source.getColCount();
+    }
+
+    public Object getValue(int row, int col) {
+        return output.getValue(row, col);
+    }
+
+    public Object[] getRow(int row) {
+        Object[] values = new Object[getColCount()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = output.getValue(row, i);
+        }
+        return values;
+    }
+
+    /**
+     * Applies a filter to a copy of a table.
+     *
+     * @param filter The filter to apply.
+     * @param data The columns of the table.
+     *
+     * @return The columns of the filtered table.
+     */
+    static List<Object>[] filter(IDataSetFilter filter, List<Object>[] data) {
+        FilterPipeline pipeline = new FilterPipeline(new ListSource(data), Collections.singletonList(filter));
+        pipeline.reset();
+        return copy(pipeline.output);
+    }
+
+    private static List<Object>[] copy(Source source) {
+        ArrayList<Object>[] data = GraphingCorePlugin.createArrayList(source.getColCount());
+        int rows = source.getRowCount();
+        for (int i = 0; i < data.length; i++) {
+            data[i] = new ArrayList<>(rows);
+            for (int j = 0; j < rows; j++) {
+                data[i].add(source.getValue(j, i));
+            }
+        }
+        return data;
+    }
+
+    private static final class ListSource implements Source {
+        private final List<Object>[] data;
+        private final int rows;
+
+        ListSource(List<Object>[] data) {
+            this.data = data;
+            int size = data.length > 0 ? Integer.MAX_VALUE : 0;
+            for (List<Object> column : data) {
+                size = Math.min(size, column.size());
+            }
+            rows = size;
+        }
+
+        @Override
+        public int getRowCount() {
+            return rows;
+        }
+
+        @Override
+        public int getColCount() {
+            return data.length;
+        }
+
+        @Override
+        public Object getValue(int row, int col) {
+            return data[col].get(row);
+        }
+    }
+
+    /**
+     * A filter, applied to the output of the previous stage.
+     */
+    private abstract static class Stage implements Source {
+        final Source in;
+
+        Stage(Source in) {
+            this.in = in;
+        }
+
+        /**
+         * Updates the output of the stage.
+         *
+         * @param change The changes of the output of the previous stage.
+         *
+         * @return The changes of the output of this stage.
+         */
+        abstract Change update(Change change);
+
+        @Override
+        public int getColCount() {
+            return in.getColCount();
+        }
+    }
+
+    /**
+     * Keeps the rows whose value of a column is accepted, in their order.
+     * The rows are stored as their index in the previous stage plus an
+     * offset, so that dropping rows does not require updating the others.
+     */
+    private abstract static class PredicateStage extends Stage {
+        private final int column;
+        private int[] rows = new int[16];
+        private int first;
+        private int last;
+        private int offset;
+
+        PredicateStage(Source in, int column) {
+            super(in);
+            this.column = column;
+        }
+
+        abstract boolean accept(Object value);
+
+        @Override
+        Change update(Change change) {
+            int size = in.getRowCount();
+            if (change.isReset()) {
+                first = last = offset = 0;
+                test(0, size);
+                return Change.RESET;
+            }
+
+            int dropped = 0;
+            if (change.dropped > 0) {
+                offset += change.dropped;
+                while (first < last && rows[first] < offset) {
+                    first++;
+                    dropped++;
+                }
+                if (offset > Integer.MAX_VALUE / 2) {
+                    compact();
+                }
+            }
+            int count = last - first;
+            test(size - change.appended, size);
+            return new Change(dropped, last - first - count);
+        }
+
+        private void test(int start, int end) {
+            for (int i = start; i < end; i++) {
+                if (accept(in.getValue(i, column))) {
+                    add(i);
+                }
+            }
+        }
+
+        private void add(int row) {
+            if (last == rows.length) {
+                if (first > rows.length / 2) {
+                    compact();
+                } else {
+                    rows = Arrays.copyOf(rows, rows.length << 1);
+                }
+            }
+            rows[last++] = row + offset;
+        }
+
+        /**
+         * Reclaims the space of the dropped rows, and rebases the offset.
+         */
+        private void compact() {
+            for (int i = first; i < last; i++) {
+                rows[i - first] = rows[i] - offset;
+            }
+            last -= first;
+            first = offset = 0;
+        }
+
+        @Override
+        public int getRowCount() {
+            return last - first;
+        }
+
+        @Override
+        public Object getValue(int row, int col) {
+            return in.getValue(rows[first + row] - offset, col);
+        }
+    }
+
+    /**
+     * Compares two rows.
+     */
+    @FunctionalInterface
+    private interface RowComparator {
+        int compare(int a, int b);
+    }
+
+    /**
+     * Keeps the indices of the rows in the order of their value of a column,
+     * as numbers if they are all numbers. Rows with equal values keep their
+     * order, and the descending order is the reverse of the ascending one.
+     */
+    private static final class SortStage extends Stage {
+        private final int column;
+        private final boolean descending;
+        private int[] rows = new int[0];
+        private Number[] keys = new Number[0];
+        private int size;
+        private int notNumbers;
+
+        SortStage(Source in, int column, boolean descending) {
+            super(in);
+            this.column = column;
+            this.descending = descending;
+        }
+
+        @Override
+        Change update(Change change) {
+            if (change.isReset()) {
+                size = notNumbers = 0;
+                append(0, in.getRowCount());
+                sort(0, size);
+                return Change.RESET;
+            }
+
+            boolean numbers = notNumbers == 0;
+            if (change.dropped > 0) {
+                drop(change.dropped);
+            }
+            int count = size;
+            int end = in.getRowCount();
+            append(end - change.appended, end);
+            if (numbers != (notNumbers == 0)) {
+                // the type of the values changed, so does their order
+                sort(0, size);
+            } else {
+                sort(count, size);
+                merge(count);
+            }
+            return Change.RESET;
+        }
+
+        private void drop(int dropped) {
+            int j = 0;
+            for (int i = 0; i < size; i++) {
+                if (rows[i] >= dropped) {
+                    rows[j] = rows[i] - dropped;
+                    keys[j++] = keys[i];
+                } else if (null == keys[i]) {
+                    notNumbers--;
+                }
+            }
+            Arrays.fill(keys, j, size, null);
+            size = j;
+        }
+
+        private void append(int start, int end) {
+            int capacity = size + end - start;
+            if (capacity > rows.length) {
+                capacity = Math.max(capacity, rows.length + (rows.length >> 1));
+                rows = Arrays.copyOf(rows, capacity);
+                keys = Arrays.copyOf(keys, capacity);
+            }
+            for (int i = start; i < end; i++) {
+                Number key;
+                try {
+                    key = NumberType.cleanObj2Num(in.getValue(i, column));
+                } catch (NumberFormatException nfe) {
+                    key = null;
+                    notNumbers++;
+                }
+                rows[size] = i;
+                keys[size++] = key;
+            }
+        }
+
+        private int compare(int a, int b) {
+            int c;
+            if (notNumbers == 0) {
+                c = compareNumbers(keys[a], keys[b]);
+            } else {
+                c = compareValues(in.getValue(rows[a], column), in.getValue(rows[b], column));
+            }
+            return c != 0 ? c : Integer.compare(rows[a], rows[b]);
+        }
+
+        /**
+         * Sorts a range of the rows.
+         */
+        private void sort(int start, int end) {
+            if (end - start < 2) {
+                return;
+            }
+            int[] order = new int[end - start];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = start + i;
+            }
+            mergeSort(order, new int[order.length], 0, order.length, this::compare);
+            permute(start, order);
+        }
+
+        /**
+         * Merges the sorted rows from <code>middle</code> into the sorted
+         * rows before it.
+         */
+        private void merge(int middle) {
+            if (middle == 0 || middle == size || compare(middle - 1, middle) <= 0) {
+                return;
+            }
+            int[] order = new int[size];
+            int i = 0, j = middle, k = 0;
+            while (i < middle && j < size) {
+                order[k++] = compare(i, j) <= 0 ? i++ : j++;
+            }
+            while (i < middle) {
+                order[k++] = i++;
+            }
+            while (j < size) {
+                order[k++] = j++;
+            }
+            permute(0, order);
+        }
+
+        private void permute(int start, int[] order) {
+            int[] sortedRows = new int[order.length];
+            Number[] sortedKeys = new Number[order.length];
+            for (int i = 0; i < order.length; i++) {
+                sortedRows[i] = rows[order[i]];
+                sortedKeys[i] = keys[order[i]];
+            }
+            System.arraycopy(sortedRows, 0, rows, start, order.length);
+            System.arraycopy(sortedKeys, 0, keys, start, order.length);
+        }
+
+        @Override
+        public int getRowCount() {
+            return size;
+        }
+
+        @Override
+        public Object getValue(int row, int col) {
+            return in.getValue(rows[descending ? size - row - 1 : row], col);
+        }
+    }
+
+    private static void mergeSort(int[] a, int[] tmp, int start, int end, RowComparator comparator) {
+        if (end - start < 2) {
+            return;
+        }
+        int middle = (start + end) >>> 1;
+        mergeSort(a, tmp, start, middle, comparator);
+        mergeSort(a, tmp, middle, end, comparator);
+        if (comparator.compare(a[middle - 1], a[middle]) <= 0) {
+            return;
+        }
+        System.arraycopy(a, start, tmp, start, end - start);
+        int i = start, j = middle, k = start;
+        while (i < middle && j < end) {
+            a[k++] = comparator.compare(tmp[i], tmp[j]) <= 0 ? tmp[i++] : tmp[j++];
+        }
+        while (i < middle) {
+            a[k++] = tmp[i++];
+        }
+        while (j < end) {
+            a[k++] = tmp[j++];
+        }
+    }
+
+    private static int compareNumbers(Number a, Number b) {
+        if (isIntegral(a) && isIntegral(b)) {
+            return Long.compare(a.longValue(), b.longValue());
+        }
+        return Double.compare(a.doubleValue(), b.doubleValue());
+    }
+
+    private static boolean isIntegral(Number n) {
+        return n instanceof Long || n instanceof Integer || n instanceof Short || n instanceof Byte;
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private static int compareValues(Object a, Object b) {
+        if (a instanceof Comparable && null != b && a.getClass() == b.getClass()) {
+            return ((Comparable) a).compareTo(b);
+        }
+        return String.valueOf(a).compareTo(String.valueOf(b));
+    }
+
+    /**
+     * Merges the rows with the same value of a column into the row of their
+     * last occurrence, whose other values are the aggregate of the values of
+     * the merged rows. The rows are ordered by their last occurrence.
+     */
+    private static final class UniqueStage extends Stage {
+        private static final int OTHER = 0;
+        private static final int SUM = 1;
+        private static final int AVERAGE = 2;
+        private static final int COUNT = 3;
+        private static final int MAX = 4;
+        private static final int MIN = 5;
+
+        private final int column;
+        private final IDataAggregate aggregate;
+        private final int kind;
+        private final Map<String, Group> groups = new LinkedHashMap<>();
+        private Group[] output;
+
+        UniqueStage(Source in, int column, IDataAggregate aggregate) {
+            super(in);
+            this.column = column;
+            this.aggregate = aggregate;
+            kind = getKind(aggregate);
+        }
+
+        private static int getKind(IDataAggregate aggregate) {
+            String id = aggregate.getID();
+            if (SumAggregate.ID.equals(id)) {
+                return SUM;
+            } else if (AverageAggregate.ID.equals(id)) {
+                return AVERAGE;
+            } else if (CountAggregate.ID.equals(id)) {
+                return COUNT;
+            } else if (MaxAggregate.ID.equals(id)) {
+                return MAX;
+            } else if (MinAggregate.ID.equals(id)) {
+                return MIN;
+            }
+            return OTHER;
+        }
+
+        @Override
+        Change update(Change change) {
+            int end = in.getRowCount();
+            if (change.isReset() || change.dropped > 0) {
+                // the aggregates of the dropped rows cannot be taken back
+                groups.clear();
+                fold(0, end);
+            } else {
+                fold(end - change.appended, end);
+            }
+            output = null;
+            return Change.RESET;
+        }
+
+        private void fold(int start, int end) {
+            int width = in.getColCount();
+            for (int i = start; i < end; i++) {
+                String key = in.getValue(i, column).toString();
+                Group group = groups.remove(key);
+                if (null == group) {
+                    group = new Group(width);
+                }
+                group.add(in, i);
+                // ordered by last occurrence
+                groups.put(key, group);
+            }
+        }
+
+        private Group[] getGroups() {
+            if (null == output) {
+                output = groups.values().toArray(new Group[groups.size()]);
+            }
+            return output;
+        }
+
+        @Override
+        public int getRowCount() {
+            return groups.size();
+        }
+
+        @Override
+        public Object getValue(int row, int col) {
+            Group group = getGroups()[row];
+            if (null == group.values) {
+                group.values = aggregate(group);
+            }
+            return group.values[col];
+        }
+
+        private Object[] aggregate(Group group) {
+            Object[] values = new Object[in.getColCount()];
+            for (int k = 0; k < values.length; k++) {
+                if (k == column) {
+                    values[k] = in.getValue(group.rows[group.count - 1], k);
+                } else if (group.numbers[k] && kind != OTHER) {
+                    values[k] = fold(group, k);
+                } else {
+                    values[k] = aggregate(group, k);
+                }
+            }
+            return values;
+        }
+
+        private Number fold(Group group, int k) {
+            // the type of the result is the one of the previous occurrence
+            Number type = group.count > 1 ? group.previous[k] : group.last[k];
+            switch (kind) {
+            case SUM:
+                return NumberType.getNumber(type, group.sum[k]);
+            case AVERAGE:
+                return NumberType.getNumber(type, group.sum[k] / group.count);
+            case COUNT:
+                return Integer.valueOf(group.count);
+            case MAX:
+                return NumberType.getNumber(type, group.max[k]);
+            default:
+                return NumberType.getNumber(type, group.min[k]);
+            }
+        }
+
+        private Object aggregate(Group group, int k) {
+            // the previous occurrences, latest first, then the last one
+            Object[] values = new Object[group.count];
+            for (int i = 0; i < group.count - 1; i++) {
+                values[i] = in.getValue(group.rows[group.count - i - 2], k);
+            }
+            values[group.count - 1] = in.getValue(group.rows[group.count - 1], k);
+            try {
+                return aggregate.aggregate(NumberType.cleanObj2Num(values));
+            } catch (NumberFormatException nfe) {
+                return UniqueFilter.columnMerge(values);
+            }
+        }
+    }
+
+    /**
+     * The occurrences of a value, and the running aggregates of their other
+     * columns.
+     */
+    private static final class Group {
+        int[] rows = new int[2];
+        int count;
+        final boolean[] numbers;
+        final double[] sum;
+        final double[] max;
+        final double[] min;
+        final Number[] previous;
+        final Number[] last;
+        Object[] values;
+
+        Group(int width) {
+            numbers = new boolean[width];
+            Arrays.fill(numbers, true);
+            sum = new double[width];
+            max = new double[width];
+            Arrays.fill(max, Double.NEGATIVE_INFINITY);
+            min = new double[width];
+            Arrays.fill(min, Double.POSITIVE_INFINITY);
+            previous = new Number[width];
+            last = new Number[width];
+        }
+
+        void add(Source in, int row) {
+            if (count == rows.length) {
+                rows = Arrays.copyOf(rows, count << 1);
+            }
+            rows[count++] = row;
+            values = null;
+            for (int k = 0; k < numbers.length; k++) {
+                if (!numbers[k]) {
+                    continue;
+                }
+                try {
+                    Number n = NumberType.cleanObj2Num(in.getValue(row, k));
+                    double d = n.doubleValue();
+                    sum[k] += d;
+                    if (max[k] < d) {
+                        max[k] = d;
+                    }
+                    if (min[k] > d) {
+                        min[k] = d;
+                    }
+                    previous[k] = last[k];
+                    last[k] = n;
+                } catch (NumberFormatException nfe) {
+                    numbers[k] = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies a filter to a copy of the output of the previous stage.
+     */
+    private static final class FallbackStage extends Stage {
+        private final IDataSetFilter filter;
+        private List<Object>[] data;
+
+        FallbackStage(IDataSetFilter filter, Source in) {
+            super(in);
+            this.filter = filter;
+        }
+
+        @Override
+        Change update(Change change) {
+            List<Object>[] copy = copy(in);
+            data = filter.filter(copy);
+            if (null == data) {
+                // the filter does not apply to these rows
+                data = copy;
+            }
+            return Change.RESET;
+        }
+
+        @Override
+        public int getRowCount() {
+            return null != data && data.length > 0 ? data[0].size() : 0;
+        }
+
+        @Override
+        public Object getValue(int row, int col) {
+            return data[col].get(row);
+        }
+    }
+
+    private final Source source;
+    private final Stage[] stages;
+    private final Source output;
+}
@@ -17,7 +17,6 @@ import java.text.MessageFormat;
 import java.util.List;
 
 import org.eclipse.linuxtools.internal.systemtap.graphing.core.Localization;
-import org.eclipse.linuxtools.systemtap.structures.Copier;
 
 
 
@@ -41,17 +40,17 @@ public class MatchFilter implements IDataSetFilter {
             return null;
         }
 
-        List<Object>[] newData = Copier.copy(data);
-        boolean equals;
-        for(int j, i=newData[column].size()-1; i>=0; i--) {
-            equals = newData[column].get(i).toString().equals(value.toString());    //TODO: Find better equivilance method
-            if((equals && REMOVE_MATCHING == (style & 1)) || (!equals && KEEP_MATCHING == (style & 1))) {
-                for(j=0; j<newData.length; j++) {
-                    newData[j].remove(i);
-                }
-            }
-        }
-        return newData;
+        return FilterPipeline.filter(this, data);
+    }
+
+    /**
+     * @param val A value of the filtered column.
+     *
+     * @return True if the row of the value is kept.
+     */
+    boolean accept(Object val) {
+        boolean equals = val.toString().equals(value.toString());    //TODO: Find better equivilance method
+        return equals ? KEEP_MATCHING == (style & 1) : REMOVE_MATCHING == (style & 1);
     }
 
     @Override
@@ -18,7 +18,6 @@ import java.util.List;
 
 import org.eclipse.linuxtools.internal.systemtap.graphing.core.Localization;
 import org.eclipse.linuxtools.systemtap.graphing.core.structures.NumberType;
-import org.eclipse.linuxtools.systemtap.structures.Copier;
 
 
 
@@ -55,15 +54,16 @@ public class RangeFilter implements IDataSetFilter {
             return null;
         }
 
-        List<Object>[] newData = Copier.copy(data);
-        for(int j,i=newData[column].size()-1; i>=0; i--) {
-            if(!inBounds(NumberType.obj2num(newData[column].get(i)))) {
-                for(j=0; j<newData.length; j++) {
-                    newData[j].remove(i);
-                }
-            }
-        }
-        return newData;
+        return FilterPipeline.filter(this, data);
+    }
+
+    /**
+     * @param value A value of the filtered column.
+     *
+     * @return True if the row of the value is kept.
+     */
+    boolean accept(Object value) {
+        return inBounds(NumberType.obj2num(value));
     }
 
     @Override
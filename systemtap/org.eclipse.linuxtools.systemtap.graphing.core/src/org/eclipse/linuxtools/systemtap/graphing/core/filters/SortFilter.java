@@ -16,10 +16,6 @@ package org.eclipse.linuxtools.systemtap.graphing.core.filters;
 import java.util.List;
 
 import org.eclipse.linuxtools.internal.systemtap.graphing.core.Localization;
-import org.eclipse.linuxtools.systemtap.graphing.core.structures.NumberType;
-import org.eclipse.linuxtools.systemtap.structures.Copier;
-import org.eclipse.linuxtools.systemtap.structures.IndexedObject;
-import org.eclipse.linuxtools.systemtap.structures.Sort;
 
 
 
@@ -41,30 +37,11 @@ public class SortFilter implements IDataSetFilter {
         if(column < 0 || column >= data.length)
             return null;
 
-        List<Object>[] newData = Copier.copy(data);
-        IndexedObject[] items = new IndexedObject[newData[0].size()];
-
-        try {
-            for(int i=0; i<newData[column].size(); i++)
-                items[i] = new IndexedObject(i, NumberType.cleanObj2Num(newData[column].get(i)));
-        } catch(NumberFormatException nfe) {
-            for(int i=0; i<newData[column].size(); i++)
-                items[i] = new IndexedObject(i, newData[column].get(i));
-        }
-
-        Sort.quicksort(items, 0, items.length-1);
+        return FilterPipeline.filter(this, data);
+    }
 
-        for(int j, i=0; i<newData.length; i++) {
-            for(j=0; j<items.length; j++) {
-                if(DESCENDING == style)
-                    newData[i].add(newData[i].get(items[items.length-j-1].index));
-                else
-                    newData[i].add(newData[i].get(items[j].index));
-            }
-            for(j=0; j<items.length; j++)
-                newData[i].remove(0);
-        }
-        return newData;
+    boolean isDescending() {
+        return DESCENDING == style;
     }
 
     @Override
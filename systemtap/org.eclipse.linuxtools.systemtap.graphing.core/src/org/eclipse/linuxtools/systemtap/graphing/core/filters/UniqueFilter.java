@@ -13,10 +13,8 @@
 
 package org.eclipse.linuxtools.systemtap.graphing.core.filters;
 
-import java.util.ArrayList;
 import java.util.List;
 
-import org.eclipse.linuxtools.internal.systemtap.graphing.core.GraphingCorePlugin;
 import org.eclipse.linuxtools.internal.systemtap.graphing.core.Localization;
 import org.eclipse.linuxtools.systemtap.graphing.core.aggregates.AverageAggregate;
 import org.eclipse.linuxtools.systemtap.graphing.core.aggregates.CountAggregate;
@@ -24,8 +22,6 @@ import org.eclipse.linuxtools.systemtap.graphing.core.aggregates.IDataAggregate;
 import org.eclipse.linuxtools.systemtap.graphing.core.aggregates.MaxAggregate;
 import org.eclipse.linuxtools.systemtap.graphing.core.aggregates.MinAggregate;
 import org.eclipse.linuxtools.systemtap.graphing.core.aggregates.SumAggregate;
-import org.eclipse.linuxtools.systemtap.graphing.core.structures.NumberType;
-import org.eclipse.linuxtools.systemtap.structures.Copier;
 
 
 public class UniqueFilter implements IDataSetFilter {
@@ -47,36 +43,11 @@ public class UniqueFilter implements IDataSetFilter {
             return null;
         }
 
-        List<Object>[] newData = Copier.copy(data);
-        ArrayList<Object>[] aggregates = GraphingCorePlugin.createArrayList(newData.length);
-        for(int i=0; i<aggregates.length;i++) {
-            aggregates[i] = new ArrayList<>();
-        }
+        return FilterPipeline.filter(this, data);
+    }
 
-        for(int k,j,i=newData[0].size()-1; i>=0; i--) {
-            for(j=i-1; j>=0; j--) {
-                if(newData[column].get(i).toString().equals(newData[column].get(j).toString())) {    //TODO: Find better equivilance method
-                    i--;
-                    for(k=0; k<newData.length; k++) {
-                        aggregates[k].add(newData[k].get(j));
-                        newData[k].remove(j);
-                    }
-                }
-            }
-            for(k=0; k<newData.length; k++) {
-                aggregates[k].add(newData[k].get(i));
-                if(k!=column) {
-                    newData[k].remove(i);
-                    try {
-                        newData[k].add(i, aggregate.aggregate(NumberType.cleanObj2Num(aggregates[k].toArray())));
-                    } catch(NumberFormatException nfe) {
-                        newData[k].add(i, columnMerge(aggregates[k].toArray()));
-                    }
-                }
-                aggregates[k].clear();
-            }
-        }
-        return newData;
+    IDataAggregate getAggregate() {
+        return aggregate;
     }
 
     /**
@@ -86,7 +57,7 @@ public class UniqueFilter implements IDataSetFilter {
      *
      * @return The StringBuilder object made as a result of the merge.
      */
-    private String columnMerge(Object[] col) {
+    static String columnMerge(Object[] col) {
         StringBuilder sb = new StringBuilder(col[0].toString());
         for(int i=1; i<col.length; i++) {
             if(sb.indexOf(col[i].toString()) < 0) {
@@ -15,6 +15,7 @@
 package org.eclipse.linuxtools.internal.systemtap.graphing.ui.charts;
 
 import org.eclipse.jface.util.PropertyChangeEvent;
+import org.eclipse.linuxtools.internal.systemtap.graphing.core.charts.ChartDataBuffer;
 import org.eclipse.linuxtools.internal.systemtap.graphing.ui.charts.listeners.ChartWithAxisMouseMoveListener;
 import org.eclipse.linuxtools.internal.systemtap.graphing.ui.preferences.GraphingPreferenceConstants;
 import org.eclipse.linuxtools.systemtap.graphing.core.adapters.IAdapter;
@@ -68,6 +69,11 @@ public abstract class AbstractChartWithAxisBuilder extends AbstractChartBuilder
         return defaultMargin;
     }
 
+    /**
+     * The last records of the data of the chart.
+     */
+    protected final ChartDataBuffer buffer = new ChartDataBuffer();
+
     protected boolean xLineGrid, yLineGrid;
     /**
      * @since 3.0
@@ -223,75 +229,57 @@ public abstract class AbstractChartWithAxisBuilder extends AbstractChartBuilder
      */
     @Override
     protected void buildXSeries() {
-        Object data[][] = adapter.getData();
-        if (data == null || data.length == 0) {
+        buffer.update(adapter, maxItems);
+        int len = buffer.size(), leny = buffer.getSeriesCount();
+        if (len == 0) {
             return;
         }
 
-        int start = 0, len = Math.min(this.maxItems, data.length), leny = data[0].length-1;
-        if (this.maxItems < data.length) {
-            start = data.length - this.maxItems;
-        }
-
-        Double[] all_valx = new Double[len];
-        Double[][] all_valy = new Double[leny][len];
         // Will want to centre view around points, so be as accurate with max/min as possible.
         double maxX = Double.NEGATIVE_INFINITY;
         double maxY = maxX;
         double minX = Double.POSITIVE_INFINITY;
         double minY = minX;
 
-        // Read in from the data array all x/y points to plot.
-        // In the case of an empty (null) value in either axis, ignore both x & y axis data for that point.
-        for (int i = 0; i < len; i++) {
-            for (int j = 0; j < leny + 1; j++) {
-                Double val = getDoubleOrNullValue(data[start + i][j]);
-                if (j == 0) {
-                    if (val != null) {
-                        all_valx[i] = val;
-                        maxX = Math.max(val, maxX);
-                        minX = Math.min(val, minX);
-                    } else {
-                        break;
-                    }
-                } else if (val != null) {
-                    all_valy[j-1][i] = val;
-                    maxY = Math.max(val, maxY);
-                    minY = Math.min(val, minY);
-                }
-            }
-        }
+        // Plot at most two points per pixel of the visible part of the series.
+        int buckets = scale > 0 ? (int) (chart.getPlotArea().getBounds().width / scale) : 0;
 
-        // Now create dense arrays of x/y values that exclude null values,
+        // Create dense arrays of x/y values that exclude empty values,
         // and plot those values to the chart.
-
+        // In the case of an empty value in either axis, ignore both x & y axis data for that point.
         ISeries allSeries[] = chart.getSeriesSet().getSeries();
         ISeries series = null;
+        double[] valx = new double[len];
+        double[] valy = new double[len];
         for (int i = 0; i < leny; i++) {
             if (i >= allSeries.length) {
                 series = createChartISeries(i);
             } else {
-                series = chart.getSeriesSet().getSeries()[i];
+                series = allSeries[i];
             }
 
-            double[] valx = new double[len];
-            double[] valy = new double[len];
             int len_trim = 0;
             for (int j = 0; j < len; j++) {
-                if (all_valx[j] != null && all_valy[i][j] != null) {
-                    valx[len_trim] = all_valx[j].doubleValue();
-                    valy[len_trim] = all_valy[i][j].doubleValue();
+                double x = buffer.getX(j);
+                double y = buffer.getY(i, j);
+                if (!Double.isNaN(x) && !Double.isNaN(y)) {
+                    valx[len_trim] = x;
+                    valy[len_trim] = y;
+                    maxY = Math.max(y, maxY);
+                    minY = Math.min(y, minY);
                     len_trim++;
                 }
             }
-            double[] valx_trim = new double[len_trim];
-            double[] valy_trim = new double[len_trim];
-            for (int j = 0; j < len_trim; j++) {
-                valx_trim[j] = valx[j];
-                valy_trim[j] = valy[j];
+            double[][] points = ChartDataBuffer.downsample(valx, valy, len_trim, buckets);
+            series.setXSeries(points[0]);
+            series.setYSeries(points[1]);
+        }
+        for (int j = 0; j < len; j++) {
+            double x = buffer.getX(j);
+            if (!Double.isNaN(x)) {
+                maxX = Math.max(x, maxX);
+                minX = Math.min(x, minX);
             }
-            series.setXSeries(valx_trim);
-            series.setYSeries(valy_trim);
         }
 
         if (series != null && series.getXSeries().length > 0) {
@@ -55,35 +55,31 @@ public class BarChartBuilder extends AbstractChartWithAxisBuilder {
 
     @Override
     protected void buildXSeries() {
-        Object data[][] = adapter.getData();
-        if (data == null || data.length == 0) {
+        buffer.update(adapter, maxItems);
+        int len = buffer.size(), leny = buffer.getSeriesCount();
+        if (len == 0) {
             return;
         }
 
-        int start = 0, len = Math.min(this.maxItems, data.length), leny = data[0].length-1;
-        if (this.maxItems < data.length) {
-            start = data.length - this.maxItems;
-        }
-
         String[] allValx = new String[len];
-        Double[][] allValy = new Double[leny][len];
+        double[][] allValy = new double[leny][len];
          // Want to show x-axis if possible, so default max/min is 0.
         double maxY = 0;
         double minY = 0;
 
-        // Read in from the data array all x/y points to plot.
-        // If a y-axis value is empty (null), set it to 0.
+        // Read in from the buffer all x/y points to plot.
+        // If a y-axis value is empty, set it to 0.
         // If an x-axis category is empty, ignore the entire category.
         for (int i = 0; i < len; i++) {
-            Object label = data[start + i][0];
+            Object label = buffer.getKey(i);
             if (label != null) {
                 allValx[i] = label.toString();
-                for (int j = 1; j < leny + 1; j++) {
-                    Double val = getDoubleOrNullValue(data[start + i][j]);
-                    if (val == null) {
+                for (int j = 0; j < leny; j++) {
+                    double val = buffer.getY(j, i);
+                    if (Double.isNaN(val)) {
                         val = 0.0;
                     }
-                    allValy[j-1][i] = val;
+                    allValy[j][i] = val;
                     maxY = Math.max(val, maxY);
                     minY = Math.min(val, minY);
                 }
@@ -110,20 +106,18 @@ public class BarChartBuilder extends AbstractChartWithAxisBuilder {
             if (i >= allSeries.length) {
                 series = createChartISeries(i);
             } else {
-                series = chart.getSeriesSet().getSeries()[i];
+                series = allSeries[i];
             }
 
-            double[] valy = new double[len];
+            double[] valy = new double[lenTrim];
             int lenyTrim = 0;
             for (int j = 0; j < len; j++) {
-                if (allValy[i][j] != null) {
-                    valy[lenyTrim] = allValy[i][j].doubleValue();
+                if (allValx[j] != null) {
+                    valy[lenyTrim] = allValy[i][j];
                     lenyTrim++;
                 }
             }
-            double[] valyTrim = new double[lenyTrim];
-            System.arraycopy(valy, 0, valyTrim, 0, lenyTrim);
-            series.setYSeries(valyTrim);
+            series.setYSeries(valy);
         }
 
         ((BarChart) chart).suspendUpdate(true);
@@ -15,6 +15,7 @@
 package org.eclipse.linuxtools.internal.systemtap.graphing.ui.charts;
 
 import org.eclipse.linuxtools.internal.dataviewers.piechart.PieChart;
+import org.eclipse.linuxtools.internal.systemtap.graphing.core.charts.ChartDataBuffer;
 import org.eclipse.linuxtools.internal.systemtap.graphing.ui.charts.listeners.PieChartMouseMoveListener;
 import org.eclipse.linuxtools.systemtap.graphing.core.adapters.IAdapter;
 import org.eclipse.swt.widgets.Composite;
@@ -27,6 +28,8 @@ import org.eclipse.swtchart.Range;
 public class PieChartBuilder extends AbstractChartWithoutAxisBuilder {
     public static final String ID = "org.eclipse.linuxtools.systemtap.graphing.ui.charts.piechartbuilder"; //$NON-NLS-1$
 
+    private final ChartDataBuffer buffer = new ChartDataBuffer();
+
     public PieChartBuilder(Composite parent, int style, String title, IAdapter adapter) {
         super(adapter, parent, style, title);
     }
@@ -52,54 +55,42 @@ public class PieChartBuilder extends AbstractChartWithoutAxisBuilder {
 
     @Override
     protected void buildXSeries() {
-		Object[][] data = adapter.getData();
-        if (data == null || data.length == 0) {
+        buffer.update(adapter, maxItems);
+        int len = buffer.size(), leny = buffer.getSeriesCount();
+        if (len == 0) {
             return;
         }
 
-        int start = 0, len = Math.min(this.maxItems, data.length), leny = data[0].length-1;
-        if (this.maxItems < data.length) {
-            start = data.length - this.maxItems;
-        }
-
-        Double[][] all_values = new Double[len][leny];
+        double[][] all_values = new double[len][leny];
         String[] all_labels = new String[len];
 
         for (int i = 0; i < all_labels.length; i++) {
-            Object label = data[start + i][0];
+            Object label = buffer.getKey(i);
             if (label != null) {
                 all_labels[i] = label.toString();
-                for (int j = 1; j < data[start + i].length; j++) {
-                    // Ignore all null or negative slice values.
-                    Double val = getDoubleOrNullValue(data[start + i][j]);
-                    if (val != null && val >= 0) {
-                        all_values[i][j-1] = val;
-                    } else {
-                        all_values[i][j-1] = 0.0;
-                    }
+                for (int j = 0; j < leny; j++) {
+                    // Ignore all empty or negative slice values.
+                    double val = buffer.getY(j, i);
+                    all_values[i][j] = val >= 0 ? val : 0.0;
                 }
             }
         }
 
-        double[][] values = new double[len][leny];
+        double[][] values = new double[len][];
         String[] labels = new String[len];
         int len_trim = 0;
         for (int i = 0; i < len; i++) {
             if (all_labels[i] != null) {
                 labels[len_trim] = all_labels[i];
-                for (int j = 0; j < leny; j++) {
-                    values[len_trim][j] = all_values[i][j].doubleValue();
-                }
+                values[len_trim] = all_values[i];
                 len_trim++;
             }
         }
-        double[][] values_trim = new double[len_trim][leny];
+        double[][] values_trim = new double[len_trim][];
         String[] labels_trim = new String[len_trim];
         for (int i = 0; i < len_trim; i++) {
             labels_trim[i] = labels[i];
-            for (int j = 0; j < leny; j++) {
-                values_trim[i][j] = values[i][j];
-            }
+            values_trim[i] = values[i];
         }
 
         ((PieChart)this.chart).addPieChartSeries(getUniqueNames(labels_trim), values_trim);
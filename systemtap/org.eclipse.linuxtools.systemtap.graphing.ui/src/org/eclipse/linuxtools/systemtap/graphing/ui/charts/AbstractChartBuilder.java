@@ -18,6 +18,7 @@ import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.eclipse.jface.preference.IPreferenceStore;
 import org.eclipse.jface.util.IPropertyChangeListener;
@@ -94,6 +95,13 @@ public abstract class AbstractChartBuilder extends Composite implements IUpdateL
 
     private List<IUpdateListener> listeners = new ArrayList<>();
 
+    /**
+     * The minimum delay between two repaints, in milliseconds.
+     */
+    private static final int REPAINT_INTERVAL = 16;
+    private final AtomicBoolean repaintPending = new AtomicBoolean();
+    private long lastRepaint;
+
     /**
      * The mouse listener that watches for MouseMove events over a specified region.
      * It is null by default.
@@ -379,14 +387,28 @@ public abstract class AbstractChartBuilder extends Composite implements IUpdateL
     }
 
     private void repaint() {
-        getDisplay().asyncExec(() -> {
-		    if (!chart.isDisposed()) {
-		        updateDataSet();
-		        for (IUpdateListener l : listeners) {
-		            l.handleUpdateEvent();
-		        }
-		    }
-		});
+        // a burst of updates results in a single repaint
+        if (repaintPending.compareAndSet(false, true)) {
+            getDisplay().asyncExec(this::doRepaint);
+        }
+    }
+
+    private void doRepaint() {
+        if (chart.isDisposed()) {
+            return;
+        }
+        // repaint at most once per frame
+        long delay = lastRepaint + REPAINT_INTERVAL - System.currentTimeMillis();
+        if (delay > 0) {
+            getDisplay().timerExec((int) delay, this::doRepaint);
+            return;
+        }
+        repaintPending.set(false);
+        lastRepaint = System.currentTimeMillis();
+        updateDataSet();
+        for (IUpdateListener l : listeners) {
+            l.handleUpdateEvent();
+        }
     }
 
     /**
@@ -26,6 +26,7 @@ import org.eclipse.linuxtools.internal.systemtap.graphing.ui.preferences.Graphin
 import org.eclipse.linuxtools.internal.systemtap.graphing.ui.wizards.filter.AvailableFilterTypes;
 import org.eclipse.linuxtools.internal.systemtap.graphing.ui.wizards.filter.SelectFilterWizard;
 import org.eclipse.linuxtools.systemtap.graphing.core.datasets.IFilteredDataSet;
+import org.eclipse.linuxtools.systemtap.graphing.core.datasets.row.FilteredRowDataSet;
 import org.eclipse.linuxtools.systemtap.graphing.core.filters.IDataSetFilter;
 import org.eclipse.linuxtools.systemtap.structures.IFormattingStyles;
 import org.eclipse.linuxtools.systemtap.structures.StringFormatter;
@@ -322,8 +323,16 @@ public class DataGrid implements IUpdateListener {
 		        table.select(oldSelection);
 		    }
 
-		    //Resize the columns
+		    //Tell how many rows were dropped from the output of a running script
 		    TableColumn col = table.getColumn(0);
+		    long dropped = filteredDataSet instanceof FilteredRowDataSet
+		            ? ((FilteredRowDataSet) filteredDataSet).getDroppedRowCount() : 0;
+		    if (dropped > 0) {
+		        col.setText(MessageFormat.format(Localization.getString("DataGrid.RowDropped"), dropped)); //$NON-NLS-1$
+		        col.setToolTipText(MessageFormat.format(Localization.getString("DataGrid.RowDroppedTooltip"), dropped)); //$NON-NLS-1$
+		    }
+
+		    //Resize the columns
 		    col.pack();
 		    if (autoResizeMenuItem.getSelection()) {
 		        TableColumn[] cols = table.getColumns();
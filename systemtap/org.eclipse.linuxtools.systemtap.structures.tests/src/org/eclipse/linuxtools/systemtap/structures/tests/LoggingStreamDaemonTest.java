@@ -19,6 +19,9 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -45,6 +48,29 @@ public class LoggingStreamDaemonTest {
         assertEquals("test", daemon.getOutput());
     }
 
+    @Test
+    public void testRead() throws IOException {
+        daemon.handleDataEvents(List.of("first\n", "second\n"));
+        assertEquals(13, daemon.getLength());
+        ByteBuffer buffer = ByteBuffer.allocate(4);
+        assertEquals(4, daemon.read(6, buffer));
+        assertEquals("seco", new String(buffer.array()));
+        buffer.clear();
+        assertEquals(-1, daemon.read(13, buffer));
+    }
+
+    @Test
+    public void testDelayedWrite() throws IOException, InterruptedException {
+        File f = makeTmpFile("/tmp/loggingstreamdaemon.test");
+        assertTrue(daemon.saveLog(f));
+        daemon.handleDataEvent("test");
+        // written shortly after, without being requested
+        for (int i = 0; i < 100 && f.length() == 0; i++) {
+            Thread.sleep(50);
+        }
+        assertEquals("test", Files.readString(f.toPath()));
+    }
+
     @Test
     public void testSaveLog() {
         File f = makeTmpFile("/tmp/loggingstreamdaemon.test");
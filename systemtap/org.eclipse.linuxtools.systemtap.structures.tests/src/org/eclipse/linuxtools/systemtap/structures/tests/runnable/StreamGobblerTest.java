@@ -13,13 +13,20 @@
 
 package org.eclipse.linuxtools.systemtap.structures.tests.runnable;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
 
 import org.eclipse.linuxtools.systemtap.structures.runnable.StreamGobbler;
+import org.eclipse.linuxtools.systemtap.structures.runnable.StreamGobbler.OverflowPolicy;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -73,5 +80,53 @@ public class StreamGobblerTest{
         assertFalse(sg.isRunning());
     }
 
+    @Test
+    public void testLines() {
+        String text = "caf\u00e9 \u20ac\nsecond \ud83d\ude00\nlast"; //$NON-NLS-1$
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        // one byte at a time, to split the characters between reads
+        InputStream in = new ByteArrayInputStream(bytes) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 1));
+            }
+        };
+        List<String> lines = new ArrayList<>();
+        sg = new StreamGobbler(in, StandardCharsets.UTF_8, 2, OverflowPolicy.BLOCK);
+        sg.addDataListener(lines::add);
+        sg.start();
+        sg.stop();
+        assertEquals(List.of("caf\u00e9 \u20ac\n", "second \ud83d\ude00\n", "last"), lines); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        assertEquals(0, sg.getDroppedLineCount());
+    }
+
+    @Test
+    public void testDropLines() throws InterruptedException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            text.append(i).append('\n');
+        }
+        CountDownLatch blocked = new CountDownLatch(1);
+        List<String> lines = new ArrayList<>();
+        sg = new StreamGobbler(new ByteArrayInputStream(text.toString().getBytes()),
+                StandardCharsets.UTF_8, 4, OverflowPolicy.DROP);
+        sg.addDataListener(line -> {
+            try {
+                blocked.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            lines.add(line);
+        });
+        sg.start();
+        while (sg.getDroppedLineCount() == 0) {
+            Thread.sleep(10);
+        }
+        blocked.countDown();
+        sg.stop();
+        assertEquals(100, lines.size() + sg.getDroppedLineCount());
+        assertEquals("0\n", lines.get(0)); //$NON-NLS-1$
+    }
+
     StreamGobbler sg;
 }
@@ -15,25 +15,46 @@
 package org.eclipse.linuxtools.systemtap.structures;
 
 import java.io.File;
-import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.Timer;
+import java.util.TimerTask;
 
 import org.eclipse.linuxtools.internal.systemtap.structures.Localization;
 import org.eclipse.linuxtools.systemtap.structures.listeners.IGobblerListener;
 
 /**
- * A utility for saving script output to a log file as it runs.
+ * A utility for saving script output to a log file as it runs. Output is
+ * buffered and written to the log in groups, once enough of it is pending
+ * or shortly after it was received.
  */
 public class LoggingStreamDaemon implements IGobblerListener {
-    private static final int BUFFER_SIZE = 1024;
+    // number of pending characters which are written without delay
+    private static final int FLUSH_SIZE = 64 * 1024;
+    // maximum time pending output waits to be written
+    private static final long FLUSH_DELAY = 200; // ms
     private static final Set<LoggingStreamDaemon> allLogs = new HashSet<>();
+    private static final Timer flushTimer = new Timer("Logging Stream Daemon", true); //$NON-NLS-1$
 
     protected StringBuilder output;
     protected File outputFile;
+    /**
+     * @deprecated The log is written through a file channel, this writer is
+     * no longer used and is always <code>null</code>.
+     */
+    @Deprecated
     protected FileWriter writer;
+    private FileChannel channel;
+    private final Charset charset = Charset.defaultCharset();
+    private boolean flushScheduled = false;
     private boolean saveLog = false;
 
     /**
@@ -44,13 +65,23 @@ public class LoggingStreamDaemon implements IGobblerListener {
         output = new StringBuilder();
         try {
             outputFile = File.createTempFile(this.toString(), ".tmp"); //$NON-NLS-1$
-            writer = new FileWriter(outputFile, true);
+            channel = openLog(outputFile);
         } catch (IOException ioe) {
             outputFile = null;
-            writer = null;
+            channel = null;
         }
     }
 
+    /**
+     * Opens a log for reading and writing, positioned at its end.
+     */
+    private static FileChannel openLog(File file) throws IOException {
+        FileChannel c = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        c.position(c.size());
+        return c;
+    }
+
     /**
      * Pushes output to log.
      */
@@ -60,42 +91,122 @@ public class LoggingStreamDaemon implements IGobblerListener {
             if (!outputFile.exists()) {
                 startRestoredLog();
             }
-            writer.write(output.toString());
+            ByteBuffer bytes = charset.encode(CharBuffer.wrap(output));
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
             output.setLength(0);
-            writer.flush();
         } catch (IOException ioe) {}
     }
 
+    /**
+     * Writes the pending output at once if there is enough of it, or
+     * schedules it to be written otherwise.
+     */
+    private void commit() {
+        if (output.length() >= FLUSH_SIZE) {
+            pushData();
+        } else if (!flushScheduled && output.length() > 0) {
+            flushScheduled = true;
+            flushTimer.schedule(new TimerTask() {
+                @Override
+                public void run() {
+                    flush();
+                }
+            }, FLUSH_DELAY);
+        }
+    }
+
+    /**
+     * Writes the pending output to the log.
+     * @since 4.2
+     */
+    public synchronized void flush() {
+        flushScheduled = false;
+        if (isReady() && output.length() > 0) {
+            pushData();
+        }
+    }
+
     /**
      * Outputs one line.
      */
     @Override
-    public void handleDataEvent(String line) {
+    public synchronized void handleDataEvent(String line) {
         if (isReady()) {
             output.append(line);
-            pushData();
+            commit();
         }
     }
 
     /**
-     * Reads in and returns the output produced.
+     * Outputs several lines.
+     */
+    @Override
+    public synchronized void handleDataEvents(List<String> lines) {
+        if (isReady()) {
+            for (String line : lines) {
+                output.append(line);
+            }
+            commit();
+        }
+    }
+
+    /**
+     * Returns the size of the log, to be read with {@link #read(long, ByteBuffer)}.
+     * @return The number of bytes of the log, or -1 if it is not available.
+     * @since 4.2
+     */
+    public synchronized long getLength() {
+        if (!isReady()) {
+            return -1;
+        }
+        flush();
+        try {
+            return channel.size();
+        } catch (IOException ioe) {
+            return -1;
+        }
+    }
+
+    /**
+     * Reads a part of the log, without loading the rest of it.
+     * @param offset The position in the log of the first byte to read.
+     * @param buffer The buffer receiving the bytes, in the default charset.
+     * @return The number of bytes read, or -1 at the end of the log or if it
+     * is not available.
+     * @throws IOException If the log cannot be read.
+     * @since 4.2
+     */
+    public synchronized int read(long offset, ByteBuffer buffer) throws IOException {
+        if (!isReady()) {
+            return -1;
+        }
+        flush();
+        return channel.read(buffer, offset);
+    }
+
+    /**
+     * Reads in and returns the output produced. Use {@link #read(long, ByteBuffer)}
+     * to avoid loading a large log into memory.
      * @return The logged data.
      */
-    public String getOutput() {
+    public synchronized String getOutput() {
         if (!isReady()) {
             return null;
         }
-        if (output.length() > 0) {
-            pushData();
-        }
-        try (FileReader reader = new FileReader(outputFile)) {
-            char[] buffer = new char[BUFFER_SIZE];
-            int count;
-            StringBuilder builder = new StringBuilder();
-            while (-1 != (count = reader.read(buffer))) {
-                builder.append(buffer, 0, count);
+        flush();
+        try {
+            long length = channel.size();
+            if (length > Integer.MAX_VALUE) {
+                return null;
             }
-            return builder.toString();
+            ByteBuffer buffer = ByteBuffer.allocate((int) length);
+            while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) > 0) {
+                // read until the end of the log
+            }
+            buffer.flip();
+            return charset.decode(buffer).toString();
         } catch (IOException ioe) {
             return null;
         }
@@ -106,7 +217,7 @@ public class LoggingStreamDaemon implements IGobblerListener {
      * @param file The file to save the log data to. Must not be <code>null</code>.
      * @return <code>true</code> if the save was successful, <code>false</code> otherwise.
      */
-    public boolean saveLog(File file) {
+    public synchronized boolean saveLog(File file) {
         if (!isReady()) {
             return false;
         }
@@ -129,23 +240,32 @@ public class LoggingStreamDaemon implements IGobblerListener {
                 return false;
             }
         }
+        // The log cannot be copied once it was deleted.
+        if (!outputFile.exists()) {
+            return false;
+        }
 
         try {
             if (!file.exists()) {
                 file.getParentFile().mkdirs();
                 file.createNewFile();
             }
-            FileWriter w = new FileWriter(file, false);
-            try (FileReader r = new FileReader(outputFile)) {
-                char[] buffer = new char[BUFFER_SIZE];
-                int count;
-                while (-1 != (count = r.read(buffer))) {
-                    w.write(new String(buffer, 0, count));
+            flush();
+            FileChannel c = FileChannel.open(file.toPath(), StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            try {
+                // copy the log without going through the heap
+                long size = channel.size();
+                long position = 0;
+                while (position < size) {
+                    position += channel.transferTo(position, size - position, c);
                 }
+            } catch (IOException ioe) {
+                c.close();
+                throw ioe;
             }
-            w.flush();
-            writer.close();
-            writer = w;
+            channel.close();
+            channel = c;
         } catch (IOException ioe) {
             return false;
         }
@@ -159,11 +279,17 @@ public class LoggingStreamDaemon implements IGobblerListener {
     private void startRestoredLog() throws IOException {
         outputFile.createNewFile();
         output.insert(0, Localization.getString("LoggingStreamDaemon.ResumedLog") + '\n'); //$NON-NLS-1$
-        writer.close();
-        writer = new FileWriter(outputFile, false);
+        channel.close();
+        channel = FileChannel.open(outputFile.toPath(), StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
     }
 
-    public void dispose() {
+    public synchronized void dispose() {
+        if (saveLog) {
+            // keep all the output in the saved log
+            flush();
+        }
+
         if (outputFile != null) {
             if (!saveLog) {
                 outputFile.delete();
@@ -171,11 +297,11 @@ public class LoggingStreamDaemon implements IGobblerListener {
             outputFile = null;
         }
 
-        if (writer != null) {
+        if (channel != null) {
             try {
-                writer.close();
+                channel.close();
             } catch(IOException ioe) {}
-            writer = null;
+            channel = null;
         }
 
         if (output != null) {
@@ -187,6 +313,6 @@ public class LoggingStreamDaemon implements IGobblerListener {
     }
 
     private boolean isReady() {
-        return writer != null && outputFile != null;
+        return channel != null && outputFile != null;
     }
 }
@@ -13,6 +13,8 @@
 
 package org.eclipse.linuxtools.systemtap.structures.listeners;
 
+import java.util.List;
+
 public interface IGobblerListener {
 
     /**
@@ -21,4 +23,16 @@ public interface IGobblerListener {
      *
      */
     void handleDataEvent(String line);
+
+    /**
+     * called by streamgobbler with the lines read since the previous call,
+     * on a thread dedicated to this listener
+     * @param lines The textual lines to process, in the order they were read.
+     * @since 4.2
+     */
+    default void handleDataEvents(List<String> lines) {
+        for (String line : lines) {
+            handleDataEvent(line);
+        }
+    }
 }
@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Red Hat - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.linuxtools.systemtap.structures.runnable;
+
+import java.util.List;
+
+/**
+ * A bounded queue of lines for exactly one producer thread and one consumer
+ * thread, which need no lock: each index is only written by one side.
+ */
+final class LineRingBuffer {
+    private final String[] lines;
+    private final int mask;
+    // next line to take, only written by the consumer
+    private volatile long head;
+    // next free slot, only written by the producer
+    private volatile long tail;
+
+    /**
+     * @param capacity the minimum number of lines the buffer holds, rounded up
+     * to a power of two
+     */
+    LineRingBuffer(int capacity) {
+        int size = capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        lines = new String[size];
+        mask = size - 1;
+    }
+
+    /**
+     * Appends a line, from the producer thread.
+     * @param line the line
+     * @return false if the buffer is full
+     */
+    boolean offer(String line) {
+        long t = tail;
+        if (t - head == lines.length) {
+            return false;
+        }
+        lines[(int) t & mask] = line;
+        tail = t + 1;
+        return true;
+    }
+
+    /**
+     * Removes the buffered lines, from the consumer thread.
+     * @param batch the list receiving the lines
+     * @param max the maximum number of lines to remove
+     * @return the number of lines removed
+     */
+    int drainTo(List<String> batch, int max) {
+        long h = head;
+        int n = (int) Math.min(tail - h, max);
+        for (int i = 0; i < n; i++) {
+            int index = (int) (h + i) & mask;
+            batch.add(lines[index]);
+            lines[index] = null;
+        }
+        head = h + n;
+        return n;
+    }
+
+    boolean isEmpty() {
+        return head == tail;
+    }
+
+    boolean isFull() {
+        return tail - head == lines.length;
+    }
+}
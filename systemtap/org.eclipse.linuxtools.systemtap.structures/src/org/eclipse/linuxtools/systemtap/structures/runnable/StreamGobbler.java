@@ -15,25 +15,75 @@ package org.eclipse.linuxtools.systemtap.structures.runnable;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.Status;
 import org.eclipse.linuxtools.systemtap.structures.listeners.IGobblerListener;
 
 /**
  * A separate thread to listen to an InputStream and pull all the data
- * out of it. When data is found a new event is fired share the data with
- * any <code>IDataListener</code> that is listening.
+ * out of it. The stream is read and decoded in chunks, and each complete
+ * line is queued to every <code>IGobblerListener</code> that is listening.
+ * Each listener receives its lines in batches on its own thread, so that
+ * a slow listener does not delay the others.
  * @author Ryan Morse
  */
 public class StreamGobbler implements Runnable {
 
+    /**
+     * What to do with a line when a listener has not consumed enough of the
+     * previous ones to buffer it.
+     * @since 4.2
+     */
+    public enum OverflowPolicy {
+        /** Wait for the listener, which slows down the reading of the stream. */
+        BLOCK,
+        /** Discard the line for that listener, see {@link StreamGobbler#getDroppedLineCount()}. */
+        DROP
+    }
+
+    /**
+     * Number of lines buffered for each listener by default.
+     * @since 4.2
+     */
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    private static final int CHUNK_SIZE = 8192;
+    private static final int MAX_BATCH = 1024;
+
     public StreamGobbler(InputStream is) {
+        this(is, Charset.defaultCharset(), DEFAULT_CAPACITY, OverflowPolicy.BLOCK);
+    }
+
+    /**
+     * @param is The stream to read.
+     * @param charset The encoding of the stream.
+     * @param capacity The number of lines buffered for each listener.
+     * @param policy What to do when the buffer of a listener is full.
+     * @since 4.2
+     */
+    public StreamGobbler(InputStream is, Charset charset, int capacity, OverflowPolicy policy) {
         if(null != is) {
             this.is = is;
+            decoder = charset.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
             line = new StringBuilder();
-            listeners = new ArrayList<>();
         }
+        this.capacity = capacity;
+        this.policy = policy;
     }
 
     /**
@@ -44,7 +94,13 @@ public class StreamGobbler implements Runnable {
      */
     //Make sure to call this method to start the StreamGobbler
     public void start() {
-        reader = new Thread(this, "StreamGobbler"); //$NON-NLS-1$
+        synchronized (listeners) {
+            reader = new Thread(this, "StreamGobbler"); //$NON-NLS-1$
+            started = true;
+            for (ListenerThread listener : listeners) {
+                listener.start();
+            }
+        }
         reader.start();
     }
 
@@ -57,47 +113,96 @@ public class StreamGobbler implements Runnable {
     }
 
     /**
-     * The main method of this class. It monitors the provided thread to see
-     * when new data is available and then appends it to its current list of
-     * data.  When a new line is read it will fire a DataEvent for listeners
-     * to get a hold of the data.
+     * The main method of this class. It reads the provided stream in chunks
+     * and splits the decoded text in lines. When a new line is read it will
+     * fire a DataEvent for listeners to get a hold of the data. At the end of
+     * the stream the last incomplete line is fired as well.
      */
     @Override
     public void run() {
         if (reader != Thread.currentThread())
             return;
 
+        byte[] bytes = new byte[CHUNK_SIZE];
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        CharBuffer out = CharBuffer.allocate(CHUNK_SIZE);
         try {
-            int val = is.read();
-            while(val != -1) {
-                line.append((char)val);
+            int n = is.read(bytes, in.position(), in.remaining());
+            while (n != -1) {
+                in.position(in.position() + n);
+                in.flip();
+                decode(in, out, false);
+                // keep the start of an incomplete character
+                in.compact();
+                n = is.read(bytes, in.position(), in.remaining());
+            }
+            in.flip();
+            decode(in, out, true);
+            decoder.flush(out);
+            splitLines(out);
+        } catch (IOException ioe) {    // If stream closed before thread shuts down
+        } finally {
+            if (line.length() > 0)
+                this.fireNewDataEvent();
+            synchronized (listeners) {
+                finished = true;
+                for (ListenerThread listener : listeners) {
+                    listener.close();
+                }
+            }
+        }
+    }
 
-                if ('\n' == val)
-                    this.fireNewDataEvent();
+    private void decode(ByteBuffer in, CharBuffer out, boolean endOfInput) {
+        CoderResult result;
+        do {
+            result = decoder.decode(in, out, endOfInput);
+            splitLines(out);
+        } while (result.isOverflow());
+        // wake up the listeners once per chunk rather than once per line
+        for (ListenerThread listener : listeners) {
+            listener.signal();
+        }
+    }
 
-                val = is.read();
+    /**
+     * Fires the complete lines of the decoded chunk, and keeps the rest.
+     */
+    private void splitLines(CharBuffer out) {
+        char[] chars = out.array();
+        int end = out.position();
+        int start = 0;
+        for (int i = 0; i < end; i++) {
+            if ('\n' == chars[i]) {
+                line.append(chars, start, i + 1 - start);
+                this.fireNewDataEvent();
+                start = i + 1;
             }
-        } catch (IOException ioe) {}    // If stream closed before thread shuts down
+        }
+        line.append(chars, start, end - start);
+        out.clear();
     }
 
     /**
-     * Stops the gobbler from monitoring the stream, and fires one last data event
-     * to make sure that listeners have the entire contents of what was read in
-     * from the stream.
+     * Stops the gobbler from monitoring the stream once it has been read
+     * entirely, and waits for the listeners to process all the lines that
+     * were read from the stream, including the last incomplete one.
      */
     public synchronized void stop() {
         if (reader != null){
             try {
                 // Wait for the reader thread to finish.
                 reader.join();
+                // Wait for the listeners to get everything.
+                for (ListenerThread listener : listeners) {
+                    listener.join();
+                }
             } catch (InterruptedException e) {
                 // The thread was interrupted; nothing to do; finish stopping.
             }
             reader = null;
         }
         notify();
-        // Fire one last time to ensure listeners have gotten everything.
-        this.fireNewDataEvent();
     }
 
     /**
@@ -117,42 +222,167 @@ public class StreamGobbler implements Runnable {
      */
     private void fireNewDataEvent() {
         this.fireNewDataEvent(line.toString());
-        line.delete(0, line.length());
+        line.setLength(0);
     }
 
+    /**
+     * Queues a line to every listener. Only the reader thread calls this method.
+     * @param l The line, with its line terminator.
+     */
     public void fireNewDataEvent(String l) {
-        synchronized (listeners) {
-            for(int i = 0; i < listeners.size(); i++){
-                listeners.get(i).handleDataEvent(l);
-            }
+        for (ListenerThread listener : listeners) {
+            listener.put(l);
         }
     }
 
+    /**
+     * Returns the number of lines that were discarded because a listener was
+     * too slow, with the {@link OverflowPolicy#DROP} policy.
+     * @return The number of lines dropped for all the listeners.
+     * @since 4.2
+     */
+    public long getDroppedLineCount() {
+        return droppedLines.get();
+    }
+
     /**
      * Registers the provided listener to get data events.
      * @param l A listener that needs to monitor the stream.
      */
     public void addDataListener(IGobblerListener l) {
         synchronized (listeners) {
-            if(l != null && !listeners.contains(l)){
-                listeners.add(l);
+            if(l != null && indexOf(l) < 0){
+                ListenerThread listener = new ListenerThread(l);
+                listeners.add(listener);
+                if (started)
+                    listener.start();
+                if (finished)
+                    listener.close();
             }
         }
     }
 
     /**
      * Unregisters the provided listener from getting new data events.
+     * The lines that it has not received yet are discarded.
      * @param l A listener that is monitoring the stream and should be removed
      */
     public void removeDataListener(IGobblerListener l) {
         synchronized (listeners) {
-            if(listeners.contains(l))
-                listeners.remove(l);
+            int i = indexOf(l);
+            if(i >= 0)
+                listeners.remove(i).cancel();
+        }
+    }
+
+    private int indexOf(IGobblerListener l) {
+        for (int i = 0; i < listeners.size(); i++) {
+            if (listeners.get(i).listener.equals(l))
+                return i;
+        }
+        return -1;
+    }
+
+    /**
+     * The thread delivering the lines of one listener. The reader thread
+     * produces the lines and this thread consumes them, through a ring buffer.
+     */
+    private class ListenerThread extends Thread {
+        private final IGobblerListener listener;
+        private final LineRingBuffer buffer = new LineRingBuffer(capacity);
+        // no more lines will be put
+        private volatile boolean closed;
+        // the listener was removed
+        private volatile boolean cancelled;
+        private volatile boolean consumerWaiting;
+        private volatile Thread waitingProducer;
+
+        ListenerThread(IGobblerListener listener) {
+            super("StreamGobbler listener"); //$NON-NLS-1$
+            this.listener = listener;
+            setDaemon(true);
+        }
+
+        void put(String l) {
+            if (!buffer.offer(l)) {
+                if (policy == OverflowPolicy.DROP) {
+                    droppedLines.incrementAndGet();
+                    return;
+                }
+                Thread producer = Thread.currentThread();
+                while (!buffer.offer(l)) {
+                    if (cancelled)
+                        return;
+                    signal();
+                    waitingProducer = producer;
+                    // the consumer unparks the producer after taking lines
+                    if (buffer.isFull() && !cancelled)
+                        LockSupport.park(this);
+                    waitingProducer = null;
+                }
+            }
+        }
+
+        /**
+         * Wakes up the consumer if it waits for the lines put so far.
+         */
+        void signal() {
+            if (consumerWaiting)
+                LockSupport.unpark(this);
+        }
+
+        void close() {
+            closed = true;
+            LockSupport.unpark(this);
+        }
+
+        void cancel() {
+            cancelled = true;
+            LockSupport.unpark(this);
+            Thread producer = waitingProducer;
+            if (producer != null)
+                LockSupport.unpark(producer);
+        }
+
+        @Override
+        public void run() {
+            List<String> batch = new ArrayList<>();
+            List<String> unmodifiableBatch = Collections.unmodifiableList(batch);
+            while (!cancelled) {
+                // read before draining, so that the last lines are not missed
+                boolean last = closed;
+                if (buffer.drainTo(batch, MAX_BATCH) > 0) {
+                    Thread producer = waitingProducer;
+                    if (producer != null)
+                        LockSupport.unpark(producer);
+                    try {
+                        listener.handleDataEvents(unmodifiableBatch);
+                    } catch (RuntimeException e) {
+                        // the other listeners and the reading of the stream go on
+                        Platform.getLog(StreamGobbler.class).log(Status.error(e.getMessage(), e));
+                    }
+                    batch.clear();
+                } else if (last) {
+                    return;
+                } else {
+                    consumerWaiting = true;
+                    // the producer unparks the consumer after putting lines
+                    if (buffer.isEmpty() && !closed && !cancelled)
+                        LockSupport.park(this);
+                    consumerWaiting = false;
+                }
+            }
         }
     }
 
-    private List<IGobblerListener> listeners;
+    private final List<ListenerThread> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong droppedLines = new AtomicLong();
+    private final int capacity;
+    private final OverflowPolicy policy;
+    private CharsetDecoder decoder;
     private StringBuilder line;
     private Thread reader;
     private InputStream is;
+    private boolean started;
+    private boolean finished;
 }
\ No newline at end of file
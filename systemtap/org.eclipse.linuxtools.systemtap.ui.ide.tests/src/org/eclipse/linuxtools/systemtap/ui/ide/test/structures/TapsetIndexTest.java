@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.linuxtools.systemtap.ui.ide.test.structures;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.List;
+
+import org.eclipse.linuxtools.internal.systemtap.ui.ide.structures.tparsers.TapsetIndex;
+import org.eclipse.linuxtools.internal.systemtap.ui.ide.structures.tparsers.TapsetIndex.TapsetFile;
+import org.junit.Test;
+
+public class TapsetIndexTest {
+
+    private static final String CONTENTS =
+            "# file /usr/share/systemtap/tapset/a.stp\n" +
+            "probe a.open = kernel.function(\"open\") { }\n" +
+            "function f1 (x:long) { return x }\n" +
+            "function _private () { }\n" +
+            "# file /usr/share/systemtap/tapset/sub/b.stp\n" +
+            "probe b.read += kernel.function(\"read\") { }\n" +
+            "probe a.open = kernel.function(\"open2\") { }\n" +
+            "# file /home/user/tapsets/c.stp\n" +
+            "function f2 () { }\n";
+
+    @Test
+    public void testFiles() {
+        TapsetIndex index = new TapsetIndex(CONTENTS);
+        List<TapsetFile> files = index.getFiles();
+        assertEquals(3, files.size());
+
+        TapsetFile a = files.get(0);
+        assertEquals("/usr/share/systemtap/tapset/a.stp", a.getName());
+        assertEquals(0, a.getStart());
+        assertEquals(files.get(1).getStart(), a.getEnd());
+        assertEquals(CONTENTS.length(), files.get(2).getEnd());
+
+        assertEquals(1, a.getProbes().size());
+        assertEquals("a.open", a.getProbes().get(0).getName());
+        assertEquals(CONTENTS.indexOf("probe a.open"), a.getProbes().get(0).getOffset());
+        assertEquals(2, a.getFunctions().size());
+        assertEquals("f1", a.getFunctions().get(0).getName());
+        assertEquals("_private", a.getFunctions().get(1).getName());
+
+        assertEquals(2, files.get(1).getProbes().size());
+        assertEquals("b.read", files.get(1).getProbes().get(0).getName());
+        assertEquals("f2", files.get(2).getFunctions().get(0).getName());
+    }
+
+    @Test
+    public void testLookups() {
+        TapsetIndex index = new TapsetIndex(CONTENTS);
+        // The first definition of a probe alias is the one found
+        assertEquals("/usr/share/systemtap/tapset/a.stp", index.getProbe("a.open").getFile().getName());
+        assertEquals("/usr/share/systemtap/tapset/sub/b.stp", index.getProbe("b.read").getFile().getName());
+        assertNull(index.getProbe("a"));
+        assertNull(index.getProbe("f1"));
+
+        List<TapsetFile> files = index.getFiles(new String[] {
+                "/usr/share/systemtap/tapset/sub", "/usr/share/systemtap/tapset" });
+        assertEquals(2, files.size());
+        assertEquals("/usr/share/systemtap/tapset/a.stp", files.get(0).getName());
+        assertEquals(1, index.getFiles(new String[] {"/home/user"}).size());
+        assertEquals(0, index.getFiles(new String[] {"/opt"}).size());
+    }
+}
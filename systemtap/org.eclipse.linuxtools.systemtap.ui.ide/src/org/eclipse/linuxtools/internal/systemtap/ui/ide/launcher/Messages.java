@@ -22,6 +22,8 @@ public class Messages extends NLS {
     public static String SystemTapScriptGraphOptionsTab_cantInitializeTab;
     public static String SystemTapScriptGraphOptionsTab_graphOutputRun;
     public static String SystemTapScriptGraphOptionsTab_graphOutput;
+    public static String SystemTapScriptGraphOptionsTab_retentionLabel;
+    public static String SystemTapScriptGraphOptionsTab_retentionTooltip;
     public static String SystemTapScriptGraphOptionsTab_outputLabel;
     public static String SystemTapScriptGraphOptionsTab_emptyGroup;
     public static String SystemTapScriptGraphOptionsTab_graphingTitle;
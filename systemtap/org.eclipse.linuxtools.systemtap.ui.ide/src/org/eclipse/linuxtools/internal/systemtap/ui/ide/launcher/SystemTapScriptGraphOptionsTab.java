@@ -37,7 +37,9 @@ import org.eclipse.linuxtools.internal.systemtap.ui.ide.IDEPlugin;
 import org.eclipse.linuxtools.systemtap.graphing.core.datasets.IDataSet;
 import org.eclipse.linuxtools.systemtap.graphing.core.datasets.IDataSetParser;
 import org.eclipse.linuxtools.systemtap.graphing.core.datasets.IFilteredDataSet;
+import org.eclipse.linuxtools.systemtap.graphing.core.datasets.row.FilteredRowDataSet;
 import org.eclipse.linuxtools.systemtap.graphing.core.datasets.row.LineParser;
+import org.eclipse.linuxtools.systemtap.graphing.core.datasets.row.RingRowDataSet;
 import org.eclipse.linuxtools.systemtap.graphing.core.datasets.row.RowDataSet;
 import org.eclipse.linuxtools.systemtap.graphing.core.structures.GraphData;
 import org.eclipse.linuxtools.systemtap.graphing.ui.widgets.ExceptionErrorDialog;
@@ -58,6 +60,7 @@ import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Group;
 import org.eclipse.swt.widgets.Label;
+import org.eclipse.swt.widgets.Spinner;
 import org.eclipse.swt.widgets.Table;
 import org.eclipse.swt.widgets.TableItem;
 import org.eclipse.swt.widgets.Text;
@@ -79,6 +82,7 @@ public class SystemTapScriptGraphOptionsTab extends
 
     // Note: any non-private String key with a trailing underscore is to be appended with an integer when looking up values.
     static final String RUN_WITH_CHART = "runWithChart"; //$NON-NLS-1$
+    static final String DATA_RETENTION = "dataRetention"; //$NON-NLS-1$
     static final String NUMBER_OF_REGEXS = "numberOfRegexs"; //$NON-NLS-1$
     static final String NUMBER_OF_COLUMNS = "numberOfColumns_"; //$NON-NLS-1$
     static final String REGEX_BOX = "regexBox_"; //$NON-NLS-1$
@@ -114,6 +118,8 @@ public class SystemTapScriptGraphOptionsTab extends
 
     private Group outputParsingGroup;
     private Button runWithChartCheckButton;
+    private Composite retentionComposite;
+    private Spinner retentionSpinner;
 
     private Table graphsTable;
     private Button addGraphButton, duplicateGraphButton, editGraphButton, removeGraphButton;
@@ -324,6 +330,7 @@ public class SystemTapScriptGraphOptionsTab extends
     public static List<IFilteredDataSet> createDataset(ILaunchConfiguration configuration) {
         try {
             int numberOfRegexs = configuration.getAttribute(NUMBER_OF_REGEXS, 0);
+            int retention = configuration.getAttribute(DATA_RETENTION, RingRowDataSet.DEFAULT_RETENTION);
             ArrayList<IFilteredDataSet> datasets = new ArrayList<>(numberOfRegexs);
 
             for (int r = 0; r < numberOfRegexs; r++) {
@@ -333,7 +340,9 @@ public class SystemTapScriptGraphOptionsTab extends
                 for (int c = 0; c < numberOfColumns; c++) {
                     labels.add(configuration.getAttribute(get2DConfigData(REGEX_BOX, r, c), "")); //$NON-NLS-1$
                 }
-                datasets.add(DataSetFactory.createFilteredDataSet(RowDataSet.ID, labels.toArray(new String[] {})));
+                // unless told otherwise, only the recent output of a running script is kept
+                String[] titles = labels.toArray(new String[] {});
+                datasets.add(new FilteredRowDataSet(retention > 0 ? new RingRowDataSet(titles, retention) : new RowDataSet(titles)));
             }
 
             return datasets;
@@ -436,6 +445,20 @@ public class SystemTapScriptGraphOptionsTab extends
 
         runWithChartCheckButton.setToolTipText(Messages.SystemTapScriptGraphOptionsTab_graphOutput);
 
+        this.retentionComposite = new Composite(top, SWT.NONE);
+        retentionComposite.setLayout(new GridLayout(2, false));
+        Label retentionLabel = new Label(retentionComposite, SWT.NONE);
+        retentionLabel.setText(Messages.SystemTapScriptGraphOptionsTab_retentionLabel);
+        retentionLabel.setToolTipText(Messages.SystemTapScriptGraphOptionsTab_retentionTooltip);
+        this.retentionSpinner = new Spinner(retentionComposite, SWT.BORDER);
+        retentionSpinner.setValues(RingRowDataSet.DEFAULT_RETENTION, 0, Integer.MAX_VALUE, 0, 1000, 10000);
+        retentionSpinner.setToolTipText(Messages.SystemTapScriptGraphOptionsTab_retentionTooltip);
+        retentionSpinner.addModifyListener(e -> {
+            if (textListenersEnabled) {
+                updateLaunchConfigurationDialog();
+            }
+        });
+
         this.outputParsingGroup = new Group(top, SWT.SHADOW_ETCHED_IN);
         outputParsingGroup.setText(Messages.SystemTapScriptGraphOptionsTab_outputLabel);
         outputParsingGroup.setLayoutData(new GridData(SWT.FILL, SWT.FILL, true, false));
@@ -1074,6 +1097,7 @@ public class SystemTapScriptGraphOptionsTab extends
     @Override
     public void setDefaults(ILaunchConfigurationWorkingCopy configuration) {
         configuration.setAttribute(RUN_WITH_CHART, false);
+        configuration.setAttribute(DATA_RETENTION, RingRowDataSet.DEFAULT_RETENTION);
         configuration.setAttribute(NUMBER_OF_REGEXS, 1);
         configuration.setAttribute(NUMBER_OF_COLUMNS + 0, 0);
         configuration.setAttribute(NUMBER_OF_EXTRAS + 0, 0);
@@ -1148,6 +1172,8 @@ public class SystemTapScriptGraphOptionsTab extends
             boolean chart = configuration.getAttribute(RUN_WITH_CHART, false);
             setGraphingEnabled(chart);
             this.runWithChartCheckButton.setSelection(chart);
+            this.retentionSpinner.setSelection(
+                    Math.max(0, configuration.getAttribute(DATA_RETENTION, RingRowDataSet.DEFAULT_RETENTION)));
 
         } catch (CoreException e) {
             ExceptionErrorDialog.openError(Messages.SystemTapScriptGraphOptionsTab_cantInitializeTab, e);
@@ -1159,6 +1185,7 @@ public class SystemTapScriptGraphOptionsTab extends
     @Override
     public void performApply(ILaunchConfigurationWorkingCopy configuration) {
         configuration.setAttribute(RUN_WITH_CHART, this.runWithChartCheckButton.getSelection());
+        configuration.setAttribute(DATA_RETENTION, this.retentionSpinner.getSelection());
 
         int numberOfRegexs = getNumberOfRegexs();
         for (int r = 0; r < numberOfRegexs; r++) {
@@ -1390,6 +1417,7 @@ public class SystemTapScriptGraphOptionsTab extends
 
     private void setGraphingEnabled(boolean enabled) {
         this.graphingEnabled = enabled;
+        this.setControlEnabled(retentionComposite, enabled);
         this.setControlEnabled(outputParsingGroup, enabled);
         this.setControlEnabled(graphsGroup, enabled);
         // Disable buttons that rely on a selected graph if no graph is selected.
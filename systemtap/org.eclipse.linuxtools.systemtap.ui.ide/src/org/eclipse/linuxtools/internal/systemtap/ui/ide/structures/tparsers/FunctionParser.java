@@ -14,7 +14,6 @@
 package org.eclipse.linuxtools.internal.systemtap.ui.ide.structures.tparsers;
 
 import java.text.MessageFormat;
-import java.util.Scanner;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -45,7 +44,6 @@ public final class FunctionParser extends TreeTapsetParser {
     public static final String UNKNOWN_TYPE = "unknown"; //$NON-NLS-1$
 
     private static final String FUNC_REGEX = "(?s)(?<!\\w)function\\s+{0}(?:\\s*:\\s*(\\w+))?\\s*\\(([^)]+?)?\\)"; //$NON-NLS-1$
-    private static final Pattern P_FUNCTION = Pattern.compile("function (?!_)(\\w+) \\(.*?\\)"); //$NON-NLS-1$
     private static final Pattern P_PARAM = Pattern.compile("(\\w+)(?:\\s*:\\s*(\\w+))?"); //$NON-NLS-1$
     private static final Pattern P_ALL_CAP = Pattern.compile("[A-Z_1-9]*"); //$NON-NLS-1$
     private static final Pattern P_RETURN = Pattern.compile("(?<!\\w)return\\W"); //$NON-NLS-1$
@@ -82,37 +80,30 @@ public final class FunctionParser extends TreeTapsetParser {
         }
 
         boolean canceled = false;
-        try (Scanner scanner = new Scanner(tapsetContents)) {
-            scanner.useDelimiter("(?=" + SharedParser.TAG_FILE + ")"); //$NON-NLS-1$ //$NON-NLS-2$
-            while (scanner.hasNext()) {
-                if (monitor.isCanceled()) {
-                    canceled = true;
-                    break;
-                }
-                addFunctionsFromFileContents(scanner.next());
+        for (TapsetIndex.TapsetFile file : SharedParser.getInstance()
+                .getTapsetIndex(tapsetContents).getFiles()) {
+            if (monitor.isCanceled()) {
+                canceled = true;
+                break;
             }
+            addFunctionsFromFile(file);
         }
         tree.sortLevel();
         return !canceled ? IStatus.OK : IStatus.CANCEL;
     }
 
     /**
-     * Uses the tapset content dump of a single file to collect all
-     * functions provided by that file.
-     * @param fileContents The tapset contents of a single file.
+     * Uses the index of the tapset content dump to collect all
+     * functions provided by a single file.
+     * @param file The indexed tapset file.
      */
-    private void addFunctionsFromFileContents(String fileContents) {
-        String filename;
-        try (Scanner st = new Scanner(fileContents)) {
-            filename = SharedParser.findFileNameInTag(st.nextLine());
-        }
-
-        Matcher matcher = P_FUNCTION.matcher(fileContents);
+    private void addFunctionsFromFile(TapsetIndex.TapsetFile file) {
+        String filename = file.getName();
         String scriptText = null;
-        while (matcher.find()) {
-            String functionName = matcher.group(1);
-            if (P_ALL_CAP.matcher(functionName).matches()) {
-                // Ignore ALL_CAPS functions, since they are not meant for end-user use.
+        for (TapsetIndex.Definition function : file.getFunctions()) {
+            String functionName = function.getName();
+            if (functionName.startsWith("_") || P_ALL_CAP.matcher(functionName).matches()) { //$NON-NLS-1$
+                // Ignore private and ALL_CAPS functions, since they are not meant for end-user use.
                 continue;
             }
             if (scriptText == null) {
@@ -195,30 +186,14 @@ public final class FunctionParser extends TreeTapsetParser {
     @Override
     protected int addTapsets(String tapsetContents, String[] additions, IProgressMonitor monitor) {
         boolean canceled = false;
-        // Search tapset contents for all files provided by each added directory.
-        for (int i = 0; i < additions.length; i++) {
-            int firstTagIndex = 0;
-            while (true) {
-                // Get the contents of each file provided by the directory additions[i].
-                firstTagIndex = tapsetContents.indexOf(
-                        SharedParser.makeFileTag(additions[i]), firstTagIndex);
-                if (firstTagIndex == -1) {
-                    break;
-                }
-                int nextTagIndex = tapsetContents.indexOf(SharedParser.TAG_FILE, firstTagIndex + 1);
-                String fileContents = nextTagIndex != -1
-                        ? tapsetContents.substring(firstTagIndex, nextTagIndex)
-                                : tapsetContents.substring(firstTagIndex);
-
-                if (monitor.isCanceled()) {
-                    canceled = true;
-                    break;
-                }
-                addFunctionsFromFileContents(fileContents);
-                // Remove the contents of the file that was just examined from the total contents.
-                tapsetContents = tapsetContents.substring(0, firstTagIndex).concat(
-                        tapsetContents.substring(firstTagIndex + fileContents.length()));
+        // Look up the functions provided by each file of the added directories.
+        for (TapsetIndex.TapsetFile file : SharedParser.getInstance()
+                .getTapsetIndex(tapsetContents).getFiles(additions)) {
+            if (monitor.isCanceled()) {
+                canceled = true;
+                break;
             }
+            addFunctionsFromFile(file);
         }
         tree.sortLevel();
         return !canceled ? IStatus.OK : IStatus.CANCEL;
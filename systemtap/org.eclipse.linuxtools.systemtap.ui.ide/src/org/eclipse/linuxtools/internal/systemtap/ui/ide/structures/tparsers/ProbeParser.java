@@ -13,7 +13,6 @@
 
 package org.eclipse.linuxtools.internal.systemtap.ui.ide.structures.tparsers;
 
-import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
@@ -41,7 +40,6 @@ import org.eclipse.linuxtools.systemtap.structures.TreeNode;
 public final class ProbeParser extends TreeTapsetParser {
 
     public static final String PROBE_REGEX = "(?s)(?<!\\w)probe\\s+{0}\\s*\\+?="; //$NON-NLS-1$
-    private static final String TAPSET_PROBE_REGEX = "probe {0} \\+?="; //$NON-NLS-1$
     private static final String PROBE_FORM_CHECK_REGEX = "\\w+((\\(\\w+\\))?(\\.\\w+)?)*( \\$?\\w+:\\w+)*"; //$NON-NLS-1$
     private static final Pattern PROBE_GROUP_PATTERN = Pattern.compile("[^\\.\\(]+"); //$NON-NLS-1$
 
@@ -256,26 +254,19 @@ public final class ProbeParser extends TreeTapsetParser {
     }
 
     /**
-     * Searches the tapset content dump for the path of the file which defines the provided probe alias.
+     * Looks up the path of the file which defines the provided probe alias in the
+     * index of the tapset contents.
      * @param probeName The alias of the probe to find the definition file of.
      * @return The path of the probe's definition file, or <code>null</code> if a definition
      * file can't be found (which is the case for static probes).
      */
     private String findDefinitionOf(String probeName) {
-        String tapsetContents = SharedParser.getInstance().getTapsetContents();
-        if (tapsetContents == null) {
+        TapsetIndex index = SharedParser.getInstance().getTapsetIndex();
+        if (index == null) {
             return null;
         }
-        Matcher probeMatcher = Pattern.compile(MessageFormat.format(
-                TAPSET_PROBE_REGEX, Pattern.quote(probeName))).matcher(tapsetContents);
-        if (!probeMatcher.find()) {
-            return null;
-        }
-        int fileLocIndex = tapsetContents.substring(0, probeMatcher.start())
-                .lastIndexOf(SharedParser.TAG_FILE);
-        try (Scanner scanner = new Scanner(tapsetContents.substring(fileLocIndex))) {
-            return SharedParser.findFileNameInTag(scanner.nextLine());
-        }
+        TapsetIndex.Definition definition = index.getProbe(probeName);
+        return definition != null ? definition.getFile().getName() : null;
     }
 
     /**
@@ -347,40 +338,15 @@ public final class ProbeParser extends TreeTapsetParser {
         TreeNode aliases = tree.getChildByName(Messages.ProbeParser_aliasProbes);
         Map<String, ArrayList<String>> fileToItemMap = new HashMap<>();
 
-        // Search tapset contents for all files provided by each added directory.
-        for (int i = 0; i < additions.length; i++) {
-            int firstTagIndex = 0;
-            while (true) {
-                // Get the contents of each file provided by the directory additions[i].
-                firstTagIndex = tapsetContents.indexOf(
-                        SharedParser.makeFileTag(additions[i]), firstTagIndex);
-                if (firstTagIndex == -1) {
-                    break;
-                }
-                int nextTagIndex = tapsetContents.indexOf(SharedParser.TAG_FILE, firstTagIndex + 1);
-                String fileContents = nextTagIndex != -1
-                        ? tapsetContents.substring(firstTagIndex, nextTagIndex)
-                                : tapsetContents.substring(firstTagIndex);
-
-                String filename;
-                try (Scanner st = new Scanner(fileContents)) {
-                    filename = SharedParser.findFileNameInTag(st.nextLine());
-                }
-
-                // Search file contents for the probes the file provides.
-                ArrayList<String> newItems = new ArrayList<>();
-                Matcher matcher = Pattern.compile(MessageFormat.format(
-                        TAPSET_PROBE_REGEX, "(\\S+)")) //$NON-NLS-1$
-                        .matcher(fileContents);
-                while (matcher.find()) {
-                    newItems.add(matcher.group(1));
-                }
-                if (!newItems.isEmpty()) {
-                    fileToItemMap.put(filename, newItems);
-                }
-                // Remove the contents of the file that was just examined from the total contents.
-                tapsetContents = tapsetContents.substring(0, firstTagIndex).concat(
-                        tapsetContents.substring(firstTagIndex + fileContents.length()));
+        // Look up the probes provided by each file of the added directories.
+        for (TapsetIndex.TapsetFile file : SharedParser.getInstance()
+                .getTapsetIndex(tapsetContents).getFiles(additions)) {
+            ArrayList<String> newItems = new ArrayList<>();
+            for (TapsetIndex.Definition probe : file.getProbes()) {
+                newItems.add(probe.getName());
+            }
+            if (!newItems.isEmpty()) {
+                fileToItemMap.put(file.getName(), newItems);
             }
         }
         // Run stap on each discovered probe to obtain their variable information.
@@ -67,6 +67,7 @@ public final class SharedParser extends TapsetParser {
     }
 
     private String tapsetContents = null;
+    private TapsetIndex tapsetIndex = null;
 
     private static SharedParser parser = null;
     public static SharedParser getInstance(){
@@ -87,6 +88,7 @@ public final class SharedParser extends TapsetParser {
      */
     public synchronized void clearTapsetContents() {
         tapsetContents = null;
+        tapsetIndex = null;
     }
 
     /**
@@ -101,6 +103,29 @@ public final class SharedParser extends TapsetParser {
         return tapsetContents != null ? tapsetContents : runAction();
     }
 
+    /**
+     * Get an index of the files of the tapset contents and of the definitions they
+     * contain, building it from {@link #getTapsetContents()} the first time.
+     * @return The index, or <code>null</code> if the tapset contents could not be obtained.
+     */
+    synchronized TapsetIndex getTapsetIndex() {
+        getTapsetContents();
+        return tapsetContents != null ? getTapsetIndex(tapsetContents) : null;
+    }
+
+    /**
+     * Get an index of the given tapset contents, which is only built again if they
+     * are not the contents the last index was built from.
+     * @param contents Contents as returned by {@link #getTapsetContents()}.
+     * @return The index of the contents.
+     */
+    synchronized TapsetIndex getTapsetIndex(String contents) {
+        if (tapsetIndex == null || tapsetIndex.getContents() != contents) {
+            tapsetIndex = new TapsetIndex(contents);
+        }
+        return tapsetIndex;
+    }
+
     @Override
     protected IStatus run(IProgressMonitor monitor) {
         return createStatus(verifyRunResult(runAction()));
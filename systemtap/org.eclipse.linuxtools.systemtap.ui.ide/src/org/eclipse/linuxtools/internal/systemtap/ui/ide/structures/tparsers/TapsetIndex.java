@@ -0,0 +1,196 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.linuxtools.internal.systemtap.ui.ide.structures.tparsers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * An index of the files of a tapset content dump, as returned by
+ * {@link SharedParser#getTapsetContents()}, and of the probe aliases and
+ * functions each of them defines. The index is built in a single pass over
+ * the dump, so that definitions are looked up without searching it again.
+ */
+public final class TapsetIndex {
+
+    private static final Pattern P_DEFINITION = Pattern.compile(
+            Pattern.quote(SharedParser.TAG_FILE) + ".*" //$NON-NLS-1$
+            + "|probe (\\S+) \\+?=" //$NON-NLS-1$
+            + "|function (\\w+) \\(.*?\\)"); //$NON-NLS-1$
+
+    /**
+     * A probe alias or function defined in a tapset file.
+     */
+    public static final class Definition {
+        private final String name;
+        private final TapsetFile file;
+        private final int offset;
+
+        private Definition(String name, TapsetFile file, int offset) {
+            this.name = name;
+            this.file = file;
+            this.offset = offset;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public TapsetFile getFile() {
+            return file;
+        }
+
+        /**
+         * @return The offset of the definition in the tapset contents.
+         */
+        public int getOffset() {
+            return offset;
+        }
+    }
+
+    /**
+     * The contents of a single file in a tapset dump.
+     */
+    public static final class TapsetFile {
+        private final String name;
+        private final int start;
+        private int end;
+        private final List<Definition> probes = new ArrayList<>();
+        private final List<Definition> functions = new ArrayList<>();
+
+        private TapsetFile(String name, int start) {
+            this.name = name;
+            this.start = start;
+        }
+
+        /**
+         * @return The path of the file, or <code>null</code> if its tag has none.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return The offset of the tag of the file in the tapset contents.
+         */
+        public int getStart() {
+            return start;
+        }
+
+        /**
+         * @return The offset of the end of the file in the tapset contents.
+         */
+        public int getEnd() {
+            return end;
+        }
+
+        /**
+         * @return The probe aliases defined in the file, in order.
+         */
+        public List<Definition> getProbes() {
+            return Collections.unmodifiableList(probes);
+        }
+
+        /**
+         * @return The functions defined in the file, in order.
+         */
+        public List<Definition> getFunctions() {
+            return Collections.unmodifiableList(functions);
+        }
+    }
+
+    private final String contents;
+    private final List<TapsetFile> files = new ArrayList<>();
+    private final Map<String, Definition> probes = new HashMap<>();
+
+    /**
+     * Indexes tapset contents.
+     * @param contents The contents of tapsets, which start with a file tag.
+     */
+    public TapsetIndex(String contents) {
+        this.contents = contents;
+        TapsetFile file = null;
+        Matcher matcher = P_DEFINITION.matcher(contents);
+        while (matcher.find()) {
+            if (matcher.group(1) != null) {
+                if (file != null) {
+                    Definition probe = new Definition(matcher.group(1), file, matcher.start());
+                    file.probes.add(probe);
+                    probes.putIfAbsent(probe.getName(), probe);
+                }
+            } else if (matcher.group(2) != null) {
+                if (file != null) {
+                    file.functions.add(new Definition(matcher.group(2), file, matcher.start()));
+                }
+            } else {
+                if (file != null) {
+                    file.end = matcher.start();
+                }
+                file = new TapsetFile(SharedParser.findFileNameInTag(matcher.group()), matcher.start());
+                files.add(file);
+            }
+        }
+        if (file != null) {
+            file.end = contents.length();
+        }
+    }
+
+    /**
+     * @return The tapset contents this index was built from.
+     */
+    public String getContents() {
+        return contents;
+    }
+
+    /**
+     * @return All the files of the tapset contents, in order.
+     */
+    public List<TapsetFile> getFiles() {
+        return Collections.unmodifiableList(files);
+    }
+
+    /**
+     * @param directories Tapset directories.
+     * @return The files found in any of the directories, each once, in order.
+     */
+    public List<TapsetFile> getFiles(String[] directories) {
+        List<TapsetFile> found = new ArrayList<>();
+        for (TapsetFile file : files) {
+            if (file.name == null) {
+                continue;
+            }
+            for (String directory : directories) {
+                if (file.name.startsWith(directory)) {
+                    found.add(file);
+                    break;
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @param probeName The alias of a probe.
+     * @return The first definition of the probe alias, or <code>null</code> if
+     * there is none (which is the case for static probes).
+     */
+    public Definition getProbe(String probeName) {
+        return probes.get(probeName);
+    }
+}
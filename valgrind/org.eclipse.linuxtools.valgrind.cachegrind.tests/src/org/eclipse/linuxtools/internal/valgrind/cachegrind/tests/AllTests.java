@@ -17,7 +17,7 @@ import org.junit.runners.Suite;
 
 @RunWith(Suite.class)
 @Suite.SuiteClasses({ BasicCachegrindTest.class, CModelLabelsTest.class,
-        DoubleClickTest.class, LaunchConfigTabTest.class,
+        CachegrindParserTest.class, DoubleClickTest.class, LaunchConfigTabTest.class,
         MultiProcessTest.class, ExpandCollapseTest.class, ShortcutTest.class })
 public class AllTests {
 // suite class
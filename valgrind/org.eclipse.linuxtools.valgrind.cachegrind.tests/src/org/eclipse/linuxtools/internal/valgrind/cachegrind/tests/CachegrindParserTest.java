@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Red Hat - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.linuxtools.internal.valgrind.cachegrind.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.eclipse.linuxtools.internal.valgrind.cachegrind.CachegrindParser;
+import org.eclipse.linuxtools.internal.valgrind.cachegrind.model.CachegrindFile;
+import org.eclipse.linuxtools.internal.valgrind.cachegrind.model.CachegrindFunction;
+import org.eclipse.linuxtools.internal.valgrind.cachegrind.model.CachegrindLine;
+import org.eclipse.linuxtools.internal.valgrind.cachegrind.model.CachegrindOutput;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CachegrindParserTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private CachegrindOutput parse(String content) throws IOException {
+        File cgOut = new File(folder.getRoot(), "cachegrind_42.txt"); //$NON-NLS-1$
+        Files.writeString(cgOut.toPath(), content);
+        CachegrindOutput output = new CachegrindOutput();
+        CachegrindParser.getParser().parse(output, cgOut);
+        return output;
+    }
+
+    @Test
+    public void testLines() throws IOException {
+        CachegrindOutput output = parse("events: Ir Dr Dw \n" //$NON-NLS-1$
+                + "fl=/tmp/a.c\n" //$NON-NLS-1$
+                + "fn=main\n" //$NON-NLS-1$
+                + "5 10 2 1\n" //$NON-NLS-1$
+                + "6 20 4\n" //$NON-NLS-1$
+                + "fn=foo\n" //$NON-NLS-1$
+                + "10 1 1 1\n" //$NON-NLS-1$
+                + "fl=???\n" //$NON-NLS-1$
+                + "fn=???\n" //$NON-NLS-1$
+                + "0 100 0 0\n" //$NON-NLS-1$
+                + "summary: 131 7 2\n"); //$NON-NLS-1$
+
+        assertEquals(Integer.valueOf(42), output.getPid());
+        assertArrayEquals(new long[] { 131, 7, 2 }, output.getSummary());
+        CachegrindFile[] files = output.getFiles();
+        assertEquals(2, files.length);
+
+        CachegrindFunction[] functions = files[0].getFunctions();
+        assertEquals(2, functions.length);
+        CachegrindLine[] lines = functions[0].getLines();
+        assertEquals(2, lines.length);
+        assertEquals(5, lines[0].getLine());
+        assertArrayEquals(new long[] { 10, 2, 1 }, lines[0].getValues());
+        // missing trailing counts are zero
+        assertArrayEquals(new long[] { 20, 4, 0 }, lines[1].getValues());
+        assertArrayEquals(new long[] { 30, 6, 1 }, functions[0].getTotals());
+        assertArrayEquals(new long[] { 31, 7, 2 }, files[0].getTotals());
+
+        // only a summary line
+        CachegrindFunction unknown = files[1].getFunctions()[0];
+        assertNull(unknown.getChildren());
+        assertArrayEquals(new long[] { 100, 0, 0 }, unknown.getTotals());
+    }
+
+    @Test(expected = IOException.class)
+    public void testTooManyCounts() throws IOException {
+        parse("events: Ir\nfl=a.c\nfn=main\n5 10 2\n"); //$NON-NLS-1$
+    }
+
+    @Test(expected = IOException.class)
+    public void testLineWithoutFunction() throws IOException {
+        parse("events: Ir\nfl=a.c\n5 10\n"); //$NON-NLS-1$
+    }
+}
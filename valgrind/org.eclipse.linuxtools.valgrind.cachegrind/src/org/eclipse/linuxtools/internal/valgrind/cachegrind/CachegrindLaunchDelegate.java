@@ -15,7 +15,13 @@ package org.eclipse.linuxtools.internal.valgrind.cachegrind;
 import java.io.File;
 import java.io.FileFilter;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.eclipse.cdt.debug.core.ICDTLaunchConfigurationConstants;
 import org.eclipse.core.runtime.CoreException;
@@ -60,13 +66,41 @@ public class CachegrindLaunchDelegate implements IValgrindLaunchDelegate {
         }
     }
 
+    /**
+     * Parses the outputs of the processes in parallel.
+     */
     private void parseOutput(File[] cachegrindOutputs, IProgressMonitor monitor) throws IOException {
-        outputs = new CachegrindOutput[cachegrindOutputs.length];
-
-        for (int i = 0; i < cachegrindOutputs.length; i++) {
-            outputs[i] = new CachegrindOutput();
-            CachegrindParser.getParser().parse(outputs[i], cachegrindOutputs[i]);
+        CachegrindOutput[] results = new CachegrindOutput[cachegrindOutputs.length];
+        int nThreads = Math.min(cachegrindOutputs.length, Runtime.getRuntime().availableProcessors());
+        ExecutorService executor = Executors.newFixedThreadPool(nThreads);
+        try {
+            List<Future<?>> futures = new ArrayList<>(cachegrindOutputs.length);
+            for (int i = 0; i < cachegrindOutputs.length; i++) {
+                CachegrindOutput output = new CachegrindOutput();
+                File cgOut = cachegrindOutputs[i];
+                results[i] = output;
+                futures.add(executor.submit(() -> {
+                    CachegrindParser.getParser().parse(output, cgOut);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException();
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof IOException ioe) {
+                        throw ioe;
+                    }
+                    throw new IOException(e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
         }
+        outputs = results;
         monitor.worked(2);
     }
 
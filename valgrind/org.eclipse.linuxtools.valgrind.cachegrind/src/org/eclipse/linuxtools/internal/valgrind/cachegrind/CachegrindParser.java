@@ -12,15 +12,16 @@
  *******************************************************************************/
 package org.eclipse.linuxtools.internal.valgrind.cachegrind;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
 
 import org.eclipse.linuxtools.internal.valgrind.cachegrind.model.CachegrindDescription;
 import org.eclipse.linuxtools.internal.valgrind.cachegrind.model.CachegrindFile;
 import org.eclipse.linuxtools.internal.valgrind.cachegrind.model.CachegrindFunction;
-import org.eclipse.linuxtools.internal.valgrind.cachegrind.model.CachegrindLine;
+import org.eclipse.linuxtools.internal.valgrind.cachegrind.model.CachegrindLineTable;
 import org.eclipse.linuxtools.internal.valgrind.cachegrind.model.CachegrindOutput;
 import org.eclipse.linuxtools.valgrind.core.ValgrindParserUtils;
 
@@ -38,6 +39,8 @@ public final class CachegrindParser {
 
     private static final String COMMA = ","; //$NON-NLS-1$
 
+    private static final int BUFFER_SIZE = 1 << 16;
+
     protected static CachegrindParser instance;
 
     private CachegrindParser() {
@@ -50,14 +53,31 @@ public final class CachegrindParser {
         return instance;
     }
 
+    /**
+     * Parses a Cachegrind output file. This method is thread-safe, so that
+     * the outputs of several processes can be parsed in parallel.
+     *
+     * @param output the model to fill
+     * @param cgOut the output file
+     * @throws IOException if the file cannot be read or parsed
+     */
     public void parse(CachegrindOutput output, File cgOut) throws IOException {
-        try (BufferedReader br = new BufferedReader(new FileReader(cgOut))) {
+        try (InputStream in = new FileInputStream(cgOut)) {
             output.setPid(ValgrindParserUtils.parsePID(cgOut.getName(), CachegrindLaunchDelegate.OUT_PREFIX));
 
-            String line;
+            LineReader reader = new LineReader(in);
             CachegrindFile curFl = null;
             CachegrindFunction curFn = null;
-            while ((line = br.readLine()) != null) {
+            while (reader.next()) {
+                if (reader.length > 0 && isDigit(reader.line[0])) { // line data
+                    if (curFn != null) {
+                        parseLine(reader, curFn);
+                    } else {
+                        ValgrindParserUtils.fail(reader.toString());
+                    }
+                    continue;
+                }
+                String line = reader.toString();
                 if (line.startsWith(EVENTS + COLON)) {
                     output.setEvents(ValgrindParserUtils.parseStrValue(line, COLON + SPACE).split(SPACE));
                 } else if (line.startsWith(CMD + COLON)) {
@@ -78,26 +98,59 @@ public final class CachegrindParser {
                 } else if (line.startsWith(SUMMARY + COLON)) {
                     long[] summary = parseData(line, ValgrindParserUtils.parseStrValue(line, COLON + SPACE).split(SPACE));
                     output.setSummary(summary);
-                }
-                else { // line data
-                    String[] tokens = line.split(SPACE, 2);
-                    if (ValgrindParserUtils.isNumber(tokens[0])) {
-                        int lineNo = Integer.parseInt(tokens[0]);
-
-                        long[] data = parseData(line, tokens[1].split(SPACE));
-                        if (curFn != null) {
-                            curFn.addLine(new CachegrindLine(curFn, lineNo, data));
-                        } else {
-                            ValgrindParserUtils.fail(line);
-                        }
-                    } else {
-                        ValgrindParserUtils.fail(line);
-                    }
+                } else {
+                    ValgrindParserUtils.fail(line);
                 }
             }
+            CachegrindLineTable table = output.getLineTable();
+            if (table != null) {
+                table.trim();
+            }
         }
     }
 
+    /**
+     * Parses a line number followed by its event counts directly into the
+     * line table, without allocating.
+     */
+    private static void parseLine(LineReader reader, CachegrindFunction function) throws IOException {
+        byte[] b = reader.line;
+        int len = reader.length;
+        int i = 0;
+        int lineNo = 0;
+        while (i < len && isDigit(b[i])) {
+            lineNo = lineNo * 10 + (b[i++] - '0');
+        }
+        CachegrindLineTable table = function.getLineTable();
+        if (table == null || (i < len && b[i] != ' ')) {
+            ValgrindParserUtils.fail(reader.toString());
+        }
+        int row = function.addLine(lineNo);
+        int event = 0;
+        while (i < len) {
+            if (b[i] == ' ') {
+                i++;
+                continue;
+            }
+            if (!isDigit(b[i]) || event == table.getWidth()) {
+                ValgrindParserUtils.fail(reader.toString());
+            }
+            long value = 0;
+            while (i < len && isDigit(b[i])) {
+                value = value * 10 + (b[i++] - '0');
+            }
+            if (i < len && b[i] != ' ') {
+                ValgrindParserUtils.fail(reader.toString());
+            }
+            // missing trailing counts are zero
+            table.setValue(row, event++, value);
+        }
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
     private long[] parseData(String line, String[] data) throws IOException {
         long[] result = new long[data.length];
         for (int i = 0; i < data.length; i++) {
@@ -125,4 +178,63 @@ public final class CachegrindParser {
         }
         return desc;
     }
-}
\ No newline at end of file
+
+    /**
+     * Reads the lines of a file as bytes into a reused buffer.
+     */
+    private static final class LineReader {
+        private final InputStream in;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int pos;
+        private int limit;
+        byte[] line = new byte[256];
+        int length;
+
+        LineReader(InputStream in) {
+            this.in = in;
+        }
+
+        /**
+         * Reads the next line, without its line terminator.
+         * @return false at the end of the file
+         */
+        boolean next() throws IOException {
+            length = 0;
+            while (true) {
+                if (pos == limit) {
+                    int n = in.read(buffer);
+                    pos = 0;
+                    limit = Math.max(n, 0);
+                    if (n < 0) {
+                        return length > 0;
+                    }
+                }
+                int start = pos;
+                while (pos < limit && buffer[pos] != '\n') {
+                    pos++;
+                }
+                append(start, pos - start);
+                if (pos < limit) {
+                    pos++;
+                    if (length > 0 && line[length - 1] == '\r') {
+                        length--;
+                    }
+                    return true;
+                }
+            }
+        }
+
+        private void append(int start, int count) {
+            if (length + count > line.length) {
+                line = Arrays.copyOf(line, Math.max(line.length * 2, length + count));
+            }
+            System.arraycopy(buffer, start, line, length, count);
+            length += count;
+        }
+
+        @Override
+        public String toString() {
+            return new String(line, 0, length);
+        }
+    }
+}
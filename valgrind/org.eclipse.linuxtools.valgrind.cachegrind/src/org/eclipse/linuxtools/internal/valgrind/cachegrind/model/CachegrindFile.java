@@ -28,6 +28,7 @@ public class CachegrindFile implements ICachegrindElement {
     private CachegrindOutput parent;
     private String path;
     private List<CachegrindFunction> functions;
+    private long[] totals; // computed lazily
 
     private IAdaptable model;
 
@@ -50,12 +51,36 @@ public class CachegrindFile implements ICachegrindElement {
 
     public void addFunction(CachegrindFunction func) {
         functions.add(func);
+        totals = null;
     }
 
     public CachegrindFunction[] getFunctions() {
         return functions.toArray(new CachegrindFunction[functions.size()]);
     }
 
+    /**
+     * @return the totals of each event over the functions of this file, or
+     *         null if they have no lines
+     */
+    public long[] getTotals() {
+        if (totals == null) {
+            long[] sums = null;
+            for (CachegrindFunction function : functions) {
+                long[] functionTotals = function.getTotals();
+                if (functionTotals != null) {
+                    if (sums == null) {
+                        sums = new long[functionTotals.length];
+                    }
+                    for (int i = 0; i < functionTotals.length; i++) {
+                        sums[i] += functionTotals[i];
+                    }
+                }
+            }
+            totals = sums;
+        }
+        return totals;
+    }
+
     @Override
     public ICachegrindElement[] getChildren() {
         return getFunctions();
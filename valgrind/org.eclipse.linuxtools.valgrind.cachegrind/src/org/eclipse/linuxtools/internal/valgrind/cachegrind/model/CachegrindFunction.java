@@ -12,7 +12,6 @@
  *******************************************************************************/
 package org.eclipse.linuxtools.internal.valgrind.cachegrind.model;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import org.eclipse.cdt.core.model.CModelException;
@@ -28,8 +27,9 @@ import org.eclipse.core.runtime.IAdaptable;
 public class CachegrindFunction implements ICachegrindElement {
     private CachegrindFile parent;
     private String name;
-    private List<CachegrindLine> lines;
-    private long[] totals;
+    private int firstLine;
+    private int lineCount;
+    private long[] totals; // computed lazily
 
     private IAdaptable model;
 
@@ -38,7 +38,6 @@ public class CachegrindFunction implements ICachegrindElement {
     public CachegrindFunction(CachegrindFile parent, String name) {
         this.parent = parent;
         this.name = name;
-        lines = new ArrayList<>();
 
         IAdaptable pModel = parent.getModel();
         if (pModel instanceof ICElement element) {
@@ -90,15 +89,31 @@ public class CachegrindFunction implements ICachegrindElement {
         return element;
     }
 
-    public void addLine(CachegrindLine line) {
-        long[] values = line.getValues();
-        if (totals == null) {
-            totals = new long[values.length];
+    /**
+     * Appends a line to this function. Its event counts are then set in the
+     * line table of the output. The lines of a function must be added
+     * before those of the next function.
+     *
+     * @param line the line number
+     * @return the row of the line in {@link #getLineTable()}
+     */
+    public int addLine(int line) {
+        int row = getLineTable().addRow(line);
+        if (lineCount == 0) {
+            firstLine = row;
+        } else if (row != firstLine + lineCount) {
+            throw new IllegalStateException();
         }
-        for (int i = 0; i < values.length; i++) {
-            totals[i] += values[i];
-        }
-        lines.add(line);
+        lineCount++;
+        totals = null;
+        return row;
+    }
+
+    /**
+     * @return the line table holding the lines of this function
+     */
+    public CachegrindLineTable getLineTable() {
+        return ((CachegrindOutput) parent.getParent()).getLineTable();
     }
 
     public String getName() {
@@ -111,18 +126,34 @@ public class CachegrindFunction implements ICachegrindElement {
     }
 
     public long[] getTotals() {
+        if (totals == null && lineCount > 0) {
+            CachegrindLineTable table = getLineTable();
+            long[] sums = new long[table.getWidth()];
+            table.sum(firstLine, lineCount, sums);
+            totals = sums;
+        }
         return totals;
     }
 
+    public int getLineCount() {
+        return lineCount;
+    }
+
     public CachegrindLine[] getLines() {
-        return lines.toArray(new CachegrindLine[lines.size()]);
+        CachegrindLineTable table = getLineTable();
+        CachegrindLine[] lines = new CachegrindLine[lineCount];
+        for (int i = 0; i < lineCount; i++) {
+            int row = firstLine + i;
+            lines[i] = new CachegrindLine(this, table.getLine(row), table.getValues(row));
+        }
+        return lines;
     }
 
     @Override
     public ICachegrindElement[] getChildren() {
         ICachegrindElement[] children = null;
         // if there is only a summary don't return any children
-        if (lines.get(0).getLine() > 0) {
+        if (lineCount > 0 && getLineTable().getLine(firstLine) > 0) {
             children = getLines();
         }
         return children;
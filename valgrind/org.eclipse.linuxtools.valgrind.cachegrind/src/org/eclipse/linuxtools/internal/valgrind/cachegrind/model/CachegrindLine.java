@@ -12,6 +12,8 @@
  *******************************************************************************/
 package org.eclipse.linuxtools.internal.valgrind.cachegrind.model;
 
+import java.util.Arrays;
+
 import org.eclipse.core.runtime.IAdaptable;
 
 
@@ -53,6 +55,18 @@ public class CachegrindLine implements ICachegrindElement {
         return result;
     }
 
+    // lines are created on demand from the line table, see CachegrindFunction#getLines()
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof CachegrindLine other && parent == other.parent && line == other.line
+                && Arrays.equals(values, other.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * System.identityHashCode(parent) + line;
+    }
+
     @Override
     public IAdaptable getModel() {
         return null;
@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Red Hat - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.linuxtools.internal.valgrind.cachegrind.model;
+
+import java.util.Arrays;
+
+/**
+ * Line numbers and event counts of all the source lines of a Cachegrind
+ * output, stored in shared primitive arrays. Each function owns a contiguous
+ * range of rows, see {@link CachegrindFunction#addLine(int)}.
+ */
+public final class CachegrindLineTable {
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final int width;
+    private int[] lines;
+    private long[] values;
+    private int size;
+
+    /**
+     * @param width the number of events of each line
+     */
+    public CachegrindLineTable(int width) {
+        this.width = width;
+        lines = new int[INITIAL_CAPACITY];
+        values = new long[INITIAL_CAPACITY * width];
+    }
+
+    /**
+     * @return the number of events of each line
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return the number of rows
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Appends a row, whose event counts are all zero.
+     * @param line the line number
+     * @return the index of the row
+     */
+    int addRow(int line) {
+        if (size == lines.length) {
+            int capacity = Math.max(INITIAL_CAPACITY, size + (size >> 1));
+            lines = Arrays.copyOf(lines, capacity);
+            values = Arrays.copyOf(values, capacity * width);
+        }
+        lines[size] = line;
+        return size++;
+    }
+
+    /**
+     * Sets an event count of a row.
+     * @param row the index of the row
+     * @param event the index of the event
+     * @param value the count
+     */
+    public void setValue(int row, int event, long value) {
+        values[row * width + event] = value;
+    }
+
+    public int getLine(int row) {
+        return lines[row];
+    }
+
+    public long getValue(int row, int event) {
+        return values[row * width + event];
+    }
+
+    /**
+     * @param row the index of the row
+     * @return a copy of the event counts of the row
+     */
+    public long[] getValues(int row) {
+        return Arrays.copyOfRange(values, row * width, (row + 1) * width);
+    }
+
+    /**
+     * Adds the event counts of a range of rows to the given array.
+     * @param first the first row
+     * @param count the number of rows
+     * @param totals the totals of each event
+     */
+    void sum(int first, int count, long[] totals) {
+        int end = (first + count) * width;
+        for (int i = first * width; i < end; i += width) {
+            for (int j = 0; j < width; j++) {
+                totals[j] += values[i + j];
+            }
+        }
+    }
+
+    /**
+     * Releases the unused capacity, once all the rows are added.
+     */
+    public void trim() {
+        if (size < lines.length) {
+            lines = Arrays.copyOf(lines, size);
+            values = Arrays.copyOf(values, size * width);
+        }
+    }
+}
@@ -23,6 +23,7 @@ public class CachegrindOutput implements ICachegrindElement {
     private Integer pid;
     private String[] events;
     private long[] summary;
+    private CachegrindLineTable lineTable;
 
     public CachegrindOutput() {
         descriptions = new ArrayList<>();
@@ -39,6 +40,7 @@ public class CachegrindOutput implements ICachegrindElement {
 
     public void setEvents(String[] events) {
         this.events = events;
+        lineTable = new CachegrindLineTable(events.length);
     }
 
     public void setSummary(long[] summary) {
@@ -53,6 +55,13 @@ public class CachegrindOutput implements ICachegrindElement {
         return events;
     }
 
+    /**
+     * @return the lines of all the functions, null until the events are set
+     */
+    public CachegrindLineTable getLineTable() {
+        return lineTable;
+    }
+
     public CachegrindFile[] getFiles() {
         return files.toArray(new CachegrindFile[files.size()]);
     }
@@ -16,6 +16,8 @@ import static org.junit.Assert.*;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.eclipse.debug.core.ILaunch;
 import org.eclipse.linuxtools.valgrind.core.IValgrindMessage;
@@ -90,4 +92,29 @@ public class ValgrindCoreParserTest extends AbstractInlineDataTest {
 		checkMessage(0, messages, "one");
 		checkMessage(0, messages[0].getChildren(), "two");
 	}
+
+	//==2== one
+	//==2==   two
+	//**2** three
+	//==00:00:00:01.175 2== four
+	@Test
+	public void testListener() throws IOException {
+		file = getAboveCommentAndSaveFile(VALGRIND_OUT2);
+		List<IValgrindMessage> notified = new ArrayList<>();
+		ValgrindCoreParser valgrindCoreParser = new ValgrindCoreParser(file, launchMock, null, notified::add);
+		messages = valgrindCoreParser.getMessages();
+		assertEquals(3, messages.length);
+		assertArrayEquals(messages, notified.toArray());
+		assertEquals(1, notified.get(0).getChildren().length);
+	}
+
+	@Test
+	public void testRemovePIDPrefix() {
+		assertEquals(" one", ValgrindCoreParser.removePIDPrefix("==12== one"));
+		assertEquals(" two", ValgrindCoreParser.removePIDPrefix("**12** two"));
+		assertEquals(" three", ValgrindCoreParser.removePIDPrefix("==00:00:00:01.175 52756728== three"));
+		assertEquals("a  b", ValgrindCoreParser.removePIDPrefix("a ==12== b"));
+		assertEquals("==12 == c", ValgrindCoreParser.removePIDPrefix("==12 == c"));
+		assertEquals("d", ValgrindCoreParser.removePIDPrefix("d"));
+	}
 }
@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Red Hat - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.linuxtools.internal.valgrind.core;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.eclipse.debug.core.ILaunch;
+import org.eclipse.linuxtools.valgrind.core.IValgrindMessage;
+import org.eclipse.linuxtools.valgrind.core.tests.AbstractInlineDataTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class ValgrindXmlParserTest extends AbstractInlineDataTest {
+	private static final String VALGRIND_XML = "valgrind_3.xml";
+	private IValgrindMessage[] messages;
+	private ILaunch launchMock;
+
+	@Before
+	public void setUp() {
+		launchMock = Mockito.mock(ILaunch.class);
+	}
+
+	private void parseComment() throws IOException {
+		File file = getAboveCommentAndSaveFile(VALGRIND_XML);
+		messages = new ValgrindXmlParser(file, launchMock).getMessages();
+		assertNotNull(messages);
+	}
+
+	//<?xml version="1.0"?>
+	//<valgrindoutput>
+	//<protocolversion>4</protocolversion>
+	//<pid>3</pid>
+	//<error>
+	//  <unique>0x0</unique>
+	//  <tid>1</tid>
+	//  <kind>InvalidRead</kind>
+	//  <what>Invalid read of size 4</what>
+	//  <stack>
+	//    <frame><ip>0x40053E</ip><obj>/tmp/a.out</obj><fn>main</fn><dir>/tmp</dir><file>a.c</file><line>5</line></frame>
+	//    <frame><ip>0x4E5A555</ip><obj>/usr/lib64/libc.so.6</obj><fn>__libc_start_main</fn></frame>
+	//  </stack>
+	//  <auxwhat>Address 0x0 is not stack'd, malloc'd or (recently) free'd</auxwhat>
+	//</error>
+	//<error>
+	//  <unique>0x1</unique>
+	//  <tid>1</tid>
+	//  <kind>Leak_DefinitelyLost</kind>
+	//  <xwhat>
+	//    <text>10 bytes in 1 blocks are definitely lost in loss record 1 of 1</text>
+	//    <leakedbytes>10</leakedbytes>
+	//  </xwhat>
+	//  <stack>
+	//    <frame><ip>0x40053E</ip><obj>/tmp/a.out</obj><fn>main</fn><dir>/tmp</dir><file>a.c</file><line>5</line></frame>
+	//  </stack>
+	//</error>
+	//</valgrindoutput>
+	@Test
+	public void testMemcheck() throws IOException {
+		parseComment();
+		assertEquals(2, messages.length);
+		assertEquals("Invalid read of size 4 [PID: 3]", messages[0].getText());
+		IValgrindMessage[] children = messages[0].getChildren();
+		assertEquals(3, children.length);
+		assertEquals("at 0x40053E: main (a.c:5)", children[0].getText());
+		assertEquals("/tmp/a.c", ((ValgrindStackFrame) children[0]).getFile());
+		assertEquals(5, ((ValgrindStackFrame) children[0]).getLine());
+		assertEquals("by 0x4E5A555: __libc_start_main (in /usr/lib64/libc.so.6)", children[1].getText());
+		assertEquals("/usr/lib64/libc.so.6", ((ValgrindStackFrame) children[1]).getFile());
+		assertEquals("Address 0x0 is not stack'd, malloc'd or (recently) free'd [PID: 3]", children[2].getText());
+
+		assertEquals("10 bytes in 1 blocks are definitely lost in loss record 1 of 1 [PID: 3]", messages[1].getText());
+		// frames of the same location share their data
+		assertSame(children[0].getText(), messages[1].getChildren()[0].getText());
+	}
+
+	//<?xml version="1.0"?>
+	//<valgrindoutput>
+	//<protocolversion>4</protocolversion>
+	//<announcethread>
+	//  <hthreadid>1</hthreadid>
+	//  <isrootthread></isrootthread>
+	//</announcethread>
+	//<announcethread>
+	//  <hthreadid>2</hthreadid>
+	//  <stack>
+	//    <frame><ip>0x4C2D0B1</ip><obj>/usr/lib64/libpthread.so.0</obj><fn>pthread_create</fn></frame>
+	//  </stack>
+	//</announcethread>
+	//<error>
+	//  <unique>0x2</unique>
+	//  <tid>2</tid>
+	//  <kind>Race</kind>
+	//  <xwhat>
+	//    <text>Possible data race during write of size 4 at 0x601040 by thread #2</text>
+	//    <hthreadid>2</hthreadid>
+	//  </xwhat>
+	//  <stack>
+	//    <frame><ip>0x40070A</ip><obj>/tmp/a.out</obj><fn>run</fn><dir>/tmp</dir><file>a.c</file><line>12</line></frame>
+	//  </stack>
+	//</error>
+	@Test
+	public void testHelgrindTruncated() throws IOException {
+		parseComment();
+		assertEquals(3, messages.length);
+		assertEquals("Thread #1 is the program's root thread [PID: 3]", messages[0].getText());
+		assertEquals("Thread #2 was created [PID: 3]", messages[1].getText());
+		assertEquals(1, messages[1].getChildren().length);
+		assertEquals("Possible data race during write of size 4 at 0x601040 by thread #2 [PID: 3]",
+				messages[2].getText());
+	}
+}
@@ -13,10 +13,11 @@
 package org.eclipse.linuxtools.valgrind.core.tests;
 
 import org.eclipse.linuxtools.internal.valgrind.core.ValgrindCoreParserTest;
+import org.eclipse.linuxtools.internal.valgrind.core.ValgrindXmlParserTest;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
 @RunWith(Suite.class)
-@Suite.SuiteClasses({ ValgrindCoreParserTest.class })
+@Suite.SuiteClasses({ ValgrindCoreParserTest.class, ValgrindXmlParserTest.class })
 public class AllTests {
 }
@@ -17,9 +17,14 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
-import java.util.Stack;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.debug.core.DebugPlugin;
@@ -39,8 +44,12 @@ import org.eclipse.linuxtools.valgrind.core.ValgrindParserUtils;
 public class ValgrindCoreParser {
     private static final String AT = "at"; //$NON-NLS-1$
     private static final String BY = "by"; //$NON-NLS-1$
+    // fixed #423371 - handle timestamp (e.g. ==00:00:00:01.175 52756728==)
+    private static final Pattern PID_PREFIX = Pattern.compile("==([\\d:\\.]+\\s)?\\d+==|\\*\\*\\d+\\*\\*"); //$NON-NLS-1$
+    private static final int BUFFER_SIZE = 1 << 16;
 
     private List<IValgrindMessage> messages;
+    private Consumer<IValgrindMessage> listener;
     private int pid;
     private ILaunch launch;
     private ISourceLocator locator;
@@ -59,69 +68,194 @@ public class ValgrindCoreParser {
      * @throws IOException if file is not found or error reading it
      */
     public ValgrindCoreParser(File inputFile, ILaunch launch, ISourceLocator locator) throws IOException {
+        this(inputFile, launch, locator, null);
+    }
+
+    /**
+     * Parses the given file, and notifies the listener of each top-level
+     * message as soon as it is complete, i.e. once the next top-level
+     * message starts or the end of the file is reached. Messages are
+     * notified in the thread calling this constructor.
+     *
+     * @param inputFile
+     *            - file to parse
+     * @param launch
+     *            - launch object, can be null
+     * @param locator
+     *            - source locator
+     * @param listener
+     *            - listener of complete top-level messages, can be null
+     * @throws IOException if file is not found or error reading it
+     * @see #ValgrindCoreParser(File, ILaunch, ISourceLocator)
+     */
+    public ValgrindCoreParser(File inputFile, ILaunch launch, ISourceLocator locator,
+            Consumer<IValgrindMessage> listener) throws IOException {
         this.launch = launch;
         this.locator = locator;
+        this.listener = listener;
+        pid = ValgrindParserUtils.parsePID(inputFile.getName(), CommandLineConstants.LOG_PREFIX);
+        try (BufferedReader br = new BufferedReader(new FileReader(inputFile), BUFFER_SIZE)) {
+            parse(br);
+        }
+    }
+
+    /**
+     * Parses the content of the given file from a stream, which may block
+     * while the file is still being written. The stream is not closed.
+     *
+     * @param inputFile
+     *            - file to parse, only used for its name
+     * @param input
+     *            - content of the file
+     * @param launch
+     *            - launch object, can be null
+     * @param locator
+     *            - source locator
+     * @param listener
+     *            - listener of complete top-level messages, can be null
+     * @throws IOException if an error occurs reading the stream
+     * @see #ValgrindCoreParser(File, ILaunch, ISourceLocator, Consumer)
+     */
+    public ValgrindCoreParser(File inputFile, InputStream input, ILaunch launch, ISourceLocator locator,
+            Consumer<IValgrindMessage> listener) throws IOException {
+        this.launch = launch;
+        this.locator = locator;
+        this.listener = listener;
+        pid = ValgrindParserUtils.parsePID(inputFile.getName(), CommandLineConstants.LOG_PREFIX);
+        parse(new BufferedReader(new InputStreamReader(input), BUFFER_SIZE));
+    }
+
+    private void parse(BufferedReader br) throws IOException {
         // keep track of nested messages and their corresponding indents
-        Stack<IValgrindMessage> messageStack = new Stack<>();
-        Stack<Integer> indentStack = new Stack<>();
+        Deque<IValgrindMessage> messageStack = new ArrayDeque<>();
+        Deque<Integer> indentStack = new ArrayDeque<>();
         messages = new ArrayList<>();
 
-        try (BufferedReader br = new BufferedReader(new FileReader(inputFile))) {
-            pid = ValgrindParserUtils.parsePID(inputFile.getName(), CommandLineConstants.LOG_PREFIX);
-            String line;
-            while ((line = br.readLine()) != null) {
-                // remove PID string
-                // might encounter warnings also #325130
-                // fixed #423371 - handle timestamp (e.g. ==00:00:00:01.175 52756728==)
-                line = line.replaceFirst("==([\\d:\\.]+\\s)?\\d+==|\\*\\*\\d+\\*\\*", ""); //$NON-NLS-1$ //$NON-NLS-2$
-
-                int indent;
-                for (indent = 0; indent < line.length()
-                && line.charAt(indent) == ' '; indent++){}
-
-                line = line.trim();
-                if (!line.isEmpty()) {
-                    /*
-                     * indent == 1 -> top level message
-                     * indent > 1 -> child message
-                     * indent == 0 -> should not occur
+        String line;
+        while ((line = br.readLine()) != null) {
+            // remove PID string
+            // might encounter warnings also #325130
+            line = removePIDPrefix(line);
+
+            int indent;
+            for (indent = 0; indent < line.length()
+            && line.charAt(indent) == ' '; indent++){}
+
+            line = line.trim();
+            if (!line.isEmpty()) {
+                /*
+                 * indent == 1 -> top level message
+                 * indent > 1 -> child message
+                 * indent == 0 -> should not occur
+                 */
+                if (indent == 1) {
+                    // top-level message, clear stacks
+                    IValgrindMessage message = getMessage(null, line);
+                    addMessage(message);
+                    messageStack.clear();
+                    messageStack.push(message);
+                    indentStack.clear();
+                    indentStack.push(indent);
+                } else if (indent > 1) {
+                    /**
+                     * We assume that an indented child message has a
+                     * parent, but this may not be the case.
+                     * See BZ #360225
                      */
-                    if (indent == 1) {
-                        // top-level message, clear stacks
+                    if (indentStack.isEmpty()) {
+                        // pretend this is a top level message
                         IValgrindMessage message = getMessage(null, line);
-                        messages.add(message);
+                        addMessage(message);
                         messageStack.clear();
                         messageStack.push(message);
                         indentStack.clear();
-                        indentStack.push(indent);
-                    } else if (indent > 1) {
-                        /**
-                         * We assume that an indented child message has a
-                         * parent, but this may not be the case.
-                         * See BZ #360225
-                         */
-                        if (indentStack.isEmpty()) {
-                            // pretend this is a top level message
-                            IValgrindMessage message = getMessage(null, line);
-                            messages.add(message);
-                            messageStack.clear();
-                            messageStack.push(message);
-                            indentStack.clear();
-                            indentStack.push(1);
-                        } else {
-                            // find this message's parent
-                            while (indent <= indentStack.peek()) {
-                                messageStack.pop();
-                                indentStack.pop();
-                            }
-
-                            messageStack.push(getMessage(messageStack.peek(), line));
-                            indentStack.push(indent);
+                        indentStack.push(1);
+                    } else {
+                        // find this message's parent
+                        while (indent <= indentStack.peek()) {
+                            messageStack.pop();
+                            indentStack.pop();
                         }
+
+                        messageStack.push(getMessage(messageStack.peek(), line));
+                        indentStack.push(indent);
                     }
                 }
             }
         }
+        if (listener != null && !messages.isEmpty()) {
+            listener.accept(messages.get(messages.size() - 1));
+        }
+    }
+
+    private void addMessage(IValgrindMessage message) {
+        // the previous top-level message is complete
+        if (listener != null && !messages.isEmpty()) {
+            listener.accept(messages.get(messages.size() - 1));
+        }
+        messages.add(message);
+    }
+
+    /**
+     * Removes the first PID prefix of a line, such as "==1234==",
+     * "==00:00:00:01.175 1234==" or "**1234**". The prefix is scanned by hand
+     * when it starts the line, which is the case of all the lines written by
+     * valgrind.
+     *
+     * @param line - line of a valgrind log
+     * @return the line without its PID prefix
+     */
+    static String removePIDPrefix(String line) {
+        int end = scanPIDPrefix(line);
+        if (end > 0) {
+            return line.substring(end);
+        }
+        if (line.indexOf("==") < 0 && line.indexOf("**") < 0) { //$NON-NLS-1$ //$NON-NLS-2$
+            return line;
+        }
+        return PID_PREFIX.matcher(line).replaceFirst(""); //$NON-NLS-1$
+    }
+
+    /**
+     * @return the end of the PID prefix starting the line, or -1
+     */
+    private static int scanPIDPrefix(String line) {
+        int len = line.length();
+        if (len < 5) {
+            return -1;
+        }
+        char c = line.charAt(0);
+        if ((c != '=' && c != '*') || line.charAt(1) != c) {
+            return -1;
+        }
+        int i = 2;
+        if (c == '=') {
+            // optional timestamp, made of digits, ':' and '.', followed by a whitespace
+            int j = i;
+            while (j < len && (isDigit(line.charAt(j)) || line.charAt(j) == ':' || line.charAt(j) == '.')) {
+                j++;
+            }
+            if (j > i && j < len && isSpace(line.charAt(j))) {
+                i = j + 1;
+            }
+        }
+        int digits = i;
+        while (i < len && isDigit(line.charAt(i))) {
+            i++;
+        }
+        if (i == digits || i + 1 >= len || line.charAt(i) != c || line.charAt(i + 1) != c) {
+            return -1;
+        }
+        return i + 2;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    // same as \s
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
     }
 
     private IValgrindMessage getMessage(IValgrindMessage message, String line) {
@@ -0,0 +1,453 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Red Hat - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.linuxtools.internal.valgrind.core;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.eclipse.debug.core.ILaunch;
+import org.eclipse.debug.core.model.ISourceLocator;
+import org.eclipse.linuxtools.valgrind.core.CommandLineConstants;
+import org.eclipse.linuxtools.valgrind.core.IValgrindMessage;
+import org.eclipse.linuxtools.valgrind.core.ValgrindParserUtils;
+
+/**
+ * Parser for the XML output of valgrind (--xml=yes), as written by memcheck
+ * and helgrind, into the same hierarchical messages as
+ * {@link ValgrindCoreParser}.
+ *
+ * The file is read with a pull parser, one record at a time, so that only the
+ * messages themselves are kept in memory. Stack frames with the same location
+ * share their texts and file names, since many records, e.g. leak records,
+ * have frames in common.
+ *
+ * An incomplete file, e.g. the output of a killed process, yields the
+ * messages of its complete records.
+ */
+public class ValgrindXmlParser {
+    private static final String ERROR = "error"; //$NON-NLS-1$
+    private static final String ANNOUNCE_THREAD = "announcethread"; //$NON-NLS-1$
+    private static final String FATAL_SIGNAL = "fatal_signal"; //$NON-NLS-1$
+    private static final String WHAT = "what"; //$NON-NLS-1$
+    private static final String XWHAT = "xwhat"; //$NON-NLS-1$
+    private static final String AUXWHAT = "auxwhat"; //$NON-NLS-1$
+    private static final String XAUXWHAT = "xauxwhat"; //$NON-NLS-1$
+    private static final String TEXT = "text"; //$NON-NLS-1$
+    private static final String STACK = "stack"; //$NON-NLS-1$
+    private static final String FRAME = "frame"; //$NON-NLS-1$
+    private static final String IP = "ip"; //$NON-NLS-1$
+    private static final String OBJ = "obj"; //$NON-NLS-1$
+    private static final String FN = "fn"; //$NON-NLS-1$
+    private static final String DIR = "dir"; //$NON-NLS-1$
+    private static final String FILE = "file"; //$NON-NLS-1$
+    private static final String LINE = "line"; //$NON-NLS-1$
+    private static final String HTHREADID = "hthreadid"; //$NON-NLS-1$
+    private static final String ISROOTTHREAD = "isrootthread"; //$NON-NLS-1$
+    private static final String SIGNO = "signo"; //$NON-NLS-1$
+    private static final String SIGNAME = "signame"; //$NON-NLS-1$
+
+    private static final XMLInputFactory FACTORY;
+    static {
+        FACTORY = XMLInputFactory.newInstance();
+        FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        FACTORY.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+    }
+
+    private final List<IValgrindMessage> messages = new ArrayList<>();
+    private final Map<FrameKey, Frame> frames = new HashMap<>();
+    private final Consumer<IValgrindMessage> listener;
+    private final ILaunch launch;
+    private final ISourceLocator locator;
+    private int pid;
+
+    /**
+     * Location of a stack frame.
+     */
+    private record FrameKey(String ip, String obj, String fn, String dir, String file, int line) {
+    }
+
+    /**
+     * Shared data of the stack frames at a given location.
+     */
+    private static final class Frame {
+        private final String atText;
+        private final String byText;
+        private final String path;
+        private final int line;
+
+        private Frame(FrameKey key) {
+            StringBuilder sb = new StringBuilder();
+            sb.append(key.ip()).append(": "); //$NON-NLS-1$
+            sb.append(key.fn() != null ? key.fn() : "???"); //$NON-NLS-1$
+            if (key.file() != null) {
+                sb.append(" (").append(key.file()); //$NON-NLS-1$
+                if (key.line() > 0) {
+                    sb.append(':').append(key.line());
+                }
+                sb.append(')');
+                path = key.dir() != null ? key.dir() + '/' + key.file() : key.file();
+            } else {
+                // library, no line number
+                if (key.obj() != null) {
+                    sb.append(" (in ").append(key.obj()).append(')'); //$NON-NLS-1$
+                }
+                path = key.obj();
+            }
+            String description = sb.toString();
+            atText = "at " + description; //$NON-NLS-1$
+            byText = "by " + description; //$NON-NLS-1$
+            line = key.line();
+        }
+    }
+
+    /**
+     * Constructor
+     *
+     * @param inputFile
+     *            - XML file to parse
+     * @param launch
+     *            - launch object, can be null
+     * @param locator
+     *            - source locator, see
+     *            {@link ValgrindCoreParser#copyLaunchSourceLocator(ILaunch)}
+     * @param listener
+     *            - listener of complete top-level messages, can be null
+     * @throws IOException if file is not found or error reading it
+     */
+    public ValgrindXmlParser(File inputFile, ILaunch launch, ISourceLocator locator,
+            Consumer<IValgrindMessage> listener) throws IOException {
+        this.launch = launch;
+        this.locator = locator;
+        this.listener = listener;
+        pid = ValgrindParserUtils.parsePID(inputFile.getName(), CommandLineConstants.LOG_PREFIX);
+        try (InputStream in = new FileInputStream(inputFile)) {
+            parse(in);
+        }
+    }
+
+    /**
+     * Parses the content of the given XML file from a stream, which may block
+     * while the file is still being written. The stream is not closed.
+     *
+     * @param inputFile
+     *            - XML file to parse, only used for its name
+     * @param input
+     *            - content of the file
+     * @param launch
+     *            - launch object, can be null
+     * @param locator
+     *            - source locator, see
+     *            {@link ValgrindCoreParser#copyLaunchSourceLocator(ILaunch)}
+     * @param listener
+     *            - listener of complete top-level messages, can be null
+     * @throws IOException if an error occurs reading the stream
+     */
+    public ValgrindXmlParser(File inputFile, InputStream input, ILaunch launch, ISourceLocator locator,
+            Consumer<IValgrindMessage> listener) throws IOException {
+        this.launch = launch;
+        this.locator = locator;
+        this.listener = listener;
+        pid = ValgrindParserUtils.parsePID(inputFile.getName(), CommandLineConstants.LOG_PREFIX);
+        parse(input);
+    }
+
+    private void parse(InputStream input) throws IOException {
+        try {
+            XMLStreamReader reader = FACTORY.createXMLStreamReader(new BufferedInputStream(input, 1 << 16));
+            try {
+                parse(reader);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            if (e.getNestedException() instanceof IOException ioe) {
+                throw ioe;
+            }
+            // truncated output, keep the complete records
+        }
+    }
+
+    /**
+     * Constructor
+     * @param inputFile - XML file to parse
+     * @param launch - launch object, can be null
+     * @throws IOException if file is not found or error reading it
+     */
+    public ValgrindXmlParser(File inputFile, ILaunch launch) throws IOException {
+        this(inputFile, launch, ValgrindCoreParser.copyLaunchSourceLocator(launch), null);
+    }
+
+    /**
+     * Return messages from parsing
+     * @return all parsed messages
+     */
+    public IValgrindMessage[] getMessages() {
+        return messages.toArray(new IValgrindMessage[messages.size()]);
+    }
+
+    private void parse(XMLStreamReader reader) throws XMLStreamException {
+        while (reader.hasNext()) {
+            if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+            IValgrindMessage message;
+            switch (reader.getLocalName()) {
+            case ERROR:
+                message = parseError(reader);
+                break;
+            case ANNOUNCE_THREAD:
+                message = parseAnnounceThread(reader);
+                break;
+            case FATAL_SIGNAL:
+                message = parseFatalSignal(reader);
+                break;
+            default:
+                message = null;
+                break;
+            }
+            if (message != null) {
+                messages.add(message);
+                if (listener != null) {
+                    listener.accept(message);
+                }
+            }
+        }
+    }
+
+    /*
+     * <error> ... <what>text</what> or <xwhat><text>text</text> ... </xwhat>,
+     * <stack> of the error, then for each auxiliary message <auxwhat> or
+     * <xauxwhat> followed by its optional <stack>.
+     */
+    private IValgrindMessage parseError(XMLStreamReader reader) throws XMLStreamException {
+        IValgrindMessage error = null;
+        // message owning the next stack
+        IValgrindMessage owner = null;
+        List<IValgrindMessage> pending = new ArrayList<>(0);
+        while (nextChild(reader)) {
+            switch (reader.getLocalName()) {
+            case WHAT:
+                error = new ValgrindError(null, reader.getElementText().trim(), launch, pid);
+                owner = error;
+                break;
+            case XWHAT:
+                error = new ValgrindError(null, parseXText(reader), launch, pid);
+                owner = error;
+                break;
+            case AUXWHAT:
+                if (error != null) {
+                    owner = new ValgrindError(error, reader.getElementText().trim(), launch, pid);
+                } else {
+                    skip(reader);
+                }
+                break;
+            case XAUXWHAT:
+                if (error != null) {
+                    owner = new ValgrindError(error, parseXText(reader), launch, pid);
+                } else {
+                    skip(reader);
+                }
+                break;
+            case STACK:
+                if (owner != null) {
+                    parseStack(reader, owner);
+                } else {
+                    skip(reader);
+                }
+                break;
+            default:
+                skip(reader);
+                break;
+            }
+        }
+        return error;
+    }
+
+    /*
+     * <announcethread><hthreadid>N</hthreadid> then <isrootthread/> or the
+     * <stack> of the creation of the thread.
+     */
+    private IValgrindMessage parseAnnounceThread(XMLStreamReader reader) throws XMLStreamException {
+        String id = null;
+        boolean root = false;
+        IValgrindMessage thread = null;
+        while (nextChild(reader)) {
+            switch (reader.getLocalName()) {
+            case HTHREADID:
+                id = reader.getElementText().trim();
+                break;
+            case ISROOTTHREAD:
+                root = true;
+                skip(reader);
+                break;
+            case STACK:
+                thread = new ValgrindError(null, "Thread #" + id + " was created", launch, pid); //$NON-NLS-1$ //$NON-NLS-2$
+                parseStack(reader, thread);
+                break;
+            default:
+                skip(reader);
+                break;
+            }
+        }
+        if (thread == null && id != null) {
+            thread = new ValgrindError(null, "Thread #" + id + (root ? " is the program's root thread" : " was created"), //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                    launch, pid);
+        }
+        return thread;
+    }
+
+    /*
+     * <fatal_signal> ... <signo>N</signo><signame>NAME</signame> ... <stack>
+     */
+    private IValgrindMessage parseFatalSignal(XMLStreamReader reader) throws XMLStreamException {
+        String signo = null;
+        String signame = null;
+        IValgrindMessage signal = null;
+        while (nextChild(reader)) {
+            switch (reader.getLocalName()) {
+            case SIGNO:
+                signo = reader.getElementText().trim();
+                break;
+            case SIGNAME:
+                signame = reader.getElementText().trim();
+                break;
+            case STACK:
+                signal = newSignal(signal, signo, signame);
+                parseStack(reader, signal);
+                break;
+            default:
+                skip(reader);
+                break;
+            }
+        }
+        return newSignal(signal, signo, signame);
+    }
+
+    private IValgrindMessage newSignal(IValgrindMessage signal, String signo, String signame) {
+        if (signal != null) {
+            return signal;
+        }
+        return new ValgrindError(null, "Process terminating with default action of signal " + signo //$NON-NLS-1$
+                + (signame != null ? " (" + signame + ")" : ""), launch, pid); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+    }
+
+    private void parseStack(XMLStreamReader reader, IValgrindMessage parent) throws XMLStreamException {
+        boolean first = true;
+        while (nextChild(reader)) {
+            if (FRAME.equals(reader.getLocalName())) {
+                Frame frame = parseFrame(reader);
+                new ValgrindStackFrame(parent, first ? frame.atText : frame.byText, launch, locator, frame.path,
+                        frame.line);
+                first = false;
+            } else {
+                skip(reader);
+            }
+        }
+    }
+
+    private Frame parseFrame(XMLStreamReader reader) throws XMLStreamException {
+        String ip = null, obj = null, fn = null, dir = null, file = null;
+        int line = 0;
+        while (nextChild(reader)) {
+            switch (reader.getLocalName()) {
+            case IP:
+                ip = reader.getElementText().trim();
+                break;
+            case OBJ:
+                obj = reader.getElementText().trim();
+                break;
+            case FN:
+                fn = reader.getElementText().trim();
+                break;
+            case DIR:
+                dir = reader.getElementText().trim();
+                break;
+            case FILE:
+                file = reader.getElementText().trim();
+                break;
+            case LINE:
+                try {
+                    line = Integer.parseInt(reader.getElementText().trim());
+                } catch (NumberFormatException e) {
+                    // no line
+                }
+                break;
+            default:
+                skip(reader);
+                break;
+            }
+        }
+        return frames.computeIfAbsent(new FrameKey(Objects.toString(ip, "???"), obj, fn, dir, file, line), Frame::new); //$NON-NLS-1$
+    }
+
+    /*
+     * <xwhat> or <xauxwhat>: the message is the <text> child
+     */
+    private static String parseXText(XMLStreamReader reader) throws XMLStreamException {
+        String text = ""; //$NON-NLS-1$
+        while (nextChild(reader)) {
+            if (TEXT.equals(reader.getLocalName())) {
+                text = reader.getElementText().trim();
+            } else {
+                skip(reader);
+            }
+        }
+        return text;
+    }
+
+    /**
+     * Moves to the next child element of the current element.
+     * @return false once the end of the current element is reached
+     */
+    private static boolean nextChild(XMLStreamReader reader) throws XMLStreamException {
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                return true;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Skips the current element and its content.
+     */
+    private static void skip(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+}
@@ -21,6 +21,8 @@ public interface CommandLineConstants {
 	String OPT_TOOL = "--tool"; //$NON-NLS-1$
 	/** --xml */
     String OPT_XML = "--xml"; //$NON-NLS-1$
+	/** --xml-file */
+    String OPT_XMLFILE = "--xml-file"; //$NON-NLS-1$
 	/** --log-file */
     String OPT_LOGFILE = "--log-file"; //$NON-NLS-1$
 	/** -q */
@@ -62,4 +64,7 @@ public interface CommandLineConstants {
 
     /** valgrind log file prefix */
     String LOG_PREFIX = "valgrind_"; //$NON-NLS-1$
+
+    /** valgrind XML output file, next to the log file of the same process */
+    String XML_FILE = LOG_PREFIX + "%p.xml"; //$NON-NLS-1$
 }
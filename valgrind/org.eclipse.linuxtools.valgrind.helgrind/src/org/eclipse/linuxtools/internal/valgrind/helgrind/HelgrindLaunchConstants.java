@@ -21,6 +21,9 @@ public final class HelgrindLaunchConstants {
             + ".HELGRIND_HISTORYLEVEL"; //$NON-NLS-1$
     public static final String ATTR_HELGRIND_CACHESIZE = HelgrindPlugin.PLUGIN_ID
             + ".HELGRIND_CACHESIZE"; //$NON-NLS-1$
+    // VG >= 3.5.0, errors are read from the XML output instead of the log
+    public static final String ATTR_HELGRIND_XML = HelgrindPlugin.PLUGIN_ID
+            + ".HELGRIND_XML"; //$NON-NLS-1$
 
     // default values
     public static final String HISTORY_NONE = "none"; //$NON-NLS-1$
@@ -30,5 +33,6 @@ public final class HelgrindLaunchConstants {
     public static final boolean DEFAULT_HELGRIND_LOCKORDERS = true;
     public static final String DEFAULT_HELGRIND_HISTORYLEVEL = HISTORY_FULL;
     public static final int DEFAULT_HELGRIND_CACHESIZE = 1000000;
+    public static final boolean DEFAULT_HELGRIND_XML = false;
 
 }
@@ -21,6 +21,7 @@ import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.debug.core.ILaunch;
 import org.eclipse.debug.core.ILaunchConfiguration;
+import org.eclipse.linuxtools.valgrind.core.CommandLineConstants;
 import org.eclipse.linuxtools.valgrind.launch.IValgrindLaunchDelegate;
 import org.eclipse.linuxtools.valgrind.ui.IValgrindToolView;
 import org.osgi.framework.Version;
@@ -29,6 +30,7 @@ public class HelgrindLaunchDelegate implements IValgrindLaunchDelegate {
     private static final String EQUALS = "="; //$NON-NLS-1$
     private static final String NO = "no"; //$NON-NLS-1$
     private static final String YES = "yes"; //$NON-NLS-1$
+    private static final Version VER_3_5_0 = new Version(3, 5, 0);
 
     @Override
     public void handleLaunch(ILaunchConfiguration config, ILaunch launch, IPath outDir, IProgressMonitor monitor) {
@@ -41,6 +43,11 @@ public class HelgrindLaunchDelegate implements IValgrindLaunchDelegate {
         opts.add(HelgrindCommandConstants.OPT_TRACK_LOCKORDERS + EQUALS + (config.getAttribute(HelgrindLaunchConstants.ATTR_HELGRIND_LOCKORDERS, HelgrindLaunchConstants.DEFAULT_HELGRIND_LOCKORDERS) ? YES : NO));
         opts.add(HelgrindCommandConstants.OPT_HISTORY_LEVEL + EQUALS + config.getAttribute(HelgrindLaunchConstants.ATTR_HELGRIND_HISTORYLEVEL, HelgrindLaunchConstants.DEFAULT_HELGRIND_HISTORYLEVEL));
         opts.add(HelgrindCommandConstants.OPT_CONFLICT_CACHE_SIZE + EQUALS + config.getAttribute(HelgrindLaunchConstants.ATTR_HELGRIND_CACHESIZE, HelgrindLaunchConstants.DEFAULT_HELGRIND_CACHESIZE));
+        if ((ver == null || ver.compareTo(VER_3_5_0) >= 0)
+                && config.getAttribute(HelgrindLaunchConstants.ATTR_HELGRIND_XML, HelgrindLaunchConstants.DEFAULT_HELGRIND_XML)) {
+            opts.add(CommandLineConstants.OPT_XML + EQUALS + YES);
+            opts.add(CommandLineConstants.OPT_XMLFILE + EQUALS + logDir.append(CommandLineConstants.XML_FILE).toPortableString());
+        }
         return opts.toArray(new String[opts.size()]);
     }
 
@@ -0,0 +1,222 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Red Hat - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.linuxtools.internal.valgrind.launch;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.linuxtools.valgrind.core.IValgrindMessage;
+
+/**
+ * Parses the Valgrind logs of a directory while they are written. Each log
+ * created in the directory after {@link #start()} is parsed in its own
+ * thread, from a stream that waits for more output at the end of the file
+ * until {@link #finish()} is called, once the process has terminated.
+ * Logs created after that are not followed, and the directory is no longer
+ * watched once the follower is closed.
+ */
+public final class LogFollower implements Closeable {
+
+    /**
+     * Parses a log from a stream.
+     */
+    @FunctionalInterface
+    public interface LogParser {
+        IValgrindMessage[] parse(File log, InputStream in) throws IOException;
+    }
+
+    // in case a change of the directory is missed
+    private static final long MAX_WAIT = 1000; // ms
+
+    private final Path dir;
+    private final FileFilter filter;
+    private final LogParser parser;
+    private final Map<File, Future<IValgrindMessage[]>> results = new HashMap<>();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private WatchService watcher;
+    private Thread watchThread;
+    private boolean finished;
+    private long changes;
+
+    /**
+     * @param dir the directory of the logs
+     * @param filter the logs to follow
+     * @param parser the parser of the logs
+     */
+    public LogFollower(File dir, FileFilter filter, LogParser parser) {
+        this.dir = dir.toPath();
+        this.filter = filter;
+        this.parser = parser;
+    }
+
+    /**
+     * Starts watching the directory.
+     * @throws IOException if the directory cannot be watched
+     */
+    public void start() throws IOException {
+        watcher = FileSystems.getDefault().newWatchService();
+        dir.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        watchThread = new Thread(this::watch, "Valgrind log follower"); //$NON-NLS-1$
+        watchThread.setDaemon(true);
+        watchThread.start();
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watcher.take();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
+                        File log = dir.resolve((Path) event.context()).toFile();
+                        if (filter.accept(log)) {
+                            follow(log);
+                        }
+                    }
+                }
+                changed();
+                if (!key.reset()) {
+                    return;
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // closed
+        }
+    }
+
+    private synchronized void follow(File log) {
+        if (!finished && !results.containsKey(log)) {
+            results.put(log, executor.submit(() -> {
+                try (InputStream in = new FollowingInputStream(new FileInputStream(log))) {
+                    return parser.parse(log, in);
+                }
+            }));
+        }
+    }
+
+    private synchronized void changed() {
+        changes++;
+        notifyAll();
+    }
+
+    /**
+     * Stops following the logs, once the process writing them has terminated.
+     * Their parsing completes at the end of their current content.
+     */
+    public synchronized void finish() {
+        finished = true;
+        notifyAll();
+    }
+
+    /**
+     * @param log a log
+     * @return the parsing of the log if it was followed, null otherwise
+     */
+    public synchronized Future<IValgrindMessage[]> getResult(File log) {
+        return results.get(log);
+    }
+
+    /**
+     * @return whether the directory is still watched
+     */
+    public boolean isWatching() {
+        return watchThread != null && watchThread.isAlive();
+    }
+
+    /**
+     * Stops following the logs, and waits for the end of the watch of the
+     * directory.
+     */
+    @Override
+    public void close() throws IOException {
+        finish();
+        executor.shutdownNow();
+        if (watcher != null) {
+            watcher.close();
+        }
+        if (watchThread != null) {
+            try {
+                watchThread.join(MAX_WAIT);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Stream of a file which waits for more content at its end, until the
+     * follower is finished.
+     */
+    private class FollowingInputStream extends InputStream {
+        private final InputStream in;
+
+        FollowingInputStream(InputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            int n = read(b, 0, 1);
+            return n < 0 ? -1 : b[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            while (true) {
+                long seen;
+                boolean done;
+                synchronized (LogFollower.this) {
+                    seen = changes;
+                    done = finished;
+                }
+                // content written before the end of the process is read after it
+                int n = in.read(b, off, len);
+                if (n >= 0 || done) {
+                    return n;
+                }
+                try {
+                    synchronized (LogFollower.this) {
+                        if (changes == seen && !finished) {
+                            LogFollower.this.wait(MAX_WAIT);
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException();
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
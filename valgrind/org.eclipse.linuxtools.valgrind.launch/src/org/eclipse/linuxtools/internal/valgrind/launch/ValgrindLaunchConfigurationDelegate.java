@@ -16,19 +16,21 @@ package org.eclipse.linuxtools.internal.valgrind.launch;
 import java.io.File;
 import java.io.FileFilter;
 import java.io.IOException;
-import java.net.URI;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Stack;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 import java.util.regex.Pattern;
 
 import org.eclipse.cdt.debug.core.CDebugUtils;
 import org.eclipse.cdt.debug.core.ICDTLaunchConfigurationConstants;
 import org.eclipse.cdt.launch.AbstractCLaunchDelegate;
-import org.eclipse.core.filesystem.URIUtil;
-import org.eclipse.core.resources.IFile;
-import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IResourceChangeEvent;
@@ -40,21 +42,20 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.debug.core.DebugEvent;
 import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.IDebugEventSetListener;
 import org.eclipse.debug.core.ILaunch;
 import org.eclipse.debug.core.ILaunchConfiguration;
 import org.eclipse.debug.core.ILaunchConfigurationWorkingCopy;
 import org.eclipse.debug.core.model.IProcess;
 import org.eclipse.debug.core.model.ISourceLocator;
-import org.eclipse.debug.core.sourcelookup.containers.LocalFileStorage;
-import org.eclipse.debug.ui.DebugUITools;
-import org.eclipse.debug.ui.sourcelookup.ISourceLookupResult;
 import org.eclipse.jface.dialogs.MessageDialog;
 import org.eclipse.linuxtools.internal.valgrind.core.ValgrindCommand;
 import org.eclipse.linuxtools.internal.valgrind.core.ValgrindCoreParser;
-import org.eclipse.linuxtools.internal.valgrind.core.ValgrindError;
 import org.eclipse.linuxtools.internal.valgrind.core.ValgrindInfo;
-import org.eclipse.linuxtools.internal.valgrind.core.ValgrindStackFrame;
+import org.eclipse.linuxtools.internal.valgrind.core.ValgrindXmlParser;
 import org.eclipse.linuxtools.internal.valgrind.ui.ValgrindUIPlugin;
 import org.eclipse.linuxtools.internal.valgrind.ui.ValgrindViewPart;
 import org.eclipse.linuxtools.valgrind.core.CommandLineConstants;
@@ -71,8 +72,10 @@ public class ValgrindLaunchConfigurationDelegate extends AbstractCLaunchDelegate
     private static final String EQUALS = "="; //$NON-NLS-1$
 
     private static final String LOG_FILE = CommandLineConstants.LOG_PREFIX + "%p.txt"; //$NON-NLS-1$
+    private static final String XML_EXTENSION = ".xml"; //$NON-NLS-1$
     private static final Pattern CORE_PATTERN = Pattern.compile("^.*\\.txt\\.core\\.[0-9]+$");  //$NON-NLS-1$
-    private static final FileFilter LOG_FILTER = pathname -> pathname.getName().startsWith(CommandLineConstants.LOG_PREFIX) && !CORE_PATTERN.matcher(pathname.getName()).matches();
+    private static final FileFilter LOG_FILTER = pathname -> pathname.getName().startsWith(CommandLineConstants.LOG_PREFIX) && !CORE_PATTERN.matcher(pathname.getName()).matches()
+            && !pathname.getName().endsWith(XML_EXTENSION);
 
     protected String toolID;
     protected ValgrindCommand command;
@@ -83,6 +86,7 @@ public class ValgrindLaunchConfigurationDelegate extends AbstractCLaunchDelegate
     protected IProcess process;
     protected String launchStr;
     protected Version valgrindVersion; // null if not used
+    private LogFollower follower; // null if the logs are not followed
 
     @Override
     public void launch(ILaunchConfiguration config, String mode,
@@ -158,16 +162,25 @@ public class ValgrindLaunchConfigurationDelegate extends AbstractCLaunchDelegate
             if (monitor.isCanceled()) {
                 return;
             }
-            // call Valgrind
+            // parse the logs while Valgrind runs
+            follower = createLogFollower(opts);
+            follower.start();
 
+            // call Valgrind
             command.execute(commandArray, getEnvironment(config), workDir, usePty, project);
             monitor.worked(3);
             process = createNewProcess(launch, command.getProcess(), commandArray[0]);
             // set the command line used
             process.setAttribute(IProcess.ATTR_CMDLINE, command.getCommandLine());
-            while (!process.isTerminated()) {
-                Thread.sleep(100);
-            }
+
+            // create launch summary string to distinguish this launch
+            launchStr = createLaunchStr();
+
+            // create view, so that messages show up while Valgrind runs
+            ValgrindUIPlugin.getDefault().createView(launchStr, toolID);
+
+            waitForTermination(process);
+            follower.finish();
 
             // store these for use by other classes
             getPlugin().setCurrentLaunchConfiguration(config);
@@ -176,11 +189,6 @@ public class ValgrindLaunchConfigurationDelegate extends AbstractCLaunchDelegate
             // parse Valgrind logs
             IValgrindMessage[] messages = parseLogs(outputPath);
 
-            // create launch summary string to distinguish this launch
-            launchStr = createLaunchStr();
-
-            // create view
-            ValgrindUIPlugin.getDefault().createView(launchStr, toolID);
             // set log messages
             ValgrindViewPart view = ValgrindUIPlugin.getDefault().getView();
             view.setMessages(messages);
@@ -209,73 +217,176 @@ public class ValgrindLaunchConfigurationDelegate extends AbstractCLaunchDelegate
         } catch (InterruptedException e) {
             e.printStackTrace();
         } finally {
+            closeLogFollower();
             m.done();
         }
     }
 
-    protected IValgrindMessage[] parseLogs(IPath outputPath) throws IOException, CoreException {
-        List<IValgrindMessage> messages = new ArrayList<>();
-
-        for (File log : outputPath.toFile().listFiles(LOG_FILTER)) {
-            ValgrindCoreParser parser = new ValgrindCoreParser(log, launch);
-            IValgrindMessage[] results = parser.getMessages();
+    /**
+     * Creates the follower of the logs of the launch. When the tool writes an
+     * XML output, only this output is followed.
+     */
+    private LogFollower createLogFollower(String[] opts) {
+        boolean xml = Arrays.stream(opts).anyMatch(opt -> opt.startsWith(CommandLineConstants.OPT_XMLFILE + EQUALS));
+        FileFilter filter = xml
+                ? pathname -> pathname.getName().startsWith(CommandLineConstants.LOG_PREFIX) && pathname.getName().endsWith(XML_EXTENSION)
+                : LOG_FILTER;
+        // shared by all the logs, it must outlive the launch
+        ISourceLocator locator = ValgrindCoreParser.copyLaunchSourceLocator(launch);
+        return new LogFollower(outputPath.toFile(), filter, (log, in) -> {
+            MessageBatch batch = new MessageBatch();
+            IValgrindMessage[] messages;
+            if (xml) {
+                messages = new ValgrindXmlParser(log, in, launch, locator, batch).getMessages();
+            } else {
+                messages = new ValgrindCoreParser(log, in, launch, locator, batch).getMessages();
+            }
+            batch.flush();
+            return messages;
+        });
+    }
 
-            if (results.length == 0){
-                results = new IValgrindMessage[1];
-                results[0] = new ValgrindInfo(null, Messages.getString("ValgrindOutputView.No_output"), launch); //$NON-NLS-1$
+    private void closeLogFollower() {
+        if (follower != null) {
+            try {
+                follower.close();
+            } catch (IOException e) {
+                e.printStackTrace();
             }
-            messages.addAll(Arrays.asList(results));
-            createMarkers(results);
+            follower = null;
         }
+    }
 
-        return messages.toArray(new IValgrindMessage[messages.size()]);
+    /**
+     * Waits for the {@link DebugEvent#TERMINATE} event of the given process.
+     */
+    private static void waitForTermination(IProcess process) throws InterruptedException {
+        CountDownLatch terminated = new CountDownLatch(1);
+        IDebugEventSetListener listener = events -> {
+            for (DebugEvent event : events) {
+                if (event.getKind() == DebugEvent.TERMINATE && event.getSource() == process) {
+                    terminated.countDown();
+                }
+            }
+        };
+        DebugPlugin.getDefault().addDebugEventListener(listener);
+        try {
+            // the process may have terminated before the listener was added
+            if (!process.isTerminated()) {
+                terminated.await();
+            }
+        } finally {
+            DebugPlugin.getDefault().removeDebugEventListener(listener);
+        }
     }
 
-    private void createMarkers(IValgrindMessage[] messages) throws CoreException {
-        // find the topmost stack frame within the workspace to annotate with marker
-        // traverse nested errors as well
-        Stack<IValgrindMessage> messageStack = new Stack<>();
-        messageStack.addAll(Arrays.asList(messages));
-        while (!messageStack.isEmpty()) {
-            IValgrindMessage message = messageStack.pop();
-            IMarker marker = null;
-            IValgrindMessage[] children = message.getChildren();
-            for (int i = 0; i < children.length; i++) {
-                // if we've found our marker we don't care about any further frames in this stack
-                if (children[i] instanceof ValgrindStackFrame && marker == null) {
-                    ValgrindStackFrame frame = (ValgrindStackFrame) children[i];
-                    if (frame.getLine() > 0) {
-                        ISourceLocator locator = frame.getSourceLocator();
-                        ISourceLookupResult result = DebugUITools.lookupSource(frame.getFile(), locator);
-                        Object sourceElement = result.getSourceElement();
-
-                        if (sourceElement != null) {
-                            // Resolve IResource in case we get a LocalFileStorage object
-                            if (sourceElement instanceof LocalFileStorage) {
-                                IPath filePath = ((LocalFileStorage) sourceElement).getFullPath();
-                                URI fileURI = URIUtil.toURI(filePath);
-                                IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
-                                IFile[] files = root.findFilesForLocationURI(fileURI);
-                                if (files.length > 0) {
-                                    // Take the first match
-                                    sourceElement = files[0];
-                                }
-                            }
-
-                            if (sourceElement instanceof IResource resource) {
-                                marker = resource.createMarker(ValgrindLaunchPlugin.MARKER_TYPE);
-                                marker.setAttribute(IMarker.MESSAGE, message.getText());
-                                marker.setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_ERROR);
-                                marker.setAttribute(IMarker.LINE_NUMBER, frame.getLine());
-                            }
-                        }
-                    }
+    /**
+     * Parses the Valgrind logs of the given directory, one per process, in
+     * parallel. Complete messages are appended to the Valgrind view while
+     * parsing, and markers are created in the background once all the logs are
+     * parsed (see {@link ValgrindMarkerJob}). Logs already parsed while
+     * Valgrind was running are not parsed again. When the tool
+     * wrote an XML output for a process (see {@link CommandLineConstants#XML_FILE}),
+     * its messages are read from that output instead of the log.
+     *
+     * @param outputPath the directory of the logs
+     * @return the messages of all the logs, in the order of the files
+     * @throws IOException if a log cannot be read
+     */
+    protected IValgrindMessage[] parseLogs(IPath outputPath) throws IOException {
+        List<IValgrindMessage> messages = new ArrayList<>();
+        File[] logs = outputPath.toFile().listFiles(LOG_FILTER);
+        if (logs == null || logs.length == 0) {
+            return new IValgrindMessage[0];
+        }
+        // shared by all the logs, it must outlive the launch
+        ISourceLocator locator = ValgrindCoreParser.copyLaunchSourceLocator(launch);
+        int nThreads = Math.min(logs.length, Runtime.getRuntime().availableProcessors());
+        ExecutorService executor = Executors.newFixedThreadPool(nThreads);
+        try {
+            List<Future<IValgrindMessage[]>> results = new ArrayList<>(logs.length);
+            for (File log : logs) {
+                File xml = getXmlFile(log);
+                Future<IValgrindMessage[]> followed = follower != null
+                        ? follower.getResult(xml.isFile() ? xml : log) : null;
+                if (followed != null) {
+                    results.add(followed);
+                    continue;
                 }
-                else if (children[i] instanceof ValgrindError) {
-                    // nested error
-                    messageStack.push(children[i]);
+                results.add(executor.submit(() -> {
+                    MessageBatch batch = new MessageBatch();
+                    IValgrindMessage[] logMessages;
+                    if (xml.isFile()) {
+                        logMessages = new ValgrindXmlParser(xml, launch, locator, batch).getMessages();
+                    } else {
+                        logMessages = new ValgrindCoreParser(log, launch, locator, batch).getMessages();
+                    }
+                    batch.flush();
+                    return logMessages;
+                }));
+            }
+            for (Future<IValgrindMessage[]> result : results) {
+                IValgrindMessage[] logMessages = getResult(result);
+                if (logMessages.length == 0){
+                    logMessages = new IValgrindMessage[1];
+                    logMessages[0] = new ValgrindInfo(null, Messages.getString("ValgrindOutputView.No_output"), launch); //$NON-NLS-1$
                 }
+                messages.addAll(Arrays.asList(logMessages));
             }
+        } finally {
+            executor.shutdownNow();
+        }
+        IValgrindMessage[] result = messages.toArray(new IValgrindMessage[messages.size()]);
+        new ValgrindMarkerJob(result).schedule();
+
+        return result;
+    }
+
+    private static File getXmlFile(File log) {
+        String name = log.getName();
+        int dot = name.lastIndexOf('.');
+        return new File(log.getParentFile(), (dot > 0 ? name.substring(0, dot) : name) + XML_EXTENSION);
+    }
+
+    private static IValgrindMessage[] getResult(Future<IValgrindMessage[]> result) throws IOException {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioe) {
+                throw ioe;
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * Appends parsed messages to the Valgrind view by batches, to limit the
+     * number of UI updates. The first message is sent at once.
+     */
+    private static class MessageBatch implements Consumer<IValgrindMessage> {
+        private static final int MAX_SIZE = 256;
+        private static final long MAX_DELAY = 200_000_000L; // ns
+
+        private final List<IValgrindMessage> messages = new ArrayList<>();
+        private long lastFlush = System.nanoTime() - MAX_DELAY;
+
+        @Override
+        public void accept(IValgrindMessage message) {
+            messages.add(message);
+            if (messages.size() >= MAX_SIZE || System.nanoTime() - lastFlush >= MAX_DELAY) {
+                flush();
+            }
+        }
+
+        public void flush() {
+            if (!messages.isEmpty()) {
+                ValgrindUIPlugin.getDefault().addMessages(messages.toArray(new IValgrindMessage[messages.size()]));
+                messages.clear();
+            }
+            lastFlush = System.nanoTime();
         }
     }
 
@@ -392,6 +503,13 @@ public class ValgrindLaunchConfigurationDelegate extends AbstractCLaunchDelegate
     @Override
     public boolean finalLaunchCheck(ILaunchConfiguration configuration,
             String mode, IProgressMonitor monitor) throws CoreException {
+        // Markers of the previous launch may still be in creation
+        Job.getJobManager().cancel(ValgrindMarkerJob.FAMILY);
+        try {
+            Job.getJobManager().join(ValgrindMarkerJob.FAMILY, monitor);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
         //Delete our own problem markers
         IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
         root.deleteMarkers(ValgrindLaunchPlugin.MARKER_TYPE, true, IResource.DEPTH_INFINITE);
@@ -0,0 +1,186 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Red Hat - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.linuxtools.internal.valgrind.launch;
+
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.filesystem.URIUtil;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceRuleFactory;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.MultiRule;
+import org.eclipse.debug.core.model.ISourceLocator;
+import org.eclipse.debug.core.sourcelookup.containers.LocalFileStorage;
+import org.eclipse.debug.ui.DebugUITools;
+import org.eclipse.debug.ui.sourcelookup.ISourceLookupResult;
+import org.eclipse.linuxtools.internal.valgrind.core.ValgrindError;
+import org.eclipse.linuxtools.internal.valgrind.core.ValgrindStackFrame;
+import org.eclipse.linuxtools.valgrind.core.IValgrindMessage;
+
+/**
+ * Creates the markers of Valgrind errors in the background. Each error is
+ * marked on the topmost stack frame found within the workspace. Source
+ * lookups are cached per file, and all the markers are created in a single
+ * workspace operation, so that they are notified in one resource delta.
+ */
+public class ValgrindMarkerJob extends Job {
+    /** Family of the marker jobs, see {@link Job#belongsTo(Object)} */
+    public static final Object FAMILY = ValgrindMarkerJob.class;
+    /** Maximum number of markers created on one file */
+    public static final int MAX_MARKERS_PER_FILE = 1000;
+
+    private final IValgrindMessage[] messages;
+
+    private record SourceKey(ISourceLocator locator, String file) {
+    }
+
+    /**
+     * @param messages the top-level messages to mark
+     */
+    public ValgrindMarkerJob(IValgrindMessage[] messages) {
+        super(Messages.getString("ValgrindMarkerJob.Creating_markers")); //$NON-NLS-1$
+        this.messages = messages;
+        setSystem(true);
+    }
+
+    @Override
+    public boolean belongsTo(Object family) {
+        return family == FAMILY;
+    }
+
+    @Override
+    protected IStatus run(IProgressMonitor monitor) {
+        SubMonitor progress = SubMonitor.convert(monitor, 2);
+        try {
+            Map<IResource, List<Map<String, Object>>> markers = resolveMarkers(progress.split(1));
+            createMarkers(markers, progress.split(1));
+        } catch (OperationCanceledException e) {
+            return Status.CANCEL_STATUS;
+        } catch (CoreException e) {
+            return e.getStatus();
+        }
+        return Status.OK_STATUS;
+    }
+
+    /**
+     * Finds the resource and the attributes of the marker of each error.
+     */
+    private Map<IResource, List<Map<String, Object>>> resolveMarkers(IProgressMonitor monitor) {
+        Map<IResource, List<Map<String, Object>>> markers = new LinkedHashMap<>();
+        Map<SourceKey, IResource> resources = new HashMap<>();
+        // traverse nested errors as well
+        Deque<IValgrindMessage> messageStack = new ArrayDeque<>(Arrays.asList(messages));
+        while (!messageStack.isEmpty()) {
+            if (monitor.isCanceled()) {
+                throw new OperationCanceledException();
+            }
+            IValgrindMessage message = messageStack.pop();
+            boolean marked = false;
+            for (IValgrindMessage child : message.getChildren()) {
+                // if we've found our marker we don't care about any further frames in this stack
+                if (child instanceof ValgrindStackFrame frame && !marked) {
+                    if (frame.getLine() > 0) {
+                        SourceKey key = new SourceKey(frame.getSourceLocator(), frame.getFile());
+                        IResource resource;
+                        if (resources.containsKey(key)) {
+                            resource = resources.get(key);
+                        } else {
+                            resource = lookupResource(key);
+                            resources.put(key, resource);
+                        }
+                        if (resource != null) {
+                            marked = true;
+                            List<Map<String, Object>> fileMarkers = markers.computeIfAbsent(resource,
+                                    r -> new ArrayList<>());
+                            if (fileMarkers.size() < MAX_MARKERS_PER_FILE) {
+                                Map<String, Object> attributes = new HashMap<>(4);
+                                attributes.put(IMarker.MESSAGE, message.getText());
+                                attributes.put(IMarker.SEVERITY, IMarker.SEVERITY_ERROR);
+                                attributes.put(IMarker.LINE_NUMBER, frame.getLine());
+                                fileMarkers.add(attributes);
+                            }
+                        }
+                    }
+                } else if (child instanceof ValgrindError) {
+                    // nested error
+                    messageStack.push(child);
+                }
+            }
+        }
+        return markers;
+    }
+
+    private static IResource lookupResource(SourceKey key) {
+        ISourceLookupResult result = DebugUITools.lookupSource(key.file(), key.locator());
+        Object sourceElement = result.getSourceElement();
+        // Resolve IResource in case we get a LocalFileStorage object
+        if (sourceElement instanceof LocalFileStorage storage) {
+            IPath filePath = storage.getFullPath();
+            URI fileURI = URIUtil.toURI(filePath);
+            IFile[] files = ResourcesPlugin.getWorkspace().getRoot().findFilesForLocationURI(fileURI);
+            if (files.length > 0) {
+                // Take the first match
+                sourceElement = files[0];
+            }
+        }
+        return sourceElement instanceof IResource resource ? resource : null;
+    }
+
+    private static void createMarkers(Map<IResource, List<Map<String, Object>>> markers, IProgressMonitor monitor)
+            throws CoreException {
+        if (markers.isEmpty()) {
+            return;
+        }
+        IWorkspace workspace = ResourcesPlugin.getWorkspace();
+        IResourceRuleFactory ruleFactory = workspace.getRuleFactory();
+        List<ISchedulingRule> rules = new ArrayList<>(markers.size());
+        for (IResource resource : markers.keySet()) {
+            rules.add(ruleFactory.markerRule(resource));
+        }
+        ISchedulingRule rule = MultiRule.combine(rules.toArray(new ISchedulingRule[rules.size()]));
+        IWorkspaceRunnable runnable = m -> {
+            SubMonitor progress = SubMonitor.convert(m, markers.size());
+            for (Map.Entry<IResource, List<Map<String, Object>>> entry : markers.entrySet()) {
+                IResource resource = entry.getKey();
+                if (resource.exists()) {
+                    for (Map<String, Object> attributes : entry.getValue()) {
+                        resource.createMarker(ValgrindLaunchPlugin.MARKER_TYPE, attributes);
+                    }
+                }
+                progress.split(1);
+            }
+        };
+        workspace.run(runnable, rule, IWorkspace.AVOID_UPDATE, monitor);
+    }
+}
@@ -263,14 +263,15 @@ public class ValgrindRemoteProxyLaunchDelegate extends ValgrindLaunchConfigurati
             getPlugin().setCurrentLaunchConfiguration(config);
             getPlugin().setCurrentLaunch(launch);
 
-            // parse Valgrind logs
-            IValgrindMessage[] messages = parseLogs(localOutputDir);
-
             // create launch summary string to distinguish this launch
             launchStr = createLaunchStr(valgrindFullPath);
 
-            // create view
+            // create view, so that messages show up while parsing
             ValgrindUIPlugin.getDefault().createView(launchStr, toolID);
+
+            // parse Valgrind logs
+            IValgrindMessage[] messages = parseLogs(localOutputDir);
+
             // set log messages
             ValgrindViewPart view = ValgrindUIPlugin.getDefault().getView();
             view.setMessages(messages);
@@ -19,6 +19,6 @@ import org.junit.runners.Suite;
 @Suite.SuiteClasses({ DoubleClickTest.class, ChartTests.class, TreeTest.class,
         BasicMassifTest.class, LaunchConfigTabTest.class,
         ExportWizardTest.class, MultiProcessTest.class,
-        ExpandCollapseTest.class, SortTest.class, ChartExportTest.class, ShortcutTest.class })
+        ExpandCollapseTest.class, HeapTreeLoadingTest.class, SortTest.class, ChartExportTest.class, ShortcutTest.class })
 public class AllTests {
 }
@@ -0,0 +1,188 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Red Hat - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.linuxtools.internal.valgrind.massif.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.runtime.FileLocator;
+import org.eclipse.linuxtools.internal.valgrind.massif.MassifHeapTreeNode;
+import org.eclipse.linuxtools.internal.valgrind.massif.MassifHeapTreeRoot;
+import org.eclipse.linuxtools.internal.valgrind.massif.MassifParser;
+import org.eclipse.linuxtools.internal.valgrind.massif.MassifSnapshot;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgi.framework.FrameworkUtil;
+
+/**
+ * Heap trees parsed on demand, from a copy of a Massif output with several
+ * detailed snapshots.
+ */
+public class HeapTreeLoadingTest {
+    private static final String OUTPUT = "valgrindFiles/testTreeNodes/template_massif_2820.txt"; //$NON-NLS-1$
+
+    private Path dir;
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("massif"); //$NON-NLS-1$
+        file = dir.resolve("massif_2820.txt"); //$NON-NLS-1$
+        try (InputStream in = FileLocator.openStream(FrameworkUtil.getBundle(getClass()),
+                new org.eclipse.core.runtime.Path(OUTPUT), false)) {
+            Files.copy(in, file);
+        }
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(dir);
+    }
+
+    private List<MassifHeapTreeRoot> getRoots() throws IOException {
+        List<MassifHeapTreeRoot> roots = new ArrayList<>();
+        for (MassifSnapshot snapshot : new MassifParser(file.toFile()).getSnapshots()) {
+            if (snapshot.getRoot() != null) {
+                roots.add((MassifHeapTreeRoot) snapshot.getRoot());
+            }
+        }
+        assertTrue(roots.size() > 1);
+        return roots;
+    }
+
+    /**
+     * @return the number of lines of each heap tree in the output
+     */
+    private List<Integer> getTreeLineCounts() throws IOException {
+        List<Integer> counts = new ArrayList<>();
+        boolean inTree = false;
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            boolean treeLine = line.startsWith("n") || line.startsWith(" "); //$NON-NLS-1$ //$NON-NLS-2$
+            if (treeLine && !inTree) {
+                counts.add(0);
+            }
+            if (treeLine) {
+                counts.set(counts.size() - 1, counts.get(counts.size() - 1) + 1);
+            }
+            inTree = treeLine;
+        }
+        return counts;
+    }
+
+    private static int countNodes(MassifHeapTreeNode node) {
+        int count = 1;
+        for (MassifHeapTreeNode child : node.getChildren()) {
+            assertSame(node, child.getParent());
+            count += countNodes(child);
+        }
+        return count;
+    }
+
+    @Test
+    public void testLazyLoad() throws IOException {
+        List<MassifHeapTreeRoot> roots = getRoots();
+        List<Integer> lineCounts = getTreeLineCounts();
+        assertEquals(lineCounts.size(), roots.size());
+        for (int i = 0; i < roots.size(); i++) {
+            MassifHeapTreeRoot root = roots.get(i);
+            assertFalse(root.isLoaded());
+            boolean hasChildren = root.hasChildren();
+            // the whole tree of the output, and nothing else
+            assertEquals(lineCounts.get(i).intValue(), countNodes(root));
+            assertTrue(root.isLoaded());
+            assertEquals(hasChildren, root.getChildren().length > 0);
+            // the other trees are still not loaded
+            if (i + 1 < roots.size()) {
+                assertFalse(roots.get(i + 1).isLoaded());
+            }
+        }
+    }
+
+    @Test
+    public void testLoadedTreeOutlivesOutput() throws IOException {
+        List<MassifHeapTreeRoot> roots = getRoots();
+        MassifHeapTreeRoot loaded = roots.get(roots.size() - 1);
+        MassifHeapTreeNode[] children = loaded.getChildren();
+        assertTrue(children.length > 0);
+
+        // a later launch deletes the output
+        Files.delete(file);
+        assertArrayEquals(children, loaded.getChildren());
+        for (int i = 0; i < children.length; i++) {
+            assertSame(children[i], loaded.getChildren()[i]);
+        }
+    }
+
+    @Test
+    public void testDeletedOutput() throws IOException {
+        List<MassifHeapTreeRoot> roots = getRoots();
+        MassifHeapTreeRoot root = roots.get(roots.size() - 1);
+        byte[] content = Files.readAllBytes(file);
+        long modified = file.toFile().lastModified();
+        Files.delete(file);
+
+        MassifHeapTreeNode[] children = root.getChildren();
+        assertEquals(1, children.length);
+        assertNull(children[0].getAddress());
+        assertFalse(children[0].hasChildren());
+        assertFalse(root.isLoaded());
+        assertTrue(root.hasChildren());
+
+        // loaded once the output can be read again
+        Files.write(file, content);
+        assertTrue(file.toFile().setLastModified(modified));
+        assertEquals(getTreeLineCounts().get(roots.size() - 1).intValue(), countNodes(root));
+        assertTrue(root.isLoaded());
+    }
+
+    @Test
+    public void testChangedOutput() throws IOException {
+        List<MassifHeapTreeRoot> roots = getRoots();
+        MassifHeapTreeRoot root = roots.get(0);
+        // a later launch writes an output with the same name
+        Files.write(file, "cmd: ./other\n".getBytes(StandardCharsets.UTF_8), //$NON-NLS-1$
+                StandardOpenOption.TRUNCATE_EXISTING);
+
+        MassifHeapTreeNode[] children = root.getChildren();
+        assertEquals(1, children.length);
+        assertTrue(children[0].getText().contains(file.getFileName().toString()));
+        assertFalse(root.isLoaded());
+    }
+
+    @Test
+    public void testAddChild() throws IOException {
+        MassifHeapTreeRoot root = getRoots().get(0);
+        MassifHeapTreeNode child = new MassifHeapTreeNode(root, 0, 0, "added"); //$NON-NLS-1$
+        root.addChild(child);
+        assertTrue(root.isLoaded());
+
+        MassifHeapTreeNode[] children = root.getChildren();
+        assertSame(child, children[children.length - 1]);
+        assertEquals(getTreeLineCounts().get(0).intValue() + 1, countNodes(root));
+    }
+}
@@ -18,7 +18,8 @@ import java.util.List;
 
 public class MassifHeapTreeNode {
     protected MassifHeapTreeNode parent;
-    protected String text;
+    protected String text; // formatted on first use
+    protected String label; // text of nodes without address
     protected double percent;
     protected long bytes;
     protected String address;
@@ -29,47 +30,66 @@ public class MassifHeapTreeNode {
 
     public MassifHeapTreeNode(MassifHeapTreeNode parent, double percent, long bytes, String address, String function, String filename, int line) {
         this.parent = parent;
-
-        StringBuilder nodeText = new StringBuilder();
-        formatBytes(percent, bytes, nodeText);
-        nodeText.append(address).append(":"); //$NON-NLS-1$
-        if (function.length() > 0) {
-            nodeText.append(" "); //$NON-NLS-1$
-            nodeText.append(function);
-        }
-        if (filename != null) {
-            nodeText.append(" (").append(filename); //$NON-NLS-1$
-            if (line > 0) {
-                nodeText.append(":").append(line);//$NON-NLS-1$
-            }
-            nodeText.append(")"); //$NON-NLS-1$
-        }
         this.percent = percent;
         this.bytes = bytes;
         this.address = address;
         this.function = function;
         this.filename = filename;
         this.line = line;
-        this.text = nodeText.toString();
         children = new ArrayList<>();
     }
 
     public MassifHeapTreeNode(MassifHeapTreeNode parent, double percent, long bytes, String text) {
         this.parent = parent;
-
-        StringBuilder nodeText = new StringBuilder();
-        formatBytes(percent, bytes, nodeText);
-        nodeText.append(text);
         this.percent = percent;
         this.bytes = bytes;
         this.address = null;
         this.function = null;
         this.filename = null;
         this.line = 0;
-        this.text = nodeText.toString();
+        this.label = text;
+        children = new ArrayList<>();
+    }
+
+    /**
+     * Copies the data of a node, but not its children.
+     * @param node the node to copy
+     */
+    protected MassifHeapTreeNode(MassifHeapTreeNode node) {
+        this.parent = node.parent;
+        this.percent = node.percent;
+        this.bytes = node.bytes;
+        this.address = node.address;
+        this.function = node.function;
+        this.filename = node.filename;
+        this.line = node.line;
+        this.label = node.label;
+        this.text = node.text;
         children = new ArrayList<>();
     }
 
+    private String formatText() {
+        StringBuilder nodeText = new StringBuilder();
+        formatBytes(percent, bytes, nodeText);
+        if (address == null) {
+            nodeText.append(label);
+            return nodeText.toString();
+        }
+        nodeText.append(address).append(":"); //$NON-NLS-1$
+        if (function.length() > 0) {
+            nodeText.append(" "); //$NON-NLS-1$
+            nodeText.append(function);
+        }
+        if (filename != null) {
+            nodeText.append(" (").append(filename); //$NON-NLS-1$
+            if (line > 0) {
+                nodeText.append(":").append(line);//$NON-NLS-1$
+            }
+            nodeText.append(")"); //$NON-NLS-1$
+        }
+        return nodeText.toString();
+    }
+
     private void formatBytes(double percent, long bytes, StringBuilder buffer) {
         buffer.append(new DecimalFormat("0.##").format(percent) + "%"); //$NON-NLS-1$ //$NON-NLS-2$
         buffer.append(" ("); //$NON-NLS-1$
@@ -89,7 +109,17 @@ public class MassifHeapTreeNode {
         return children.toArray(new MassifHeapTreeNode[children.size()]);
     }
 
+    /**
+     * @return whether this node has children, without loading them
+     */
+    public boolean hasChildren() {
+        return !children.isEmpty();
+    }
+
     public String getText() {
+        if (text == null) {
+            text = formatText();
+        }
         return text;
     }
 
@@ -123,7 +153,7 @@ public class MassifHeapTreeNode {
 
     @Override
     public String toString() {
-        return text;
+        return getText();
     }
 
     public boolean hasSourceFile() {
@@ -133,11 +163,11 @@ public class MassifHeapTreeNode {
     @Override
     public boolean equals(Object obj) {
         return obj instanceof MassifHeapTreeNode
-        && text.equals(((MassifHeapTreeNode) obj).getText());
+        && getText().equals(((MassifHeapTreeNode) obj).getText());
     }
 
     @Override
     public int hashCode() {
-        return text.hashCode();
+        return getText().hashCode();
     }
 }
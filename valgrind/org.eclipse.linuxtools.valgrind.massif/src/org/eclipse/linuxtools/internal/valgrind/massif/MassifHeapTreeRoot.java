@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Red Hat - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.linuxtools.internal.valgrind.massif;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.eclipse.osgi.util.NLS;
+
+/**
+ * Root of the heap tree of a detailed snapshot. Its descendants are parsed
+ * from the Massif output when they are first requested, and are then kept for
+ * as long as the root, since the output may be deleted by a later launch.
+ * If the output cannot be read any more, the children are a single node
+ * telling why.
+ */
+public class MassifHeapTreeRoot extends MassifHeapTreeNode {
+    private final MassifSnapshot snapshot;
+    private final File file;
+    private final long fileModified;
+    private final long fileLength;
+    private final long offset;
+    private final int childCount;
+    private boolean loaded;
+
+    /**
+     * @param node the data of the root
+     * @param snapshot the snapshot of the tree
+     * @param file the Massif output
+     * @param fileModified the modification time of the output when it was parsed
+     * @param fileLength the length of the output when it was parsed
+     * @param offset the offset of the children in the output
+     * @param childCount the number of children
+     */
+    MassifHeapTreeRoot(MassifHeapTreeNode node, MassifSnapshot snapshot, File file, long fileModified,
+            long fileLength, long offset, int childCount) {
+        super(node);
+        this.snapshot = snapshot;
+        this.file = file;
+        this.fileModified = fileModified;
+        this.fileLength = fileLength;
+        this.offset = offset;
+        this.childCount = childCount;
+    }
+
+    /**
+     * Parses the children, unless they are already loaded.
+     * @throws IOException if the output was changed or cannot be parsed
+     */
+    private void load() throws IOException {
+        if (loaded) {
+            return;
+        }
+        // the offset of the tree is only valid in the output it was read from
+        if (file.lastModified() != fileModified || file.length() != fileLength) {
+            throw new IOException(NLS.bind(Messages.getString("MassifHeapTreeRoot.Output_changed"), //$NON-NLS-1$
+                    file.getAbsolutePath()));
+        }
+        children.addAll(MassifParser.parseChildren(snapshot, this, file, offset, childCount));
+        loaded = true;
+    }
+
+    /**
+     * @return whether the children have been parsed
+     */
+    public synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Adds a child after the ones of the output, which are loaded first.
+     * @throws IllegalStateException if the output cannot be read
+     */
+    @Override
+    public synchronized void addChild(MassifHeapTreeNode child) {
+        try {
+            load();
+        } catch (IOException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+        super.addChild(child);
+    }
+
+    @Override
+    public synchronized MassifHeapTreeNode[] getChildren() {
+        try {
+            load();
+        } catch (IOException e) {
+            // not kept, so that the children are loaded if the output can be read again
+            MassifHeapTreeNode error = new MassifHeapTreeNode(this, 0, 0, e.getMessage());
+            error.setText(NLS.bind(Messages.getString("MassifHeapTreeRoot.Heap_tree_unavailable"), //$NON-NLS-1$
+                    e.getMessage()));
+            return new MassifHeapTreeNode[] { error };
+        }
+        return super.getChildren();
+    }
+
+    @Override
+    public synchronized boolean hasChildren() {
+        return childCount > 0 || !children.isEmpty();
+    }
+}
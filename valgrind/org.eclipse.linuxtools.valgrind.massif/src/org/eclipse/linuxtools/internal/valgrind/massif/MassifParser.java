@@ -14,15 +14,24 @@ package org.eclipse.linuxtools.internal.valgrind.massif;
 
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import org.eclipse.linuxtools.internal.valgrind.massif.MassifSnapshot.SnapshotType;
 import org.eclipse.linuxtools.internal.valgrind.massif.MassifSnapshot.TimeUnit;
 import org.eclipse.linuxtools.valgrind.core.ValgrindParserUtils;
 import org.eclipse.osgi.util.NLS;
 
+/**
+ * Parser of Massif outputs. The summary of each snapshot is read at once,
+ * along with the root of its heap tree, while the rest of the tree is only
+ * parsed when it is first shown, see {@link MassifHeapTreeRoot}.
+ */
 public class MassifParser {
     private static final String COLON = ":"; //$NON-NLS-1$
     private static final String SPACE = " "; //$NON-NLS-1$
@@ -44,12 +53,21 @@ public class MassifParser {
     private static final String DETAILED = "detailed"; //$NON-NLS-1$
     private static final String EMPTY = "empty"; //$NON-NLS-1$
 
+    private static final int BUFFER_SIZE = 1 << 16;
+
     private Integer pid;
     private MassifSnapshot[] snapshots;
 
+    private record NodeLine(MassifHeapTreeNode node, int numChildren) {
+    }
+
     public MassifParser(File inputFile) throws IOException {
         ArrayList<MassifSnapshot> list = new ArrayList<>();
-        try (BufferedReader br = new BufferedReader(new FileReader(inputFile))){
+        // to tell whether the heap trees can still be parsed from the output
+        long fileModified = inputFile.lastModified();
+        long fileLength = inputFile.length();
+        try (InputStream in = new FileInputStream(inputFile)) {
+            LineReader reader = new LineReader(in);
             String line;
             MassifSnapshot snapshot = null;
             String cmd = null;
@@ -61,7 +79,12 @@ public class MassifParser {
             pid = ValgrindParserUtils.parsePID(filename, MassifLaunchDelegate.OUT_PREFIX);
 
             // parse contents of file
-            while ((line = br.readLine()) != null) {
+            while (reader.next()) {
+                if (reader.isTreeLine()) {
+                    // heap trees are parsed on demand
+                    continue;
+                }
+                line = reader.toString();
                 if (line.startsWith(CMD + COLON)){
                     cmd = ValgrindParserUtils.parseStrValue(line, COLON + SPACE);
                 } else if (line.startsWith(TIME_UNIT + COLON)) {
@@ -89,9 +112,17 @@ public class MassifParser {
                     switch (type) {
                     case DETAILED:
                     case PEAK:
-                        MassifHeapTreeNode node = parseTree(snapshot, null, br);
+                        if (!reader.next()) {
+                            throw new IOException(Messages.getString("MassifParser.Unexpected_EOF")); //$NON-NLS-1$
+                        }
+                        NodeLine root = parseNode(snapshot, null, reader.toString());
+                        MassifHeapTreeNode node = new MassifHeapTreeRoot(root.node(), snapshot, inputFile,
+                                fileModified, fileLength, reader.getPosition(), root.numChildren());
                         node.setText(NLS.bind(Messages.getString("MassifParser.Snapshot_n"), n, node.getText())); // prepend snapshot number //$NON-NLS-1$
                         snapshot.setRoot(node);
+                        break;
+                    default:
+                        break;
                     }
                 }
             }
@@ -103,11 +134,44 @@ public class MassifParser {
         }
     }
 
-    private MassifHeapTreeNode parseTree(MassifSnapshot snapshot, MassifHeapTreeNode parent, BufferedReader br) throws IOException {
+    /**
+     * Parses the children of the root of a heap tree.
+     *
+     * @param snapshot the snapshot of the tree
+     * @param parent the root
+     * @param file the Massif output
+     * @param offset the offset of the children in the output
+     * @param count the number of children
+     * @return the children, with their descendants
+     * @throws IOException if the output cannot be read or parsed
+     */
+    static List<MassifHeapTreeNode> parseChildren(MassifSnapshot snapshot, MassifHeapTreeNode parent, File file,
+            long offset, int count) throws IOException {
+        try (FileInputStream in = new FileInputStream(file)) {
+            in.getChannel().position(offset);
+            BufferedReader br = new BufferedReader(new InputStreamReader(in));
+            List<MassifHeapTreeNode> children = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                children.add(parseTree(snapshot, parent, br));
+            }
+            return children;
+        }
+    }
+
+    private static MassifHeapTreeNode parseTree(MassifSnapshot snapshot, MassifHeapTreeNode parent, BufferedReader br) throws IOException {
         String line = br.readLine();
         if (line == null) {
             throw new IOException(Messages.getString("MassifParser.Unexpected_EOF")); //$NON-NLS-1$
         }
+        NodeLine nodeLine = parseNode(snapshot, parent, line);
+        MassifHeapTreeNode node = nodeLine.node();
+        for (int i = 0; i < nodeLine.numChildren(); i++) {
+            node.addChild(parseTree(snapshot, node, br));
+        }
+        return node;
+    }
+
+    private static NodeLine parseNode(MassifSnapshot snapshot, MassifHeapTreeNode parent, String line) throws IOException {
         line = line.trim(); // remove leading whitespace
         String[] parts = line.split(" "); //$NON-NLS-1$
         // bounds checking so we can fail with a more informative error
@@ -163,15 +227,10 @@ public class MassifParser {
 
             node = new MassifHeapTreeNode(parent, percentage, numBytes, text.toString().trim());
         }
-
-
-        for (int i = 0; i < numChildren.intValue(); i++) {
-            node.addChild(parseTree(snapshot, node, br));
-        }
-        return node;
+        return new NodeLine(node, numChildren.intValue());
     }
 
-    private String parseFunction(String start, String line) throws IOException {
+    private static String parseFunction(String start, String line) throws IOException {
         String function = null;
         int ix = line.lastIndexOf('(');
         if (ix >= 0) {
@@ -190,7 +249,7 @@ public class MassifParser {
         return function;
     }
 
-    private Long parseNumBytes(String string) {
+    private static Long parseNumBytes(String string) {
         Long result = null;
         if (ValgrindParserUtils.isNumber(string)) {
             result = Long.parseLong(string);
@@ -201,7 +260,7 @@ public class MassifParser {
     /*
      * format is "n[0-9]+:"
      */
-    private Integer parseNumChildren(String string) {
+    private static Integer parseNumChildren(String string) {
         Integer result = null;
         if (string.length() >= 3) {
             String number = string.substring(1, string.length() - 1);
@@ -261,4 +320,80 @@ public class MassifParser {
         }
         return result;
     }
+
+    /**
+     * Reads the lines of a file as bytes into a reused buffer, keeping track
+     * of their offsets.
+     */
+    private static final class LineReader {
+        private final InputStream in;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private long bufferOffset;
+        private int pos;
+        private int limit;
+        private byte[] line = new byte[256];
+        private int length;
+
+        LineReader(InputStream in) {
+            this.in = in;
+        }
+
+        /**
+         * Reads the next line, without its line terminator.
+         * @return false at the end of the file
+         */
+        boolean next() throws IOException {
+            length = 0;
+            while (true) {
+                if (pos == limit) {
+                    int n = in.read(buffer);
+                    bufferOffset += limit;
+                    pos = 0;
+                    limit = Math.max(n, 0);
+                    if (n < 0) {
+                        return length > 0;
+                    }
+                }
+                int start = pos;
+                while (pos < limit && buffer[pos] != '\n') {
+                    pos++;
+                }
+                append(start, pos - start);
+                if (pos < limit) {
+                    pos++;
+                    if (length > 0 && line[length - 1] == '\r') {
+                        length--;
+                    }
+                    return true;
+                }
+            }
+        }
+
+        private void append(int start, int count) {
+            if (length + count > line.length) {
+                line = Arrays.copyOf(line, Math.max(line.length * 2, length + count));
+            }
+            System.arraycopy(buffer, start, line, length, count);
+            length += count;
+        }
+
+        /**
+         * @return the offset following the current line
+         */
+        long getPosition() {
+            return bufferOffset + pos;
+        }
+
+        /**
+         * @return whether the current line is a node of a heap tree
+         */
+        boolean isTreeLine() {
+            return length > 0 && (line[0] == ' ' || line[0] == 'n');
+        }
+
+        @Override
+        public String toString() {
+            return new String(line, 0, length);
+        }
+    }
 }
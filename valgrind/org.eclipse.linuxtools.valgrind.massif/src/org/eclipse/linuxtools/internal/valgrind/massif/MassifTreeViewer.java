@@ -51,8 +51,8 @@ public class MassifTreeViewer {
 
             @Override
             public boolean hasChildren(Object element) {
-                MassifHeapTreeNode[] children = ((MassifHeapTreeNode) element).getChildren();
-                return children != null && children.length > 0;
+                // do not load the tree of a snapshot until it is expanded
+                return ((MassifHeapTreeNode) element).hasChildren();
             }
 
             @Override
@@ -20,7 +20,7 @@ import org.junit.runners.Suite;
 @Suite.SuiteClasses({ BasicMemcheckTest.class, DoubleClickTest.class,
         LaunchConfigTabTest.class, MarkerTest.class,
         LinkedResourceDoubleClickTest.class, LinkedResourceMarkerTest.class,
-        MultiProcessTest.class, ExpandCollapseTest.class, ShortcutTest.class,
+        MultiProcessTest.class, LogFollowerTest.class, ExpandCollapseTest.class, ShortcutTest.class,
         SignalTest.class, MinVersionTest.class })
 public class AllTests {
 }
@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Red Hat - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.linuxtools.internal.valgrind.memcheck.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.eclipse.linuxtools.internal.valgrind.launch.LogFollower;
+import org.eclipse.linuxtools.valgrind.core.IValgrindMessage;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Logs parsed while they are written, as Valgrind does while the launch runs.
+ */
+public class LogFollowerTest {
+    private static final long TIMEOUT = 10; // s
+
+    private Path dir;
+    private LogFollower follower;
+    /** the lines read by the parser, as they are read */
+    private final BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("valgrind"); //$NON-NLS-1$
+        follower = new LogFollower(dir.toFile(), f -> f.getName().endsWith(".log"), (log, in) -> { //$NON-NLS-1$
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+            return new IValgrindMessage[0];
+        });
+        follower.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        follower.close();
+        File[] files = dir.toFile().listFiles();
+        if (files != null) {
+            for (File f : files) {
+                Files.delete(f.toPath());
+            }
+        }
+        Files.delete(dir);
+    }
+
+    private static void append(Path log, String s) throws IOException {
+        Files.write(log, s.getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * @return the parsing of the log, once its creation is seen
+     */
+    private Future<IValgrindMessage[]> waitForResult(Path log) throws InterruptedException {
+        long end = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(TIMEOUT);
+        Future<IValgrindMessage[]> result;
+        while ((result = follower.getResult(log.toFile())) == null && System.currentTimeMillis() < end) {
+            Thread.sleep(10);
+        }
+        assertNotNull(result);
+        return result;
+    }
+
+    @Test
+    public void testGrowingLog() throws Exception {
+        Path other = dir.resolve("valgrind.txt"); //$NON-NLS-1$
+        append(other, "not a log\n"); //$NON-NLS-1$
+        Path log = dir.resolve("valgrind_1.log"); //$NON-NLS-1$
+        append(log, "first\n"); //$NON-NLS-1$
+        Future<IValgrindMessage[]> result = waitForResult(log);
+        // not a log
+        assertNull(follower.getResult(other.toFile()));
+
+        assertEquals("first", lines.poll(TIMEOUT, TimeUnit.SECONDS)); //$NON-NLS-1$
+        // the parser waits for more output at the end of the log
+        append(log, "second\n"); //$NON-NLS-1$
+        assertEquals("second", lines.poll(TIMEOUT, TimeUnit.SECONDS)); //$NON-NLS-1$
+        assertFalse(result.isDone());
+
+        // output written before the end of the process is still read
+        append(log, "last\n"); //$NON-NLS-1$
+        follower.finish();
+        assertEquals(0, result.get(TIMEOUT, TimeUnit.SECONDS).length);
+        assertEquals("last", lines.poll(TIMEOUT, TimeUnit.SECONDS)); //$NON-NLS-1$
+        assertTrue(lines.isEmpty());
+    }
+
+    @Test
+    public void testFinishUnblocksReader() throws Exception {
+        Path log = dir.resolve("valgrind_2.log"); //$NON-NLS-1$
+        append(log, "partial"); //$NON-NLS-1$
+        Future<IValgrindMessage[]> result = waitForResult(log);
+        try {
+            result.get(100, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // waiting for the end of the line
+        }
+        assertFalse(result.isDone());
+
+        follower.finish();
+        result.get(TIMEOUT, TimeUnit.SECONDS);
+        assertEquals("partial", lines.poll()); //$NON-NLS-1$
+    }
+
+    @Test
+    public void testCloseUnblocksReader() throws Exception {
+        Path log = dir.resolve("valgrind_3.log"); //$NON-NLS-1$
+        append(log, "first\n"); //$NON-NLS-1$
+        Future<IValgrindMessage[]> result = waitForResult(log);
+        assertEquals("first", lines.poll(TIMEOUT, TimeUnit.SECONDS)); //$NON-NLS-1$
+
+        // e.g. the launch is aborted
+        follower.close();
+        try {
+            result.get(TIMEOUT, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            // interrupted while waiting for more output
+        }
+        assertTrue(result.isDone());
+    }
+
+    @Test
+    public void testWatchEndsWithLaunch() throws Exception {
+        assertTrue(follower.isWatching());
+        Path log = dir.resolve("valgrind_4.log"); //$NON-NLS-1$
+        append(log, "first\n"); //$NON-NLS-1$
+        Future<IValgrindMessage[]> result = waitForResult(log);
+
+        // as the launch does once the process has terminated
+        follower.finish();
+        result.get(TIMEOUT, TimeUnit.SECONDS);
+        follower.close();
+        assertFalse(follower.isWatching());
+
+        // the logs created afterwards are not followed
+        Path late = dir.resolve("valgrind_5.log"); //$NON-NLS-1$
+        append(late, "late\n"); //$NON-NLS-1$
+        Thread.sleep(100);
+        assertNull(follower.getResult(late.toFile()));
+    }
+}
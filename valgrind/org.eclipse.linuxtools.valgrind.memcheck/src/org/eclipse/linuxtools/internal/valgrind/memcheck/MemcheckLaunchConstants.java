@@ -38,6 +38,9 @@ public final class MemcheckLaunchConstants {
     // VG >= 3.6.0
     public static final String ATTR_MEMCHECK_POSSIBLY_LOST_BOOL = MemcheckPlugin.PLUGIN_ID + ".MEMCHECK_POSSIBLY_LOST"; //$NON-NLS-1$
 
+    // VG >= 3.5.0, errors are read from the XML output instead of the log
+    public static final String ATTR_MEMCHECK_XML = MemcheckPlugin.PLUGIN_ID + ".MEMCHECK_XML"; //$NON-NLS-1$
+
     public static final String LEAK_RES_LOW = "low"; //$NON-NLS-1$
     public static final String LEAK_RES_MED = "med"; //$NON-NLS-1$
     public static final String LEAK_RES_HIGH = "high"; //$NON-NLS-1$
@@ -62,4 +65,7 @@ public final class MemcheckLaunchConstants {
 
     // VG >= 3.6.0
     public static final boolean DEFAULT_MEMCHECK_POSSIBLY_LOST_BOOL = true;
+
+    // VG >= 3.5.0
+    public static final boolean DEFAULT_MEMCHECK_XML = false;
 }
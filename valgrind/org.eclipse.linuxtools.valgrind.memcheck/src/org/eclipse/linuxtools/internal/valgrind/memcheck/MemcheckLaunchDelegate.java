@@ -20,12 +20,14 @@ import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.debug.core.ILaunch;
 import org.eclipse.debug.core.ILaunchConfiguration;
+import org.eclipse.linuxtools.valgrind.core.CommandLineConstants;
 import org.eclipse.linuxtools.valgrind.launch.IValgrindLaunchDelegate;
 import org.eclipse.linuxtools.valgrind.ui.IValgrindToolView;
 import org.osgi.framework.Version;
 
 public class MemcheckLaunchDelegate implements IValgrindLaunchDelegate {
     private static final Version VER_3_4_0 = new Version(3, 4, 0);
+    private static final Version VER_3_5_0 = new Version(3, 5, 0);
     private static final Version VER_3_6_0 = new Version(3, 6, 0);
     private static final String EQUALS = "="; //$NON-NLS-1$
     private static final String NO = "no"; //$NON-NLS-1$
@@ -57,6 +59,14 @@ public class MemcheckLaunchDelegate implements IValgrindLaunchDelegate {
                 opts.add(MemcheckCommandConstants.OPT_TRACKORIGINS + EQUALS + (config.getAttribute(MemcheckLaunchConstants.ATTR_MEMCHECK_TRACKORIGINS, MemcheckLaunchConstants.DEFAULT_MEMCHECK_TRACKORIGINS) ? YES : NO));
         }
 
+        // VG >= 3.5.0
+        if (ver == null || ver.compareTo(VER_3_5_0) >= 0) {
+            if (config.getAttribute(MemcheckLaunchConstants.ATTR_MEMCHECK_XML, MemcheckLaunchConstants.DEFAULT_MEMCHECK_XML)) {
+                opts.add(CommandLineConstants.OPT_XML + EQUALS + YES);
+                opts.add(CommandLineConstants.OPT_XMLFILE + EQUALS + logDir.append(CommandLineConstants.XML_FILE).toPortableString());
+            }
+        }
+
         // VG >= 3.6.0
         if (ver == null || ver.compareTo(VER_3_6_0) >= 0) {
             if (config.getAttribute(MemcheckLaunchConstants.ATTR_MEMCHECK_POSSIBLY_LOST_BOOL, MemcheckLaunchConstants.DEFAULT_MEMCHECK_POSSIBLY_LOST_BOOL) != MemcheckLaunchConstants.DEFAULT_MEMCHECK_POSSIBLY_LOST_BOOL)
@@ -12,6 +12,8 @@
  *******************************************************************************/
 package org.eclipse.linuxtools.internal.valgrind.ui;
 
+import java.util.List;
+
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.debug.core.model.ISourceLocator;
 import org.eclipse.debug.ui.DebugUITools;
@@ -91,6 +93,10 @@ public class CoreMessagesViewer {
                 if (parentElement instanceof Object[]) {
                     return (Object[]) parentElement;
                 }
+                // messages still being parsed, see ValgrindViewPart.addMessages()
+                if (parentElement instanceof List<?> list) {
+                    return list.toArray();
+                }
                 return ((IValgrindMessage) parentElement).getChildren();
             }
 
@@ -21,6 +21,7 @@ import org.eclipse.core.runtime.IExtensionPoint;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.linuxtools.valgrind.core.IValgrindMessage;
 import org.eclipse.linuxtools.valgrind.ui.IValgrindToolView;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.ui.IWorkbenchPage;
@@ -125,6 +126,21 @@ public class ValgrindUIPlugin extends AbstractUIPlugin {
         }
     }
 
+    /**
+     * Appends messages to the Valgrind view, without waiting for the UI thread.
+     * @param messages the messages to append
+     * @see ValgrindViewPart#addMessages(IValgrindMessage[])
+     */
+    public void addMessages(IValgrindMessage[] messages) {
+        if (view != null) {
+            Display.getDefault().asyncExec(() -> {
+                if (view != null) {
+                    view.addMessages(messages);
+                }
+            });
+        }
+    }
+
     /**
      * Empties the contents of the view and restores its original state.
      */
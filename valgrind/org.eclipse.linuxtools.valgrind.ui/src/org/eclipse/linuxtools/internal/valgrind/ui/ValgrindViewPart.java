@@ -12,6 +12,10 @@
  *******************************************************************************/
 package org.eclipse.linuxtools.internal.valgrind.ui;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.jface.action.Action;
@@ -41,7 +45,9 @@ public class ValgrindViewPart extends ViewPart {
     private Composite dynamicViewHolder;
     private IValgrindToolView dynamicView;
     private ActionContributionItem[] dynamicActions;
-    private IValgrindMessage[] messages;
+    // set by the launch, while the other fields are only used in the UI thread
+    private volatile IValgrindMessage[] messages;
+    private List<IValgrindMessage> addedMessages;
     private CoreMessagesViewer messagesViewer;
     private Action showCoreAction;
     private Action showToolAction;
@@ -108,9 +114,10 @@ public class ValgrindViewPart extends ViewPart {
         }
 
         // remove old messages
-        if (messages != null){
+        if (messages != null || addedMessages != null){
             messagesViewer.getTreeViewer().setInput(null);
             messages = null;
+            addedMessages = null;
         }
 
         for (Control child : dynamicViewHolder.getChildren()) {
@@ -156,7 +163,8 @@ public class ValgrindViewPart extends ViewPart {
     }
 
     /**
-     * Set the messages that will appear in the view.
+     * Set the messages that will appear in the view. They replace the
+     * messages appended while the logs were parsed on the next refresh.
      *
      * @param messages  the array of messages
      */
@@ -164,6 +172,29 @@ public class ValgrindViewPart extends ViewPart {
         this.messages = messages;
     }
 
+    /**
+     * Appends messages to the view while the logs are still being parsed, so
+     * that the first errors show up early. The messages set by
+     * {@link #setMessages(IValgrindMessage[])} replace them on the next refresh.
+     * Must be called from the UI thread.
+     *
+     * @param newMessages  the messages to append
+     */
+    public void addMessages(IValgrindMessage[] newMessages) {
+        // once all the messages are set, they are shown by the next refresh
+        if (messages != null || messagesViewer.getTreeViewer().getControl().isDisposed()) {
+            return;
+        }
+        if (addedMessages == null) {
+            addedMessages = new ArrayList<>();
+            messagesViewer.getTreeViewer().setInput(addedMessages);
+            showCoreAction.setEnabled(true);
+            showCorePage();
+        }
+        addedMessages.addAll(Arrays.asList(newMessages));
+        messagesViewer.getTreeViewer().add(addedMessages, (Object[]) newMessages);
+    }
+
     /**
      * Returns the messages displayed in the view.
      *
@@ -184,6 +215,12 @@ public class ValgrindViewPart extends ViewPart {
      * Refresh the view.
      */
     public void refreshView() {
+        IValgrindMessage[] messages = this.messages;
+        if (messages != null && addedMessages != null) {
+            // replace the messages appended while the logs were parsed
+            addedMessages = null;
+            messagesViewer.getTreeViewer().setInput(messages);
+        }
         if (messages != null && messages.length > 0) {
             messagesViewer.getTreeViewer().setInput(messages);
 